@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.api.internal.file.archive.ZipEntry;
+import org.gradle.internal.serialize.HashCodeSerializer;
+import org.gradle.testfixtures.internal.InMemoryIndexedCache;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Computes the ABI hashes of the classes of a compile classpath, with and without the per-class cache being populated.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class AbiExtractingClasspathResourceHasherBenchmark {
+
+    @Param({"50000"})
+    int classCount;
+
+    private byte[][] classes;
+    private AbiExtractingClasspathResourceHasher populatedHasher;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        classes = new byte[classCount][];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = generateClass("org/gradle/generated/package" + (i % 100) + "/Class" + i);
+        }
+        populatedHasher = newHasher();
+        hashClasses(populatedHasher, null);
+    }
+
+    @Benchmark
+    public void extractAbi(Blackhole blackhole) throws IOException {
+        hashClasses(newHasher(), blackhole);
+    }
+
+    @Benchmark
+    public void reuseCachedAbi(Blackhole blackhole) throws IOException {
+        hashClasses(populatedHasher, blackhole);
+    }
+
+    private void hashClasses(AbiExtractingClasspathResourceHasher hasher, Blackhole blackhole) throws IOException {
+        for (int i = 0; i < classes.length; i++) {
+            Object hash = hasher.hash(new ZipEntryContext(new ClassEntry("Class" + i + ".class", classes[i]), "Class" + i + ".class", "classpath.jar"));
+            if (blackhole != null) {
+                blackhole.consume(hash);
+            }
+        }
+    }
+
+    private static AbiExtractingClasspathResourceHasher newHasher() {
+        return new AbiExtractingClasspathResourceHasher(new DefaultResourceSnapshotterCacheService(new InMemoryIndexedCache<>(new HashCodeSerializer())));
+    }
+
+    private static byte[] generateClass(String internalName) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "getValue", "()Ljava/lang/String;", null, null);
+        method.visitCode();
+        method.visitLdcInsn(internalName);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static class ClassEntry implements ZipEntry {
+        private final String name;
+        private final byte[] content;
+
+        ClassEntry(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public byte[] getContent() {
+            return content;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public int size() {
+            return content.length;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Measures hashing the entries of every jar on a classpath.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ZipHasherBenchmark {
+
+    @Param({"300"})
+    int jarCount;
+
+    @Param({"200"})
+    int entriesPerJar;
+
+    private final ZipHasher zipHasher = new ZipHasher(new RuntimeClasspathResourceHasher(), ResourceFilter.FILTER_NOTHING);
+    private File classpathDir;
+    private List<RegularFileSnapshot> classpath;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        classpathDir = Files.createTempDirectory("classpath").toFile();
+        classpath = new ArrayList<>(jarCount);
+        Random random = new Random(1234L);
+        byte[] content = new byte[4096];
+        for (int jar = 0; jar < jarCount; jar++) {
+            File jarFile = new File(classpathDir, "library" + jar + ".jar");
+            try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jarFile))) {
+                for (int entry = 0; entry < entriesPerJar; entry++) {
+                    output.putNextEntry(new ZipEntry("org/library" + jar + "/Class" + entry + ".class"));
+                    random.nextBytes(content);
+                    output.write(content);
+                    output.closeEntry();
+                }
+            }
+            classpath.add(new RegularFileSnapshot(jarFile.getAbsolutePath(), jarFile.getName(), HashCode.fromInt(jar), DefaultFileMetadata.file(jarFile.lastModified(), jarFile.length(), AccessType.DIRECT)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (RegularFileSnapshot jar : classpath) {
+            new File(jar.getAbsolutePath()).delete();
+        }
+        classpathDir.delete();
+    }
+
+    @Benchmark
+    public void hashEntries(Blackhole blackhole) {
+        for (RegularFileSnapshot jar : classpath) {
+            blackhole.consume(zipHasher.hash(jar));
+        }
+    }
+}
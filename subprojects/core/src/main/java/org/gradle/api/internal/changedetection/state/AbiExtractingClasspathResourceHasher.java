@@ -35,6 +35,21 @@
 public class AbiExtractingClasspathResourceHasher implements ResourceHasher {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbiExtractingClasspathResourceHasher.class);
 
+    private final ResourceSnapshotterCacheService classHashCache;
+    private final HashCode configurationHash;
+
+    /**
+     * @param classHashCache caches the ABI hash of each class in a jar by the hash of its content,
+     * so that only the changed classes of a changed jar need to be inspected again.
+     * This should be a separate cache from the one holding the hashes of whole files, as there are many more classes than jars.
+     */
+    public AbiExtractingClasspathResourceHasher(ResourceSnapshotterCacheService classHashCache) {
+        this.classHashCache = classHashCache;
+        Hasher hasher = Hashing.newHasher();
+        appendConfigurationToHasher(hasher);
+        this.configurationHash = hasher.hash();
+    }
+
     @Nullable
     private HashCode hashClassBytes(byte[] classBytes) {
         // Use the ABI as the hash
@@ -69,7 +84,7 @@ public HashCode hash(ZipEntryContext zipEntryContext) throws IOException {
             return null;
         }
         byte[] content = zipEntry.getContent();
-        return hashClassBytes(content);
+        return classHashCache.hashContent(Hashing.hashBytes(content), () -> hashClassBytes(content), configurationHash);
     }
 
     private boolean isClassFile(String name) {
@@ -22,6 +22,8 @@
 import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.snapshot.RegularFileSnapshot;
 
+import java.util.function.Supplier;
+
 public class DefaultResourceSnapshotterCacheService implements ResourceSnapshotterCacheService {
     private static final HashCode NO_HASH = Hashing.signature(CachingResourceHasher.class.getName() + " : no hash");
     private final PersistentIndexedCache<HashCode, HashCode> persistentCache;
@@ -52,6 +54,21 @@ public HashCode hashFile(RegularFileSnapshot fileSnapshot, RegularFileHasher has
         return resourceHash;
     }
 
+    @Override
+    public HashCode hashContent(HashCode contentHash, Supplier<HashCode> hasher, HashCode configurationHash) {
+        HashCode resourceHashCacheKey = resourceHashCacheKey(contentHash, configurationHash);
+
+        HashCode resourceHash = persistentCache.get(resourceHashCacheKey);
+        if (resourceHash == null) {
+            resourceHash = hasher.get();
+            if (resourceHash == null) {
+                resourceHash = NO_HASH;
+            }
+            persistentCache.put(resourceHashCacheKey, resourceHash);
+        }
+        return resourceHash.equals(NO_HASH) ? null : resourceHash;
+    }
+
     private static HashCode resourceHashCacheKey(HashCode contentHash, HashCode configurationHash) {
         Hasher hasher = Hashing.newHasher();
         hasher.putHash(configurationHash);
@@ -20,8 +20,15 @@
 import org.gradle.internal.snapshot.RegularFileSnapshot;
 
 import javax.annotation.Nullable;
+import java.util.function.Supplier;
 
 public interface ResourceSnapshotterCacheService {
     @Nullable
     HashCode hashFile(RegularFileSnapshot fileSnapshot, RegularFileHasher hasher, HashCode configurationHash);
+
+    /**
+     * Returns the cached hash of a resource with the given content hash, or computes it with the given hasher.
+     */
+    @Nullable
+    HashCode hashContent(HashCode contentHash, Supplier<HashCode> hasher, HashCode configurationHash);
 }
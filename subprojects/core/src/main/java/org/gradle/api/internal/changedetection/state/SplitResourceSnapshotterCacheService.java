@@ -20,6 +20,8 @@
 import org.gradle.internal.snapshot.RegularFileSnapshot;
 import org.gradle.internal.vfs.AdditiveCacheLocations;
 
+import java.util.function.Supplier;
+
 /**
  * A {@link ResourceSnapshotterCacheService} that delegates to the global service for immutable files
  * and uses the local service for all other files. This ensures optimal cache utilization.
@@ -43,4 +45,12 @@ public HashCode hashFile(RegularFileSnapshot fileSnapshot, RegularFileHasher has
             return localCache.hashFile(fileSnapshot, hasher, configurationHash);
         }
     }
+
+    /**
+     * Hashes keyed by content alone do not depend on the location of the content, so they are kept in the global service.
+     */
+    @Override
+    public HashCode hashContent(HashCode contentHash, Supplier<HashCode> hasher, HashCode configurationHash) {
+        return globalCache.hashContent(contentHash, hasher, configurationHash);
+    }
 }
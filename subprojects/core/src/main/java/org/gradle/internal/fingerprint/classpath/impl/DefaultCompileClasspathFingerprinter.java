@@ -27,9 +27,9 @@
 import org.gradle.internal.fingerprint.impl.AbstractFileCollectionFingerprinter;
 
 public class DefaultCompileClasspathFingerprinter extends AbstractFileCollectionFingerprinter implements CompileClasspathFingerprinter {
-    public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cacheService, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner) {
+    public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cacheService, AbiExtractingClasspathResourceHasher abiExtractingClasspathResourceHasher, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner) {
         super(ClasspathFingerprintingStrategy.compileClasspath(
-                    new CachingResourceHasher(new AbiExtractingClasspathResourceHasher(), cacheService),
+                    new CachingResourceHasher(abiExtractingClasspathResourceHasher, cacheService),
                     cacheService,
                     stringInterner
                 ), fileCollectionSnapshotter);
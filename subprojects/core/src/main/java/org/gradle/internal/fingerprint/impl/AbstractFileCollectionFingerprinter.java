@@ -16,26 +16,39 @@
 
 package org.gradle.internal.fingerprint.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import org.gradle.api.NonNullApi;
 import org.gradle.api.file.FileCollection;
 import org.gradle.internal.fingerprint.CurrentFileCollectionFingerprint;
 import org.gradle.internal.fingerprint.FileCollectionFingerprint;
 import org.gradle.internal.fingerprint.FileCollectionFingerprinter;
 import org.gradle.internal.fingerprint.FileCollectionSnapshotter;
+import org.gradle.internal.fingerprint.FileSystemLocationFingerprint;
 import org.gradle.internal.fingerprint.FingerprintingStrategy;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.CompleteFileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemSnapshot;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Responsible for calculating a {@link FileCollectionFingerprint} for a particular {@link FileCollection}.
+ *
+ * <p>The file fingerprints only depend on the locations and the hashes of the roots, so they are reused for roots with the same hashes.</p>
  */
 @NonNullApi
 public abstract class AbstractFileCollectionFingerprinter implements FileCollectionFingerprinter {
 
     private final FileCollectionSnapshotter fileCollectionSnapshotter;
     private final FingerprintingStrategy fingerprintingStrategy;
+    private final Cache<List<Map.Entry<String, HashCode>>, Map<String, FileSystemLocationFingerprint>> fingerprintsByRootHashes = CacheBuilder.newBuilder()
+        // Bound the number of retained file fingerprints, not the number of file collections
+        .maximumWeight(100000)
+        .weigher((List<Map.Entry<String, HashCode>> rootHashes, Map<String, FileSystemLocationFingerprint> fingerprints) -> fingerprints.size())
+        .build();
 
     public AbstractFileCollectionFingerprinter(FingerprintingStrategy fingerprintingStrategy, FileCollectionSnapshotter fileCollectionSnapshotter) {
         this.fingerprintingStrategy = fingerprintingStrategy;
@@ -45,12 +58,21 @@ public AbstractFileCollectionFingerprinter(FingerprintingStrategy fingerprinting
     @Override
     public CurrentFileCollectionFingerprint fingerprint(FileCollection files) {
         List<FileSystemSnapshot> roots = fileCollectionSnapshotter.snapshot(files);
-        return DefaultCurrentFileCollectionFingerprint.from(roots, fingerprintingStrategy);
+        return fingerprint(roots);
     }
 
     @Override
     public CurrentFileCollectionFingerprint fingerprint(Iterable<? extends FileSystemSnapshot> roots) {
-        return DefaultCurrentFileCollectionFingerprint.from(roots, fingerprintingStrategy);
+        return DefaultCurrentFileCollectionFingerprint.from(roots, fingerprintingStrategy, rootHashes -> {
+            // The order of the roots matters for some strategies, so the key contains the root hashes in order
+            List<Map.Entry<String, HashCode>> key = ImmutableList.copyOf(rootHashes.entries());
+            Map<String, FileSystemLocationFingerprint> fingerprints = fingerprintsByRootHashes.getIfPresent(key);
+            if (fingerprints == null) {
+                fingerprints = fingerprintingStrategy.collectFingerprints(roots);
+                fingerprintsByRootHashes.put(key, fingerprints);
+            }
+            return fingerprints;
+        });
     }
 
     @Override
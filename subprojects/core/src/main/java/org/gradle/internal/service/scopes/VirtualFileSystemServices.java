@@ -22,6 +22,7 @@
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.StartParameterInternal;
 import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.api.internal.changedetection.state.AbiExtractingClasspathResourceHasher;
 import org.gradle.api.internal.changedetection.state.BuildScopeFileTimeStampInspector;
 import org.gradle.api.internal.changedetection.state.CachingFileHasher;
 import org.gradle.api.internal.changedetection.state.CrossBuildFileHashCache;
@@ -223,6 +224,14 @@ ResourceSnapshotterCacheService createResourceSnapshotterCacheService(CrossBuild
             return new DefaultResourceSnapshotterCacheService(resourceHashesCache);
         }
 
+        AbiExtractingClasspathResourceHasher createAbiExtractingClasspathResourceHasher(CrossBuildFileHashCache store) {
+            PersistentIndexedCache<HashCode, HashCode> classAbiHashesCache = store.createCache(
+                PersistentIndexedCacheParameters.of("classAbiHashesCache", HashCode.class, new HashCodeSerializer()),
+                100000,
+                true);
+            return new AbiExtractingClasspathResourceHasher(new DefaultResourceSnapshotterCacheService(classAbiHashesCache));
+        }
+
         ClasspathFingerprinter createClasspathFingerprinter(ResourceSnapshotterCacheService resourceSnapshotterCacheService, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner) {
             return new DefaultClasspathFingerprinter(resourceSnapshotterCacheService, fileCollectionSnapshotter, ClasspathResourceFilters.NONE, stringInterner);
         }
@@ -346,8 +355,8 @@ ResourceSnapshotterCacheService createResourceSnapshotterCacheService(
             return new SplitResourceSnapshotterCacheService(globalCache, localCache, additiveCacheLocations);
         }
 
-        CompileClasspathFingerprinter createCompileClasspathFingerprinter(ResourceSnapshotterCacheService resourceSnapshotterCacheService, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner) {
-            return new DefaultCompileClasspathFingerprinter(resourceSnapshotterCacheService, fileCollectionSnapshotter, stringInterner);
+        CompileClasspathFingerprinter createCompileClasspathFingerprinter(ResourceSnapshotterCacheService resourceSnapshotterCacheService, AbiExtractingClasspathResourceHasher abiExtractingClasspathResourceHasher, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner) {
+            return new DefaultCompileClasspathFingerprinter(resourceSnapshotterCacheService, abiExtractingClasspathResourceHasher, fileCollectionSnapshotter, stringInterner);
         }
 
     }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.api.internal.file.archive.ZipEntry
+import org.gradle.internal.serialize.HashCodeSerializer
+import org.gradle.testfixtures.internal.InMemoryIndexedCache
+import spock.lang.Specification
+
+class AbiExtractingClasspathResourceHasherTest extends Specification {
+    def cache = new InMemoryIndexedCache(new HashCodeSerializer())
+    def hasher = new AbiExtractingClasspathResourceHasher(new DefaultResourceSnapshotterCacheService(cache))
+    def classBytes = AbiExtractingClasspathResourceHasher.getResourceAsStream("AbiExtractingClasspathResourceHasher.class").bytes
+
+    def "caches the ABI hash of classes in jars by their content"() {
+        def firstEntry = Mock(ZipEntry)
+        def secondEntry = Mock(ZipEntry)
+
+        when:
+        def firstHash = hasher.hash(new ZipEntryContext(firstEntry, "Foo.class", "first.jar"))
+        then:
+        _ * firstEntry.name >> "Foo.class"
+        1 * firstEntry.content >> classBytes
+        firstHash != null
+        cache.keySet().size() == 1
+
+        when:
+        def secondHash = hasher.hash(new ZipEntryContext(secondEntry, "Foo.class", "second.jar"))
+        then:
+        _ * secondEntry.name >> "Foo.class"
+        1 * secondEntry.content >> classBytes
+        secondHash == firstHash
+        cache.keySet().size() == 1
+    }
+
+    def "ignores entries which are not classes"() {
+        def entry = Mock(ZipEntry)
+
+        when:
+        def hash = hasher.hash(new ZipEntryContext(entry, "foo.properties", "first.jar"))
+        then:
+        _ * entry.name >> "foo.properties"
+        0 * entry.content
+        hash == null
+        cache.keySet().size() == 0
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.fingerprint.classpath.impl
+
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.api.internal.changedetection.state.AbiExtractingClasspathResourceHasher
+import org.gradle.api.internal.changedetection.state.DefaultResourceSnapshotterCacheService
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.fingerprint.impl.DefaultFileCollectionSnapshotter
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.serialize.HashCodeSerializer
+import org.gradle.test.fixtures.file.CleanupTestDirectory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.InMemoryIndexedCache
+import org.gradle.util.UsesNativeServices
+import org.junit.Rule
+import spock.lang.Specification
+
+@CleanupTestDirectory(fieldName = "tmpDir")
+@UsesNativeServices
+class DefaultCompileClasspathFingerprinterTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def stringInterner = Stub(StringInterner) {
+        intern(_) >> { String s -> s }
+    }
+    def virtualFileSystem = TestFiles.virtualFileSystem()
+    def fileCollectionSnapshotter = new DefaultFileCollectionSnapshotter(virtualFileSystem, TestFiles.genericFileTreeSnapshotter(), TestFiles.fileSystem())
+    InMemoryIndexedCache<HashCode, HashCode> resourceHashesCache = new InMemoryIndexedCache<>(new HashCodeSerializer())
+    InMemoryIndexedCache<HashCode, HashCode> classAbiHashesCache = new InMemoryIndexedCache<>(new HashCodeSerializer())
+    def fingerprinter = new DefaultCompileClasspathFingerprinter(
+        new DefaultResourceSnapshotterCacheService(resourceHashesCache),
+        new AbiExtractingClasspathResourceHasher(new DefaultResourceSnapshotterCacheService(classAbiHashesCache)),
+        fileCollectionSnapshotter,
+        stringInterner)
+
+    def "caches the ABI hashes of the classes in a jar separately from the hash of the jar"() {
+        def classBytes = AbiExtractingClasspathResourceHasher.getResourceAsStream("AbiExtractingClasspathResourceHasher.class").bytes
+        def classes = tmpDir.file("classes")
+        classes.file("org/gradle/api/internal/changedetection/state/AbiExtractingClasspathResourceHasher.class").bytes = classBytes
+        def jar = tmpDir.file("lib.jar")
+        classes.zipTo(jar)
+
+        when:
+        def fingerprint = fingerprinter.fingerprint(TestFiles.fixed(jar))
+
+        then:
+        fingerprint.fingerprints.size() == 1
+        resourceHashesCache.keySet().size() == 1
+        classAbiHashesCache.keySet().size() == 1
+    }
+}
@@ -78,6 +78,31 @@ class AbsolutePathFileCollectionFingerprinterTest extends Specification {
         fingerprint.fingerprints.keySet().collect { new File(it) } == [file, file2, file3, file4]
     }
 
+    def "reuses file fingerprints for roots with the same hashes"() {
+        given:
+        TestFile file = tmpDir.createFile('file1')
+        TestFile dir = tmpDir.createDir('dir')
+        dir.createFile('file2')
+
+        when:
+        def fingerprint = fingerprinter.fingerprint(files(file, dir))
+        virtualFileSystem.invalidateAll()
+        def unchangedFingerprint = fingerprinter.fingerprint(files(file, dir))
+
+        then:
+        unchangedFingerprint.fingerprints.is(fingerprint.fingerprints)
+        unchangedFingerprint.rootHashes == fingerprint.rootHashes
+        !fingerprinter.fingerprint(files(dir, file)).fingerprints.is(fingerprint.fingerprints)
+
+        when:
+        virtualFileSystem.update([dir.createFile('file3').absolutePath]) {}
+        def changedFingerprint = fingerprinter.fingerprint(files(file, dir))
+
+        then:
+        !changedFingerprint.fingerprints.is(fingerprint.fingerprints)
+        changedFingerprint.fingerprints.keySet().collect { new File(it) } == [file, dir, dir.file('file2'), dir.file('file3')]
+    }
+
     def generatesEventWhenFileAdded() {
         given:
         TestFile file1 = tmpDir.createFile('file1')
@@ -50,11 +50,7 @@ task retrieve(type: Sync) {
 
         and:
         server.resetExpectations()
-        module.pom.expectHead()
-        module.pom.sha1.expectGet()
         module.pom.expectGet()
-        module.artifact.expectHead()
-        module.artifact.sha1.expectGet()
         module.artifact.expectGet()
 
         and:
@@ -131,7 +127,7 @@ task retrieve(type: Sync) {
 
         when:
         server.resetExpectations()
-        module.pom.expectHead()
+        module.pom.expectGetUnmodified()
         artifact.expectGet()
 
         then:
@@ -64,9 +64,9 @@ public class CachedChangingModulesIntegrationTest extends AbstractHttpDependency
 
         when:
         server.resetExpectations()
-        module.metaData.expectHeadRevalidate()
-        sourceArtifact.expectHeadRevalidate()
-        module.pom.expectHeadRevalidate()
+        module.metaData.expectGetUnmodified()
+        sourceArtifact.expectGetUnmodified()
+        module.pom.expectGetUnmodified()
         then:
         run 'retrieve'
 
@@ -74,7 +74,6 @@ public class CachedChangingModulesIntegrationTest extends AbstractHttpDependency
         module.publishWithChangedContent()
         server.resetExpectations()
 
-        module.metaData.expectHeadRevalidate()
         module.metaData.expectGetRevalidate()
         module.pom.sha1.expectGetRevalidate()
         module.pom.expectHeadRevalidate()
@@ -137,8 +136,8 @@ public class CachedChangingModulesIntegrationTest extends AbstractHttpDependency
         when:
         server.resetExpectations()
         module.metaData.expectGetMissing()
-        sourceArtifact.expectHeadRevalidate()
-        module.pom.expectHeadRevalidate()
+        sourceArtifact.expectGetUnmodified()
+        module.pom.expectGetUnmodified()
         then:
         run 'retrieve'
 
@@ -147,12 +146,8 @@ public class CachedChangingModulesIntegrationTest extends AbstractHttpDependency
         server.resetExpectations()
 
         module.metaData.expectGetMissing()
-        module.pom.sha1.expectGetRevalidate()
-        module.pom.expectHeadRevalidate()
         module.pom.expectGetRevalidate()
-        sourceArtifact.expectHeadRevalidate()
         sourceArtifact.expectGetRevalidate()
-        sourceArtifact.sha1.expectGetRevalidate()
         then:
         run 'retrieve'
 
@@ -205,21 +200,16 @@ public class CachedChangingModulesIntegrationTest extends AbstractHttpDependency
 
         when:
         server.resetExpectations()
-        module.ivy.expectHeadRevalidate()
-        module.getArtifact(classifier: 'source').expectHead()
+        module.ivy.expectGetUnmodified()
+        module.getArtifact(classifier: 'source').expectGetUnmodified()
         then:
         run 'retrieve'
 
         when:
         module.publishWithChangedContent()
         server.resetExpectations()
-        module.ivy.expectHeadRevalidate()
-        module.getArtifact(classifier: 'source').expectHead()
-
-        module.ivy.sha1.expectGetRevalidate()
         module.ivy.expectGetRevalidate()
         module.getArtifact(classifier: 'source').expectGetRevalidate()
-        module.getArtifact(classifier: 'source').sha1.expectGetRevalidate()
 
         then:
         run 'retrieve'
@@ -74,9 +74,14 @@ task retrieve(type: Sync) {
         succeeds ":retrieve"
     }
 
-    void headOnlyRequests() {
-        module.ivy.expectHead()
-        module.jar.expectHead()
+    void conditionalUnmodifiedRequests() {
+        module.ivy.expectGetUnmodified()
+        module.jar.expectGetUnmodified()
+    }
+
+    void conditionalGetRequests() {
+        module.ivy.expectGet()
+        module.jar.expectGet()
     }
 
     void headSha1ThenGetRequests() {
@@ -110,14 +115,6 @@ task retrieve(type: Sync) {
         module.jar.sha1.expectGet()
     }
 
-    void headThenGetRequests() {
-        module.ivy.expectHead()
-        module.ivy.expectGet()
-
-        module.jar.expectHead()
-        module.jar.expectGet()
-    }
-
     void unchangedResolve() {
         resolve()
         downloaded.assertHasNotChangedSince(lastState)
@@ -140,14 +137,14 @@ task retrieve(type: Sync) {
         initialResolve()
 
         expect:
-        headOnlyRequests()
+        conditionalUnmodifiedRequests()
         unchangedResolve()
 
         when:
         change()
 
         then:
-        headSha1ThenGetRequests()
+        conditionalGetRequests()
         changedResolve()
     }
 
@@ -158,14 +155,14 @@ task retrieve(type: Sync) {
         initialResolve()
 
         expect:
-        headOnlyRequests()
+        conditionalUnmodifiedRequests()
         unchangedResolve()
 
         when:
         change()
 
         then:
-        headSha1ThenGetRequests()
+        conditionalGetRequests()
         changedResolve()
     }
 
@@ -195,14 +192,14 @@ task retrieve(type: Sync) {
         initialResolve()
 
         expect:
-        headOnlyRequests()
+        conditionalUnmodifiedRequests()
         unchangedResolve()
 
         when:
         change()
 
         then:
-        headThenGetRequests()
+        conditionalGetRequests()
         changedResolve()
     }
 
@@ -213,14 +210,14 @@ task retrieve(type: Sync) {
         initialResolve()
 
         expect:
-        headOnlyRequests()
+        conditionalUnmodifiedRequests()
         unchangedResolve()
 
         when:
         change()
 
         then:
-        headThenGetRequests()
+        conditionalGetRequests()
         changedResolve()
     }
 
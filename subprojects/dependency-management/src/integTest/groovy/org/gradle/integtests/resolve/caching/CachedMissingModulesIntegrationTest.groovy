@@ -93,8 +93,8 @@ task showMissing { doLast { println configurations.missing.files } }
 
         when:
         server.resetExpectations() // Missing status in repo1 is cached
-        moduleInRepo2.ivy.expectHead()
-        moduleInRepo2.jar.expectHead()
+        moduleInRepo2.ivy.expectGetUnmodified()
+        moduleInRepo2.jar.expectGetUnmodified()
 
         then:
         succeeds('showMissing')
@@ -287,7 +287,7 @@ Required by:
         repo1MetaData.expectGet()
         repo1Module.pom.expectGet()
         repo1Module.artifact.expectGet()
-        repo2MetaData.expectHead()
+        repo2MetaData.expectGetUnmodified()
 
         then:
         succeeds 'retrieve', '-PdepVersion=2.+'
@@ -346,7 +346,7 @@ Required by:
         when:
         server.resetExpectations()
         repo1Module.publish()
-        repo2MetaData.expectHead()
+        repo2MetaData.expectGetUnmodified()
 
         then:
         succeeds 'retrieve'
@@ -358,8 +358,8 @@ Required by:
         repo1MetaData.expectGet()
         repo1Module.pom.expectGet()
         repo1Module.artifact.expectGet()
-        repo2MetaData.expectHead()
-        repo2Module.pom.expectHead()
+        repo2MetaData.expectGetUnmodified()
+        repo2Module.pom.expectGetUnmodified()
 
         then:
         succeeds 'retrieve', '--refresh-dependencies'
@@ -504,9 +504,9 @@ Required by:
 
         when:
         server.resetExpectations()
-        repo1Module.rootMetaData.expectHead()
+        repo1Module.rootMetaData.expectGetUnmodified()
         repo1Module.pom.expectGetMissing()
-        repo2Module.rootMetaData.expectHead()
+        repo2Module.rootMetaData.expectGetUnmodified()
         repo2Module.pom.expectGetMissing()
 
         then:
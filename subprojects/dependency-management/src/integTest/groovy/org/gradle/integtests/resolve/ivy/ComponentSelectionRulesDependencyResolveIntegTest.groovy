@@ -155,7 +155,7 @@ class ComponentSelectionRulesDependencyResolveIntegTest extends AbstractComponen
         resetExpectations()
         repositoryInteractions {
             'org.utils:api' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
             }
         }
 
@@ -167,7 +167,7 @@ class ComponentSelectionRulesDependencyResolveIntegTest extends AbstractComponen
         resetExpectations()
         repositoryInteractions {
             'org.utils:api' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
             }
         }
 
@@ -234,7 +234,7 @@ Required by:
         resetExpectations()
         repositoryInteractions {
             'org.utils:api' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
             }
         }
 
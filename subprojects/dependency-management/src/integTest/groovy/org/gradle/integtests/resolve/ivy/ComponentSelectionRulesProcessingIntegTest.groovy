@@ -362,14 +362,8 @@ class ComponentSelectionRulesProcessingIntegTest extends AbstractComponentSelect
             'org.utils:api' {
                 expectVersionListing()
                 '1.1' {
-                    expectHeadMetadata()
-                    withModule {
-                        // todo: handle this properly in ModuleVersionSpec test fixture
-                        getArtifact(name: 'ivy', ext: 'xml.sha1').allowGetOrHead()
-                        getArtifact(ext: 'jar.sha1').allowGetOrHead()
-                    }
+                    // the changed files are fetched with a single conditional request each
                     expectGetMetadata()
-                    expectHeadArtifact()
                     expectGetArtifact()
                 }
             }
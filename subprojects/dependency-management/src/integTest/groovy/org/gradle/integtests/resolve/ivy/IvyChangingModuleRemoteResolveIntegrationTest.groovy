@@ -66,10 +66,8 @@ task retrieve(type: Copy) {
         and: "Server handles requests"
         server.resetExpectations()
         // Server will be hit to get updated versions
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
-        module.jar.expectHead()
+        module.jar.expectGetUnmodified()
         module.getArtifact(name: 'other').expectGet()
         moduleB.ivy.expectGet()
         moduleB.jar.expectGet()
@@ -115,11 +113,7 @@ task retrieve(type: Copy) {
         when:
         server.resetExpectations()
         module.publishWithChangedContent()
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
-        module.jar.expectHead()
-        module.jar.sha1.expectGet()
         module.jar.expectGet()
 
         and:
@@ -173,11 +167,7 @@ task retrieve(type: Copy) {
 
         server.resetExpectations()
         // Server will be hit to get updated versions
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
-        module.jar.expectHead()
-        module.jar.sha1.expectGet()
         module.jar.expectGet()
 
         run 'retrieve'
@@ -246,11 +236,7 @@ task retrieve(type: Copy) {
         when: "Server handles requests"
         server.resetExpectations()
         // Server will be hit to get updated versions
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
-        module.jar.expectHead()
-        module.jar.sha1.expectGet()
         module.jar.expectGet()
         module.getArtifact(name: 'other').expectGet()
 
@@ -305,8 +291,8 @@ task retrieve(type: Copy) {
 
         when:
         server.resetExpectations()
-        module.ivy.expectHead()
-        module.jar.expectHead()
+        module.ivy.expectGetUnmodified()
+        module.jar.expectGetUnmodified()
 
         and:
         run 'retrieve'
@@ -319,11 +305,7 @@ task retrieve(type: Copy) {
         module.publishWithChangedContent()
 
         server.resetExpectations()
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGetMissing()
         module.ivy.expectGet()
-        module.jar.expectHead()
-        module.jar.sha1.expectGetMissing()
         module.jar.expectGet()
 
         run 'retrieve'
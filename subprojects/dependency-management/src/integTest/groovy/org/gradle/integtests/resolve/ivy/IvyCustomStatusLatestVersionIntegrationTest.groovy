@@ -191,9 +191,9 @@ task retrieve(type: Sync) {
         when:
         server.resetExpectations()
         directoryList.allowGet()
-        project3.ivy.expectHead()
-        project2.ivy.expectHead()
-        project2.jar.expectHead()
+        project3.ivy.expectGetUnmodified()
+        project2.ivy.expectGetUnmodified()
+        project2.jar.expectGetUnmodified()
 
         and:
         executer.withArgument("--refresh-dependencies")
@@ -205,7 +205,7 @@ task retrieve(type: Sync) {
         when:
         server.resetExpectations()
         directoryList.allowGet()
-        project3.ivy.expectHead()
+        project3.ivy.expectGetUnmodified()
 
         and:
         run 'retrieve'
@@ -255,8 +255,8 @@ task retrieve(type: Sync) {
 
         when:
         server.resetExpectations()
-        module.ivy.expectHead()
-        module.jar.expectHead()
+        module.ivy.expectGetUnmodified()
+        module.jar.expectGetUnmodified()
 
         and:
         run 'retrieve'
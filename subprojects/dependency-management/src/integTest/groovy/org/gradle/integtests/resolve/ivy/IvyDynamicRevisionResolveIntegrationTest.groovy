@@ -178,7 +178,7 @@ Searched in the following locations:
                 expectVersionListing()
             }
             'org.test:projectA:1.3' {
-                expectHeadMetadata()
+                expectGetMetadataUnmodified()
             }
             'org.test:projectA:1.1' {
                 expectGetMetadata()
@@ -208,7 +208,7 @@ Searched in the following locations:
                 expectVersionListing()
             }
             'org.test:projectA:1.3' {
-                expectHeadMetadata()
+                expectGetMetadataUnmodified()
             }
             'org.test:projectA:1.2' {
                 expectGetMetadata()
@@ -242,8 +242,8 @@ Searched in the following locations:
                 allowAll()
             }
             'org.test:projectA:1.2' {
-                expectHeadMetadata()
-                expectHeadArtifact()
+                expectGetMetadataUnmodified()
+                expectGetArtifactUnmodified()
             }
         }
         run 'checkDeps', '--refresh-dependencies'
@@ -330,10 +330,10 @@ Searched in the following locations:
                 expectVersionListing()
             }
             'org.test:projectA:1.3' {
-                expectHeadMetadata()
+                expectGetMetadataUnmodified()
             }
             'org.test:projectA:1.2' {
-                expectHeadMetadata()
+                expectGetMetadataUnmodified()
             }
             'org.test:projectA:1.1' {
                 expectGetMetadata()
@@ -368,17 +368,17 @@ Searched in the following locations:
                 expectVersionListing()
             }
             'org.test:projectA:1.3' {
-                expectHeadMetadata()
+                expectGetMetadataUnmodified()
             }
             'org.test:projectA:1.2' {
-                expectHeadMetadata()
+                expectGetMetadataUnmodified()
             }
             'org.test:projectA:1.1.1' {
                 expectGetMetadata()
             }
             'org.test:projectA:1.1' {
-                expectHeadMetadata()
-                expectHeadArtifact()
+                expectGetMetadataUnmodified()
+                expectGetArtifactUnmodified()
             }
         }
         run 'checkDeps', '--refresh-dependencies'
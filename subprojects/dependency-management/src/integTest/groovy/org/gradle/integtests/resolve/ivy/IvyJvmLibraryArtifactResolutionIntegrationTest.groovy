@@ -185,8 +185,6 @@ Searched in the following locations:
 
         and:
         server.resetExpectations()
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
         sourceArtifact.expectGet()
 
@@ -242,11 +240,7 @@ if (project.hasProperty('nocache')) {
 
         and:
         server.resetExpectations()
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
-        sourceArtifact.expectHead()
-        sourceArtifact.sha1.expectGet()
         sourceArtifact.expectGet()
 
         then:
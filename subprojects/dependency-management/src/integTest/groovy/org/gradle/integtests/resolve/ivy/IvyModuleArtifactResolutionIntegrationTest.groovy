@@ -179,8 +179,6 @@ repositories {
 
         and:
         server.resetExpectations()
-        module.ivy.expectHead()
-        module.ivy.sha1.expectGet()
         module.ivy.expectGet()
 
         then:
@@ -307,8 +307,8 @@ Searched in the following locations:
 
         when:
         server.resetExpectations()
-        repo.getModuleMetaData("group", "projectA").expectHead()
-        projectA.pom.expectHead()
+        repo.getModuleMetaData("group", "projectA").expectGetUnmodified()
+        projectA.pom.expectGetUnmodified()
         projectA.artifact.expectGet()
 
         and:
@@ -129,7 +129,6 @@ if (project.hasProperty('nocache')) {
 
         and:
         server.resetExpectations()
-        snapshotModule.metaData.expectHead()
         snapshotModule.metaData.expectGet()
         snapshotModule.pom.expectHead()
         snapshotModule.pom.sha1.expectGet()
@@ -185,7 +184,6 @@ if (project.hasProperty('nocache')) {
 
         and:
         server.resetExpectations()
-        snapshotModule.metaData.expectHead()
         snapshotModule.metaData.expectGet()
         snapshotModule.pom.expectHead()
         snapshotModule.pom.sha1.expectGet()
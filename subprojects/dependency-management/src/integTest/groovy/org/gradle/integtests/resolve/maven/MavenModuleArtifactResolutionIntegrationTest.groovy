@@ -147,8 +147,6 @@ repositories {
 
         and:
         server.resetExpectations()
-        module.pom.expectHead()
-        module.pom.sha1.expectGet()
         module.pom.expectGet()
 
         then:
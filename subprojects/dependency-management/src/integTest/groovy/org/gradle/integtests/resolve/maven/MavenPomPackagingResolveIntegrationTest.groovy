@@ -142,8 +142,8 @@ if (project.hasProperty('skipCache')) {
         // New artifact is detected
         when:
         server.resetExpectations()
-        snapshotA.metaData.expectHead()
-        snapshotA.pom.expectHead()
+        snapshotA.metaData.expectGetUnmodified()
+        snapshotA.pom.expectGetUnmodified()
         snapshotA.artifact.expectHead()
         snapshotA.artifact.expectGet()
 
@@ -158,8 +158,8 @@ if (project.hasProperty('skipCache')) {
         // Jar artifact removal is detected
         when:
         server.resetExpectations()
-        snapshotA.metaData.expectHead()
-        snapshotA.pom.expectHead()
+        snapshotA.metaData.expectGetUnmodified()
+        snapshotA.pom.expectGetUnmodified()
         snapshotA.artifact.expectHeadMissing()
 
         and:
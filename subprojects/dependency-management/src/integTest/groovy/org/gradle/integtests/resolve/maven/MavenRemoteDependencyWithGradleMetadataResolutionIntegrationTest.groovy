@@ -79,9 +79,9 @@ dependencies {
 
         when:
         server.resetExpectations()
-        m.pom.expectHead()
-        m.moduleMetadata.expectHead()
-        m.artifact.expectHead()
+        m.pom.expectGetUnmodified()
+        m.moduleMetadata.expectGetUnmodified()
+        m.artifact.expectGetUnmodified()
 
         executer.withArgument("--refresh-dependencies")
         run("checkDeps")
@@ -137,8 +137,8 @@ dependencies {
 
         when:
         server.resetExpectations()
-        m.pom.expectHead()
-        m.artifact.expectHead()
+        m.pom.expectGetUnmodified()
+        m.artifact.expectGetUnmodified()
 
         executer.withArgument("--refresh-dependencies")
         run("checkDeps")
@@ -314,12 +314,12 @@ task checkRelease {
 
         and:
         server.resetExpectations()
-        a.pom.expectHead()
-        a.moduleMetadata.expectHead()
-        a.artifact(classifier: 'api').expectHead()
-        a.artifact(classifier: 'runtime').expectHead()
-        b.pom.expectHead()
-        b.artifact.expectHead()
+        a.pom.expectGetUnmodified()
+        a.moduleMetadata.expectGetUnmodified()
+        a.artifact(classifier: 'api').expectGetUnmodified()
+        a.artifact(classifier: 'runtime').expectGetUnmodified()
+        b.pom.expectGetUnmodified()
+        b.artifact.expectGetUnmodified()
 
         executer.withArgument("--refresh-dependencies")
         succeeds("checkDebug")
@@ -384,11 +384,11 @@ task checkDebug {
 
         and:
         server.resetExpectations()
-        a.pom.expectHead()
-        a.moduleMetadata.expectHead()
-        a.getArtifact().expectHead()
-        a.getArtifact(type: 'zip').expectHead()
-        a.getArtifact(classifier: 'extra').expectHead()
+        a.pom.expectGetUnmodified()
+        a.moduleMetadata.expectGetUnmodified()
+        a.getArtifact().expectGetUnmodified()
+        a.getArtifact(type: 'zip').expectGetUnmodified()
+        a.getArtifact(classifier: 'extra').expectGetUnmodified()
 
         executer.withArgument("--refresh-dependencies")
         succeeds("checkDebug")
@@ -460,13 +460,13 @@ task checkDebug {
 
         and:
         server.resetExpectations()
-        a.pom.expectHead()
-        a.moduleMetadata.expectHead()
-        a.getArtifact("file1.jar").expectHead()
-        a.getArtifact("file2.jar").expectHead()
-        a.getArtifact("../sibling/file3.jar").expectHead()
-        a.getArtifact("child/file4.jar").expectHead()
-        a.getArtifact("../../../a-1.2-5.jar").expectHead()
+        a.pom.expectGetUnmodified()
+        a.moduleMetadata.expectGetUnmodified()
+        a.getArtifact("file1.jar").expectGetUnmodified()
+        a.getArtifact("file2.jar").expectGetUnmodified()
+        a.getArtifact("../sibling/file3.jar").expectGetUnmodified()
+        a.getArtifact("child/file4.jar").expectGetUnmodified()
+        a.getArtifact("../../../a-1.2-5.jar").expectGetUnmodified()
 
         executer.withArgument("--refresh-dependencies")
         succeeds("checkDebug")
@@ -738,7 +738,7 @@ dependencies {
 
         when:
         server.resetExpectations()
-        m.pom.expectHead()
+        m.pom.expectGetUnmodified()
         m.moduleMetadata.expectGet()
         m.artifact.expectGet()
 
@@ -783,8 +783,8 @@ dependencies {
 
         when:
         server.resetExpectations()
-        m.pom.expectHead()
-        m.moduleMetadata.expectHead()
+        m.pom.expectGetUnmodified()
+        m.moduleMetadata.expectGetUnmodified()
 
         fails("checkDeps")
 
@@ -42,14 +42,8 @@ class NonUniqueSnapshotVersionsReadOnlyCacheDependencyResolutionTest extends Abs
         when:
         withReadOnlyCache()
         latest.metaData.allowGetOrHead()
-        latest.pom.expectHead()
-        latest.pom.sha1.expectGet()
         latest.pom.expectGet()
-        latest.moduleMetadata.expectHead()
-        latest.moduleMetadata.sha1.expectGet()
         latest.moduleMetadata.expectGet()
-        latest.artifact.expectHead()
-        latest.artifact.sha1.expectGet()
         latest.artifact.expectGet()
 
         succeeds ':checkDeps', '--refresh-dependencies'
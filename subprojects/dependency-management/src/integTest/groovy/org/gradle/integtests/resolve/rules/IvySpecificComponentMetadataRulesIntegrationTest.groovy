@@ -354,20 +354,9 @@ resolve.doLast { assert ruleInvoked }
         }
         repositoryInteractions {
             'org.test:projectA:1.0' {
-                expectHeadMetadata()
-                withModule {
-                    // todo: handle this properly in ModuleVersionSpec test fixture
-                    getArtifact(name: 'ivy', ext: 'xml.sha1').allowGetOrHead()
-                    if (GradleMetadataResolveRunner.isGradleMetadataPublished()) {
-                        getArtifact(ext: 'module.sha1').allowGetOrHead()
-                    }
-                }
+                // the changed files are fetched with a single conditional request each
                 expectGetMetadata()
-                expectHeadArtifact()
                 expectGetArtifact()
-                withModule {
-                    getArtifact(ext: 'jar.sha1').allowGetOrHead()
-                }
             }
         }
 
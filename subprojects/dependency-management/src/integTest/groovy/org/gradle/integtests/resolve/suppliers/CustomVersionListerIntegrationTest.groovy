@@ -172,8 +172,8 @@ class CustomVersionListerIntegrationTest extends AbstractModuleDependencyResolve
         when:
         repositoryInteractions {
             "org:testA:3" {
-                expectHeadMetadata()
-                expectHeadArtifact()
+                expectGetMetadataUnmodified()
+                expectGetArtifactUnmodified()
             }
         }
         listerInteractions.expectRefresh('testA')
@@ -375,7 +375,7 @@ $listing
         @Override
         void expectRefresh(String... modules) {
             modules.each {
-                server.expectHead("/repo/org/$it/versions.txt", files[it])
+                server.expectGetUnmodified("/repo/org/$it/versions.txt", files[it])
             }
         }
     }
@@ -279,7 +279,7 @@ class CustomVersionListerWithSupplierIntegrationTest extends AbstractModuleDepen
         @Override
         void expectRefresh(String group, String module) {
             String id = "$group:$module"
-            server.expectHead("/repo/${group.replace('.', '/')}/$module/metadata.json", files[id])
+            server.expectGetUnmodified("/repo/${group.replace('.', '/')}/$module/metadata.json", files[id])
         }
     }
 
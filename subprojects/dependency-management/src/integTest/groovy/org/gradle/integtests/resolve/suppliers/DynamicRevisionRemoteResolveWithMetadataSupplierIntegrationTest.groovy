@@ -166,11 +166,11 @@ class DynamicRevisionRemoteResolveWithMetadataSupplierIntegrationTest extends Ab
         then:
         repositoryInteractions {
             'group:projectA' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
             }
             'group:projectB' {
                 if (GradleMetadataResolveRunner.useMaven()) {
-                    expectHeadVersionListing()
+                    expectUnmodifiedVersionListing()
                 }
                 expectVersionListing()
             }
@@ -226,11 +226,11 @@ class DynamicRevisionRemoteResolveWithMetadataSupplierIntegrationTest extends Ab
         then:
         repositoryInteractions {
             'group:projectA' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
             }
             'group:projectB' {
                 if (GradleMetadataResolveRunner.useMaven()) {
-                    expectHeadVersionListing()
+                    expectUnmodifiedVersionListing()
                 }
                 expectVersionListing()
                 '2.3' {
@@ -277,13 +277,13 @@ class DynamicRevisionRemoteResolveWithMetadataSupplierIntegrationTest extends Ab
         checkResolve "group:projectA:1.+": ["group:projectA:1.2", "didn't match version 2.0"], "group:projectB:latest.release": ["group:projectB:1.1", "didn't match version 2.2"]
 
         when:
-        server.expectHeadBroken('/repo/group/projectB/2.2/status.txt')
+        server.expectGetBroken('/repo/group/projectB/2.2/status.txt')
 
         then:
         fails 'checkDeps'
 
         and:
-        failure.assertHasCause("Could not HEAD '${server.uri}/repo/group/projectB/2.2/status.txt'.")
+        failure.assertHasCause("Could not GET '${server.uri}/repo/group/projectB/2.2/status.txt'.")
 
         when:
         resetExpectations()
@@ -709,7 +709,7 @@ group:projectB:2.2;integration
         outputDoesNotContain('Parsing status file call count: 2')
 
         when: "resolving the same dependencies"
-        server.expectHead("/repo/status.txt", statusFile)
+        server.expectGetUnmodified("/repo/status.txt", statusFile)
         checkResolve "group:projectA:1.+":  ["group:projectA:1.2", "didn't match version 2.0"], "group:projectB:latest.release": ["group:projectB:1.1", "didn't match version 2.2"]
 
         then: "should get the result from cache"
@@ -723,19 +723,18 @@ group:projectB:1.1;release
 group:projectB:2.2;release
 '''
         resetExpectations()
-        // Similarly the HEAD request here is due to revalidating the cached resource
-        server.expectHead("/repo/status.txt", statusFile)
+        // The changed resource is fetched by the conditional request which revalidates the cached resource
         server.expectGet("/repo/status.txt", statusFile)
         repositoryInteractions {
             'group:projectA' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
                 '1.2' {
-                    expectHeadMetadata()
-                    expectHeadArtifact()
+                    expectGetMetadataUnmodified()
+                    expectGetArtifactUnmodified()
                 }
             }
             'group:projectB' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
                 '2.2' {
                     expectResolve()
                 }
@@ -790,17 +789,17 @@ group:projectB:2.2;release
         resetExpectations()
         repositoryInteractions {
             'group:projectA' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
                 '1.2' {
-                    expectHeadMetadata()
-                    expectHeadArtifact()
+                    expectGetMetadataUnmodified()
+                    expectGetArtifactUnmodified()
                 }
             }
             'group:projectB' {
-                expectHeadVersionListing()
+                expectUnmodifiedVersionListing()
                 '1.1' {
-                    expectHeadMetadata()
-                    expectHeadArtifact()
+                    expectGetMetadataUnmodified()
+                    expectGetArtifactUnmodified()
                 }
             }
         }
@@ -1399,7 +1398,7 @@ group:projectB:2.2;release
         @Override
         void refresh(String... modules) {
             modules.each {
-                server.expectHead("/repo/${it.replace(':', '/')}/status.txt", statusFiles[it])
+                server.expectGetUnmodified("/repo/${it.replace(':', '/')}/status.txt", statusFiles[it])
             }
         }
     }
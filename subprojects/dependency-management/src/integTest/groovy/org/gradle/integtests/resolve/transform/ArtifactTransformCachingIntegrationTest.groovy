@@ -1342,12 +1342,12 @@ class ArtifactTransformCachingIntegrationTest extends AbstractHttpDependencyReso
         when:
         // No changes
         server.resetExpectations()
-        m1.pom.expectHead()
-        m1.artifact.expectHead()
-        m2.metaData.expectHead()
+        m1.pom.expectGetUnmodified()
+        m1.artifact.expectGetUnmodified()
+        m2.metaData.expectGetUnmodified()
         // TODO - these should not be required for unique versions
-        m2.pom.expectHead()
-        m2.artifact.expectHead()
+        m2.pom.expectGetUnmodified()
+        m2.artifact.expectGetUnmodified()
 
         succeeds ":app:resolve"
 
@@ -1360,16 +1360,12 @@ class ArtifactTransformCachingIntegrationTest extends AbstractHttpDependencyReso
         // changing module has been changed
         server.resetExpectations()
         m1.publishWithChangedContent()
-        m1.pom.expectHead()
-        m1.pom.sha1.expectGet()
         m1.pom.expectGet()
-        m1.artifact.expectHead()
-        m1.artifact.sha1.expectGet()
         m1.artifact.expectGet()
-        m2.metaData.expectHead()
+        m2.metaData.expectGetUnmodified()
         // TODO - these should not be required for unique versions
-        m2.pom.expectHead()
-        m2.artifact.expectHead()
+        m2.pom.expectGetUnmodified()
+        m2.artifact.expectGetUnmodified()
 
         succeeds ":app:resolve"
 
@@ -1383,12 +1379,12 @@ class ArtifactTransformCachingIntegrationTest extends AbstractHttpDependencyReso
         when:
         // No changes
         server.resetExpectations()
-        m1.pom.expectHead()
-        m1.artifact.expectHead()
-        m2.metaData.expectHead()
+        m1.pom.expectGetUnmodified()
+        m1.artifact.expectGetUnmodified()
+        m2.metaData.expectGetUnmodified()
         // TODO - these should not be required for unique versions
-        m2.pom.expectHead()
-        m2.artifact.expectHead()
+        m2.pom.expectGetUnmodified()
+        m2.artifact.expectGetUnmodified()
 
         succeeds ":app:resolve"
 
@@ -1400,10 +1396,9 @@ class ArtifactTransformCachingIntegrationTest extends AbstractHttpDependencyReso
         when:
         // new snapshot version
         server.resetExpectations()
-        m1.pom.expectHead()
-        m1.artifact.expectHead()
+        m1.pom.expectGetUnmodified()
+        m1.artifact.expectGetUnmodified()
         m2.publishWithChangedContent()
-        m2.metaData.expectHead()
         m2.metaData.expectGet()
         m2.pom.expectHead()
         m2.pom.sha1.expectGet()
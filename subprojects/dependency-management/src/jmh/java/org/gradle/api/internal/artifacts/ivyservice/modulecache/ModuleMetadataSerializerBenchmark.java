@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.dependencies.DefaultImmutableVersionConstraint;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.DesugaredAttributeContainerSerializer;
+import org.gradle.api.internal.artifacts.repositories.metadata.IvyMutableModuleMetadataFactory;
+import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory;
+import org.gradle.api.internal.attributes.DefaultImmutableAttributesFactory;
+import org.gradle.api.internal.attributes.ImmutableAttributes;
+import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
+import org.gradle.api.internal.model.NamedObjectInstantiator;
+import org.gradle.cache.internal.DefaultCrossBuildInMemoryCacheFactory;
+import org.gradle.internal.component.external.model.ComponentVariant;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.external.model.MutableComponentVariant;
+import org.gradle.internal.component.external.model.MutableModuleComponentResolveMetadata;
+import org.gradle.internal.component.external.model.PreferJavaRuntimeVariant;
+import org.gradle.internal.event.DefaultListenerManager;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.gradle.internal.service.scopes.Scopes;
+import org.gradle.internal.snapshot.impl.DefaultValueSnapshotter;
+import org.gradle.internal.state.DefaultManagedFactoryRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Decodes the cached metadata of a module with many variants, as done when reading the module metadata cache.
+ *
+ * Compare {@code decode} and {@code decodeAndQueryOneVariant} with {@code decodeAndQueryAllVariants} to see what the on demand decoding of variant content saves.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ModuleMetadataSerializerBenchmark {
+
+    private static final Attribute<String> VARIANT_ATTRIBUTE = Attribute.of("org.gradle.test.variant", String.class);
+
+    @Param({"10", "100"})
+    int variantCount;
+
+    @Param({"20"})
+    int dependencyCount;
+
+    private ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+    private ModuleMetadataSerializer serializer;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory();
+        NamedObjectInstantiator instantiator = new NamedObjectInstantiator(new DefaultCrossBuildInMemoryCacheFactory(new DefaultListenerManager(Scopes.BuildSession)));
+        ImmutableAttributesFactory attributesFactory = new DefaultImmutableAttributesFactory(new DefaultValueSnapshotter(classLoader -> HashCode.fromInt(classLoader.hashCode()), new DefaultManagedFactoryRegistry()), instantiator);
+        PreferJavaRuntimeVariant schema = new PreferJavaRuntimeVariant(instantiator);
+        MavenMutableModuleMetadataFactory mavenMetadataFactory = new MavenMutableModuleMetadataFactory(moduleIdentifierFactory, attributesFactory, instantiator, schema);
+        IvyMutableModuleMetadataFactory ivyMetadataFactory = new IvyMutableModuleMetadataFactory(moduleIdentifierFactory, attributesFactory, schema);
+        serializer = new ModuleMetadataSerializer(
+            new DesugaredAttributeContainerSerializer(attributesFactory, instantiator),
+            mavenMetadataFactory,
+            ivyMetadataFactory,
+            new ModuleSourcesSerializer(Collections.emptyMap())
+        );
+
+        MutableModuleComponentResolveMetadata metadata = mavenMetadataFactory.createForGradleModuleMetadata(DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org.gradle.test", "many-variants"), "1.0"));
+        for (int i = 0; i < variantCount; i++) {
+            ImmutableAttributes attributes = attributesFactory.of(VARIANT_ATTRIBUTE, "variant" + i);
+            MutableComponentVariant variant = metadata.addVariant("variant" + i, attributes);
+            for (int j = 0; j < dependencyCount; j++) {
+                variant.addDependency("org.gradle.test", "dependency" + j, DefaultImmutableVersionConstraint.of("1." + j), ImmutableList.of(), null, ImmutableAttributes.EMPTY, ImmutableList.of(), false, null);
+            }
+            variant.addFile("many-variants-" + i + ".jar", "many-variants-" + i + ".jar");
+            variant.addCapability("org.gradle.test", "capability" + i, "1.0");
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        serializer.write(encoder, metadata.asImmutable(), new HashMap<>());
+        encoder.flush();
+        serialized = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws IOException {
+        blackhole.consume(read().getVariants());
+    }
+
+    @Benchmark
+    public void decodeAndQueryOneVariant(Blackhole blackhole) throws IOException {
+        ComponentVariant variant = read().getVariants().get(variantCount / 2);
+        blackhole.consume(variant.getDependencies());
+        blackhole.consume(variant.getFiles());
+    }
+
+    @Benchmark
+    public void decodeAndQueryAllVariants(Blackhole blackhole) throws IOException {
+        for (ComponentVariant variant : read().getVariants()) {
+            blackhole.consume(variant.getDependencies());
+            blackhole.consume(variant.getFiles());
+        }
+    }
+
+    private MutableModuleComponentResolveMetadata read() throws IOException {
+        return serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(serialized)), moduleIdentifierFactory, new HashMap<>());
+    }
+}
@@ -74,6 +74,8 @@
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.InMemoryModuleVersionsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ReadOnlyModuleVersionsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.TwoStageModuleVersionsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.DefaultRepositoryContentIndex;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.InMemoryRepositoryContentIndex;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.LocalComponentMetadataBuilder;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.DependencyDescriptorFactory;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.DefaultLocalComponentRegistry;
@@ -146,6 +148,7 @@
 import org.gradle.internal.instantiation.InstantiatorFactory;
 import org.gradle.internal.logging.progress.ProgressLoggerFactory;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationListenerManager;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.resolve.caching.ComponentMetadataRuleExecutor;
 import org.gradle.internal.resolve.caching.ComponentMetadataSupplierRuleExecutor;
@@ -166,6 +169,7 @@
 import org.gradle.internal.resource.transport.http.HttpConnectorFactory;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.snapshot.ValueSnapshotter;
+import org.gradle.internal.time.Clock;
 import org.gradle.internal.typeconversion.NotationParser;
 import org.gradle.util.BuildCommencedTimeProvider;
 import org.gradle.util.internal.SimpleMapInterner;
@@ -270,7 +274,9 @@ ModuleRepositoryCacheProvider createModuleRepositoryCacheProvider(BuildCommenced
                                                                       SimpleMapInterner stringInterner,
                                                                       FileStoreAndIndexProvider fileStoreAndIndexProvider,
                                                                       ModuleSourcesSerializer moduleSourcesSerializer,
-                                                                      ChecksumService checksumService) {
+                                                                      ChecksumService checksumService,
+                                                                      BuildOperationListenerManager buildOperationListenerManager,
+                                                                      Clock clock) {
         ArtifactIdentifierFileStore artifactIdentifierFileStore = fileStoreAndIndexProvider.getArtifactIdentifierFileStore();
         ModuleRepositoryCaches writableCaches = artifactCaches.withWritableCache((md, manager) -> prepareModuleRepositoryCaches(md, manager, timeProvider, moduleIdentifierFactory, attributeContainerSerializer, mavenMetadataFactory, ivyMetadataFactory, stringInterner, artifactIdentifierFileStore, moduleSourcesSerializer, checksumService));
         AtomicReference<Path> roCachePath = new AtomicReference<>();
@@ -294,7 +300,10 @@ ModuleRepositoryCacheProvider createModuleRepositoryCacheProvider(BuildCommenced
             new InMemoryModuleArtifactsCache(timeProvider),
             new InMemoryModuleArtifactCache(timeProvider)
         );
-        return new ModuleRepositoryCacheProvider(persistentCaches, inMemoryOnlyCaches);
+        InMemoryRepositoryContentIndex repositoryContentIndex = new InMemoryRepositoryContentIndex(timeProvider,
+            artifactCaches.withWritableCache((md, manager) -> new DefaultRepositoryContentIndex(timeProvider, manager, moduleIdentifierFactory)),
+            buildOperationListenerManager.getBroadcaster(), clock);
+        return new ModuleRepositoryCacheProvider(persistentCaches, inMemoryOnlyCaches, repositoryContentIndex);
     }
 
     private ModuleRepositoryCaches prepareModuleRepositoryCaches(ArtifactCacheMetadata artifactCacheMetadata, ArtifactCacheLockingManager artifactCacheLockingManager, BuildCommencedTimeProvider timeProvider, ImmutableModuleIdentifierFactory moduleIdentifierFactory, AttributeContainerSerializer attributeContainerSerializer, MavenMutableModuleMetadataFactory mavenMetadataFactory, IvyMutableModuleMetadataFactory ivyMetadataFactory, SimpleMapInterner stringInterner, ArtifactIdentifierFileStore artifactIdentifierFileStore, ModuleSourcesSerializer moduleSourcesSerializer, ChecksumService checksumService) {
@@ -33,6 +33,7 @@ class ComponentMetaDataResolveState {
 
     private boolean searchedLocally;
     private boolean searchedRemotely;
+    private boolean rejected;
 
     public ComponentMetaDataResolveState(ModuleComponentIdentifier componentIdentifier, ComponentOverrideMetadata componentOverrideMetadata, ModuleComponentRepository repository, VersionedComponentChooser versionedComponentChooser) {
         this.componentOverrideMetadata = componentOverrideMetadata;
@@ -70,11 +71,23 @@ protected void process(ModuleComponentRepositoryAccess moduleAccess) {
         if (resolveResult.getState() == BuildableModuleComponentMetaDataResolveResult.State.Resolved) {
             RejectedByRuleVersion rejectedComponent = versionedComponentChooser.isRejectedComponent(componentIdentifier, new CachedMetadataProvider(resolveResult));
             if (rejectedComponent != null) {
+                rejected = true;
                 resolveResult.missing();
             }
         }
     }
 
+    BuildableModuleComponentMetaDataResolveResult.State getState() {
+        return resolveResult.getState();
+    }
+
+    /**
+     * Returns true when the component was found in the repository, but rejected by a component selection rule.
+     */
+    boolean isRejected() {
+        return rejected;
+    }
+
     protected void applyTo(ResourceAwareResolveResult result) {
         resolveResult.applyTo(result);
     }
@@ -31,6 +31,7 @@
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex;
 import org.gradle.api.internal.artifacts.repositories.ArtifactResolutionDetails;
 import org.gradle.api.internal.attributes.AttributeContainerInternal;
 import org.gradle.api.internal.attributes.ImmutableAttributes;
@@ -51,6 +52,7 @@
 import org.gradle.internal.resolve.caching.ComponentMetadataSupplierRuleExecutor;
 import org.gradle.internal.resolve.result.BuildableComponentIdResolveResult;
 import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult;
+import org.gradle.internal.resolve.result.BuildableModuleVersionListingResolveResult;
 import org.gradle.internal.resolve.result.ComponentSelectionContext;
 import org.gradle.internal.resolve.result.DefaultBuildableModuleComponentMetaDataResolveResult;
 import org.gradle.internal.resolve.result.DefaultBuildableModuleVersionListingResolveResult;
@@ -61,6 +63,7 @@
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -77,6 +80,7 @@ public class DynamicVersionResolver {
 
     private final List<ModuleComponentRepository> repositories = new ArrayList<>();
     private final List<String> repositoryNames = new ArrayList<>();
+    private final Map<ModuleComponentRepository, RepositoryContentIndex> contentIndexes = new IdentityHashMap<>();
     private final VersionedComponentChooser versionedComponentChooser;
     private final VersionParser versionParser;
     private final Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory;
@@ -96,8 +100,19 @@ public DynamicVersionResolver(VersionedComponentChooser versionedComponentChoose
     }
 
     public void add(ModuleComponentRepository repository) {
+        add(repository, null);
+    }
+
+    /**
+     * Adds a repository to this resolver. When a content index is provided, the modules that the repository lists versions for are recorded as present in the index,
+     * and the modules that the repository lists no versions for are recorded as missing.
+     */
+    public void add(ModuleComponentRepository repository, @Nullable RepositoryContentIndex contentIndex) {
         repositories.add(repository);
         repositoryNames.add(repository.getName());
+        if (contentIndex != null) {
+            contentIndexes.put(repository, contentIndex);
+        }
     }
 
     public void resolve(ModuleDependencyMetadata dependency, VersionSelector versionSelector, VersionSelector rejectedVersionSelector, AttributeContainer consumerAttributes, BuildableComponentIdResolveResult result) {
@@ -111,6 +126,7 @@ public void resolve(ModuleDependencyMetadata dependency, VersionSelector version
         }
 
         final RepositoryChainModuleResolution latestResolved = findLatestModule(resolveStates, errors);
+        recordContent(requested, resolveStates);
         if (latestResolved != null) {
             LOGGER.debug("Using {} from {}", latestResolved.module.getModuleVersionId(), latestResolved.repository);
             for (Throwable error : errors) {
@@ -146,6 +162,20 @@ private void notFound(BuildableComponentIdResolveResult result, ModuleComponentS
         result.failed(new ModuleVersionNotFoundException(requested, result.getAttempted(), result.getUnmatchedVersions(), result.getRejectedVersions()));
     }
 
+    private void recordContent(ModuleComponentSelector requested, List<RepositoryResolveState> resolveStates) {
+        for (RepositoryResolveState resolveState : resolveStates) {
+            RepositoryContentIndex contentIndex = contentIndexes.get(resolveState.repository);
+            if (contentIndex == null || !resolveState.versionListingResult.listedRemotely) {
+                // Listings served from the caches or by content filters were recorded when they were fetched, or do not describe the repository
+                continue;
+            }
+            BuildableModuleVersionListingResolveResult listing = resolveState.versionListingResult.result;
+            if (listing.getState() == BuildableModuleVersionListingResolveResult.State.Listed) {
+                contentIndex.recordModulePresence(resolveState.repository, requested.getModuleIdentifier(), !listing.getVersions().isEmpty());
+            }
+        }
+    }
+
     @Nullable
     private RepositoryChainModuleResolution findLatestModule(List<RepositoryResolveState> resolveStates, Collection<Throwable> failures) {
         LinkedList<RepositoryResolveState> queue = new LinkedList<>(resolveStates);
@@ -520,6 +550,7 @@ private static class VersionListResult {
 
         private boolean searchedLocally;
         private boolean searchedRemotely;
+        private boolean listedRemotely;
 
         public VersionListResult(ModuleDependencyMetadata dependency, ModuleComponentRepository repository) {
             this.dependency = dependency;
@@ -542,6 +573,7 @@ void resolve() {
             if (!searchedRemotely) {
                 searchedRemotely = true;
                 process(dependency, repository.getRemoteAccess());
+                listedRemotely = result.hasResult();
             }
 
             // Otherwise, just reuse previous result
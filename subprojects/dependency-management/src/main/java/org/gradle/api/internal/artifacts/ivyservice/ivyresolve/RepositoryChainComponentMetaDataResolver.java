@@ -19,6 +19,8 @@
 import org.gradle.api.Transformer;
 import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex;
 import org.gradle.api.internal.artifacts.repositories.resolver.MetadataFetchingCost;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
 import org.gradle.internal.component.model.ComponentOverrideMetadata;
@@ -29,10 +31,14 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import static org.gradle.internal.resolve.ResolveExceptionAnalyzer.hasCriticalFailure;
 import static org.gradle.internal.resolve.ResolveExceptionAnalyzer.isCriticalFailure;
@@ -42,17 +48,31 @@ public class RepositoryChainComponentMetaDataResolver implements ComponentMetaDa
 
     private final List<ModuleComponentRepository> repositories = new ArrayList<>();
     private final List<String> repositoryNames = new ArrayList<>();
+    private final Map<ModuleComponentRepository, RepositoryContentIndex> contentIndexes = new IdentityHashMap<>();
     private final VersionedComponentChooser versionedComponentChooser;
     private final Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory;
+    private final CachePolicy cachePolicy;
 
-    public RepositoryChainComponentMetaDataResolver(VersionedComponentChooser componentChooser, Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory) {
+    public RepositoryChainComponentMetaDataResolver(VersionedComponentChooser componentChooser, Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory, CachePolicy cachePolicy) {
         this.versionedComponentChooser = componentChooser;
         this.metaDataFactory = metaDataFactory;
+        this.cachePolicy = cachePolicy;
     }
 
     public void add(ModuleComponentRepository repository) {
+        add(repository, null);
+    }
+
+    /**
+     * Adds a repository to this chain. When a content index is provided, the modules found in the repository are recorded in the index,
+     * and the repository is only searched remotely for a module it is known not to host when no other repository provides that module.
+     */
+    public void add(ModuleComponentRepository repository, @Nullable RepositoryContentIndex contentIndex) {
         repositories.add(repository);
         repositoryNames.add(repository.getName());
+        if (contentIndex != null) {
+            contentIndexes.put(repository, contentIndex);
+        }
     }
 
     @Override
@@ -90,7 +110,8 @@ private void resolveModule(ModuleComponentIdentifier identifier, ComponentOverri
             resolveStates.add(new ComponentMetaDataResolveState(identifier, componentOverrideMetadata, repository, versionedComponentChooser));
         }
 
-        final RepositoryChainModuleResolution latestResolved = findBestMatch(resolveStates, errors);
+        final RepositoryChainModuleResolution latestResolved = findBestMatch(identifier, resolveStates, errors);
+        recordContent(identifier, resolveStates);
         if (latestResolved != null) {
             LOGGER.debug("Using {} from {}", latestResolved.module.getModuleVersionId(), latestResolved.repository);
             for (Throwable error : errors) {
@@ -110,7 +131,7 @@ private void resolveModule(ModuleComponentIdentifier identifier, ComponentOverri
         }
     }
 
-    private RepositoryChainModuleResolution findBestMatch(List<ComponentMetaDataResolveState> resolveStates, Collection<Throwable> failures) {
+    private RepositoryChainModuleResolution findBestMatch(ModuleComponentIdentifier identifier, List<ComponentMetaDataResolveState> resolveStates, Collection<Throwable> failures) {
         LinkedList<ComponentMetaDataResolveState> queue = new LinkedList<>(resolveStates);
 
         LinkedList<ComponentMetaDataResolveState> missing = new LinkedList<>();
@@ -124,10 +145,78 @@ private RepositoryChainModuleResolution findBestMatch(List<ComponentMetaDataReso
             return best;
         }
 
-        // Nothing found locally - try a remote search for all resolve states that were not yet searched remotely
-        queue.addAll(missing);
+        // Nothing found locally - try a remote search for all resolve states that were not yet searched remotely,
+        // leaving the repositories that are known not to host the module until last
+        LinkedList<ComponentMetaDataResolveState> knownMissing = new LinkedList<>();
+        for (ComponentMetaDataResolveState request : missing) {
+            if (isKnownMissing(identifier, request.repository)) {
+                knownMissing.add(request);
+            } else {
+                queue.add(request);
+            }
+        }
         missing.clear();
-        return findBestMatch(queue, failures, missing);
+        best = findBestMatch(queue, failures, missing);
+        if (knownMissing.isEmpty() || hasCriticalFailure(failures)) {
+            return best;
+        }
+        if (best != null && !best.module.isMissing()) {
+            recordAvoidedLookups(identifier, best, knownMissing);
+            return best;
+        }
+
+        // Nothing found elsewhere - search the repositories that are known not to host the module after all
+        LOGGER.debug("Searching repositories known not to host module '{}' for {}", identifier.getModuleIdentifier(), identifier);
+        RepositoryChainModuleResolution fallback = findBestMatch(knownMissing, failures, missing);
+        if (best == null || (fallback != null && !fallback.module.isMissing())) {
+            return fallback;
+        }
+        return best;
+    }
+
+    private boolean isKnownMissing(ModuleComponentIdentifier identifier, ModuleComponentRepository repository) {
+        RepositoryContentIndex contentIndex = contentIndexes.get(repository);
+        if (contentIndex == null) {
+            return false;
+        }
+        RepositoryContentIndex.CachedModulePresence presence = contentIndex.getModulePresence(repository, identifier.getModuleIdentifier());
+        // A module missing from a repository is like an empty version listing, which is kept until dependencies are refreshed
+        return presence != null && !presence.isPresent() && !cachePolicy.mustRefreshVersionList(identifier.getModuleIdentifier(), Collections.emptySet(), presence.getAgeMillis());
+    }
+
+    private void recordAvoidedLookups(ModuleComponentIdentifier identifier, RepositoryChainModuleResolution resolution, Collection<ComponentMetaDataResolveState> knownMissing) {
+        // Only the repositories declared before the one providing the module would have been searched
+        int resolvedIndex = repositories.indexOf(resolution.repository);
+        for (ComponentMetaDataResolveState request : knownMissing) {
+            if (repositories.indexOf(request.repository) < resolvedIndex) {
+                LOGGER.debug("Skipped remote search for {} in {} as the repository is known not to host the module", identifier, request.repository);
+                contentIndexes.get(request.repository).lookupAvoided(request.repository, identifier);
+            }
+        }
+    }
+
+    private void recordContent(ModuleComponentIdentifier identifier, List<ComponentMetaDataResolveState> resolveStates) {
+        for (ComponentMetaDataResolveState resolveState : resolveStates) {
+            RepositoryContentIndex contentIndex = contentIndexes.get(resolveState.repository);
+            if (contentIndex == null) {
+                continue;
+            }
+            switch (resolveState.getState()) {
+                case Resolved:
+                    contentIndex.recordModulePresence(resolveState.repository, identifier.getModuleIdentifier(), true);
+                    break;
+                case Missing:
+                    // A version rejected by a rule was found. A version missing from the caches is only recorded once it was looked up remotely,
+                    // and does not override a module known to be present.
+                    if (resolveState.isRejected() || !resolveState.canMakeFurtherAttempts()) {
+                        contentIndex.recordModulePresence(resolveState.repository, identifier.getModuleIdentifier(), resolveState.isRejected());
+                    }
+                    break;
+                default:
+                    // Nothing learned about the content of the repository
+                    break;
+            }
+        }
     }
 
     private RepositoryChainModuleResolution findBestMatch(LinkedList<ComponentMetaDataResolveState> queue, Collection<Throwable> failures, Collection<ComponentMetaDataResolveState> missing) {
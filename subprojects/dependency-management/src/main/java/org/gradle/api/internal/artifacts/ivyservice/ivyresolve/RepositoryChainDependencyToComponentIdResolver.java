@@ -28,6 +28,7 @@
 import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex;
 import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
@@ -50,7 +51,11 @@ public RepositoryChainDependencyToComponentIdResolver(VersionedComponentChooser
     }
 
     public void add(ModuleComponentRepository repository) {
-        dynamicRevisionResolver.add(repository);
+        add(repository, null);
+    }
+
+    public void add(ModuleComponentRepository repository, @Nullable RepositoryContentIndex contentIndex) {
+        dynamicRevisionResolver.add(repository, contentIndex);
     }
 
     @Override
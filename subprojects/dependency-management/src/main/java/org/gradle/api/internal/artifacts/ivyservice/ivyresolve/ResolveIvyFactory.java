@@ -31,6 +31,7 @@
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.verification.DependencyVerificationOverride;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleRepositoryCacheProvider;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex;
 import org.gradle.api.internal.artifacts.ivyservice.resolutionstrategy.DefaultComponentSelectionRules;
 import org.gradle.api.internal.artifacts.repositories.ArtifactResolutionDetails;
 import org.gradle.api.internal.artifacts.repositories.ContentFilteringRepository;
@@ -62,6 +63,12 @@
 import java.util.Collection;
 
 public class ResolveIvyFactory {
+    /**
+     * When enabled, which is the default, the modules found in each remote repository are recorded, and repositories known not to host a module
+     * are only searched for it when no other repository provides it.
+     */
+    private static final boolean INDEX_REPOSITORY_CONTENT = !"false".equals(System.getProperty("org.gradle.internal.repository.content.index"));
+
     private final ModuleRepositoryCacheProvider cacheProvider;
     private final StartParameterResolutionOverride startParameterResolutionOverride;
     private final BuildCommencedTimeProvider timeProvider;
@@ -124,6 +131,7 @@ public ComponentResolvers create(String resolveContextName,
             ComponentMetadataProcessor componentMetadataProcessor = metadataProcessor.createComponentMetadataProcessor(metadataResolutionContext);
 
             ModuleComponentRepository moduleComponentRepository = baseRepository;
+            RepositoryContentIndex contentIndex = null;
             if (baseRepository.isLocal()) {
                 moduleComponentRepository = new CachingModuleComponentRepository(moduleComponentRepository, cacheProvider.getInMemoryOnlyCaches(),
                     cachePolicy, timeProvider, componentMetadataProcessor);
@@ -132,6 +140,9 @@ public ComponentResolvers create(String resolveContextName,
                 moduleComponentRepository = startParameterResolutionOverride.overrideModuleVersionRepository(moduleComponentRepository);
                 moduleComponentRepository = new CachingModuleComponentRepository(moduleComponentRepository, cacheProvider.getPersistentCaches(),
                     cachePolicy, timeProvider, componentMetadataProcessor);
+                if (INDEX_REPOSITORY_CONTENT) {
+                    contentIndex = cacheProvider.getRepositoryContentIndex();
+                }
             }
             moduleComponentRepository = cacheProvider.getResolvedArtifactCaches().provideResolvedArtifactCache(moduleComponentRepository);
 
@@ -141,8 +152,8 @@ public ComponentResolvers create(String resolveContextName,
             moduleComponentRepository = new ErrorHandlingModuleComponentRepository(moduleComponentRepository, repositoryBlacklister);
             moduleComponentRepository = filterRepository(repository, moduleComponentRepository, resolveContextName, consumerAttributes);
             moduleComponentRepository = dependencyVerificationOverride.overrideDependencyVerification(moduleComponentRepository, resolveContextName, resolutionStrategy);
-            moduleResolver.add(moduleComponentRepository);
-            parentModuleResolver.add(moduleComponentRepository);
+            moduleResolver.add(moduleComponentRepository, contentIndex);
+            parentModuleResolver.add(moduleComponentRepository, contentIndex);
         }
 
         return moduleResolver;
@@ -171,8 +182,8 @@ public ParentModuleLookupResolver(VersionComparator versionComparator, Immutable
             this.delegate = new UserResolverChain(versionComparator, new DefaultComponentSelectionRules(moduleIdentifierFactory), versionParser, consumerAttributes, attributesSchema, attributesFactory, componentMetadataProcessorFactory, componentMetadataSupplierRuleExecutor, cachePolicy);
         }
 
-        public void add(ModuleComponentRepository moduleComponentRepository) {
-            delegate.add(moduleComponentRepository);
+        public void add(ModuleComponentRepository moduleComponentRepository, @Nullable RepositoryContentIndex contentIndex) {
+            delegate.add(moduleComponentRepository, contentIndex);
         }
 
         @Override
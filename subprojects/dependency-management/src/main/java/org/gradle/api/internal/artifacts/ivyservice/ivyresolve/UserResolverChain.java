@@ -24,6 +24,7 @@
 import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionComparator;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex;
 import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
 import org.gradle.internal.component.model.ImmutableModuleSources;
@@ -34,6 +35,8 @@
 import org.gradle.internal.resolve.resolver.DependencyToComponentIdResolver;
 import org.gradle.internal.resolve.resolver.OriginArtifactSelector;
 
+import javax.annotation.Nullable;
+
 public class UserResolverChain implements ComponentResolvers {
     private final RepositoryChainDependencyToComponentIdResolver componentIdResolver;
     private final RepositoryChainComponentMetaDataResolver componentResolver;
@@ -51,7 +54,7 @@ public UserResolverChain(VersionComparator versionComparator,
         VersionedComponentChooser componentChooser = new DefaultVersionedComponentChooser(versionComparator, versionParser, componentSelectionRules, attributesSchema);
         ModuleTransformer metaDataFactory = new ModuleTransformer();
         componentIdResolver = new RepositoryChainDependencyToComponentIdResolver(componentChooser, metaDataFactory, versionParser, consumerAttributes, attributesFactory, componentMetadataProcessor, componentMetadataSupplierRuleExecutor, cachePolicy);
-        componentResolver = new RepositoryChainComponentMetaDataResolver(componentChooser, metaDataFactory);
+        componentResolver = new RepositoryChainComponentMetaDataResolver(componentChooser, metaDataFactory, cachePolicy);
         artifactResolver = new RepositoryChainArtifactResolver();
     }
 
@@ -80,8 +83,12 @@ public ComponentSelectionRulesInternal getComponentSelectionRules() {
     }
 
     public void add(ModuleComponentRepository repository) {
-        componentIdResolver.add(repository);
-        componentResolver.add(repository);
+        add(repository, null);
+    }
+
+    public void add(ModuleComponentRepository repository, @Nullable RepositoryContentIndex contentIndex) {
+        componentIdResolver.add(repository, contentIndex);
+        componentResolver.add(repository, contentIndex);
         artifactResolver.add(repository);
     }
 
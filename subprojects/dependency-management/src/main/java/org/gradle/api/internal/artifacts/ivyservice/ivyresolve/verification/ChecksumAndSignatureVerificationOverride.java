@@ -48,6 +48,8 @@
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -58,6 +60,8 @@
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ChecksumAndSignatureVerificationOverride implements DependencyVerificationOverride, ArtifactVerificationOperation, Stoppable {
     private final static Logger LOGGER = Logging.getLogger(ChecksumAndSignatureVerificationOverride.class);
@@ -72,6 +76,8 @@ public class ChecksumAndSignatureVerificationOverride implements DependencyVerif
     private final Deque<VerificationEvent> verificationEvents = Queues.newArrayDeque();
     private final AtomicBoolean closed = new AtomicBoolean();
     private final AtomicBoolean hasFatalFailure = new AtomicBoolean();
+    private final AtomicInteger verifiedArtifacts = new AtomicInteger();
+    private final AtomicLong verificationTimeMillis = new AtomicLong();
     private final DependencyVerificationReportWriter reportWriter;
 
     public ChecksumAndSignatureVerificationOverride(BuildOperationExecutor buildOperationExecutor,
@@ -133,6 +139,7 @@ private void verifyConcurrently() {
                     queue.add(new RunnableBuildOperation() {
                         @Override
                         public void run(BuildOperationContext context) {
+                            Timer timer = Time.startTimer();
                             verifier.verify(checksumService, signatureVerificationService, ve.kind, ve.artifact, ve.mainFile, ve.signatureFile.create(), f -> {
                                 synchronized (failures) {
                                     failures.put(ve.artifact, new RepositoryAwareVerificationFailure(f, ve.repositoryName));
@@ -141,6 +148,10 @@ public void run(BuildOperationContext context) {
                                     hasFatalFailure.set(true);
                                 }
                             });
+                            long elapsedMillis = timer.getElapsedMillis();
+                            verifiedArtifacts.incrementAndGet();
+                            verificationTimeMillis.addAndGet(elapsedMillis);
+                            LOGGER.debug("Verified {} from {} in {} ms", ve.artifact, ve.repositoryName, elapsedMillis);
                         }
 
                         @Override
@@ -220,6 +231,9 @@ public Class<? extends Artifact> getType() {
     @Override
     public void stop() {
         closed.set(true);
+        if (verifiedArtifacts.get() > 0) {
+            LOGGER.info("Dependency verification checked {} artifacts in {} ms of cumulative verification time.", verifiedArtifacts.get(), verificationTimeMillis.get());
+        }
         signatureVerificationService.stop();
     }
 
@@ -17,9 +17,12 @@
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
+import org.gradle.api.Action;
+import org.gradle.api.UncheckedIOException;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.artifacts.component.ModuleComponentSelector;
 import org.gradle.api.attributes.AttributeContainer;
@@ -62,7 +65,12 @@
 import org.gradle.internal.component.model.IvyArtifactName;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -137,13 +145,25 @@ private void writeVariants(ModuleComponentResolveMetadata metadata) throws IOExc
             for (ComponentVariant variant : metadata.getVariants()) {
                 encoder.writeString(variant.getName());
                 writeAttributes(variant.getAttributes());
-                writeVariantDependencies(variant.getDependencies());
-                writeVariantConstraints(variant.getDependencyConstraints());
-                writeVariantFiles(variant.getFiles());
-                writeVariantCapabilities(variant.getCapabilities().getCapabilities());
+                encoder.writeBinary(encodeVariantContent(variant));
             }
         }
 
+        /**
+         * Encodes the content of a variant as a separate, length-prefixed block so that it can be skipped on read and only decoded when the variant is actually used.
+         */
+        private byte[] encodeVariantContent(ComponentVariant variant) throws IOException {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (KryoBackedEncoder contentEncoder = new KryoBackedEncoder(outputStream)) {
+                Writer contentWriter = new Writer(contentEncoder, attributeContainerSerializer, componentSelectorSerializer, moduleSourcesSerializer);
+                contentWriter.writeVariantDependencies(variant.getDependencies());
+                contentWriter.writeVariantConstraints(variant.getDependencyConstraints());
+                contentWriter.writeVariantFiles(variant.getFiles());
+                contentWriter.writeVariantCapabilities(variant.getCapabilities().getCapabilities());
+            }
+            return outputStream.toByteArray();
+        }
+
         private void writeVariantConstraints(ImmutableList<? extends ComponentVariant.DependencyConstraint> constraints) throws IOException {
             encoder.writeSmallInt(constraints.size());
             for (ComponentVariant.DependencyConstraint constraint : constraints) {
@@ -389,6 +409,51 @@ private void writeStringSet(Set<String> values) throws IOException {
         }
     }
 
+    /**
+     * Decodes the content of a variant on demand, from the block written by {@link Writer#encodeVariantContent(ComponentVariant)}.
+     */
+    private static class VariantContentLoader implements Action<MutableComponentVariant> {
+        private final byte[] content;
+        private final Interner<String> stringInterner;
+        private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+        private final AttributeContainerSerializer attributeContainerSerializer;
+        private final ModuleComponentSelectorSerializer componentSelectorSerializer;
+        private final MavenMutableModuleMetadataFactory mavenMetadataFactory;
+        private final IvyMutableModuleMetadataFactory ivyMetadataFactory;
+        private final ModuleSourcesSerializer moduleSourcesSerializer;
+
+        private VariantContentLoader(byte[] content,
+                                     @Nullable Interner<String> stringInterner,
+                                     ImmutableModuleIdentifierFactory moduleIdentifierFactory,
+                                     AttributeContainerSerializer attributeContainerSerializer,
+                                     ModuleComponentSelectorSerializer componentSelectorSerializer,
+                                     MavenMutableModuleMetadataFactory mavenMetadataFactory,
+                                     IvyMutableModuleMetadataFactory ivyMetadataFactory,
+                                     ModuleSourcesSerializer moduleSourcesSerializer) {
+            this.content = content;
+            this.stringInterner = stringInterner;
+            this.moduleIdentifierFactory = moduleIdentifierFactory;
+            this.attributeContainerSerializer = attributeContainerSerializer;
+            this.componentSelectorSerializer = componentSelectorSerializer;
+            this.mavenMetadataFactory = mavenMetadataFactory;
+            this.ivyMetadataFactory = ivyMetadataFactory;
+            this.moduleSourcesSerializer = moduleSourcesSerializer;
+        }
+
+        @Override
+        public void execute(MutableComponentVariant variant) {
+            Decoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(content), content.length);
+            if (stringInterner != null) {
+                decoder = new StringDeduplicatingDecoder(decoder, stringInterner);
+            }
+            try {
+                new Reader(decoder, moduleIdentifierFactory, attributeContainerSerializer, componentSelectorSerializer, mavenMetadataFactory, ivyMetadataFactory, moduleSourcesSerializer).readVariantContent(variant);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not decode content of variant '" + variant.getName() + "'", e);
+            }
+        }
+    }
+
     private static class Reader {
         private final Decoder decoder;
         private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
@@ -460,14 +525,22 @@ private void readVariants(MutableModuleComponentResolveMetadata metadata) throws
             for (int i = 0; i < count; i++) {
                 String name = decoder.readString();
                 ImmutableAttributes attributes = readAttributes();
-                MutableComponentVariant variant = metadata.addVariant(name, attributes);
-                readVariantDependencies(variant);
-                readVariantConstraints(variant);
-                readVariantFiles(variant);
-                readVariantCapabilities(variant);
+                metadata.addLazyVariant(name, attributes, new VariantContentLoader(decoder.readBinary(), stringInterner(), moduleIdentifierFactory, attributeContainerSerializer, componentSelectorSerializer, mavenMetadataFactory, ivyMetadataFactory, moduleSourcesSerializer));
             }
         }
 
+        @Nullable
+        private Interner<String> stringInterner() {
+            return decoder instanceof StringDeduplicatingDecoder ? ((StringDeduplicatingDecoder) decoder).getStringInterner() : null;
+        }
+
+        private void readVariantContent(MutableComponentVariant variant) throws IOException {
+            readVariantDependencies(variant);
+            readVariantConstraints(variant);
+            readVariantFiles(variant);
+            readVariantCapabilities(variant);
+        }
+
         private ImmutableAttributes readAttributes() throws IOException {
             return attributeContainerSerializer.read(decoder);
         }
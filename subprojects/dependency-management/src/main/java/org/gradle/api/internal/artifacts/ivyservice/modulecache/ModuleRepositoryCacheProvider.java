@@ -15,14 +15,23 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 
-public class ModuleRepositoryCacheProvider {
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex;
+import org.gradle.internal.concurrent.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ModuleRepositoryCacheProvider implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModuleRepositoryCacheProvider.class);
+
     private final ModuleRepositoryCaches caches;
     private final ModuleRepositoryCaches inMemoryCaches;
+    private final RepositoryContentIndex repositoryContentIndex;
     private final ResolvedArtifactCaches resolvedArtifactCaches = new ResolvedArtifactCaches();
 
-    public ModuleRepositoryCacheProvider(ModuleRepositoryCaches caches, ModuleRepositoryCaches inMemoryCaches) {
+    public ModuleRepositoryCacheProvider(ModuleRepositoryCaches caches, ModuleRepositoryCaches inMemoryCaches, RepositoryContentIndex repositoryContentIndex) {
         this.caches = caches;
         this.inMemoryCaches = inMemoryCaches;
+        this.repositoryContentIndex = repositoryContentIndex;
     }
 
     /**
@@ -40,7 +49,22 @@ public ModuleRepositoryCaches getInMemoryOnlyCaches() {
         return inMemoryCaches;
     }
 
+    /**
+     * Returns the persistent index of which modules were found in which remote repositories.
+     */
+    public RepositoryContentIndex getRepositoryContentIndex() {
+        return repositoryContentIndex;
+    }
+
     public ResolvedArtifactCaches getResolvedArtifactCaches() {
         return resolvedArtifactCaches;
     }
+
+    @Override
+    public void stop() {
+        int avoidedLookups = repositoryContentIndex.getAvoidedLookups();
+        if (avoidedLookups > 0) {
+            LOGGER.info("Repository content index avoided {} remote metadata lookups.", avoidedLookups);
+        }
+    }
 }
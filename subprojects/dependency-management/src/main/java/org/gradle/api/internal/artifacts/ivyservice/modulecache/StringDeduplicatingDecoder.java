@@ -33,6 +33,10 @@ class StringDeduplicatingDecoder implements Decoder, Closeable {
         this.stringInterner = stringInterner;
     }
 
+    Interner<String> getStringInterner() {
+        return stringInterner;
+    }
+
     @Override
     public InputStream getInputStream() {
         return delegate.getInputStream();
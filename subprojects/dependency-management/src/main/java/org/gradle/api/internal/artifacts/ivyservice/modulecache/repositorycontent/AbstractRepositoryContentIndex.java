@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository;
+import org.gradle.internal.operations.BuildOperationListener;
+import org.gradle.internal.operations.CurrentBuildOperationRef;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationProgressEvent;
+import org.gradle.internal.time.Clock;
+import org.gradle.util.BuildCommencedTimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public abstract class AbstractRepositoryContentIndex implements RepositoryContentIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRepositoryContentIndex.class);
+    protected final BuildCommencedTimeProvider timeProvider;
+    private final AtomicInteger avoidedLookups = new AtomicInteger();
+    private final BuildOperationListener buildOperationListener;
+    private final Clock clock;
+
+    public AbstractRepositoryContentIndex(BuildCommencedTimeProvider timeProvider) {
+        this(timeProvider, null, null);
+    }
+
+    /**
+     * Creates an index that reports each avoided lookup as progress of the current build operation.
+     */
+    public AbstractRepositoryContentIndex(BuildCommencedTimeProvider timeProvider, @Nullable BuildOperationListener buildOperationListener, @Nullable Clock clock) {
+        this.timeProvider = timeProvider;
+        this.buildOperationListener = buildOperationListener;
+        this.clock = clock;
+    }
+
+    @Override
+    public void recordModulePresence(ModuleComponentRepository repository, ModuleIdentifier moduleId, boolean present) {
+        ModuleAtRepositoryKey key = new ModuleAtRepositoryKey(repository.getId(), moduleId);
+        if (!present) {
+            ModulePresenceEntry existing = get(key);
+            if (existing != null && existing.present) {
+                return;
+            }
+        }
+        LOGGER.debug("Recording module '{}' as {} in repository content index for '{}'", moduleId, present ? "present" : "missing", repository.getName());
+        store(key, new ModulePresenceEntry(present, timeProvider.getCurrentTime()));
+    }
+
+    @Nullable
+    @Override
+    public CachedModulePresence getModulePresence(ModuleComponentRepository repository, ModuleIdentifier moduleId) {
+        ModulePresenceEntry entry = get(new ModuleAtRepositoryKey(repository.getId(), moduleId));
+        if (entry == null) {
+            return null;
+        }
+        long ageMillis = timeProvider.getCurrentTime() - entry.createTimestamp;
+        return new CachedModulePresence() {
+            @Override
+            public boolean isPresent() {
+                return entry.present;
+            }
+
+            @Override
+            public long getAgeMillis() {
+                return ageMillis;
+            }
+        };
+    }
+
+    @Override
+    public void lookupAvoided(ModuleComponentRepository repository, ModuleComponentIdentifier component) {
+        avoidedLookups.incrementAndGet();
+        if (buildOperationListener == null) {
+            return;
+        }
+        OperationIdentifier buildOperationId = CurrentBuildOperationRef.instance().getId();
+        if (buildOperationId != null) {
+            buildOperationListener.progress(buildOperationId, new OperationProgressEvent(clock.getCurrentTime(), new LookupAvoided(repository.getId(), repository.getName(), component)));
+        }
+    }
+
+    @Override
+    public int getAvoidedLookups() {
+        return avoidedLookups.get();
+    }
+
+    protected abstract void store(ModuleAtRepositoryKey key, ModulePresenceEntry entry);
+
+    @Nullable
+    protected abstract ModulePresenceEntry get(ModuleAtRepositoryKey key);
+
+    private static class LookupAvoided implements RepositoryLookupAvoidedProgressDetails {
+        private final String repositoryId;
+        private final String repositoryName;
+        private final ModuleComponentIdentifier component;
+
+        private LookupAvoided(String repositoryId, String repositoryName, ModuleComponentIdentifier component) {
+            this.repositoryId = repositoryId;
+            this.repositoryName = repositoryName;
+            this.component = component;
+        }
+
+        @Override
+        public String getRepositoryId() {
+            return repositoryId;
+        }
+
+        @Override
+        public String getRepositoryName() {
+            return repositoryName;
+        }
+
+        @Override
+        public String getGroup() {
+            return component.getGroup();
+        }
+
+        @Override
+        public String getModule() {
+            return component.getModule();
+        }
+
+        @Override
+        public String getVersion() {
+            return component.getVersion();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent;
+
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheLockingManager;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.util.BuildCommencedTimeProvider;
+
+public class DefaultRepositoryContentIndex extends AbstractRepositoryContentIndex {
+
+    private final ArtifactCacheLockingManager artifactCacheLockingManager;
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+
+    private PersistentIndexedCache<ModuleAtRepositoryKey, ModulePresenceEntry> cache;
+
+    public DefaultRepositoryContentIndex(BuildCommencedTimeProvider timeProvider, ArtifactCacheLockingManager artifactCacheLockingManager, ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+        super(timeProvider);
+        this.artifactCacheLockingManager = artifactCacheLockingManager;
+        this.moduleIdentifierFactory = moduleIdentifierFactory;
+    }
+
+    private PersistentIndexedCache<ModuleAtRepositoryKey, ModulePresenceEntry> getCache() {
+        if (cache == null) {
+            cache = initCache();
+        }
+        return cache;
+    }
+
+    private PersistentIndexedCache<ModuleAtRepositoryKey, ModulePresenceEntry> initCache() {
+        return artifactCacheLockingManager.createCache("repository-content", new ModuleKeySerializer(moduleIdentifierFactory), new ModulePresenceEntrySerializer());
+    }
+
+    @Override
+    protected void store(ModuleAtRepositoryKey key, ModulePresenceEntry entry) {
+        getCache().put(key, entry);
+    }
+
+    @Override
+    protected ModulePresenceEntry get(ModuleAtRepositoryKey key) {
+        return getCache().get(key);
+    }
+
+    private static class ModuleKeySerializer extends AbstractSerializer<ModuleAtRepositoryKey> {
+        private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+
+        private ModuleKeySerializer(ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+            this.moduleIdentifierFactory = moduleIdentifierFactory;
+        }
+
+        @Override
+        public void write(Encoder encoder, ModuleAtRepositoryKey value) throws Exception {
+            encoder.writeString(value.repositoryId);
+            encoder.writeString(value.moduleId.getGroup());
+            encoder.writeString(value.moduleId.getName());
+        }
+
+        @Override
+        public ModuleAtRepositoryKey read(Decoder decoder) throws Exception {
+            String repositoryId = decoder.readString();
+            String group = decoder.readString();
+            String module = decoder.readString();
+            return new ModuleAtRepositoryKey(repositoryId, moduleIdentifierFactory.module(group, module));
+        }
+    }
+
+    private static class ModulePresenceEntrySerializer extends AbstractSerializer<ModulePresenceEntry> {
+
+        @Override
+        public void write(Encoder encoder, ModulePresenceEntry value) throws Exception {
+            encoder.writeBoolean(value.present);
+            encoder.writeLong(value.createTimestamp);
+        }
+
+        @Override
+        public ModulePresenceEntry read(Decoder decoder) throws Exception {
+            boolean present = decoder.readBoolean();
+            long createTimestamp = decoder.readLong();
+            return new ModulePresenceEntry(present, createTimestamp);
+        }
+    }
+}
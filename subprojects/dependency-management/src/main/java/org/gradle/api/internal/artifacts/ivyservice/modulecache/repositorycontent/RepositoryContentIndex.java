@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository;
+
+import javax.annotation.Nullable;
+
+/**
+ * Remembers, per repository, whether a module was found in that repository by previous resolutions.
+ *
+ * This lets a repository chain avoid probing repositories that are known not to host a module,
+ * complementing the content filters that can be declared explicitly on a repository.
+ */
+public interface RepositoryContentIndex {
+
+    /**
+     * Records whether the repository hosts the given module. A module is recorded as missing when the repository
+     * lists no versions of it, or when the repository does not have a version of it that was looked up.
+     * A module that is known to be present is never recorded as missing, so a missing version does not hide
+     * a repository that is known to host other versions of the module.
+     *
+     * Entries stay valid until dependencies are refreshed.
+     */
+    void recordModulePresence(ModuleComponentRepository repository, ModuleIdentifier moduleId, boolean present);
+
+    @Nullable
+    CachedModulePresence getModulePresence(ModuleComponentRepository repository, ModuleIdentifier moduleId);
+
+    /**
+     * Records a remote lookup that was not made because the repository was known not to host the module.
+     * The lookup is reported as {@link RepositoryLookupAvoidedProgressDetails progress} of the current build operation.
+     */
+    void lookupAvoided(ModuleComponentRepository repository, ModuleComponentIdentifier component);
+
+    int getAvoidedLookups();
+
+    interface CachedModulePresence {
+        boolean isPresent();
+
+        long getAgeMillis();
+    }
+}
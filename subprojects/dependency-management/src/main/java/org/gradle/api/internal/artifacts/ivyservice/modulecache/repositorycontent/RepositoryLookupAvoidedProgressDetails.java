@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent;
+
+/**
+ * Progress of a dependency resolution, emitted when a remote repository is not searched for a module version
+ * because the repository is known not to host the module.
+ */
+public interface RepositoryLookupAvoidedProgressDetails {
+
+    /**
+     * The id of the repository that was not searched.
+     */
+    String getRepositoryId();
+
+    String getRepositoryName();
+
+    String getGroup();
+
+    String getModule();
+
+    String getVersion();
+}
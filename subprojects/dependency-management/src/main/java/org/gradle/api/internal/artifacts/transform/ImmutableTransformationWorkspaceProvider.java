@@ -19,50 +19,87 @@
 import com.google.common.collect.ImmutableList;
 import org.gradle.cache.CacheBuilder;
 import org.gradle.cache.CacheRepository;
+import org.gradle.cache.CleanableStore;
 import org.gradle.cache.CleanupAction;
+import org.gradle.cache.CleanupProgressMonitor;
 import org.gradle.cache.FileLockManager;
 import org.gradle.cache.PersistentCache;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.cache.PersistentIndexedCacheParameters;
 import org.gradle.cache.internal.CompositeCleanupAction;
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory;
 import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
 import org.gradle.cache.internal.SingleDepthFilesFinder;
 import org.gradle.internal.Try;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.execution.history.ExecutionHistoryStore;
 import org.gradle.internal.file.FileAccessTimeJournal;
 import org.gradle.internal.resource.local.SingleDepthFileAccessTracker;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import static org.gradle.api.internal.artifacts.ivyservice.CacheLayout.TRANSFORMS_STORE;
 import static org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup.DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
+/**
+ * Provides workspaces for immutable transforms in the shared transforms cache.
+ *
+ * The results of successful transforms are kept in a persistent index, together with the length and modification time of the results file
+ * and of each result file. When these are unchanged, the result is taken from the index without running the transform execution, so that
+ * cache hits in a new daemon don't need to load the execution history, snapshot the workspace or parse the results file.
+ * Files nested in a result directory are not checked, as the workspaces of immutable transforms are not modified after they are created.
+ *
+ * The cleanup of the cache records the workspaces it deletes, and their entries are removed from the index the next time the index is used.
+ */
 @NotThreadSafe
 public class ImmutableTransformationWorkspaceProvider implements TransformationWorkspaceProvider, Closeable {
     private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+    private static final int RESULTS_TO_KEEP_IN_MEMORY = 50000;
+    private static final String REMOVED_WORKSPACES_FILE_NAME = "results-index-removed-workspaces.txt";
 
     private final SingleDepthFileAccessTracker fileAccessTracker;
     private final File filesOutputDirectory;
+    private final File removedWorkspacesFile;
     private final ExecutionHistoryStore executionHistoryStore;
     private final PersistentCache cache;
+    private final PersistentIndexedCache<String, IndexedResult> resultIndex;
 
-    public ImmutableTransformationWorkspaceProvider(File transformsStoreDirectory, CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal, ExecutionHistoryStore executionHistoryStore) {
+    public ImmutableTransformationWorkspaceProvider(File transformsStoreDirectory, CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal, ExecutionHistoryStore executionHistoryStore, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
         filesOutputDirectory = new File(transformsStoreDirectory, TRANSFORMS_STORE.getKey());
+        removedWorkspacesFile = new File(transformsStoreDirectory, REMOVED_WORKSPACES_FILE_NAME);
         this.executionHistoryStore = executionHistoryStore;
         cache = cacheRepository
             .cache(transformsStoreDirectory)
-            .withCleanup(createCleanupAction(filesOutputDirectory, fileAccessTimeJournal))
+            .withCleanup(createCleanupAction(filesOutputDirectory, removedWorkspacesFile, fileAccessTimeJournal))
             .withCrossVersionCache(CacheBuilder.LockTarget.DefaultTarget)
             .withDisplayName("Artifact transforms cache")
             .withLockOptions(mode(FileLockManager.LockMode.OnDemand)) // Lock on demand
             .open();
+        resultIndex = cache.createCache(
+            PersistentIndexedCacheParameters.of("results-index-2", BaseSerializerFactory.STRING_SERIALIZER, new IndexedResultSerializer())
+                .withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(RESULTS_TO_KEEP_IN_MEMORY, true))
+        );
         fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, filesOutputDirectory, FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
     }
 
-    private CleanupAction createCleanupAction(File filesOutputDirectory, FileAccessTimeJournal fileAccessTimeJournal) {
+    private CleanupAction createCleanupAction(File filesOutputDirectory, File removedWorkspacesFile, FileAccessTimeJournal fileAccessTimeJournal) {
         return CompositeCleanupAction.builder()
-            .add(filesOutputDirectory, new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES))
+            .add(filesOutputDirectory, new RecordingRemovedWorkspacesCacheCleanup(filesOutputDirectory, removedWorkspacesFile, fileAccessTimeJournal))
             .build();
     }
 
@@ -78,12 +115,194 @@ public Try<ImmutableList<File>> withWorkspace(TransformationWorkspaceIdentity id
             TransformationWorkspace workspace = new DefaultTransformationWorkspace(new File(filesOutputDirectory, workspacePath));
             fileAccessTracker.markAccessed(workspace.getResultsFile());
             fileAccessTracker.markAccessed(workspace.getOutputDirectory());
-            return workspaceAction.useWorkspace(workspacePath, workspace);
+            removeEntriesOfRemovedWorkspaces();
+            ImmutableList<File> indexedResult = loadIndexedResult(workspacePath, workspace);
+            if (indexedResult != null) {
+                return Try.successful(indexedResult);
+            }
+            Try<ImmutableList<File>> result = workspaceAction.useWorkspace(workspacePath, workspace);
+            result.ifSuccessful(files -> indexResult(workspacePath, workspace, files));
+            return result;
         });
     }
 
+    private synchronized void removeEntriesOfRemovedWorkspaces() {
+        if (!removedWorkspacesFile.isFile()) {
+            return;
+        }
+        // Move the file away first, so that workspaces recorded by a concurrent cleanup are not lost
+        File claimedFile = new File(removedWorkspacesFile.getParentFile(), removedWorkspacesFile.getName() + "." + UUID.randomUUID());
+        if (!removedWorkspacesFile.renameTo(claimedFile)) {
+            return;
+        }
+        try {
+            for (String workspacePath : Files.readAllLines(claimedFile.toPath(), StandardCharsets.UTF_8)) {
+                if (!workspacePath.isEmpty()) {
+                    resultIndex.remove(workspacePath);
+                }
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } finally {
+            claimedFile.delete();
+        }
+    }
+
+    @Nullable
+    private ImmutableList<File> loadIndexedResult(String workspacePath, TransformationWorkspace workspace) {
+        IndexedResult indexedResult = resultIndex.get(workspacePath);
+        if (indexedResult == null) {
+            return null;
+        }
+        if (!indexedResult.resultsFile.matches(workspace.getResultsFile())) {
+            // The workspace has been modified or removed, run the transform again
+            resultIndex.remove(workspacePath);
+            return null;
+        }
+        File outputDirectory = workspace.getOutputDirectory();
+        ImmutableList.Builder<File> builder = ImmutableList.builderWithExpectedSize(indexedResult.files.size());
+        for (IndexedFile indexedFile : indexedResult.files) {
+            File file = indexedFile.relativePath.isEmpty() ? outputDirectory : new File(outputDirectory, indexedFile.relativePath);
+            if (!indexedFile.matches(file)) {
+                resultIndex.remove(workspacePath);
+                return null;
+            }
+            builder.add(file);
+        }
+        return builder.build();
+    }
+
+    private void indexResult(String workspacePath, TransformationWorkspace workspace, ImmutableList<File> result) {
+        // Results which point into the input artifact depend on where the input artifact lives, so only index results within the workspace
+        String outputDirectoryPath = workspace.getOutputDirectory().getAbsolutePath();
+        String outputDirectoryPrefix = outputDirectoryPath + File.separator;
+        ImmutableList.Builder<IndexedFile> files = ImmutableList.builderWithExpectedSize(result.size());
+        for (File file : result) {
+            String absolutePath = file.getAbsolutePath();
+            if (absolutePath.equals(outputDirectoryPath)) {
+                files.add(IndexedFile.of("", file));
+            } else if (absolutePath.startsWith(outputDirectoryPrefix)) {
+                files.add(IndexedFile.of(absolutePath.substring(outputDirectoryPrefix.length()), file));
+            } else {
+                return;
+            }
+        }
+        resultIndex.put(workspacePath, new IndexedResult(IndexedFile.of("", workspace.getResultsFile()), files.build()));
+    }
+
     @Override
     public void close() {
         cache.close();
     }
+
+    private static class IndexedResult {
+        private final IndexedFile resultsFile;
+        private final ImmutableList<IndexedFile> files;
+
+        private IndexedResult(IndexedFile resultsFile, ImmutableList<IndexedFile> files) {
+            this.resultsFile = resultsFile;
+            this.files = files;
+        }
+    }
+
+    private static class IndexedFile {
+        private static final long DIRECTORY = -1;
+
+        private final String relativePath;
+        private final long length;
+        private final long lastModified;
+
+        private IndexedFile(String relativePath, long length, long lastModified) {
+            this.relativePath = relativePath;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        static IndexedFile of(String relativePath, File file) {
+            return new IndexedFile(relativePath, lengthOf(file), file.lastModified());
+        }
+
+        boolean matches(File file) {
+            // A missing file has a modification time of 0
+            long lastModified = file.lastModified();
+            return lastModified != 0 && lastModified == this.lastModified && lengthOf(file) == length;
+        }
+
+        private static long lengthOf(File file) {
+            return file.isDirectory() ? DIRECTORY : file.length();
+        }
+    }
+
+    private static class IndexedResultSerializer extends AbstractSerializer<IndexedResult> {
+        @Override
+        public IndexedResult read(Decoder decoder) throws Exception {
+            IndexedFile resultsFile = readFile(decoder);
+            int size = decoder.readSmallInt();
+            ImmutableList.Builder<IndexedFile> files = ImmutableList.builderWithExpectedSize(size);
+            for (int i = 0; i < size; i++) {
+                files.add(readFile(decoder));
+            }
+            return new IndexedResult(resultsFile, files.build());
+        }
+
+        @Override
+        public void write(Encoder encoder, IndexedResult value) throws Exception {
+            writeFile(encoder, value.resultsFile);
+            encoder.writeSmallInt(value.files.size());
+            for (IndexedFile file : value.files) {
+                writeFile(encoder, file);
+            }
+        }
+
+        private static IndexedFile readFile(Decoder decoder) throws IOException {
+            String relativePath = decoder.readString();
+            long length = decoder.readLong();
+            long lastModified = decoder.readLong();
+            return new IndexedFile(relativePath, length, lastModified);
+        }
+
+        private static void writeFile(Encoder encoder, IndexedFile file) throws IOException {
+            encoder.writeString(file.relativePath);
+            encoder.writeLong(file.length);
+            encoder.writeLong(file.lastModified);
+        }
+    }
+
+    /**
+     * Deletes the workspaces not accessed recently, and records the deleted workspaces so that their results can be removed from the index.
+     */
+    private static class RecordingRemovedWorkspacesCacheCleanup extends LeastRecentlyUsedCacheCleanup {
+        private final File filesOutputDirectory;
+        private final File removedWorkspacesFile;
+        private final List<String> removedWorkspaces = new ArrayList<>();
+
+        RecordingRemovedWorkspacesCacheCleanup(File filesOutputDirectory, File removedWorkspacesFile, FileAccessTimeJournal fileAccessTimeJournal) {
+            super(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES);
+            this.filesOutputDirectory = filesOutputDirectory;
+            this.removedWorkspacesFile = removedWorkspacesFile;
+        }
+
+        @Override
+        public void clean(CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor) {
+            super.clean(cleanableStore, progressMonitor);
+            if (removedWorkspaces.isEmpty()) {
+                return;
+            }
+            try {
+                Files.write(removedWorkspacesFile.toPath(), removedWorkspaces, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } finally {
+                removedWorkspaces.clear();
+            }
+        }
+
+        @Override
+        protected void handleDeletion(File file) {
+            super.handleDeletion(file);
+            if (filesOutputDirectory.equals(file.getParentFile())) {
+                removedWorkspaces.add(file.getName());
+            }
+        }
+    }
 }
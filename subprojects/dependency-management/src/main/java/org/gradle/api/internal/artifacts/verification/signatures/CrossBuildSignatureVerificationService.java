@@ -36,21 +36,33 @@
 import org.gradle.internal.serialize.SetSerializer;
 import org.gradle.security.internal.PublicKeyService;
 import org.gradle.util.BuildCommencedTimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.gradle.api.internal.artifacts.verification.signatures.CrossBuildCachingKeyService.MISSING_KEY_TIMEOUT;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
+/**
+ * Caches signature verification results across builds. Results are keyed by the hashes of the verified
+ * file and of its signature, together with the trusted and ignored keys, so that the same artifact is
+ * never verified twice, wherever it is stored.
+ */
 public class CrossBuildSignatureVerificationService implements SignatureVerificationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CrossBuildSignatureVerificationService.class);
+
     private final SignatureVerificationService delegate;
     private final FileHasher fileHasher;
     private final BuildCommencedTimeProvider timeProvider;
     private final boolean refreshKeys;
     private final PersistentCache store;
     private final PersistentIndexedCache<CacheKey, CacheEntry> cache;
+    private final AtomicInteger reusedResults = new AtomicInteger();
+    private final AtomicInteger computedResults = new AtomicInteger();
 
     public CrossBuildSignatureVerificationService(SignatureVerificationService delegate,
                                                   FileHasher fileHasher,
@@ -72,21 +84,22 @@ public CrossBuildSignatureVerificationService(SignatureVerificationService deleg
         InterningStringSerializer stringSerializer = new InterningStringSerializer(new StringInterner());
         cache = store.createCache(
             PersistentIndexedCacheParameters.of(
-                "signature-verification",
-                new CacheKeySerializer(stringSerializer, new SetSerializer<>(stringSerializer)),
+                "signature-verification-results",
+                new CacheKeySerializer(new SetSerializer<>(stringSerializer)),
                 new CacheEntrySerializer(stringSerializer)
             ).withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(500, true)));
     }
 
     @Override
     public void verify(File origin, File signature, Set<String> trustedKeys, Set<String> ignoredKeys, SignatureVerificationResultBuilder builder) {
-        CacheKey cacheKey = new CacheKey(origin.getAbsolutePath(), signature.getAbsolutePath(), trustedKeys, ignoredKeys);
-        HashCode originHash = fileHasher.hash(origin);
-        HashCode signatureHash = fileHasher.hash(signature);
+        CacheKey cacheKey = new CacheKey(fileHasher.hash(origin), fileHasher.hash(signature), trustedKeys, ignoredKeys);
         CacheEntry entry = cache.get(cacheKey);
-        if (entry == null || entry.updated(originHash, signatureHash) || hasExpired(entry)) {
-            entry = performActualVerification(origin, signature, trustedKeys, ignoredKeys, originHash, signatureHash);
+        if (entry == null || hasExpired(entry)) {
+            computedResults.incrementAndGet();
+            entry = performActualVerification(origin, signature, trustedKeys, ignoredKeys);
             cache.put(cacheKey, entry);
+        } else {
+            reusedResults.incrementAndGet();
         }
         entry.applyTo(builder);
     }
@@ -96,7 +109,7 @@ private boolean hasExpired(CacheEntry entry) {
         if (missingKeys == null || missingKeys.isEmpty()) {
             return false;
         }
-        long elapsed = entry.timestamp - timeProvider.getCurrentTime();
+        long elapsed = timeProvider.getCurrentTime() - entry.timestamp;
         return refreshKeys || elapsed > MISSING_KEY_TIMEOUT;
     }
 
@@ -105,27 +118,30 @@ public PublicKeyService getPublicKeyService() {
         return delegate.getPublicKeyService();
     }
 
-    private CacheEntry performActualVerification(File origin, File signature, Set<String> trustedKeys, Set<String> ignoredKeys, HashCode originHash, HashCode signatureHash) {
-        CacheEntryBuilder result = new CacheEntryBuilder(timeProvider.getCurrentTime(), originHash, signatureHash);
+    private CacheEntry performActualVerification(File origin, File signature, Set<String> trustedKeys, Set<String> ignoredKeys) {
+        CacheEntryBuilder result = new CacheEntryBuilder(timeProvider.getCurrentTime());
         delegate.verify(origin, signature, trustedKeys, ignoredKeys, result);
         return result.build();
     }
 
     @Override
     public void stop() {
+        if (reusedResults.get() > 0 || computedResults.get() > 0) {
+            LOGGER.info("Signature verification: {} results reused from previous builds, {} signatures verified.", reusedResults.get(), computedResults.get());
+        }
         delegate.stop();
         store.close();
     }
 
     private static class CacheKey {
-        private final String filePath;
-        private final String signaturePath;
+        private final HashCode originHash;
+        private final HashCode signatureHash;
         private final Set<String> trustedKeys;
         private final Set<String> ignoredKeys;
 
-        private CacheKey(String filePath, String signaturePath, Set<String> trustedKeys, Set<String> ignoredKeys) {
-            this.filePath = filePath;
-            this.signaturePath = signaturePath;
+        private CacheKey(HashCode originHash, HashCode signatureHash, Set<String> trustedKeys, Set<String> ignoredKeys) {
+            this.originHash = originHash;
+            this.signatureHash = signatureHash;
             this.trustedKeys = trustedKeys;
             this.ignoredKeys = ignoredKeys;
         }
@@ -141,10 +157,10 @@ public boolean equals(Object o) {
 
             CacheKey cacheKey = (CacheKey) o;
 
-            if (!filePath.equals(cacheKey.filePath)) {
+            if (!originHash.equals(cacheKey.originHash)) {
                 return false;
             }
-            if (!signaturePath.equals(cacheKey.signaturePath)) {
+            if (!signatureHash.equals(cacheKey.signatureHash)) {
                 return false;
             }
             if (!trustedKeys.equals(cacheKey.trustedKeys)) {
@@ -155,8 +171,8 @@ public boolean equals(Object o) {
 
         @Override
         public int hashCode() {
-            int result = filePath.hashCode();
-            result = 31 * result + signaturePath.hashCode();
+            int result = originHash.hashCode();
+            result = 31 * result + signatureHash.hashCode();
             result = 31 * result + trustedKeys.hashCode();
             result = 31 * result + ignoredKeys.hashCode();
             return result;
@@ -164,23 +180,21 @@ public int hashCode() {
     }
 
     private static class CacheKeySerializer extends AbstractSerializer<CacheKey> {
-        private final InterningStringSerializer delegate;
         private final SetSerializer<String> setSerializer;
 
-        private CacheKeySerializer(InterningStringSerializer stringSerializer, SetSerializer<String> setSerializer) {
-            this.delegate = stringSerializer;
+        private CacheKeySerializer(SetSerializer<String> setSerializer) {
             this.setSerializer = setSerializer;
         }
 
         @Override
         public CacheKey read(Decoder decoder) throws Exception {
-            return new CacheKey(delegate.read(decoder), delegate.read(decoder), setSerializer.read(decoder), setSerializer.read(decoder));
+            return new CacheKey(HashCode.fromBytes(decoder.readBinary()), HashCode.fromBytes(decoder.readBinary()), setSerializer.read(decoder), setSerializer.read(decoder));
         }
 
         @Override
         public void write(Encoder encoder, CacheKey value) throws Exception {
-            delegate.write(encoder, value.filePath);
-            delegate.write(encoder, value.signaturePath);
+            encoder.writeBinary(value.originHash.toByteArray());
+            encoder.writeBinary(value.signatureHash.toByteArray());
             setSerializer.write(encoder, value.trustedKeys);
             setSerializer.write(encoder, value.ignoredKeys);
         }
@@ -188,8 +202,6 @@ public void write(Encoder encoder, CacheKey value) throws Exception {
 
     private static class CacheEntryBuilder implements SignatureVerificationResultBuilder {
         private final long timestamp;
-        private final HashCode originHash;
-        private final HashCode signatureHash;
 
         private List<String> missingKeys = null;
         private List<PGPPublicKey> trustedKeys = null;
@@ -197,10 +209,8 @@ private static class CacheEntryBuilder implements SignatureVerificationResultBui
         private List<PGPPublicKey> failedKeys = null;
         private List<String> ignoredKeys = null;
 
-        private CacheEntryBuilder(long timestamp, HashCode originHash, HashCode signatureHash) {
+        private CacheEntryBuilder(long timestamp) {
             this.timestamp = timestamp;
-            this.originHash = originHash;
-            this.signatureHash = signatureHash;
         }
 
         @Override
@@ -243,24 +253,20 @@ public void ignored(String keyId) {
         }
 
         CacheEntry build() {
-            return new CacheEntry(timestamp, originHash, signatureHash, missingKeys, trustedKeys, validKeys, failedKeys, ignoredKeys);
+            return new CacheEntry(timestamp, missingKeys, trustedKeys, validKeys, failedKeys, ignoredKeys);
         }
     }
 
     private static class CacheEntry {
         private final long timestamp;
-        private final HashCode originHash;
-        private final HashCode signatureHash;
         private final List<String> missingKeys;
         private final List<PGPPublicKey> trustedKeys;
         private final List<PGPPublicKey> validKeys;
         private final List<PGPPublicKey> failedKeys;
         private final List<String> ignoredKeys;
 
-        public CacheEntry(long timestamp, HashCode originHash, HashCode signatureHash, List<String> missingKeys, List<PGPPublicKey> trustedKeys, List<PGPPublicKey> validKeys, List<PGPPublicKey> failedKeys, List<String> ignoredKeys) {
+        public CacheEntry(long timestamp, List<String> missingKeys, List<PGPPublicKey> trustedKeys, List<PGPPublicKey> validKeys, List<PGPPublicKey> failedKeys, List<String> ignoredKeys) {
             this.timestamp = timestamp;
-            this.originHash = originHash;
-            this.signatureHash = signatureHash;
             this.missingKeys = missingKeys;
             this.trustedKeys = trustedKeys;
             this.validKeys = validKeys;
@@ -295,11 +301,6 @@ void applyTo(SignatureVerificationResultBuilder builder) {
                 }
             }
         }
-
-        public boolean updated(HashCode originHash, HashCode signatureHash) {
-            return !this.originHash.equals(originHash) ||
-                !this.signatureHash.equals(signatureHash);
-        }
     }
 
     private static class CacheEntrySerializer extends AbstractSerializer<CacheEntry> {
@@ -313,14 +314,12 @@ private CacheEntrySerializer(InterningStringSerializer stringSerializer) {
         @Override
         public CacheEntry read(Decoder decoder) throws Exception {
             long timestamp = decoder.readLong();
-            HashCode originHash = HashCode.fromBytes(decoder.readBinary());
-            HashCode signatureHash = HashCode.fromBytes(decoder.readBinary());
             List<String> missingKeys = readStringKeys(decoder);
             List<PGPPublicKey> trustedKeys = readKeys(decoder);
             List<PGPPublicKey> validKeys = readKeys(decoder);
             List<PGPPublicKey> failedKeys = readKeys(decoder);
             List<String> ignoredKeys = readStringKeys(decoder);
-            return new CacheEntry(timestamp, originHash, signatureHash, missingKeys, trustedKeys, validKeys, failedKeys, ignoredKeys);
+            return new CacheEntry(timestamp, missingKeys, trustedKeys, validKeys, failedKeys, ignoredKeys);
         }
 
         private List<String> readStringKeys(Decoder decoder) throws Exception {
@@ -350,8 +349,6 @@ private List<PGPPublicKey> readKeys(Decoder decoder) throws Exception {
         @Override
         public void write(Encoder encoder, CacheEntry value) throws Exception {
             encoder.writeLong(value.timestamp);
-            encoder.writeBinary(value.originHash.toByteArray());
-            encoder.writeBinary(value.signatureHash.toByteArray());
             writeStringKeys(encoder, value.missingKeys);
             writeKeys(encoder, value.trustedKeys);
             writeKeys(encoder, value.validKeys);
@@ -21,6 +21,7 @@
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import org.gradle.api.Action;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.VersionConstraint;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
@@ -70,6 +71,7 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
 
     private List<MutableComponentVariant> newVariants;
     private ImmutableList<? extends ComponentVariant> variants;
+    private ImmutableList<? extends ComponentVariant> lazyVariants;
     private Set<VirtualComponentIdentifier> owners;
 
     protected AbstractMutableModuleComponentResolveMetadata(ImmutableAttributesFactory attributesFactory, ModuleVersionIdentifier moduleVersionId, ModuleComponentIdentifier componentIdentifier, AttributesSchemaInternal schema) {
@@ -201,12 +203,18 @@ public MutableComponentVariant addVariant(String variantName, ImmutableAttribute
         return addVariant(new MutableVariantImpl(variantName, attributes));
     }
 
+    @Override
+    public MutableComponentVariant addLazyVariant(String variantName, ImmutableAttributes attributes, Action<? super MutableComponentVariant> contentLoader) {
+        return addVariant(new LazyMutableVariantImpl(variantName, attributes, contentLoader));
+    }
+
     @Override
     public MutableComponentVariant addVariant(MutableComponentVariant variant) {
         if (newVariants == null) {
             newVariants = new ArrayList<>();
         }
         newVariants.add(variant);
+        lazyVariants = null;
         return variant;
     }
 
@@ -217,14 +225,35 @@ public ImmutableList<? extends ComponentVariant> getVariants() {
         if (variants != null && newVariants == null) {
             return variants;
         }
+        // Reuse the variants built while all new variants are still lazy, so that each lazy variant is decoded at most once
+        boolean allPending = allNewVariantsPending();
+        if (allPending && lazyVariants != null) {
+            return lazyVariants;
+        }
         ImmutableList.Builder<ComponentVariant> builder = new ImmutableList.Builder<>();
         if (variants != null) {
             builder.addAll(variants);
         }
         for (MutableComponentVariant variant : newVariants) {
+            Action<? super MutableComponentVariant> pendingContent = variant instanceof LazyMutableVariantImpl ? ((LazyMutableVariantImpl) variant).getPendingContent() : null;
+            if (pendingContent != null) {
+                builder.add(new ImmutableVariantImpl(getId(), variant.getName(), variant.getAttributes(), pendingContent));
+                continue;
+            }
             builder.add(new ImmutableVariantImpl(getId(), variant.getName(), variant.getAttributes(), ImmutableList.copyOf(variant.getDependencies()), ImmutableList.copyOf(variant.getDependencyConstraints()), ImmutableList.copyOf(variant.getFiles()), ImmutableCapabilities.of(variant.getCapabilities())));
         }
-        return builder.build();
+        ImmutableList<? extends ComponentVariant> result = builder.build();
+        lazyVariants = allPending ? result : null;
+        return result;
+    }
+
+    private boolean allNewVariantsPending() {
+        for (MutableComponentVariant variant : newVariants) {
+            if (!(variant instanceof LazyMutableVariantImpl) || ((LazyMutableVariantImpl) variant).getPendingContent() == null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -344,6 +373,103 @@ public MutableComponentVariant copy(String variantName, ImmutableAttributes attr
         }
     }
 
+    /**
+     * A variant which only populates its content when it is first queried or modified.
+     */
+    private static class LazyMutableVariantImpl extends MutableVariantImpl {
+        private Action<? super MutableComponentVariant> contentLoader;
+
+        LazyMutableVariantImpl(String name, ImmutableAttributes attributes, Action<? super MutableComponentVariant> contentLoader) {
+            super(name, attributes);
+            this.contentLoader = contentLoader;
+        }
+
+        @Nullable
+        synchronized Action<? super MutableComponentVariant> getPendingContent() {
+            return contentLoader;
+        }
+
+        private synchronized void loadContent() {
+            if (contentLoader != null) {
+                Action<? super MutableComponentVariant> loader = contentLoader;
+                contentLoader = null;
+                loader.execute(this);
+            }
+        }
+
+        @Override
+        public List<ComponentVariant.Dependency> getDependencies() {
+            loadContent();
+            return super.getDependencies();
+        }
+
+        @Override
+        public List<ComponentVariant.DependencyConstraint> getDependencyConstraints() {
+            loadContent();
+            return super.getDependencyConstraints();
+        }
+
+        @Override
+        public List<Capability> getCapabilities() {
+            loadContent();
+            return super.getCapabilities();
+        }
+
+        @Override
+        public void addDependency(String group, String module, VersionConstraint versionConstraint, List<ExcludeMetadata> excludes, String reason, ImmutableAttributes attributes, List<? extends Capability> requestedCapabilities, boolean endorsing, @Nullable IvyArtifactName artifact) {
+            loadContent();
+            super.addDependency(group, module, versionConstraint, excludes, reason, attributes, requestedCapabilities, endorsing, artifact);
+        }
+
+        @Override
+        public void addDependencyConstraint(String group, String module, VersionConstraint versionConstraint, String reason, ImmutableAttributes attributes) {
+            loadContent();
+            super.addDependencyConstraint(group, module, versionConstraint, reason, attributes);
+        }
+
+        @Override
+        public void addCapability(String group, String name, String version) {
+            loadContent();
+            super.addCapability(group, name, version);
+        }
+
+        @Override
+        public void addCapability(Capability capability) {
+            loadContent();
+            super.addCapability(capability);
+        }
+
+        @Override
+        public List<? extends ComponentVariant.File> getFiles() {
+            loadContent();
+            return super.getFiles();
+        }
+
+        @Override
+        public boolean removeFile(ComponentVariant.File file) {
+            loadContent();
+            return super.removeFile(file);
+        }
+
+        @Override
+        public void addFile(String name, String uri) {
+            loadContent();
+            super.addFile(name, uri);
+        }
+
+        @Override
+        public void setAttributes(ImmutableAttributes updatedAttributes) {
+            loadContent();
+            super.setAttributes(updatedAttributes);
+        }
+
+        @Override
+        public MutableComponentVariant copy(String variantName, ImmutableAttributes attributes, Capability capability) {
+            loadContent();
+            return super.copy(variantName, attributes, capability);
+        }
+    }
+
     public static class FileImpl implements ComponentVariant.File {
         private final String name;
         private final String uri;
@@ -548,10 +674,11 @@ protected static class ImmutableVariantImpl implements ComponentVariant, Variant
         private final ModuleComponentIdentifier componentId;
         private final String name;
         private final ImmutableAttributes attributes;
-        private final ImmutableList<? extends Dependency> dependencies;
-        private final ImmutableList<? extends DependencyConstraint> dependencyConstraints;
-        private final ImmutableList<? extends File> files;
-        private final ImmutableCapabilities capabilities;
+        private ImmutableList<? extends Dependency> dependencies;
+        private ImmutableList<? extends DependencyConstraint> dependencyConstraints;
+        private ImmutableList<? extends File> files;
+        private ImmutableCapabilities capabilities;
+        private volatile Action<? super MutableComponentVariant> contentLoader;
 
         ImmutableVariantImpl(ModuleComponentIdentifier componentId, String name, ImmutableAttributes attributes, ImmutableList<? extends Dependency> dependencies, ImmutableList<? extends DependencyConstraint> dependencyConstraints, ImmutableList<? extends File> files, ImmutableCapabilities capabilities) {
             this.componentId = componentId;
@@ -563,6 +690,33 @@ protected static class ImmutableVariantImpl implements ComponentVariant, Variant
             this.capabilities = capabilities;
         }
 
+        /**
+         * Creates a variant whose content is only loaded when first queried, so that selecting a single variant of a module with many variants does not require all of them to be decoded.
+         */
+        ImmutableVariantImpl(ModuleComponentIdentifier componentId, String name, ImmutableAttributes attributes, Action<? super MutableComponentVariant> contentLoader) {
+            this.componentId = componentId;
+            this.name = name;
+            this.attributes = attributes;
+            this.contentLoader = contentLoader;
+        }
+
+        private void loadContent() {
+            if (contentLoader != null) {
+                synchronized (this) {
+                    Action<? super MutableComponentVariant> loader = contentLoader;
+                    if (loader != null) {
+                        MutableVariantImpl content = new MutableVariantImpl(name, attributes);
+                        loader.execute(content);
+                        dependencies = ImmutableList.copyOf(content.getDependencies());
+                        dependencyConstraints = ImmutableList.copyOf(content.getDependencyConstraints());
+                        files = ImmutableList.copyOf(content.getFiles());
+                        capabilities = ImmutableCapabilities.of(content.getCapabilities());
+                        contentLoader = null;
+                    }
+                }
+            }
+        }
+
         @Override
         public String getName() {
             return name;
@@ -580,28 +734,32 @@ public ImmutableAttributes getAttributes() {
 
         @Override
         public ImmutableList<? extends Dependency> getDependencies() {
+            loadContent();
             return dependencies;
         }
 
         @Override
         public ImmutableList<? extends DependencyConstraint> getDependencyConstraints() {
+            loadContent();
             return dependencyConstraints;
         }
 
         @Override
         public ImmutableList<? extends File> getFiles() {
+            loadContent();
             return files;
         }
 
         @Override
         public CapabilitiesMetadata getCapabilities() {
+            loadContent();
             return capabilities;
         }
 
         @Override
         public ImmutableList<? extends ComponentArtifactMetadata> getArtifacts() {
             ImmutableList.Builder<ComponentArtifactMetadata> artifacts = new ImmutableList.Builder<>();
-            for (ComponentVariant.File file : files) {
+            for (ComponentVariant.File file : getFiles()) {
                 artifacts.add(new UrlBackedArtifactMetadata(componentId, file.getName(), file.getUri()));
             }
             return artifacts.build();
@@ -620,9 +778,9 @@ public boolean equals(Object o) {
             return Objects.equal(componentId, that.componentId)
                 && Objects.equal(name, that.name)
                 && Objects.equal(attributes, that.attributes)
-                && Objects.equal(dependencies, that.dependencies)
-                && Objects.equal(dependencyConstraints, that.dependencyConstraints)
-                && Objects.equal(files, that.files);
+                && Objects.equal(getDependencies(), that.getDependencies())
+                && Objects.equal(getDependencyConstraints(), that.getDependencyConstraints())
+                && Objects.equal(getFiles(), that.getFiles());
         }
 
         @Override
@@ -630,9 +788,9 @@ public int hashCode() {
             return Objects.hashCode(componentId,
                 name,
                 attributes,
-                dependencies,
-                dependencyConstraints,
-                files);
+                getDependencies(),
+                getDependencyConstraints(),
+                getFiles());
         }
     }
 
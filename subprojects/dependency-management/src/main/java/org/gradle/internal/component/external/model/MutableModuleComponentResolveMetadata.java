@@ -15,6 +15,7 @@
  */
 package org.gradle.internal.component.external.model;
 
+import org.gradle.api.Action;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.attributes.AttributeContainer;
@@ -68,6 +69,12 @@ public interface MutableModuleComponentResolveMetadata {
 
     MutableComponentVariant addVariant(String variantName, ImmutableAttributes attributes);
 
+    /**
+     * Adds a variant whose dependencies, dependency constraints, files and capabilities are only populated, using the given loader, when first queried.
+     * The loader may be invoked more than once, so it must populate the variant it is given from immutable state.
+     */
+    MutableComponentVariant addLazyVariant(String variantName, ImmutableAttributes attributes, Action<? super MutableComponentVariant> contentLoader);
+
     AttributeContainer getAttributes();
 
     void setAttributes(AttributeContainer attributes);
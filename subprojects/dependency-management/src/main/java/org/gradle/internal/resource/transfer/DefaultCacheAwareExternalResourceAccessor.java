@@ -54,6 +54,7 @@
 public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExternalResourceAccessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCacheAwareExternalResourceAccessor.class);
+    private static final boolean CONDITIONAL_REVALIDATION = !"false".equals(System.getProperty("org.gradle.internal.resource.conditional.revalidation"));
 
     private final ExternalResourceRepository delegate;
     private final CachedExternalResourceIndex<String> cachedExternalResourceIndex;
@@ -64,8 +65,13 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
     private final ProducerGuard<ExternalResourceName> producerGuard;
     private final FileResourceRepository fileResourceRepository;
     private final ChecksumService checksumService;
+    private final boolean conditionalRevalidation;
 
     public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, ArtifactCacheLockingManager artifactCacheLockingManager, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ChecksumService checksumService) {
+        this(delegate, cachedExternalResourceIndex, timeProvider, temporaryFileProvider, artifactCacheLockingManager, externalResourceCachePolicy, producerGuard, fileResourceRepository, checksumService, CONDITIONAL_REVALIDATION);
+    }
+
+    DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, ArtifactCacheLockingManager artifactCacheLockingManager, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ChecksumService checksumService, boolean conditionalRevalidation) {
         this.delegate = delegate;
         this.cachedExternalResourceIndex = cachedExternalResourceIndex;
         this.timeProvider = timeProvider;
@@ -75,6 +81,7 @@ public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository dele
         this.producerGuard = producerGuard;
         this.fileResourceRepository = fileResourceRepository;
         this.checksumService = checksumService;
+        this.conditionalRevalidation = conditionalRevalidation;
     }
 
     @Nullable
@@ -97,6 +104,12 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
             // We have a cached version, but it might be out of date, so we tell the upstreams to revalidate too
             final boolean revalidate = true;
 
+            // Fetch the resource in a single request, which is answered without content when it is unchanged.
+            // Without an entity tag or modification date the server cannot tell, so the checksum is compared instead.
+            if (cached != null && conditionalRevalidation && hasValidators(cached.getExternalResourceMetaData())) {
+                return revalidateCached(location, fileStore, cached, additionalCandidates, revalidate);
+            }
+
             // Get the metadata first to see if it's there
             final ExternalResourceMetaData remoteMetaData = delegate.resource(location, revalidate).getMetaData();
             if (remoteMetaData == null) {
@@ -119,36 +132,92 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
             }
 
             // Either no cached, or it's changed. See if we can find something local with the same checksum
-            boolean hasLocalCandidates = additionalCandidates != null && !additionalCandidates.isNone();
-            if (hasLocalCandidates) {
-                // The “remote” may have already given us the checksum
-                HashCode remoteChecksum = remoteMetaData.getSha1();
+            LocallyAvailableExternalResource local = copyLocalCandidateToCache(location, fileStore, remoteMetaData, additionalCandidates, revalidate);
+            if (local != null) {
+                return local;
+            }
 
-                if (remoteChecksum == null) {
-                    remoteChecksum = getResourceSha1(location, revalidate);
-                }
+            // All local/cached options failed, get directly
+            return copyToCache(location, fileStore, delegate.withProgressLogging().resource(location, revalidate));
+        });
+    }
+
+    @Nullable
+    private LocallyAvailableExternalResource copyLocalCandidateToCache(ExternalResourceName location, ResourceFileStore fileStore, ExternalResourceMetaData remoteMetaData, @Nullable LocallyAvailableResourceCandidates additionalCandidates, boolean revalidate) {
+        boolean hasLocalCandidates = additionalCandidates != null && !additionalCandidates.isNone();
+        if (hasLocalCandidates) {
+            // The “remote” may have already given us the checksum
+            HashCode remoteChecksum = remoteMetaData.getSha1();
 
-                if (remoteChecksum != null) {
-                    LocallyAvailableResource local = additionalCandidates.findByHashValue(remoteChecksum);
-                    if (local != null) {
-                        LOGGER.info("Found locally available resource with matching checksum: [{}, {}]", location, local.getFile());
-                        // TODO - should iterate over each candidate until we successfully copy into the cache
-                        LocallyAvailableExternalResource resource;
-                        try {
-                            resource = copyCandidateToCache(location, fileStore, remoteMetaData, remoteChecksum, local);
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-                        if (resource != null) {
-                            return resource;
-                        }
+            if (remoteChecksum == null) {
+                remoteChecksum = getResourceSha1(location, revalidate);
+            }
+
+            if (remoteChecksum != null) {
+                LocallyAvailableResource local = additionalCandidates.findByHashValue(remoteChecksum);
+                if (local != null) {
+                    LOGGER.info("Found locally available resource with matching checksum: [{}, {}]", location, local.getFile());
+                    // TODO - should iterate over each candidate until we successfully copy into the cache
+                    try {
+                        return copyCandidateToCache(location, fileStore, remoteMetaData, remoteChecksum, local);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
                 }
             }
+        }
+        return null;
+    }
 
-            // All local/cached options failed, get directly
+    /**
+     * Revalidates the cached copy of a resource with a single conditional request.
+     * When the resource has changed and the response carries a checksum of a local candidate, that candidate is used instead of reading the content.
+     */
+    @Nullable
+    private LocallyAvailableExternalResource revalidateCached(ExternalResourceName location, ResourceFileStore fileStore, CachedExternalResource cached, @Nullable LocallyAvailableResourceCandidates additionalCandidates, boolean revalidate) {
+        ExternalResourceMetaData cachedMetaData = cached.getExternalResourceMetaData();
+        boolean hasLocalCandidates = additionalCandidates != null && !additionalCandidates.isNone();
+        DownloadAction downloadAction = new DownloadAction(location, cachedMetaData, hasLocalCandidates ? additionalCandidates : null);
+        ExternalResourceReadResult<Object> result;
+        try {
+            result = delegate.withProgressLogging().resource(location, revalidate).withContentIfModified(cachedMetaData, downloadAction);
+        } catch (Exception e) {
+            throw ResourceExceptions.getFailed(location.getUri(), e);
+        }
+        if (result == null) {
+            return null;
+        }
+
+        if (result.isUnmodified() || downloadAction.metaData == null) {
+            LOGGER.info("Cached resource {} is up-to-date (lastModified: {}).", location, cached.getExternalLastModified());
+            // Update the cache entry in the index: this resets the age of the cached entry to zero
+            cachedExternalResourceIndex.store(location.toString(), cached.getCachedFile(), cachedMetaData);
+            return fileResourceRepository.resource(cached.getCachedFile(), location.getUri(), cachedMetaData);
+        }
+
+        if (downloadAction.localCandidate != null) {
+            LOGGER.info("Found locally available resource with matching checksum: [{}, {}]", location, downloadAction.localCandidate.getFile());
+            try {
+                LocallyAvailableExternalResource local = copyCandidateToCache(location, fileStore, downloadAction.metaData, downloadAction.metaData.getSha1(), downloadAction.localCandidate);
+                if (local != null) {
+                    return local;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // The local candidate does not have the advertised checksum after all
             return copyToCache(location, fileStore, delegate.withProgressLogging().resource(location, revalidate));
-        });
+        }
+
+        try {
+            return moveIntoCache(location, downloadAction.destination, fileStore, downloadAction.metaData);
+        } finally {
+            downloadAction.destination.delete();
+        }
+    }
+
+    private static boolean hasValidators(ExternalResourceMetaData metaData) {
+        return metaData.getEtag() != null || metaData.getLastModified() != null;
     }
 
     @Nullable
@@ -227,17 +296,41 @@ private long getAgeMillis(BuildCommencedTimeProvider timeProvider, CachedExterna
 
     private class DownloadAction implements ExternalResource.ContentAction<Object> {
         private final ExternalResourceName source;
+        private final ExternalResourceMetaData cachedMetaData;
+        private final LocallyAvailableResourceCandidates localCandidates;
         File destination;
         ExternalResourceMetaData metaData;
+        LocallyAvailableResource localCandidate;
 
         DownloadAction(ExternalResourceName source) {
+            this(source, null, null);
+        }
+
+        /**
+         * Creates an action which does not download the content when the given meta-data of a cached copy shows that it is unchanged.
+         *
+         * @param localCandidates candidates to use instead of downloading the content of a changed resource, when the meta-data carries a matching checksum.
+         */
+        DownloadAction(ExternalResourceName source, @Nullable ExternalResourceMetaData cachedMetaData, @Nullable LocallyAvailableResourceCandidates localCandidates) {
             this.source = source;
+            this.cachedMetaData = cachedMetaData;
+            this.localCandidates = localCandidates;
         }
 
         @Override
         public Object execute(InputStream inputStream, ExternalResourceMetaData metaData) throws IOException {
-            destination = temporaryFileProvider.createTemporaryFile("gradle_download", "bin");
+            if (cachedMetaData != null && ExternalResourceMetaDataCompare.isDefinitelyUnchanged(cachedMetaData, () -> metaData)) {
+                // The transport could not make a conditional request, but the meta-data shows the content is unchanged
+                return null;
+            }
             this.metaData = metaData;
+            if (localCandidates != null && metaData.getSha1() != null) {
+                localCandidate = localCandidates.findByHashValue(metaData.getSha1());
+                if (localCandidate != null) {
+                    return null;
+                }
+            }
+            destination = temporaryFileProvider.createTemporaryFile("gradle_download", "bin");
             LOGGER.info("Downloading {} to {}", source, destination);
             if (destination.getParentFile() != null) {
                 GFileUtils.mkdirs(destination.getParentFile());
@@ -43,6 +43,17 @@ public ExternalResourceReadResponse openResource(URI location, boolean revalidat
         }
     }
 
+    @Override
+    @Nullable
+    public ExternalResourceReadResponse openResourceIfModified(URI location, boolean revalidate, ExternalResourceMetaData cachedMetaData) {
+        ExternalResourceReadResponse resource = delegate.openResourceIfModified(location, revalidate, cachedMetaData);
+        if (resource != null && !resource.isUnmodified()) {
+            return new ProgressLoggingExternalResource(location, resource);
+        } else {
+            return resource;
+        }
+    }
+
     @Override
     @Nullable
     public ExternalResourceMetaData getMetaData(URI location, boolean revalidate) {
@@ -22,7 +22,9 @@ import org.gradle.api.artifacts.ModuleVersionIdentifier
 import org.gradle.api.artifacts.ModuleVersionSelector
 import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
 import org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier
+import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy
 import org.gradle.api.internal.artifacts.ivyservice.IvyUtil
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent.RepositoryContentIndex
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata
 import org.gradle.internal.component.model.ComponentOverrideMetadata
@@ -44,7 +46,9 @@ class ResolverProviderComponentMetaDataResolverTest extends Specification {
     def remoteAccess2 = Mock(ModuleComponentRepositoryAccess)
 
     final VersionedComponentChooser componentSelectionStrategy = Mock(VersionedComponentChooser)
-    final RepositoryChainComponentMetaDataResolver resolver = new RepositoryChainComponentMetaDataResolver(componentSelectionStrategy, transformer)
+    final CachePolicy cachePolicy = Mock(CachePolicy)
+    final contentIndex = Mock(RepositoryContentIndex)
+    final RepositoryChainComponentMetaDataResolver resolver = new RepositoryChainComponentMetaDataResolver(componentSelectionStrategy, transformer, cachePolicy)
 
     ModuleVersionIdentifier moduleVersionIdentifier(ModuleDescriptor moduleDescriptor) {
         def moduleRevId = moduleDescriptor.moduleRevisionId
@@ -59,16 +63,23 @@ class ResolverProviderComponentMetaDataResolverTest extends Specification {
         addModuleComponentRepository("repo2", localAccess2, remoteAccess2)
     }
 
-    def addModuleComponentRepository(def name, def repoLocalAccess, def repoRemoteAccess) {
+    def addModuleComponentRepository(def name, def repoLocalAccess, def repoRemoteAccess, RepositoryContentIndex index = null) {
         def repo = Stub(ModuleComponentRepository) {
             getLocalAccess() >> repoLocalAccess
             getRemoteAccess() >> repoRemoteAccess
             getName() >> name
         }
-        resolver.add(repo)
+        resolver.add(repo, index)
         repo
     }
 
+    def knownMissing() {
+        Stub(RepositoryContentIndex.CachedModulePresence) {
+            isPresent() >> false
+            getAgeMillis() >> 1000
+        }
+    }
+
     def "uses local dependency when available"() {
         given:
         def repo = addRepo1()
@@ -557,6 +568,98 @@ class ResolverProviderComponentMetaDataResolverTest extends Specification {
         0 * result._
     }
 
+    def "searches remotely for a module in a repository known not to host it only after other repositories"() {
+        given:
+        def repo1 = addModuleComponentRepository("repo1", localAccess, remoteAccess, contentIndex)
+        def repo2 = addRepo2()
+
+        when:
+        resolver.resolve(moduleComponentId, componentRequestMetaData, result)
+
+        then:
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * localAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * contentIndex.getModulePresence(repo1, moduleComponentId.moduleIdentifier) >> knownMissing()
+        1 * cachePolicy.mustRefreshVersionList(moduleComponentId.moduleIdentifier, [] as Set, 1000) >> false
+        1 * remoteAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.resolved(metaData)
+        }
+        1 * contentIndex.lookupAvoided(repo1, moduleComponentId)
+        1 * transformer.transform(_) >> { RepositoryChainModuleResolution it ->
+            assert it.repository == repo2
+            metaData
+        }
+        1 * result.resolved(metaData)
+
+        and:
+        0 * remoteAccess._
+        0 * contentIndex._
+        0 * result._
+    }
+
+    def "searches remotely for a module in a repository known not to host it when no other repository provides it"() {
+        given:
+        def repo1 = addModuleComponentRepository("repo1", localAccess, remoteAccess, contentIndex)
+        addRepo2()
+
+        when:
+        resolver.resolve(moduleComponentId, componentRequestMetaData, result)
+
+        then:
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * localAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * contentIndex.getModulePresence(repo1, moduleComponentId.moduleIdentifier) >> knownMissing()
+        1 * cachePolicy.mustRefreshVersionList(moduleComponentId.moduleIdentifier, [] as Set, 1000) >> false
+        1 * remoteAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.missing()
+        }
+
+        then:
+        1 * remoteAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.resolved(metaData)
+        }
+        1 * contentIndex.recordModulePresence(repo1, moduleComponentId.moduleIdentifier, true)
+        1 * transformer.transform(_) >> { RepositoryChainModuleResolution it ->
+            assert it.repository == repo1
+            metaData
+        }
+        1 * result.resolved(metaData)
+
+        and:
+        0 * contentIndex._
+        0 * result._
+    }
+
+    def "records a module as missing from a repository when the version is missing remotely"() {
+        given:
+        def repo1 = addModuleComponentRepository("repo1", localAccess, remoteAccess, contentIndex)
+        def repo2 = addRepo2()
+
+        when:
+        resolver.resolve(moduleComponentId, componentRequestMetaData, result)
+
+        then:
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * localAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * contentIndex.getModulePresence(repo1, moduleComponentId.moduleIdentifier) >> null
+        1 * remoteAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.missing()
+        }
+        1 * remoteAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.resolved(metaData)
+        }
+        1 * contentIndex.recordModulePresence(repo1, moduleComponentId.moduleIdentifier, false)
+        1 * transformer.transform(_) >> { RepositoryChainModuleResolution it ->
+            assert it.repository == repo2
+            metaData
+        }
+        1 * result.resolved(metaData)
+
+        and:
+        0 * contentIndex._
+        0 * result._
+    }
+
     def descriptor(String version) {
         def descriptor = Stub(ModuleDescriptor)
         descriptor.resolvedModuleRevisionId >> IvyUtil.createModuleRevisionId("org", "module", version)
@@ -97,6 +97,84 @@ class ModuleMetadataSerializerTest extends Specification {
 
     }
 
+    @Unroll
+    def "decodes content of variants from sample #sample.name only when queried"() {
+        given:
+        def metadata = parse(sample)
+        def bytes = serialize(metadata)
+
+        when:
+        def deserializedMetadata = deserialize(bytes)
+
+        then:
+        !deserializedMetadata.mutableVariants.empty
+        deserializedMetadata.mutableVariants.every { it.pendingContent != null }
+
+        when:
+        def variants = deserializedMetadata.variants
+
+        then:
+        variants == metadata.variants
+        deserializedMetadata.variants.is(variants)
+        deserializedMetadata.mutableVariants.every { it.pendingContent != null }
+
+        when:
+        def mutableVariants = deserializedMetadata.mutableVariants
+        def originalVariants = metadata.mutableVariants
+
+        then:
+        mutableVariants.size() == originalVariants.size()
+        [mutableVariants, originalVariants].transpose().every { decoded, original ->
+            decoded.name == original.name &&
+                decoded.attributes == original.attributes &&
+                decoded.dependencies == original.dependencies &&
+                decoded.dependencyConstraints == original.dependencyConstraints &&
+                decoded.files == original.files &&
+                decoded.capabilities == original.capabilities
+        }
+        mutableVariants.every { it.pendingContent == null }
+
+        where:
+        sample << sampleFiles().findAll { it.parentFile.name == 'gradle' }
+    }
+
+    def "changes to a lazily decoded variant are visible and keep its decoded content"() {
+        given:
+        def metadata = parse(sampleFiles().find { it.name == 'module-with-variants.module' })
+        def deserializedMetadata = deserialize(serialize(metadata))
+        def variants = deserializedMetadata.variants
+        def variant = deserializedMetadata.mutableVariants.first()
+        def originalFiles = metadata.mutableVariants.first().files.collect { it.name }
+
+        when:
+        variant.addFile("extra.jar", "extra.jar")
+
+        then:
+        def updated = deserializedMetadata.variants
+        !updated.is(variants)
+        updated.first().files*.name == originalFiles + ["extra.jar"]
+        updated.first().dependencies == metadata.mutableVariants.first().dependencies
+        deserializedMetadata.asImmutable().variants.first().files*.name == originalFiles + ["extra.jar"]
+    }
+
+    def "changing attributes of a lazily decoded variant invalidates previously built variants"() {
+        given:
+        def metadata = parse(sampleFiles().find { it.name == 'module-with-variants.module' })
+        def deserializedMetadata = deserialize(serialize(metadata))
+        def variants = deserializedMetadata.variants
+        def variant = deserializedMetadata.mutableVariants.first()
+        def attributes = AttributeTestUtil.attributes(custom: "value")
+
+        when:
+        variant.attributes = attributes
+
+        then:
+        def updated = deserializedMetadata.variants
+        !updated.is(variants)
+        updated.first().attributes == attributes
+        updated.first().dependencies == metadata.mutableVariants.first().dependencies
+    }
+
     private MutableModuleComponentResolveMetadata deserialize(byte[] serializedForm) {
         serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(serializedForm)), moduleIdentifierFactory, Maps.newHashMap())
     }
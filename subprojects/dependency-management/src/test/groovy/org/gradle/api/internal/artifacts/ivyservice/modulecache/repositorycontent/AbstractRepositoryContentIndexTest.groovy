@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent
+
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.operations.BuildOperationListener
+import org.gradle.internal.operations.CurrentBuildOperationRef
+import org.gradle.internal.operations.DefaultBuildOperationRef
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationProgressEvent
+import org.gradle.internal.time.Clock
+import org.gradle.util.BuildCommencedTimeProvider
+import spock.lang.Specification
+
+class AbstractRepositoryContentIndexTest extends Specification {
+    def now = 1000L
+    def timeProvider = Stub(BuildCommencedTimeProvider) {
+        getCurrentTime() >> { now }
+    }
+    def repository = repository("repo")
+    def module = DefaultModuleIdentifier.newId("org", "module")
+    def index = new InMemoryRepositoryContentIndex(timeProvider)
+
+    def "knows nothing about modules that were not recorded"() {
+        given:
+        index.recordModulePresence(repository, module, true)
+
+        expect:
+        index.getModulePresence(repository, DefaultModuleIdentifier.newId("org", "other")) == null
+        index.getModulePresence(repository("other"), module) == null
+    }
+
+    def "records presence of a module with its age"() {
+        when:
+        index.recordModulePresence(repository, module, present)
+        now = 1500L
+        def presence = index.getModulePresence(repository, module)
+
+        then:
+        presence.present == present
+        presence.ageMillis == 500L
+
+        where:
+        present << [true, false]
+    }
+
+    def "does not record a module as missing once it is known to be present"() {
+        given:
+        index.recordModulePresence(repository, module, true)
+        now = 2000L
+
+        when:
+        index.recordModulePresence(repository, module, false)
+        def presence = index.getModulePresence(repository, module)
+
+        then:
+        presence.present
+        presence.ageMillis == 1000L
+    }
+
+    def "records a module that is known to be missing as present"() {
+        given:
+        index.recordModulePresence(repository, module, false)
+        now = 2000L
+
+        when:
+        index.recordModulePresence(repository, module, true)
+        def presence = index.getModulePresence(repository, module)
+
+        then:
+        presence.present
+        presence.ageMillis == 0L
+    }
+
+    def "renews the age of a module that is still missing"() {
+        given:
+        index.recordModulePresence(repository, module, false)
+        now = 2000L
+
+        when:
+        index.recordModulePresence(repository, module, false)
+        def presence = index.getModulePresence(repository, module)
+
+        then:
+        !presence.present
+        presence.ageMillis == 0L
+    }
+
+    def "reads entries through from the delegate and writes entries through to it"() {
+        def delegate = new InMemoryRepositoryContentIndex(timeProvider)
+        def first = new InMemoryRepositoryContentIndex(timeProvider, delegate)
+
+        when:
+        first.recordModulePresence(repository, module, true)
+        def second = new InMemoryRepositoryContentIndex(timeProvider, delegate)
+
+        then:
+        delegate.getModulePresence(repository, module).present
+        second.getModulePresence(repository, module).present
+    }
+
+    def "counts avoided lookups"() {
+        when:
+        index.lookupAvoided(repository, component("1.0"))
+        index.lookupAvoided(repository, component("2.0"))
+
+        then:
+        index.avoidedLookups == 2
+    }
+
+    def "reports avoided lookups as progress of the current build operation"() {
+        def listener = Mock(BuildOperationListener)
+        def clock = Stub(Clock) {
+            getCurrentTime() >> 3000L
+        }
+        def reportingIndex = new InMemoryRepositoryContentIndex(timeProvider, index, listener, clock)
+        def operationId = new OperationIdentifier(42)
+        CurrentBuildOperationRef.instance().set(new DefaultBuildOperationRef(operationId, null))
+
+        when:
+        reportingIndex.lookupAvoided(repository, component("1.0"))
+
+        then:
+        1 * listener.progress(operationId, { OperationProgressEvent event ->
+            def details = event.details as RepositoryLookupAvoidedProgressDetails
+            event.time == 3000L && details.repositoryId == "repo" && details.repositoryName == "repo" &&
+                details.group == "org" && details.module == "module" && details.version == "1.0"
+        })
+        reportingIndex.avoidedLookups == 1
+
+        cleanup:
+        CurrentBuildOperationRef.instance().clear()
+    }
+
+    def "does not report avoided lookups outside of a build operation"() {
+        def listener = Mock(BuildOperationListener)
+        def reportingIndex = new InMemoryRepositoryContentIndex(timeProvider, index, listener, Stub(Clock))
+
+        when:
+        reportingIndex.lookupAvoided(repository, component("1.0"))
+
+        then:
+        0 * listener._
+        reportingIndex.avoidedLookups == 1
+    }
+
+    private ModuleComponentIdentifier component(String version) {
+        DefaultModuleComponentIdentifier.newId(module, version)
+    }
+
+    private ModuleComponentRepository repository(String id) {
+        Stub(ModuleComponentRepository) {
+            getId() >> id
+            getName() >> id
+        }
+    }
+}
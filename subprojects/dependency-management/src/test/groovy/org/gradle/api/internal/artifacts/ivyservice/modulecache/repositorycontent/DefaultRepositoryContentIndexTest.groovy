@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.repositorycontent
+
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheLockingManager
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository
+import org.gradle.internal.serialize.Serializer
+import org.gradle.internal.serialize.SerializerSpec
+import org.gradle.testfixtures.internal.InMemoryIndexedCache
+import org.gradle.util.BuildCommencedTimeProvider
+
+class DefaultRepositoryContentIndexTest extends SerializerSpec {
+    def timeProvider = Stub(BuildCommencedTimeProvider) {
+        getCurrentTime() >> 1000L
+    }
+    def cacheLockingManager = Mock(ArtifactCacheLockingManager)
+    def index = new DefaultRepositoryContentIndex(timeProvider, cacheLockingManager, new DefaultImmutableModuleIdentifierFactory())
+    def repository = Stub(ModuleComponentRepository) {
+        getId() >> "repo"
+        getName() >> "repo"
+    }
+    def module = DefaultModuleIdentifier.newId("org", "module")
+
+    def "creates the persistent cache on first use"() {
+        when:
+        index.getModulePresence(repository, module)
+        index.recordModulePresence(repository, module, true)
+
+        then:
+        1 * cacheLockingManager.createCache("repository-content", _, _) >> { name, keySerializer, valueSerializer -> new InMemoryIndexedCache(valueSerializer) }
+        0 * cacheLockingManager._
+    }
+
+    def "stores module presence in the persistent cache"() {
+        given:
+        cacheLockingManager.createCache("repository-content", _, _) >> { name, keySerializer, valueSerializer -> new InMemoryIndexedCache(valueSerializer) }
+
+        when:
+        index.recordModulePresence(repository, module, false)
+        def presence = index.getModulePresence(repository, module)
+
+        then:
+        !presence.present
+        presence.ageMillis == 0L
+    }
+
+    def "serializes keys and entries"() {
+        Serializer<ModuleAtRepositoryKey> keySerializer = null
+        Serializer<ModulePresenceEntry> entrySerializer = null
+
+        when:
+        index.getModulePresence(repository, module)
+
+        then:
+        1 * cacheLockingManager.createCache("repository-content", _, _) >> { name, Serializer k, Serializer v ->
+            keySerializer = k
+            entrySerializer = v
+            new InMemoryIndexedCache(v)
+        }
+
+        when:
+        def key = serialize(new ModuleAtRepositoryKey("repo", module), keySerializer)
+        def entry = serialize(new ModulePresenceEntry(true, 123L), entrySerializer)
+
+        then:
+        key == new ModuleAtRepositoryKey("repo", module)
+        entry.present
+        entry.createTimestamp == 123L
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform
+
+import com.google.common.collect.ImmutableList
+import org.gradle.cache.PersistentIndexedCacheParameters
+import org.gradle.cache.internal.DefaultCacheRepository
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory
+import org.gradle.internal.Try
+import org.gradle.internal.execution.history.ExecutionHistoryStore
+import org.gradle.internal.file.FileAccessTimeJournal
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.InMemoryCacheFactory
+import org.junit.Rule
+import spock.lang.Specification
+
+class ImmutableTransformationWorkspaceProviderTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def transformsStoreDirectory = tmpDir.file("transforms")
+    def cacheRepository = new DefaultCacheRepository(null, new InMemoryCacheFactory())
+    def fileAccessTimeJournal = Stub(FileAccessTimeJournal) {
+        getLastAccessTime(_) >> System.currentTimeMillis()
+    }
+    def workspaceProvider = createWorkspaceProvider()
+
+    def "uses the indexed result when the workspace is unchanged"() {
+        def result = workspaceProvider.withWorkspace(identity("id"), this.&transform).get()
+
+        when:
+        def indexedResult = createWorkspaceProvider().withWorkspace(identity("id")) { path, workspace ->
+            throw new IllegalStateException("transform should not run")
+        }
+
+        then:
+        indexedResult.get() == result
+        result*.name == ["output", "file.txt"]
+    }
+
+    def "runs the transform for a workspace that is not indexed"() {
+        given:
+        workspaceProvider.withWorkspace(identity("id"), this.&transform)
+        def transformRuns = 0
+
+        when:
+        def result = createWorkspaceProvider().withWorkspace(identity("other")) { path, workspace ->
+            transformRuns++
+            transform(path, workspace)
+        }
+
+        then:
+        transformRuns == 1
+        result.get()[0].parentFile.name == "other"
+    }
+
+    def "runs the transform again when a result file has changed"() {
+        def result = workspaceProvider.withWorkspace(identity("id"), this.&transform).get()
+        result[1].text = "changed contents"
+        def transformRuns = 0
+
+        when:
+        def secondResult = createWorkspaceProvider().withWorkspace(identity("id")) { path, workspace ->
+            transformRuns++
+            transform(path, workspace)
+        }
+
+        then:
+        transformRuns == 1
+        secondResult.get() == result
+    }
+
+    def "runs the transform again when the workspace has been removed"() {
+        def result = workspaceProvider.withWorkspace(identity("id"), this.&transform).get()
+        assert result[0].parentFile.deleteDir()
+        def transformRuns = 0
+
+        when:
+        createWorkspaceProvider().withWorkspace(identity("id")) { path, workspace ->
+            transformRuns++
+            transform(path, workspace)
+        }
+
+        then:
+        transformRuns == 1
+    }
+
+    def "does not index results outside of the workspace"() {
+        def inputArtifact = tmpDir.file("input.jar").createFile()
+        def transformRuns = 0
+        def transformReturningInput = { path, workspace ->
+            transformRuns++
+            transform(path, workspace)
+            Try.successful(ImmutableList.of(inputArtifact))
+        }
+
+        when:
+        workspaceProvider.withWorkspace(identity("id"), transformReturningInput)
+        def result = createWorkspaceProvider().withWorkspace(identity("id"), transformReturningInput)
+
+        then:
+        transformRuns == 2
+        result.get() == [inputArtifact]
+    }
+
+    def "removes the indexed results of workspaces deleted by cleanup"() {
+        given:
+        def workspaceProvider = createWorkspaceProvider(Stub(FileAccessTimeJournal) {
+            getLastAccessTime(_) >> 0
+        })
+        def result = workspaceProvider.withWorkspace(identity("id"), this.&transform).get()
+        def removedWorkspacesFile = transformsStoreDirectory.file("results-index-removed-workspaces.txt")
+
+        when:
+        workspaceProvider.close()
+
+        then:
+        !result[0].exists()
+        removedWorkspacesFile.text.readLines() as Set == ["id", "id.bin"] as Set
+        resultIndex().get("id") != null
+
+        when:
+        createWorkspaceProvider().withWorkspace(identity("other"), this.&transform)
+
+        then:
+        !removedWorkspacesFile.exists()
+        resultIndex().get("id") == null
+        resultIndex().get("other") != null
+    }
+
+    private ImmutableTransformationWorkspaceProvider createWorkspaceProvider(FileAccessTimeJournal fileAccessTimeJournal = this.fileAccessTimeJournal) {
+        new ImmutableTransformationWorkspaceProvider(transformsStoreDirectory, cacheRepository, fileAccessTimeJournal, Stub(ExecutionHistoryStore), Stub(InMemoryCacheDecoratorFactory))
+    }
+
+    private Try<ImmutableList<File>> transform(String path, TransformationWorkspaceProvider.TransformationWorkspace workspace) {
+        def outputDirectory = workspace.outputDirectory
+        def outputFile = new File(outputDirectory, "output/file.txt")
+        outputFile.parentFile.mkdirs()
+        outputFile.text = "contents"
+        workspace.resultsFile.parentFile.mkdirs()
+        workspace.resultsFile.text = "output\noutput/file.txt"
+        Try.successful(ImmutableList.of(outputFile.parentFile, outputFile))
+    }
+
+    private TransformationWorkspaceIdentity identity(String id) {
+        Stub(TransformationWorkspaceIdentity) {
+            getIdentity() >> id
+        }
+    }
+
+    private resultIndex() {
+        cacheRepository.cache(transformsStoreDirectory).open().createCache(PersistentIndexedCacheParameters.of("results-index-2", String, BaseSerializerFactory.STRING_SERIALIZER))
+    }
+}
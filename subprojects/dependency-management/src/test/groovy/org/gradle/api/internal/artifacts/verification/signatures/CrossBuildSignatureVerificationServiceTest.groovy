@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.verification.signatures
+
+import org.gradle.cache.internal.CacheScopeMapping
+import org.gradle.cache.internal.DefaultCacheRepository
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory
+import org.gradle.initialization.layout.ProjectCacheDir
+import org.gradle.internal.hash.FileHasher
+import org.gradle.internal.hash.Hashing
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.InMemoryCacheFactory
+import org.gradle.util.BuildCommencedTimeProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class CrossBuildSignatureVerificationServiceTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def delegate = Mock(SignatureVerificationService)
+    def fileHasher = Stub(FileHasher) {
+        hash(_ as File) >> { File file -> Hashing.hashString(file.text) }
+    }
+    def cacheScopeMapping = Stub(CacheScopeMapping) {
+        getBaseDirectory(_, _, _) >> { tmpDir.file("signature-verification") }
+    }
+    def cacheRepository = new DefaultCacheRepository(cacheScopeMapping, new InMemoryCacheFactory())
+    def builder = Mock(SignatureVerificationResultBuilder)
+    def origin = tmpDir.file("foo-1.0.jar") << "jar contents"
+    def signature = tmpDir.file("foo-1.0.jar.asc") << "signature contents"
+    def buildStartTime = System.currentTimeMillis()
+
+    def "reuses the verification result of a previous build"() {
+        given:
+        delegate.verify(origin, signature, _, _, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).missingKey("1234")
+        }
+        verifyInNewBuild(buildStartTime, ["ABCD"] as Set, [] as Set)
+
+        when:
+        verifyInNewBuild(buildStartTime + 1000, ["ABCD"] as Set, [] as Set)
+
+        then:
+        0 * delegate.verify(_, _, _, _, _)
+        1 * builder.missingKey("1234")
+    }
+
+    def "verifies the signature again when the #changed keys change"() {
+        given:
+        delegate.verify(origin, signature, _, _, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).missingKey("1234")
+        }
+        verifyInNewBuild(buildStartTime, ["ABCD"] as Set, ["EF01"] as Set)
+
+        when:
+        verifyInNewBuild(buildStartTime, trustedKeys as Set, ignoredKeys as Set)
+
+        then:
+        1 * delegate.verify(origin, signature, trustedKeys as Set, ignoredKeys as Set, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).ignored("EF01")
+        }
+        1 * builder.ignored("EF01")
+        0 * builder.missingKey(_)
+
+        where:
+        changed   | trustedKeys      | ignoredKeys
+        "trusted" | ["ABCD", "BCDE"] | ["EF01"]
+        "ignored" | ["ABCD"]         | ["EF01", "F012"]
+    }
+
+    def "reuses a result with a missing key until the missing key timeout has passed"() {
+        given:
+        delegate.verify(origin, signature, _, _, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).missingKey("1234")
+        }
+        verifyInNewBuild(buildStartTime, ["ABCD"] as Set, [] as Set)
+
+        when:
+        verifyInNewBuild(buildStartTime + TimeUnit.HOURS.toMillis(23), ["ABCD"] as Set, [] as Set)
+
+        then:
+        0 * delegate.verify(_, _, _, _, _)
+
+        when:
+        verifyInNewBuild(buildStartTime + TimeUnit.HOURS.toMillis(25), ["ABCD"] as Set, [] as Set)
+
+        then:
+        1 * delegate.verify(origin, signature, _, _, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).missingKey("1234")
+        }
+    }
+
+    def "verifies a result with a missing key again when refreshing keys"() {
+        given:
+        delegate.verify(origin, signature, _, _, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).missingKey("1234")
+        }
+        verifyInNewBuild(buildStartTime, ["ABCD"] as Set, [] as Set)
+
+        when:
+        verifyInNewBuild(buildStartTime, ["ABCD"] as Set, [] as Set, true)
+
+        then:
+        1 * delegate.verify(origin, signature, _, _, _) >> { args ->
+            (args[4] as SignatureVerificationResultBuilder).missingKey("1234")
+        }
+    }
+
+    private void verifyInNewBuild(long currentTime, Set<String> trustedKeys, Set<String> ignoredKeys, boolean refreshKeys = false) {
+        def timeProvider = Stub(BuildCommencedTimeProvider) {
+            getCurrentTime() >> currentTime
+        }
+        def service = new CrossBuildSignatureVerificationService(delegate, fileHasher, cacheScopeMapping, Stub(ProjectCacheDir), cacheRepository, Stub(InMemoryCacheDecoratorFactory), timeProvider, refreshKeys)
+        try {
+            service.verify(origin, signature, trustedKeys, ignoredKeys, builder)
+        } finally {
+            service.stop()
+        }
+    }
+}
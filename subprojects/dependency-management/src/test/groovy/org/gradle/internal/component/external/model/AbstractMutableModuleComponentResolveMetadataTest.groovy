@@ -17,6 +17,7 @@
 package org.gradle.internal.component.external.model
 
 import com.google.common.collect.ImmutableListMultimap
+import org.gradle.api.Action
 import org.gradle.api.artifacts.VersionConstraint
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier
 import org.gradle.api.attributes.Attribute
@@ -264,6 +265,54 @@ abstract class AbstractMutableModuleComponentResolveMetadataTest extends Specifi
         immutable3.variants[2].dependencies.empty
     }
 
+    def "content of lazy variants is only loaded when queried"() {
+        def id = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("group", "module"), "version")
+        def metadata = createMetadata(id)
+        def apiLoader = Mock(Action)
+        def runtimeLoader = Mock(Action)
+
+        given:
+        metadata.addLazyVariant("api", attributes(usage: "compile"), apiLoader)
+        metadata.addLazyVariant("runtime", attributes(usage: "runtime"), runtimeLoader)
+
+        when:
+        def immutable = metadata.asImmutable()
+
+        then:
+        immutable.variants.size() == 2
+        immutable.variants[0].name == "api"
+        immutable.variants[0].attributes == attributes(usage: "compile")
+        immutable.variants[1].name == "runtime"
+        0 * _
+
+        when:
+        def files = immutable.variants[1].files
+        def dependencies = immutable.variants[1].dependencies
+
+        then:
+        1 * runtimeLoader.execute(_) >> { MutableComponentVariant variant ->
+            variant.addFile("f1", "dir/f1")
+            variant.addDependency("g1", "m1", v("v1"), [], null, ImmutableAttributes.EMPTY, [], false, null)
+        }
+        0 * _
+        files.size() == 1
+        files[0].name == "f1"
+        dependencies.size() == 1
+        dependencies[0].group == "g1"
+
+        when:
+        def mutableVariant = metadata.mutableVariants[0]
+        mutableVariant.addFile("f2", "dir/f2")
+
+        then:
+        1 * apiLoader.execute(_) >> { MutableComponentVariant variant ->
+            variant.addFile("f1", "dir/f1")
+        }
+        0 * _
+        mutableVariant.files*.name == ["f1", "f2"]
+        metadata.asImmutable().variants[0].files*.name == ["f1", "f2"]
+    }
+
     def "variants are attached as consumable configurations used for variant aware selection"() {
         def id = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("group", "module"), "version")
         def metadata = createMetadata(id)
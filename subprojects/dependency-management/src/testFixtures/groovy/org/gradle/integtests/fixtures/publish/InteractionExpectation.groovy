@@ -18,6 +18,7 @@ package org.gradle.integtests.fixtures.publish
 
 enum InteractionExpectation {
     GET,
+    GET_UNMODIFIED, //a conditional GET of a cached copy, answered without content
     HEAD,
     MAYBE,
     NONE,
@@ -48,8 +48,8 @@ class ModuleSpec {
                     case InteractionExpectation.GET:
                         module.rootMetaData.expectGet()
                         break
-                    case InteractionExpectation.HEAD:
-                        module.rootMetaData.expectHead()
+                    case InteractionExpectation.GET_UNMODIFIED:
+                        module.rootMetaData.expectGetUnmodified()
                         break
                     case InteractionExpectation.MAYBE:
                         module.rootMetaData.allowAll()
@@ -62,9 +62,6 @@ class ModuleSpec {
                     case InteractionExpectation.GET:
                         directoryList.expectGet()
                         break
-                    case InteractionExpectation.HEAD:
-                        directoryList.expectHead()
-                        break
                     case InteractionExpectation.MAYBE:
                         directoryList.allowAll()
                         break
@@ -77,11 +74,11 @@ class ModuleSpec {
         expectGetMetadata()
     }
 
-    void expectHeadVersionListing() {
+    void expectUnmodifiedVersionListing() {
         if (GradleMetadataResolveRunner.useIvy()) {
             metadataExpectations << InteractionExpectation.GET
         } else {
-            metadataExpectations << InteractionExpectation.HEAD
+            metadataExpectations << InteractionExpectation.GET_UNMODIFIED
         }
     }
 
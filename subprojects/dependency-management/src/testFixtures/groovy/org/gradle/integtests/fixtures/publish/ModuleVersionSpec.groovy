@@ -84,6 +84,10 @@ class ModuleVersionSpec {
         expectGetMetadata << InteractionExpectation.GET_MISSING_FOUND_ELSEWHERE
     }
 
+    void expectGetMetadataUnmodified() {
+        expectGetMetadata << InteractionExpectation.GET_UNMODIFIED
+    }
+
     void expectHeadMetadata() {
         expectGetMetadata << InteractionExpectation.HEAD
     }
@@ -96,6 +100,14 @@ class ModuleVersionSpec {
         expectGetArtifact << new ArtifactExpectation(InteractionExpectation.GET, artifact)
     }
 
+    void expectGetArtifactUnmodified(String artifact = '') {
+        expectGetArtifact << new ArtifactExpectation(InteractionExpectation.GET_UNMODIFIED, artifact)
+    }
+
+    void expectGetArtifactUnmodified(Map<String, String> artifact) {
+        expectGetArtifact << new ArtifactExpectation(InteractionExpectation.GET_UNMODIFIED, artifact)
+    }
+
     void expectHeadArtifact(String artifact = '') {
         expectGetArtifact << new ArtifactExpectation(InteractionExpectation.HEAD, artifact)
     }
@@ -215,6 +227,18 @@ class ModuleVersionSpec {
                     }
                     module.moduleMetadata.allowGetOrHead()
                     break
+                case InteractionExpectation.GET_UNMODIFIED:
+                    if (legacyMetadataIsRequested) {
+                        if (module instanceof MavenModule) {
+                            module.pom.expectGetUnmodified()
+                        } else if (module instanceof IvyModule) {
+                            module.ivy.expectGetUnmodified()
+                        }
+                    }
+                    if (gradleMetadataWasPublished) {
+                        module.moduleMetadata.expectGetUnmodified()
+                    }
+                    break
                 case InteractionExpectation.HEAD:
                     if (legacyMetadataIsRequested) {
                         if (module instanceof MavenModule) {
@@ -273,6 +297,9 @@ class ModuleVersionSpec {
                         case InteractionExpectation.GET:
                             artifact.expectGet()
                             break
+                        case InteractionExpectation.GET_UNMODIFIED:
+                            artifact.expectGetUnmodified()
+                            break
                         case InteractionExpectation.HEAD:
                             artifact.expectHead()
                             break
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.execution.history.changes;
+
+import com.google.common.collect.ImmutableMultimap;
+import org.gradle.internal.execution.history.impl.SerializableFileCollectionFingerprint;
+import org.gradle.internal.file.FileType;
+import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.fingerprint.FileSystemLocationFingerprint;
+import org.gradle.internal.fingerprint.impl.DefaultFileSystemLocationFingerprint;
+import org.gradle.internal.hash.HashCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class FingerprintCompareStrategyBenchmark {
+
+    @Param({"100000"})
+    int fingerprintCount;
+
+    // Number of files which differ between the previous and the current fingerprint
+    @Param({"0", "1", "1000"})
+    int changedCount;
+
+    FileCollectionFingerprint previous;
+    FileCollectionFingerprint current;
+    FileCollectionFingerprint currentWithoutHash;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1234L);
+        Map<String, FileSystemLocationFingerprint> previousFingerprints = new LinkedHashMap<>();
+        Map<String, FileSystemLocationFingerprint> currentFingerprints = new LinkedHashMap<>();
+        for (int i = 0; i < fingerprintCount; i++) {
+            String normalizedPath = "org/gradle/package" + (i % 100) + "/File" + i + ".java";
+            HashCode contentHash = HashCode.fromInt(random.nextInt());
+            previousFingerprints.put("/root/src/" + normalizedPath, new DefaultFileSystemLocationFingerprint(normalizedPath, FileType.RegularFile, contentHash));
+            HashCode currentContentHash = i < changedCount ? HashCode.fromInt(random.nextInt()) : contentHash;
+            currentFingerprints.put("/root/src/" + normalizedPath, new DefaultFileSystemLocationFingerprint(normalizedPath, FileType.RegularFile, currentContentHash));
+        }
+        ImmutableMultimap<String, HashCode> previousRootHashes = ImmutableMultimap.of("/root/src", HashCode.fromInt(1));
+        ImmutableMultimap<String, HashCode> currentRootHashes = ImmutableMultimap.of("/root/src", HashCode.fromInt(2));
+        HashCode previousHash = HashCode.fromInt(3);
+        HashCode currentHash = changedCount == 0 ? previousHash : HashCode.fromInt(4);
+        previous = new SerializableFileCollectionFingerprint(previousFingerprints, previousRootHashes, previousHash);
+        current = new SerializableFileCollectionFingerprint(currentFingerprints, currentRootHashes, currentHash);
+        currentWithoutHash = new SerializableFileCollectionFingerprint(currentFingerprints, currentRootHashes);
+    }
+
+    @Benchmark
+    public void compareWithHash(Blackhole blackhole) {
+        CollectingChangeVisitor visitor = new CollectingChangeVisitor();
+        NormalizedPathFingerprintCompareStrategy.INSTANCE.visitChangesSince(current, previous, "benchmark", visitor);
+        blackhole.consume(visitor.getChanges());
+    }
+
+    @Benchmark
+    public void compareAllEntries(Blackhole blackhole) {
+        CollectingChangeVisitor visitor = new CollectingChangeVisitor();
+        NormalizedPathFingerprintCompareStrategy.INSTANCE.visitChangesSince(currentWithoutHash, previous, "benchmark", visitor);
+        blackhole.consume(visitor.getChanges());
+    }
+
+    @Benchmark
+    public void detectAnyChange(Blackhole blackhole) {
+        ChangeDetectorVisitor visitor = new ChangeDetectorVisitor();
+        NormalizedPathFingerprintCompareStrategy.INSTANCE.visitChangesSince(currentWithoutHash, previous, "benchmark", visitor);
+        blackhole.consume(visitor.hasAnyChanges());
+    }
+}
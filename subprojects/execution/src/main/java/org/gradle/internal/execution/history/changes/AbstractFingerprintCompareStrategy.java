@@ -29,13 +29,18 @@ public abstract class AbstractFingerprintCompareStrategy implements FingerprintC
 
     @Override
     public boolean visitChangesSince(FileCollectionFingerprint current, FileCollectionFingerprint previous, String propertyTitle, ChangeVisitor visitor) {
-        if (hasSameRootHashes(current, previous)) {
+        if (hasSameRootHashes(current, previous) || hasSameHash(current, previous)) {
             return true;
         }
         return visitChangesSince(current.getFingerprints(), previous.getFingerprints(), propertyTitle, visitor);
     }
 
-    private boolean hasSameRootHashes(FileCollectionFingerprint current, FileCollectionFingerprint previous) {
+    private static boolean hasSameHash(FileCollectionFingerprint current, FileCollectionFingerprint previous) {
+        HashCode previousHash = previous.getHash();
+        return previousHash != null && previousHash.equals(current.getHash());
+    }
+
+    private static boolean hasSameRootHashes(FileCollectionFingerprint current, FileCollectionFingerprint previous) {
         return Iterables.elementsEqual(current.getRootHashes().entries(), previous.getRootHashes().entries());
     }
 
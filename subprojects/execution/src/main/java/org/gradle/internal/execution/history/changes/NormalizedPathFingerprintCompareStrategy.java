@@ -16,19 +16,13 @@
 
 package org.gradle.internal.execution.history.changes;
 
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.MultimapBuilder;
-import org.gradle.internal.file.FileType;
 import org.gradle.internal.fingerprint.FileSystemLocationFingerprint;
 
-import java.util.Iterator;
-import java.util.List;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.Set;
-
-import static java.util.Map.Entry.comparingByKey;
 
 /**
  * Compares by normalized path (relative/name only) and file contents. Order does not matter.
@@ -49,6 +43,8 @@ private NormalizedPathFingerprintCompareStrategy() {
      *         If it is, file is reported as modified, if not as removed.
      *     </li>
      * </ul>
+     *
+     * Entries are matched by a merge over arrays sorted by fingerprint, so no intermediate hash based collections are built.
      */
     @Override
     protected boolean doVisitChangesSince(
@@ -57,23 +53,55 @@ protected boolean doVisitChangesSince(
         Map<String, FileSystemLocationFingerprint> previousFingerprints,
         String propertyTitle
     ) {
-        ListMultimap<FileSystemLocationFingerprint, FilePathWithType> unaccountedForPreviousFiles = getUnaccountedForPreviousFingerprints(previousFingerprints, currentFingerprints.entrySet());
-        ListMultimap<String, FilePathWithType> addedFilesByNormalizedPath = getAddedFilesByNormalizedPath(currentFingerprints, unaccountedForPreviousFiles, previousFingerprints.entrySet());
-
-        Iterator<Entry<FileSystemLocationFingerprint, FilePathWithType>> iterator = unaccountedForPreviousFiles.entries().stream().sorted(comparingByKey()).iterator();
-        while (iterator.hasNext()) {
-            Entry<FileSystemLocationFingerprint, FilePathWithType> entry = iterator.next();
-            FileSystemLocationFingerprint previousFingerprint = entry.getKey();
-            FilePathWithType pathWithType = entry.getValue();
+        FingerprintEntry[] previousEntries = entriesNotIn(previousFingerprints, currentFingerprints);
+        FingerprintEntry[] currentEntries = entriesNotIn(currentFingerprints, previousFingerprints);
+        FingerprintEntry[] currentEntriesByPath = currentEntries.clone();
+
+        // Stable sorts, so entries with the same fingerprint are matched in the order they appear in
+        Arrays.sort(previousEntries, BY_FINGERPRINT);
+        Arrays.sort(currentEntries, BY_FINGERPRINT);
+        Arrays.sort(currentEntriesByPath, BY_ABSOLUTE_PATH);
+
+        int previousIndex = 0;
+        int currentIndex = 0;
+        while (previousIndex < previousEntries.length && currentIndex < currentEntries.length) {
+            FingerprintEntry previousEntry = previousEntries[previousIndex];
+            FingerprintEntry currentEntry = currentEntries[currentIndex];
+            int result = previousEntry.fingerprint.compareTo(currentEntry.fingerprint);
+            if (result == 0) {
+                previousEntry.accountedFor = true;
+                currentEntry.accountedFor = true;
+                previousIndex++;
+                currentIndex++;
+            } else if (result < 0) {
+                previousIndex++;
+            } else {
+                currentIndex++;
+            }
+        }
 
-            Change change = getChange(propertyTitle, addedFilesByNormalizedPath, previousFingerprint, pathWithType);
+        for (FingerprintEntry previousEntry : previousEntries) {
+            if (previousEntry.accountedFor) {
+                continue;
+            }
+            FingerprintEntry modifiedEntry = findModified(currentEntriesByPath, previousEntry);
+            Change change;
+            if (modifiedEntry != null) {
+                modifiedEntry.accountedFor = true;
+                change = DefaultFileChange.modified(modifiedEntry.absolutePath, propertyTitle, previousEntry.fingerprint.getType(), modifiedEntry.fingerprint.getType(), modifiedEntry.fingerprint.getNormalizedPath());
+            } else {
+                change = DefaultFileChange.removed(previousEntry.absolutePath, propertyTitle, previousEntry.fingerprint.getType(), previousEntry.fingerprint.getNormalizedPath());
+            }
             if (!visitor.visitChange(change)) {
                 return false;
             }
         }
 
-        for (Entry<String, FilePathWithType> entry : addedFilesByNormalizedPath.entries()) {
-            Change added = added(propertyTitle, entry);
+        for (FingerprintEntry currentEntry : currentEntriesByOrder(currentEntries)) {
+            if (currentEntry.accountedFor) {
+                continue;
+            }
+            Change added = DefaultFileChange.added(currentEntry.absolutePath, propertyTitle, currentEntry.fingerprint.getType(), currentEntry.fingerprint.getNormalizedPath());
             if (!visitor.visitChange(added)) {
                 return false;
             }
@@ -81,107 +109,62 @@ protected boolean doVisitChangesSince(
         return true;
     }
 
-    private Change getChange(
-        String propertyTitle,
-        ListMultimap<String, FilePathWithType> addedFilesByNormalizedPath,
-        FileSystemLocationFingerprint previousFingerprint,
-        FilePathWithType pathWithType
-    ) {
-        String normalizedPath = previousFingerprint.getNormalizedPath();
-        FileType previousFingerprintType = previousFingerprint.getType();
-        String absolutePath = pathWithType.getAbsolutePath();
-
-        List<FilePathWithType> filePathWithTypes = addedFilesByNormalizedPath.get(normalizedPath);
-        Optional<FilePathWithType> match = filePathWithTypes.stream().filter(file -> absolutePath.equals(file.getAbsolutePath())).findFirst();
-        return match
-            .map(filePathWithType -> {
-                filePathWithTypes.remove(filePathWithType);
-                return modified(propertyTitle, previousFingerprintType, normalizedPath, filePathWithType);
-            })
-            .orElseGet(() -> removed(propertyTitle, normalizedPath, pathWithType));
-    }
-
-    private static ListMultimap<FileSystemLocationFingerprint, FilePathWithType> getUnaccountedForPreviousFingerprints(
-        Map<String, FileSystemLocationFingerprint> previousFingerprints,
-        Set<Entry<String, FileSystemLocationFingerprint>> currentEntries
-    ) {
-        ListMultimap<FileSystemLocationFingerprint, FilePathWithType> results = MultimapBuilder
-            .hashKeys(previousFingerprints.size())
-            .linkedListValues()
-            .build();
-        for (Entry<String, FileSystemLocationFingerprint> previousEntry : previousFingerprints.entrySet()) {
+    /**
+     * Returns the entries of the given fingerprints which do not have an exact match in the other fingerprints.
+     */
+    private static FingerprintEntry[] entriesNotIn(Map<String, FileSystemLocationFingerprint> fingerprints, Map<String, FileSystemLocationFingerprint> otherFingerprints) {
+        FingerprintEntry[] entries = new FingerprintEntry[fingerprints.size()];
+        int count = 0;
+        for (Entry<String, FileSystemLocationFingerprint> entry : fingerprints.entrySet()) {
+            String absolutePath = entry.getKey();
+            FileSystemLocationFingerprint fingerprint = entry.getValue();
             // skip exact matches
-            if (currentEntries.contains(previousEntry)) {
+            if (fingerprint.equals(otherFingerprints.get(absolutePath))) {
                 continue;
             }
-
-            String absolutePath = previousEntry.getKey();
-            FileSystemLocationFingerprint previousFingerprint = previousEntry.getValue();
-            FileType previousFingerprintType = previousFingerprint.getType();
-
-            results.put(previousFingerprint, new FilePathWithType(absolutePath, previousFingerprintType));
+            entries[count] = new FingerprintEntry(absolutePath, fingerprint, count);
+            count++;
         }
-        return results;
+        return count == entries.length ? entries : Arrays.copyOf(entries, count);
     }
 
-    private static ListMultimap<String, FilePathWithType> getAddedFilesByNormalizedPath(
-        Map<String, FileSystemLocationFingerprint> currentFingerprints,
-        ListMultimap<FileSystemLocationFingerprint, FilePathWithType> unaccountedForPreviousFiles,
-        Set<Entry<String, FileSystemLocationFingerprint>> previousEntries
-    ) {
-        ListMultimap<String, FilePathWithType> results = MultimapBuilder
-            .linkedHashKeys()
-            .arrayListValues(1)
-            .build();
-        for (Entry<String, FileSystemLocationFingerprint> currentEntry : currentFingerprints.entrySet()) {
-            // skip exact matches
-            if (previousEntries.contains(currentEntry)) {
-                continue;
-            }
-
-            String absolutePath = currentEntry.getKey();
-            FileSystemLocationFingerprint currentFingerprint = currentEntry.getValue();
-            List<FilePathWithType> previousFilesForFingerprint = unaccountedForPreviousFiles.get(currentFingerprint);
-            FileType fingerprintType = currentFingerprint.getType();
-
-            if (previousFilesForFingerprint.isEmpty()) {
-                results.put(currentFingerprint.getNormalizedPath(), new FilePathWithType(absolutePath, fingerprintType));
-            } else {
-                previousFilesForFingerprint.remove(0);
-            }
+    /**
+     * Finds the current entry with the same absolute and normalized path as the previous entry which has not been accounted for yet.
+     */
+    @Nullable
+    private static FingerprintEntry findModified(FingerprintEntry[] currentEntriesByPath, FingerprintEntry previousEntry) {
+        int index = Arrays.binarySearch(currentEntriesByPath, previousEntry, BY_ABSOLUTE_PATH);
+        if (index < 0) {
+            return null;
+        }
+        FingerprintEntry currentEntry = currentEntriesByPath[index];
+        if (currentEntry.accountedFor || !currentEntry.fingerprint.getNormalizedPath().equals(previousEntry.fingerprint.getNormalizedPath())) {
+            return null;
         }
-        return results;
+        return currentEntry;
     }
 
-    private static Change modified(
-        String propertyTitle,
-        FileType previousFingerprintType,
-        String normalizedPath,
-        FilePathWithType modifiedFile
-    ) {
-        String absolutePath = modifiedFile.getAbsolutePath();
-        FileType fileType = modifiedFile.getFileType();
-        return DefaultFileChange.modified(absolutePath, propertyTitle, previousFingerprintType, fileType, normalizedPath);
+    private static FingerprintEntry[] currentEntriesByOrder(FingerprintEntry[] currentEntries) {
+        FingerprintEntry[] entriesByOrder = new FingerprintEntry[currentEntries.length];
+        for (FingerprintEntry currentEntry : currentEntries) {
+            entriesByOrder[currentEntry.order] = currentEntry;
+        }
+        return entriesByOrder;
     }
 
-    private static Change removed(
-        String propertyTitle,
-        String normalizedPath,
-        FilePathWithType removedFile
-    ) {
-        String absolutePath = removedFile.getAbsolutePath();
-        FileType fileType = removedFile.getFileType();
-        return DefaultFileChange.removed(absolutePath, propertyTitle, fileType, normalizedPath);
-    }
+    private static final Comparator<FingerprintEntry> BY_FINGERPRINT = (left, right) -> left.fingerprint.compareTo(right.fingerprint);
+    private static final Comparator<FingerprintEntry> BY_ABSOLUTE_PATH = (left, right) -> left.absolutePath.compareTo(right.absolutePath);
 
-    private static Change added(
-        String propertyTitle,
-        Entry<String, FilePathWithType> addedFilesByNormalizedPathEntries
-    ) {
-        FilePathWithType addedFile = addedFilesByNormalizedPathEntries.getValue();
-        String absolutePath = addedFile.getAbsolutePath();
-        FileType fileType = addedFile.getFileType();
-        String normalizedPath = addedFilesByNormalizedPathEntries.getKey();
-        return DefaultFileChange.added(absolutePath, propertyTitle, fileType, normalizedPath);
+    private static class FingerprintEntry {
+        private final String absolutePath;
+        private final FileSystemLocationFingerprint fingerprint;
+        private final int order;
+        private boolean accountedFor;
+
+        public FingerprintEntry(String absolutePath, FileSystemLocationFingerprint fingerprint, int order) {
+            this.absolutePath = absolutePath;
+            this.fingerprint = fingerprint;
+            this.order = order;
+        }
     }
 }
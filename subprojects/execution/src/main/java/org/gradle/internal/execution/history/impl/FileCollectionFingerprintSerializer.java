@@ -26,7 +26,9 @@
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Map;
 
@@ -44,12 +46,16 @@ public FileCollectionFingerprintSerializer(StringInterner stringInterner) {
 
     @Override
     public FileCollectionFingerprint read(Decoder decoder) throws IOException {
-        Map<String, FileSystemLocationFingerprint> fingerprints = fingerprintMapSerializer.read(decoder);
-        if (fingerprints.isEmpty()) {
+        boolean empty = !decoder.readBoolean();
+        if (empty) {
             return FileCollectionFingerprint.EMPTY;
         }
         ImmutableMultimap<String, HashCode> rootHashes = readRootHashes(decoder);
-        return new SerializableFileCollectionFingerprint(fingerprints, rootHashes);
+        HashCode hash = decoder.readBoolean()
+            ? hashCodeSerializer.read(decoder)
+            : null;
+        byte[] encodedFingerprints = decoder.readBinary();
+        return new LazilyDecodedFileCollectionFingerprint(rootHashes, hash, encodedFingerprints, fingerprintMapSerializer);
     }
 
     private ImmutableMultimap<String, HashCode> readRootHashes(Decoder decoder) throws IOException {
@@ -66,12 +72,38 @@ private ImmutableMultimap<String, HashCode> readRootHashes(Decoder decoder) thro
         return builder.build();
     }
 
+    /**
+     * Writes the file fingerprints as a length-prefixed block after the hashes, so they can be skipped when reading and decoded on demand.
+     */
     @Override
     public void write(Encoder encoder, FileCollectionFingerprint value) throws Exception {
-        fingerprintMapSerializer.write(encoder, value.getFingerprints());
-        if (!value.getFingerprints().isEmpty()) {
-            writeRootHashes(encoder, value.getRootHashes());
+        byte[] encodedFingerprints = value instanceof LazilyDecodedFileCollectionFingerprint
+            ? ((LazilyDecodedFileCollectionFingerprint) value).getEncodedFingerprints()
+            : null;
+        if (encodedFingerprints == null) {
+            Map<String, FileSystemLocationFingerprint> fingerprints = value.getFingerprints();
+            if (fingerprints.isEmpty()) {
+                encoder.writeBoolean(false);
+                return;
+            }
+            encodedFingerprints = encodeFingerprints(fingerprints);
         }
+        encoder.writeBoolean(true);
+        writeRootHashes(encoder, value.getRootHashes());
+        HashCode hash = value.getHash();
+        encoder.writeBoolean(hash != null);
+        if (hash != null) {
+            hashCodeSerializer.write(encoder, hash);
+        }
+        encoder.writeBinary(encodedFingerprints);
+    }
+
+    private byte[] encodeFingerprints(Map<String, FileSystemLocationFingerprint> fingerprints) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream)) {
+            fingerprintMapSerializer.write(encoder, fingerprints);
+        }
+        return outputStream.toByteArray();
     }
 
     private void writeRootHashes(Encoder encoder, ImmutableMultimap<String, HashCode> rootHashes) throws IOException {
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.execution.history.impl;
+
+import com.google.common.collect.ImmutableMultimap;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.fingerprint.FileSystemLocationFingerprint;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A fingerprint loaded from the execution history, which decodes its file fingerprints only when they are requested.
+ *
+ * Up-to-date checks mostly only need the root hashes and the combined hash, so the file fingerprints are kept in their encoded form until then.
+ */
+class LazilyDecodedFileCollectionFingerprint implements FileCollectionFingerprint {
+    private final ImmutableMultimap<String, HashCode> rootHashes;
+    private final HashCode hash;
+    private final FingerprintMapSerializer fingerprintMapSerializer;
+    private byte[] encodedFingerprints;
+    private volatile Map<String, FileSystemLocationFingerprint> fingerprints;
+
+    public LazilyDecodedFileCollectionFingerprint(ImmutableMultimap<String, HashCode> rootHashes, @Nullable HashCode hash, byte[] encodedFingerprints, FingerprintMapSerializer fingerprintMapSerializer) {
+        this.rootHashes = rootHashes;
+        this.hash = hash;
+        this.encodedFingerprints = encodedFingerprints;
+        this.fingerprintMapSerializer = fingerprintMapSerializer;
+    }
+
+    @Override
+    public Map<String, FileSystemLocationFingerprint> getFingerprints() {
+        Map<String, FileSystemLocationFingerprint> result = fingerprints;
+        if (result == null) {
+            synchronized (this) {
+                result = fingerprints;
+                if (result == null) {
+                    result = decode(encodedFingerprints);
+                    fingerprints = result;
+                    encodedFingerprints = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the encoded file fingerprints if they have not been decoded yet, so they can be written again as they are.
+     */
+    @Nullable
+    synchronized byte[] getEncodedFingerprints() {
+        return encodedFingerprints;
+    }
+
+    @Override
+    public ImmutableMultimap<String, HashCode> getRootHashes() {
+        return rootHashes;
+    }
+
+    @Nullable
+    @Override
+    public HashCode getHash() {
+        return hash;
+    }
+
+    private Map<String, FileSystemLocationFingerprint> decode(byte[] encoded) {
+        try (KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(encoded), encoded.length)) {
+            return fingerprintMapSerializer.read(decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode file fingerprints from the execution history", e);
+        }
+    }
+}
@@ -44,11 +44,16 @@
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.ValueSnapshotter;
 import org.gradle.internal.snapshot.impl.ImplementationSnapshot;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class CaptureStateBeforeExecutionStep extends BuildOperationStep<AfterPreviousExecutionContext, CachingResult> {
     private static final Logger LOGGER = LoggerFactory.getLogger(CaptureStateBeforeExecutionStep.class);
@@ -101,8 +106,11 @@ public UnitOfWork getWork() {
 
     private BeforeExecutionState captureExecutionStateOp(AfterPreviousExecutionContext executionContext) {
         return operation(operationContext -> {
-                BeforeExecutionState beforeExecutionState = captureExecutionState(executionContext);
-                operationContext.setResult(Operation.Result.INSTANCE);
+                SortedMap<String, Long> fingerprintingTimes = new TreeMap<>();
+                BeforeExecutionState beforeExecutionState = captureExecutionState(executionContext, fingerprintingTimes);
+                operationContext.setResult(fingerprintingTimes.isEmpty()
+                    ? Operation.Result.INSTANCE
+                    : new DefaultOperationResult(ImmutableSortedMap.copyOfSorted(fingerprintingTimes)));
                 return beforeExecutionState;
             },
             BuildOperationDescriptor
@@ -111,7 +119,7 @@ private BeforeExecutionState captureExecutionStateOp(AfterPreviousExecutionConte
         );
     }
 
-    private BeforeExecutionState captureExecutionState(AfterPreviousExecutionContext context) {
+    private BeforeExecutionState captureExecutionState(AfterPreviousExecutionContext context, Map<String, Long> fingerprintingTimes) {
         Optional<AfterPreviousExecutionState> afterPreviousExecutionState = context.getAfterPreviousExecutionState();
         UnitOfWork work = context.getWork();
 
@@ -147,7 +155,7 @@ private BeforeExecutionState captureExecutionState(AfterPreviousExecutionContext
         }
 
         ImmutableSortedMap<String, ValueSnapshot> inputProperties = fingerprintInputProperties(work, previousInputProperties, valueSnapshotter);
-        ImmutableSortedMap<String, CurrentFileCollectionFingerprint> inputFileFingerprints = fingerprintInputFiles(work);
+        ImmutableSortedMap<String, CurrentFileCollectionFingerprint> inputFileFingerprints = fingerprintInputFiles(work, fingerprintingTimes);
         ImmutableSortedMap<String, CurrentFileCollectionFingerprint> outputFileFingerprints = fingerprintOutputFiles(
             outputSnapshotsAfterPreviousExecution,
             outputFileSnapshots,
@@ -183,13 +191,15 @@ private static ImmutableSortedMap<String, ValueSnapshot> fingerprintInputPropert
         return builder.build();
     }
 
-    private static ImmutableSortedMap<String, CurrentFileCollectionFingerprint> fingerprintInputFiles(UnitOfWork work) {
+    private static ImmutableSortedMap<String, CurrentFileCollectionFingerprint> fingerprintInputFiles(UnitOfWork work, Map<String, Long> fingerprintingTimes) {
         ImmutableSortedMap.Builder<String, CurrentFileCollectionFingerprint> builder = ImmutableSortedMap.naturalOrder();
         work.visitInputFileProperties((propertyName, value, incremental, fingerprinter) -> {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Fingerprinting property {} for {}", propertyName, work.getDisplayName());
             }
+            Timer timer = Time.startTimer();
             CurrentFileCollectionFingerprint result = fingerprinter.get();
+            fingerprintingTimes.put(propertyName, timer.getElapsedMillis());
             builder.put(propertyName, result);
         });
         return builder.build();
@@ -219,6 +229,19 @@ private static CurrentFileCollectionFingerprint fingerprintOutputSnapshot(FileSy
         return DefaultCurrentFileCollectionFingerprint.from(roots, AbsolutePathFingerprintingStrategy.IGNORE_MISSING);
     }
 
+    private static class DefaultOperationResult implements Operation.Result {
+        private final ImmutableSortedMap<String, Long> inputFileFingerprintingTimes;
+
+        public DefaultOperationResult(ImmutableSortedMap<String, Long> inputFileFingerprintingTimes) {
+            this.inputFileFingerprintingTimes = inputFileFingerprintingTimes;
+        }
+
+        @Override
+        public Map<String, Long> getInputFileFingerprintingTimes() {
+            return inputFileFingerprintingTimes;
+        }
+    }
+
     private static class ImplementationsBuilder implements UnitOfWork.ImplementationVisitor {
         private final ClassLoaderHierarchyHasher classLoaderHierarchyHasher;
         private ImplementationSnapshot implementation;
@@ -269,7 +292,16 @@ interface Details {
 
         interface Result {
             Result INSTANCE = new Result() {
+                @Override
+                public Map<String, Long> getInputFileFingerprintingTimes() {
+                    return ImmutableSortedMap.of();
+                }
             };
+
+            /**
+             * The time in milliseconds spent fingerprinting each input file property, keyed by property name.
+             */
+            Map<String, Long> getInputFileFingerprintingTimes();
         }
     }
 }
@@ -269,6 +269,28 @@ class FingerprintCompareStrategyTest extends Specification {
         ]
     }
 
+    def "no changes are reported when fingerprint hashes are the same (#strategy.class.simpleName)"() {
+        def current = new SerializableFileCollectionFingerprint(["one": fingerprint("one")], ImmutableMultimap.of("some", HashCode.fromInt(1234)), HashCode.fromInt(5678))
+        def previous = new SerializableFileCollectionFingerprint(["two": fingerprint("two")], ImmutableMultimap.of("some", HashCode.fromInt(4321)), HashCode.fromInt(5678))
+
+        expect:
+        changes(strategy, current, previous).empty
+
+        where:
+        strategy << ALL_STRATEGIES
+    }
+
+    def "changes are reported when fingerprint hashes differ (#strategy.class.simpleName)"() {
+        def current = new SerializableFileCollectionFingerprint(["one": fingerprint("one")], ImmutableMultimap.of("some", HashCode.fromInt(1234)), HashCode.fromInt(5678))
+        def previous = new SerializableFileCollectionFingerprint([:], ImmutableMultimap.of("some", HashCode.fromInt(4321)), HashCode.fromInt(8765))
+
+        expect:
+        changes(strategy, current, previous) == [added("one")]
+
+        where:
+        strategy << ALL_STRATEGIES
+    }
+
     def "too many elements not handled by trivial comparison (#current.size() current vs #previous.size() previous)"() {
         expect:
         compareTrivialFingerprints(new CollectingChangeVisitor(), current, previous, "test") == null
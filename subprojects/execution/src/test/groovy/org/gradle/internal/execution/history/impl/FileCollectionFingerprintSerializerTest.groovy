@@ -72,6 +72,47 @@ class FileCollectionFingerprintSerializerTest extends SerializerSpec {
             normalizedContentHash == FileSystemLocationFingerprint.MISSING_FILE_SIGNATURE
         }
         out.rootHashes == rootHashes
+        out.hash == null
+    }
+
+    def "reads and writes hash of fingerprints"() {
+        def hash = HashCode.fromInt(1234)
+
+        when:
+        def out = serialize(new SerializableFileCollectionFingerprint(
+                ['/1': new DefaultFileSystemLocationFingerprint("1", FileType.RegularFile, HashCode.fromInt(5678))],
+                ImmutableMultimap.of("/1", HashCode.fromInt(5678)),
+                hash
+        ), serializer)
+
+        then:
+        out.fingerprints.keySet() as List == ["/1"]
+        out.hash == hash
+    }
+
+    def "writes fingerprints read from the execution history again without decoding them"() {
+        def fingerprint = new SerializableFileCollectionFingerprint(
+                ['/1': new DefaultFileSystemLocationFingerprint("1", FileType.RegularFile, HashCode.fromInt(5678))],
+                ImmutableMultimap.of("/1", HashCode.fromInt(5678)),
+                HashCode.fromInt(1234)
+        )
+
+        when:
+        def read = serialize(fingerprint, serializer)
+
+        then:
+        read instanceof LazilyDecodedFileCollectionFingerprint
+        read.encodedFingerprints != null
+
+        when:
+        def out = serialize(read, serializer)
+
+        then:
+        read.encodedFingerprints != null
+        out.rootHashes == fingerprint.rootHashes
+        out.hash == fingerprint.hash
+        out.fingerprints == fingerprint.fingerprints
+        out.encodedFingerprints == null
     }
 
     def "should retain order in serialization"() {
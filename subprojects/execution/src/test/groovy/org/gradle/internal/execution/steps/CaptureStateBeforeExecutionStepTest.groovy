@@ -159,7 +159,34 @@ class CaptureStateBeforeExecutionStepTest extends StepSpec<AfterPreviousExecutio
         }
         0 * _
 
-        assertOperationForInputsBeforeExecution()
+        withOnlyOperation(CaptureStateBeforeExecutionStep.Operation) {
+            assert it.result.inputFileFingerprintingTimes.keySet() == ['inputFile'] as Set
+        }
+    }
+
+    def "fingerprinting time is reported for each input file property"() {
+        def firstFingerprint = Mock(CurrentFileCollectionFingerprint)
+        def secondFingerprint = Mock(CurrentFileCollectionFingerprint)
+
+        when:
+        step.execute(context)
+
+        then:
+        _ * work.visitInputFileProperties(_) >> { UnitOfWork.InputFilePropertyVisitor visitor ->
+            visitor.visitInputFileProperty("sources", "ignored", false, { -> secondFingerprint })
+            visitor.visitInputFileProperty("classpath", "ignored", false, { -> firstFingerprint })
+        }
+        interaction { fingerprintInputs() }
+        1 * delegate.execute(_) >> { BeforeExecutionContext beforeExecution ->
+            def state = beforeExecution.beforeExecutionState.get()
+            assert state.inputFileProperties == ImmutableSortedMap.<String, CurrentFileCollectionFingerprint>of('classpath', firstFingerprint, 'sources', secondFingerprint)
+        }
+        0 * _
+
+        withOnlyOperation(CaptureStateBeforeExecutionStep.Operation) {
+            assert it.result.inputFileFingerprintingTimes.keySet() as List == ['classpath', 'sources']
+            assert it.result.inputFileFingerprintingTimes.values().every { it >= 0 }
+        }
     }
 
     def "output file properties are fingerprinted"() {
@@ -65,7 +65,7 @@ public void remove(String key) {
     private static ImmutableSortedMap<String, FileCollectionFingerprint> prepareForSerialization(ImmutableSortedMap<String, CurrentFileCollectionFingerprint> fingerprints) {
         return copyOfSorted(transformValues(fingerprints, value -> {
             //noinspection ConstantConditions
-            return new SerializableFileCollectionFingerprint(value.getFingerprints(), value.getRootHashes());
+            return new SerializableFileCollectionFingerprint(value.getFingerprints(), value.getRootHashes(), value.getHash());
         }));
     }
 
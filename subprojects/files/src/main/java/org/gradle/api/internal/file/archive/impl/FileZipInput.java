@@ -48,10 +48,17 @@ public static ZipInput create(File file) {
         }
     }
 
+    /**
+     * Creates a stream of the entries in the given open zip file, which is closed together with the stream.
+     */
+    public static ZipInput of(ZipFile file) {
+        return new FileZipInput(file);
+    }
+
     /**
      * {@link ZipFile} is more efficient, but causes memory leaks on older Java versions, so we only use it on more recent ones.
      */
-    private static boolean isZipFileSafeToUse() {
+    public static boolean isZipFileSafeToUse() {
         return getJavaMajorVersion() >= 11;
     }
 
@@ -68,12 +75,20 @@ private static int getJavaMajorVersion() {
     private final Enumeration<? extends java.util.zip.ZipEntry> entries;
 
     private FileZipInput(File file) {
+        this(open(file));
+    }
+
+    private FileZipInput(ZipFile file) {
+        this.file = file;
+        this.entries = file.entries();
+    }
+
+    private static ZipFile open(File file) {
         try {
-            this.file = new ZipFile(file);
+            return new ZipFile(file);
         } catch (IOException e) {
             throw new FileException(e);
         }
-        this.entries = this.file.entries();
     }
 
     @Override
@@ -43,6 +43,8 @@ abstract class AbstractHttpResource implements RemoteResource {
 
     abstract void expectGetRevalidate()
 
+    abstract void expectGetUnmodified()
+
     abstract void expectHead()
 
     abstract void expectHeadBroken()
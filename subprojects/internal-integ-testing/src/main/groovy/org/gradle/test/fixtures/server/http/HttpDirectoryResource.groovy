@@ -58,6 +58,11 @@ class HttpDirectoryResource extends AbstractHttpResource {
         server.expectGetRevalidate(path, directory)
     }
 
+    @Override
+    void expectGetUnmodified() {
+        throw new UnsupportedOperationException()
+    }
+
     @Override
     void expectHead() {
         throw new UnsupportedOperationException()
@@ -62,6 +62,11 @@ abstract class HttpResource extends AbstractHttpResource {
         server.expectGetRevalidate(getPath(), file)
     }
 
+    @Override
+    void expectGetUnmodified() {
+        server.expectGetUnmodified(getPath(), file)
+    }
+
     void expectHead() {
         server.expectHead(getPath(), file)
     }
@@ -174,6 +174,10 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         return new SendFileAction(path, srcFile, true)
     }
 
+    private Action unmodifiedFileHandler(String path, File srcFile) {
+        return new SendFileAction(path, srcFile, true, true)
+    }
+
     static class ServiceUnavailableAction extends ActionSupport {
         ServiceUnavailableAction(String displayName) {
             super(displayName)
@@ -189,12 +193,14 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         private final String path
         private final File srcFile
         private final boolean revalidate
+        private final boolean expectUnmodified
 
-        SendFileAction(String path, File srcFile, boolean revalidate) {
-            super("return contents of $srcFile.name")
+        SendFileAction(String path, File srcFile, boolean revalidate, boolean expectUnmodified = false) {
+            super(expectUnmodified ? "return $srcFile.name not modified" : "return contents of $srcFile.name")
             this.srcFile = srcFile
             this.path = path
             this.revalidate = revalidate
+            this.expectUnmodified = expectUnmodified
         }
 
         void handle(HttpServletRequest request, HttpServletResponse response) {
@@ -224,7 +230,13 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
                     file = new File(srcFile, relativePath)
                 }
                 if (file.isFile()) {
-                    sendFile(response, file, null, null, interaction.contentType)
+                    if (request.method == 'GET' && isNotModified(request, file)) {
+                        sendNotModified(response, file)
+                    } else if (expectUnmodified) {
+                        response.sendError(412, String.format("Precondition Failed: Expected a conditional request for unmodified '%s'", request.pathInfo))
+                    } else {
+                        sendFile(response, file, null, null, interaction.contentType)
+                    }
                 } else if (file.isDirectory()) {
                     sendDirectoryListing(response, file)
                 } else {
@@ -343,6 +355,13 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         expect(path, false, ['HEAD'], revalidateFileHandler(path, srcFile))
     }
 
+    /**
+     * Expects one conditional GET request for the given URL, asserting that the request is revalidated, and responds that the cached copy is unmodified.
+     */
+    void expectGetUnmodified(String path, File srcFile) {
+        expect(path, false, ['GET'], unmodifiedFileHandler(path, srcFile))
+    }
+
     /**
      * Allows one HEAD request for the given URL with http authentication.
      */
@@ -489,21 +508,45 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         response.outputStream << content
     }
 
+    /**
+     * Checks the conditional headers of a request against the current content of the given file, in the way a HTTP server would.
+     */
+    private boolean isNotModified(HttpServletRequest request, File file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH)
+        if (ifNoneMatch != null) {
+            return ifNoneMatch == etagFor(file.bytes, etags)
+        }
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE)
+        if (ifModifiedSince < 0 || !sendLastModified) {
+            return false
+        }
+        // HTTP dates have a resolution of one second
+        return file.lastModified().intdiv(1000) <= ifModifiedSince.intdiv(1000)
+    }
+
+    private sendNotModified(HttpServletResponse response, File file) {
+        response.setStatus(304)
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified())
+        addEtag(response, file.bytes, etags)
+    }
+
     private addEtag(HttpServletResponse response, byte[] bytes, etagStrategy) {
-        if (etagStrategy != null) {
-            String value
-            if (etags instanceof EtagStrategy) {
-                value = etags.generate(bytes)
-            } else if (etagStrategy instanceof Closure) {
-                value = etagStrategy.call(bytes)
-            } else {
-                value = etagStrategy.toString()
-            }
+        String value = etagFor(bytes, etagStrategy)
+        if (value != null) {
+            response.addHeader(HttpHeaders.ETAG, value)
+        }
+    }
 
-            if (value != null) {
-                response.addHeader(HttpHeaders.ETAG, value)
-            }
+    private String etagFor(byte[] bytes, etagStrategy) {
+        if (etagStrategy == null) {
+            return null
+        }
+        if (etagStrategy instanceof EtagStrategy) {
+            return etagStrategy.generate(bytes)
+        } else if (etagStrategy instanceof Closure) {
+            return etagStrategy.call(bytes)
         }
+        return etagStrategy.toString()
     }
 
     private sendDirectoryListing(HttpServletResponse response, File directory) {
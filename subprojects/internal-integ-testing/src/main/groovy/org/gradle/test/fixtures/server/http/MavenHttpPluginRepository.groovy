@@ -120,13 +120,13 @@ class MavenHttpPluginRepository extends MavenHttpRepository implements HttpPlugi
     @Override
     void expectCachedPluginResolution(String pluginId, String pluginVersion, String group, String artifactId, String version) {
         module(pluginId, pluginId + PLUGIN_MARKER_SUFFIX, pluginVersion).with {
-            pom.expectHead()
+            pom.expectGetUnmodified()
             artifact.expectHead()
             allowAll()
         }
         module(group, artifactId, version).with {
-            pom.expectHead()
-            artifact.expectHead()
+            pom.expectGetUnmodified()
+            artifact.expectGetUnmodified()
             allowAll()
         }
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.deps;
+
+import it.unimi.dsi.fastutil.ints.IntSets;
+import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reads the class analysis of a synthetic dependency graph and queries the dependents of a few changed classes,
+ * as an incremental compilation does.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ClassSetAnalysisDataBenchmark {
+
+    @Param({"50000"})
+    int classCount;
+
+    @Param({"10"})
+    int dependenciesPerClass;
+
+    @Param({"10"})
+    int changedClassCount;
+
+    private ClassSetAnalysisData.Serializer serializer;
+    private ClassSetAnalysisData data;
+    private byte[] serialized;
+    private Set<String> changedClasses;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        ClassDependentsAccumulator accumulator = new ClassDependentsAccumulator();
+        for (int i = 0; i < classCount; i++) {
+            Set<String> privateDependencies = new LinkedHashSet<>();
+            Set<String> accessibleDependencies = new LinkedHashSet<>();
+            for (int j = 0; j < dependenciesPerClass; j++) {
+                String dependency = className(random.nextInt(classCount));
+                if (random.nextInt(4) == 0) {
+                    accessibleDependencies.add(dependency);
+                } else {
+                    privateDependencies.add(dependency);
+                }
+            }
+            accumulator.addClass(className(i), false, privateDependencies, accessibleDependencies, IntSets.EMPTY_SET);
+        }
+        data = accumulator.getAnalysis();
+        serializer = new ClassSetAnalysisData.Serializer(new StringInterner());
+        serialized = write(data);
+        changedClasses = new LinkedHashSet<>();
+        while (changedClasses.size() < changedClassCount) {
+            changedClasses.add(className(random.nextInt(classCount)));
+        }
+    }
+
+    private static String className(int i) {
+        return "org.gradle.generated.package" + (i % 100) + ".GeneratedClass" + i;
+    }
+
+    private byte[] write(ClassSetAnalysisData data) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        serializer.write(encoder, data);
+        encoder.flush();
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole) throws Exception {
+        blackhole.consume(write(data));
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws Exception {
+        blackhole.consume(serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(serialized))));
+    }
+
+    @Benchmark
+    public void readAndFindDependents(Blackhole blackhole) throws Exception {
+        ClassSetAnalysisData read = serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(serialized)));
+        blackhole.consume(new ClassSetAnalysis(read).getRelevantDependents(changedClasses, IntSets.EMPTY_SET));
+    }
+}
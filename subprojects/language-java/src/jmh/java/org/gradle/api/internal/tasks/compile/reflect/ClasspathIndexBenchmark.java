@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile.reflect;
+
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Lists the packages of a class path of synthetic jars, as a compilation does, with a new standard file manager
+ * and with a class path index sharing the listings of the jars.
+ *
+ * Run with {@code -prof gc} to compare the allocation of the two.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ClasspathIndexBenchmark {
+    private static final Set<JavaFileObject.Kind> CLASS_FILES = EnumSet.of(JavaFileObject.Kind.CLASS);
+
+    @Param({"300"})
+    int jarCount;
+
+    @Param({"20"})
+    int packagesPerJar;
+
+    @Param({"20"})
+    int classesPerPackage;
+
+    private File tempDir;
+    private List<File> classpath;
+    private Map<File, HashCode> archiveHashes;
+    private List<String> packageNames;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tempDir = Files.createTempDirectory("classpath-index").toFile();
+        classpath = new ArrayList<>(jarCount);
+        archiveHashes = new HashMap<>();
+        packageNames = new ArrayList<>();
+        for (int jar = 0; jar < jarCount; jar++) {
+            File jarFile = new File(tempDir, "lib" + jar + ".jar");
+            try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(jarFile))) {
+                for (int pkg = 0; pkg < packagesPerJar; pkg++) {
+                    String packagePath = "org/gradle/generated/lib" + jar + "/package" + pkg;
+                    for (int cls = 0; cls < classesPerPackage; cls++) {
+                        outputStream.putNextEntry(new ZipEntry(packagePath + "/GeneratedClass" + cls + ".class"));
+                        outputStream.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+                        outputStream.closeEntry();
+                    }
+                    packageNames.add(packagePath.replace('/', '.'));
+                }
+            }
+            classpath.add(jarFile);
+            archiveHashes.put(jarFile, Hashing.hashBytes(Files.readAllBytes(jarFile.toPath())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : classpath) {
+            file.delete();
+        }
+        tempDir.delete();
+    }
+
+    @Benchmark
+    public void standardFileManager(Blackhole blackhole) throws Exception {
+        try (StandardJavaFileManager fileManager = ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+            for (String packageName : packageNames) {
+                blackhole.consume(fileManager.list(StandardLocation.CLASS_PATH, packageName, CLASS_FILES, false));
+            }
+        }
+    }
+
+    @Benchmark
+    public void classpathIndex(Blackhole blackhole) {
+        try (ClasspathIndex index = ClasspathIndex.of(classpath, archiveHashes)) {
+            for (String packageName : packageNames) {
+                blackhole.consume(index.list(packageName));
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorResult;
 import org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType;
 import org.gradle.api.internal.tasks.compile.processing.AggregatingProcessor;
+import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorClassLoaderCache;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDeclaration;
 import org.gradle.api.internal.tasks.compile.processing.DynamicProcessor;
 import org.gradle.api.internal.tasks.compile.processing.IsolatingProcessor;
@@ -28,6 +29,9 @@
 import org.gradle.api.internal.tasks.compile.processing.TimeTrackingProcessor;
 import org.gradle.internal.classpath.DefaultClassPath;
 import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
 
 import javax.annotation.processing.Processor;
 import javax.tools.JavaCompiler;
@@ -36,6 +40,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import static org.gradle.api.internal.tasks.compile.filter.AnnotationProcessorFilter.*;
@@ -52,19 +57,23 @@
  * This also prevents the Gradle API from leaking into the annotation processor classpath.
  */
 class AnnotationProcessingCompileTask implements JavaCompiler.CompilationTask {
+    private static final boolean REUSE_PROCESSOR_CLASS_LOADERS = !"false".equals(System.getProperty("org.gradle.internal.java.compile.processor-classloader-reuse"));
 
     private final JavaCompiler.CompilationTask delegate;
     private final Set<AnnotationProcessorDeclaration> processorDeclarations;
     private final List<File> annotationProcessorPath;
+    private final Map<File, HashCode> annotationProcessorPathHashes;
     private final AnnotationProcessingResult result;
 
     private URLClassLoader processorClassloader;
+    private AnnotationProcessorClassLoaderCache.Key processorClassloaderKey;
     private boolean called;
 
-    AnnotationProcessingCompileTask(JavaCompiler.CompilationTask delegate, Set<AnnotationProcessorDeclaration> processorDeclarations, List<File> annotationProcessorPath, AnnotationProcessingResult result) {
+    AnnotationProcessingCompileTask(JavaCompiler.CompilationTask delegate, Set<AnnotationProcessorDeclaration> processorDeclarations, List<File> annotationProcessorPath, Map<File, HashCode> annotationProcessorPathHashes, AnnotationProcessingResult result) {
         this.delegate = delegate;
         this.processorDeclarations = processorDeclarations;
         this.annotationProcessorPath = annotationProcessorPath;
+        this.annotationProcessorPathHashes = annotationProcessorPathHashes;
         this.result = result;
     }
 
@@ -97,7 +106,23 @@ public Boolean call() {
     }
 
     private void setupProcessors() {
-        processorClassloader = createProcessorClassLoader();
+        Timer timer = Time.startTimer();
+        try {
+            createProcessors();
+        } finally {
+            result.setProcessorSetupTimeInMillis(timer.getElapsedMillis());
+        }
+    }
+
+    private void createProcessors() {
+        if (REUSE_PROCESSOR_CLASS_LOADERS) {
+            processorClassloaderKey = AnnotationProcessorClassLoaderCache.Key.of(annotationProcessorPath, annotationProcessorPathHashes, delegate.getClass().getClassLoader());
+        }
+        if (processorClassloaderKey != null) {
+            processorClassloader = AnnotationProcessorClassLoaderCache.INSTANCE.acquire(processorClassloaderKey, this::createProcessorClassLoader);
+        } else {
+            processorClassloader = createProcessorClassLoader();
+        }
         List<Processor> processors = new ArrayList<Processor>(processorDeclarations.size());
         if (!processorDeclarations.isEmpty()) {
             SupportedOptionsCollectingProcessor supportedOptionsCollectingProcessor = new SupportedOptionsCollectingProcessor();
@@ -158,6 +183,10 @@ private Processor decorateForTimeTracking(Processor processor, AnnotationProcess
     }
 
     private void cleanupProcessors() {
-        CompositeStoppable.stoppable(processorClassloader).stop();
+        if (processorClassloaderKey != null) {
+            AnnotationProcessorClassLoaderCache.INSTANCE.release(processorClassloaderKey, processorClassloader);
+        } else {
+            CompositeStoppable.stoppable(processorClassloader).stop();
+        }
     }
 }
@@ -68,9 +68,9 @@ private Result toBuildOperationResult(WorkResult result) {
                     for (AnnotationProcessorResult processorResult : annotationProcessingResult.getAnnotationProcessorResults()) {
                         details.add(toAnnotationProcessorDetails(processorResult));
                     }
-                    return new Result(details);
+                    return new Result(details, annotationProcessingResult.getProcessorSetupTimeInMillis());
                 }
-                return new Result(null);
+                return new Result(null, null);
             }
 
             private DefaultAnnotationProcessorDetails toAnnotationProcessorDetails(AnnotationProcessorResult result) {
@@ -92,9 +92,11 @@ private AnnotationProcessorDetails.Type toType(IncrementalAnnotationProcessorTyp
     private static class Result implements CompileJavaBuildOperationType.Result {
 
         private final List<AnnotationProcessorDetails> annotationProcessorDetails;
+        private final Long annotationProcessorSetupTimeInMillis;
 
-        Result(List<AnnotationProcessorDetails> annotationProcessorDetails) {
+        Result(List<AnnotationProcessorDetails> annotationProcessorDetails, Long annotationProcessorSetupTimeInMillis) {
             this.annotationProcessorDetails = annotationProcessorDetails;
+            this.annotationProcessorSetupTimeInMillis = annotationProcessorSetupTimeInMillis;
         }
 
         @Override
@@ -102,6 +104,11 @@ public List<AnnotationProcessorDetails> getAnnotationProcessorDetails() {
             return annotationProcessorDetails;
         }
 
+        @Override
+        public Long getAnnotationProcessorSetupTimeInMillis() {
+            return annotationProcessorSetupTimeInMillis;
+        }
+
     }
 
     private static class DefaultAnnotationProcessorDetails implements AnnotationProcessorDetails {
@@ -44,6 +44,17 @@ public interface Result {
         @Nullable
         List<AnnotationProcessorDetails> getAnnotationProcessorDetails();
 
+        /**
+         * Returns the time spent loading and instantiating the annotation processors, if available.
+         *
+         * <p>The time is only available if an instrumented compiler was used.
+         *
+         * @return the setup time of the annotation processors; {@code null} if unknown.
+         * @since 6.6
+         */
+        @Nullable
+        Long getAnnotationProcessorSetupTimeInMillis();
+
         /**
          * Details about an annotation processor used during compilation.
          */
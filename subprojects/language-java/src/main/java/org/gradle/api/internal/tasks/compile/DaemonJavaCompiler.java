@@ -28,11 +28,14 @@
 import org.gradle.workers.internal.DaemonForkOptionsBuilder;
 import org.gradle.workers.internal.FlatClassLoaderStructure;
 import org.gradle.workers.internal.KeepAliveMode;
+import org.gradle.workers.internal.WorkerDaemonClientsManager;
 import org.gradle.workers.internal.WorkerDaemonFactory;
 
 import java.io.File;
 
 public class DaemonJavaCompiler extends AbstractDaemonCompiler<JavaCompileSpec> {
+    private static final KeepAliveMode KEEP_ALIVE_MODE = WorkerDaemonClientsManager.KEEP_COMPILER_DAEMONS_ALIVE ? KeepAliveMode.DAEMON : KeepAliveMode.SESSION;
+
     private final Class<? extends Compiler<JavaCompileSpec>> compilerClass;
     private final Object[] compilerConstructorArguments;
     private final JavaForkOptionsFactory forkOptionsFactory;
@@ -65,7 +68,7 @@ protected DaemonForkOptions toDaemonForkOptions(JavaCompileSpec spec) {
         return new DaemonForkOptionsBuilder(forkOptionsFactory)
             .javaForkOptions(javaForkOptions)
             .withClassLoaderStructure(classLoaderStructure)
-            .keepAliveMode(KeepAliveMode.SESSION)
+            .keepAliveMode(KEEP_ALIVE_MODE)
             .build();
     }
 
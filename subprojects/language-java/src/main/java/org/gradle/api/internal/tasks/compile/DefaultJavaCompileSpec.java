@@ -17,12 +17,15 @@
 package org.gradle.api.internal.tasks.compile;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDeclaration;
 import org.gradle.api.tasks.compile.CompileOptions;
+import org.gradle.internal.hash.HashCode;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class DefaultJavaCompileSpec extends DefaultJvmLanguageCompileSpec implements JavaCompileSpec {
@@ -32,6 +35,8 @@ public class DefaultJavaCompileSpec extends DefaultJvmLanguageCompileSpec implem
     private Set<String> classes;
     private List<File> modulePath;
     private List<File> sourceRoots;
+    private Map<File, HashCode> classpathArchiveHashes = ImmutableMap.of();
+    private Map<File, HashCode> annotationProcessorPathHashes = ImmutableMap.of();
 
     @Override
     public MinimalJavaCompileOptions getCompileOptions() {
@@ -95,6 +100,26 @@ public void setModulePath(List<File> modulePath) {
         this.modulePath = modulePath;
     }
 
+    @Override
+    public Map<File, HashCode> getClasspathArchiveHashes() {
+        return classpathArchiveHashes;
+    }
+
+    @Override
+    public void setClasspathArchiveHashes(Map<File, HashCode> classpathArchiveHashes) {
+        this.classpathArchiveHashes = classpathArchiveHashes;
+    }
+
+    @Override
+    public Map<File, HashCode> getAnnotationProcessorPathHashes() {
+        return annotationProcessorPathHashes;
+    }
+
+    @Override
+    public void setAnnotationProcessorPathHashes(Map<File, HashCode> annotationProcessorPathHashes) {
+        this.annotationProcessorPathHashes = annotationProcessorPathHashes;
+    }
+
     @Override
     public List<File> getSourceRoots() {
         return sourceRoots;
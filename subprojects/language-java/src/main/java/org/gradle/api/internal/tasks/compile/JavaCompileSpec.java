@@ -17,9 +17,11 @@
 package org.gradle.api.internal.tasks.compile;
 
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDeclaration;
+import org.gradle.internal.hash.HashCode;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface JavaCompileSpec extends JvmLanguageCompileSpec {
@@ -47,6 +49,20 @@ public interface JavaCompileSpec extends JvmLanguageCompileSpec {
 
     void setModulePath(List<File> modulePath);
 
+    /**
+     * The content hashes of the archives on the compile classpath, for the archives whose hash is known.
+     */
+    Map<File, HashCode> getClasspathArchiveHashes();
+
+    void setClasspathArchiveHashes(Map<File, HashCode> classpathArchiveHashes);
+
+    /**
+     * The content hashes of the entries of the annotation processor path, for the entries whose hash is known.
+     */
+    Map<File, HashCode> getAnnotationProcessorPathHashes();
+
+    void setAnnotationProcessorPathHashes(Map<File, HashCode> annotationProcessorPathHashes);
+
     default boolean annotationProcessingConfigured() {
         return !getAnnotationProcessorPath().isEmpty() && !getCompileOptions().getCompilerArgs().contains("-proc:none");
     }
@@ -17,6 +17,7 @@
 
 import org.gradle.api.JavaVersion;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDeclaration;
+import org.gradle.api.internal.tasks.compile.reflect.ClasspathIndex;
 import org.gradle.api.internal.tasks.compile.reflect.GradleStandardJavaFileManager;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.internal.Factory;
@@ -25,6 +26,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileManager;
@@ -39,6 +41,7 @@
 
 public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdkJavaCompiler.class);
+    private static final boolean SHARED_CLASSPATH_INDEX = !"false".equals(System.getProperty("org.gradle.internal.java.compile.shared-classpath-index"));
     private final Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory;
 
     @Inject
@@ -67,18 +70,29 @@ private JavaCompiler.CompilationTask createCompileTask(JavaCompileSpec spec, Jdk
         StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, charset);
         Iterable<? extends JavaFileObject> compilationUnits = standardFileManager.getJavaFileObjectsFromFiles(spec.getSourceFiles());
         boolean hasEmptySourcepaths = JavaVersion.current().isJava9Compatible() && emptySourcepathIn(options);
-        JavaFileManager fileManager = GradleStandardJavaFileManager.wrap(standardFileManager, DefaultClassPath.of(spec.getAnnotationProcessorPath()), hasEmptySourcepaths);
+        JavaFileManager fileManager = GradleStandardJavaFileManager.wrap(standardFileManager, DefaultClassPath.of(spec.getAnnotationProcessorPath()), hasEmptySourcepaths, classpathIndexFor(spec, options));
         JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, spec.getClasses(), compilationUnits);
         File mappingFile = compileOptions.getIncrementalCompilationMappingFile();
         if (mappingFile != null && compiler instanceof IncrementalCompilationAwareJavaCompiler) {
             task = ((IncrementalCompilationAwareJavaCompiler) compiler).makeIncremental(task, mappingFile, new CompilationSourceDirs(spec.getSourceRoots()));
         }
         Set<AnnotationProcessorDeclaration> annotationProcessors = spec.getEffectiveAnnotationProcessors();
-        task = new AnnotationProcessingCompileTask(task, annotationProcessors, spec.getAnnotationProcessorPath(), result.getAnnotationProcessingResult());
+        task = new AnnotationProcessingCompileTask(task, annotationProcessors, spec.getAnnotationProcessorPath(), spec.getAnnotationProcessorPathHashes(), result.getAnnotationProcessingResult());
         task = new ResourceCleaningCompilationTask(task, fileManager);
         return task;
     }
 
+    /**
+     * Indexes the class path when it is passed to the compiler as is, so that the listings of the jars on it are shared with other compilations.
+     */
+    @Nullable
+    private static ClasspathIndex classpathIndexFor(JavaCompileSpec spec, List<String> options) {
+        if (!SHARED_CLASSPATH_INDEX || !spec.getModulePath().isEmpty() || !options.contains("-classpath")) {
+            return null;
+        }
+        return ClasspathIndex.of(spec.getCompileClasspath(), spec.getClasspathArchiveHashes());
+    }
+
     private static boolean emptySourcepathIn(List<String> options) {
         Iterator<String> optionsIter = options.iterator();
         while (optionsIter.hasNext()) {
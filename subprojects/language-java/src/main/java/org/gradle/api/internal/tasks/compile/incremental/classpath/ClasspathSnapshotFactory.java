@@ -24,6 +24,7 @@
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.CallableBuildOperation;
 import org.gradle.internal.operations.RunnableBuildOperation;
 
 import java.io.File;
@@ -32,6 +33,9 @@
 
 public class ClasspathSnapshotFactory {
 
+    private static final SnapshotClasspathBuildOperationType.Details DETAILS = new SnapshotClasspathBuildOperationType.Details() {
+    };
+
     private final ClasspathEntrySnapshotter classpathEntrySnapshotter;
     private final BuildOperationExecutor buildOperationExecutor;
 
@@ -41,6 +45,22 @@ public ClasspathSnapshotFactory(ClasspathEntrySnapshotter classpathEntrySnapshot
     }
 
     ClasspathSnapshot createSnapshot(final Iterable<File> entries) {
+        return buildOperationExecutor.call(new CallableBuildOperation<ClasspathSnapshot>() {
+            @Override
+            public ClasspathSnapshot call(BuildOperationContext context) {
+                ClasspathSnapshot snapshot = createSnapshotOfAll(entries);
+                context.setResult(new SnapshotResult(snapshot.getEntries().size(), snapshot.getData().getDuplicateClasses().size()));
+                return snapshot;
+            }
+
+            @Override
+            public BuildOperationDescriptor.Builder description() {
+                return BuildOperationDescriptor.displayName("Snapshot classpath for incremental compilation").details(DETAILS);
+            }
+        });
+    }
+
+    private ClasspathSnapshot createSnapshotOfAll(Iterable<File> entries) {
         final Set<CreateSnapshot> snapshotOperations = snapshotAll(entries);
 
         final LinkedHashMap<File, ClasspathEntrySnapshot> snapshots = Maps.newLinkedHashMap();
@@ -102,4 +122,24 @@ public BuildOperationDescriptor.Builder description() {
             return BuildOperationDescriptor.displayName("Create incremental compile snapshot for " + entry);
         }
     }
+
+    private static class SnapshotResult implements SnapshotClasspathBuildOperationType.Result {
+        private final int entryCount;
+        private final int duplicateClassCount;
+
+        SnapshotResult(int entryCount, int duplicateClassCount) {
+            this.entryCount = entryCount;
+            this.duplicateClassCount = duplicateClassCount;
+        }
+
+        @Override
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        @Override
+        public int getDuplicateClassCount() {
+            return duplicateClassCount;
+        }
+    }
 }
@@ -18,6 +18,7 @@
 
 import org.gradle.cache.PersistentIndexedCache;
 import org.gradle.cache.internal.MinimalPersistentCache;
+import org.gradle.cache.internal.ProducerGuard;
 import org.gradle.internal.Factory;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.CompleteFileSystemLocationSnapshot;
@@ -28,6 +29,8 @@
 public class DefaultClasspathEntrySnapshotCache implements ClasspathEntrySnapshotCache {
     private final VirtualFileSystem virtualFileSystem;
     private final MinimalPersistentCache<HashCode, ClasspathEntrySnapshotData> cache;
+    // Classpath entries are snapshotted concurrently, both within and across compilations, so make sure an entry is only analysed once
+    private final ProducerGuard<HashCode> producerGuard = ProducerGuard.adaptive();
 
     public DefaultClasspathEntrySnapshotCache(VirtualFileSystem virtualFileSystem, PersistentIndexedCache<HashCode, ClasspathEntrySnapshotData> persistentCache) {
         this.virtualFileSystem = virtualFileSystem;
@@ -46,6 +49,6 @@ public ClasspathEntrySnapshot get(File key, final Factory<ClasspathEntrySnapshot
             key.getAbsolutePath(),
             CompleteFileSystemLocationSnapshot::getHash
         );
-        return new ClasspathEntrySnapshot(cache.get(fileContentHash, () -> factory.create().getData()));
+        return new ClasspathEntrySnapshot(producerGuard.guardByKey(fileContentHash, () -> cache.get(fileContentHash, () -> factory.create().getData())));
     }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.classpath;
+
+import org.gradle.internal.operations.BuildOperationType;
+import org.gradle.internal.scan.NotUsedByScanPlugin;
+
+/**
+ * Snapshotting the classpath of an incremental Java compilation.
+ *
+ * Runs as a child of {@link org.gradle.api.internal.tasks.compile.CompileJavaBuildOperationType}, so that the time spent analysing classpath entries
+ * is reported separately from the time spent compiling.
+ *
+ * @since 6.6
+ */
+@NotUsedByScanPlugin("used to report the classpath analysis time of Java compilations")
+public class SnapshotClasspathBuildOperationType implements BuildOperationType<SnapshotClasspathBuildOperationType.Details, SnapshotClasspathBuildOperationType.Result> {
+
+    public interface Details {
+    }
+
+    public interface Result {
+
+        /**
+         * Returns the number of classpath entries which were snapshotted.
+         */
+        int getEntryCount();
+
+        /**
+         * Returns the number of classes found in more than one classpath entry.
+         */
+        int getDuplicateClassCount();
+    }
+}
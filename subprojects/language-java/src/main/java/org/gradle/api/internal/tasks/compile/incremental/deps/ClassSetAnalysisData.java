@@ -18,6 +18,7 @@
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.ints.IntSets;
@@ -29,24 +30,98 @@
 import org.gradle.internal.serialize.IntSetSerializer;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * The dependents of the classes of a class set.
+ *
+ * Class names are kept in a table, where the classes of the set come first, and dependents are kept as arrays of indexes into that table.
+ * This keeps large analyses small on the heap and cheap to deserialize, since {@link DependentsSet}s are only created when they are queried.
+ */
 public class ClassSetAnalysisData {
     public static final String PACKAGE_INFO = "package-info";
+    private static final int[] NO_DEPENDENTS = new int[0];
 
-    private final Set<String> classes;
-    private final Map<String, DependentsSet> dependents;
+    private final String[] classNames;
+    private final int classCount;
+    private final int[][] privateDependents;
+    private final int[][] accessibleDependents;
+    private final Map<Integer, String> dependenciesToAll;
     private final Map<String, IntSet> classesToConstants;
     private final String fullRebuildCause;
 
+    private volatile Map<String, Integer> classIds;
+    private final DependentsSet[] dependentsSets;
+
     public ClassSetAnalysisData(Set<String> classes, Map<String, DependentsSet> dependents, Map<String, IntSet> classesToConstants, String fullRebuildCause) {
-        this.classes = classes;
-        this.dependents = dependents;
+        Map<String, Integer> classIds = new LinkedHashMap<>();
+        for (String className : classes) {
+            idOf(className, classIds);
+        }
+        this.classCount = classIds.size();
+        for (String className : dependents.keySet()) {
+            idOf(className, classIds);
+        }
+        int[][] privateDependents = new int[classIds.size()][];
+        int[][] accessibleDependents = new int[classIds.size()][];
+        Map<Integer, String> dependenciesToAll = new HashMap<>();
+        for (Map.Entry<String, DependentsSet> entry : dependents.entrySet()) {
+            int id = classIds.get(entry.getKey());
+            DependentsSet dependentsSet = entry.getValue();
+            if (dependentsSet.isDependencyToAll()) {
+                dependenciesToAll.put(id, dependentsSet.getDescription());
+            } else {
+                privateDependents[id] = idsOf(dependentsSet.getPrivateDependentClasses(), classIds);
+                accessibleDependents[id] = idsOf(dependentsSet.getAccessibleDependentClasses(), classIds);
+            }
+        }
+        this.classNames = classIds.keySet().toArray(new String[0]);
+        this.privateDependents = Arrays.copyOf(privateDependents, classNames.length);
+        this.accessibleDependents = Arrays.copyOf(accessibleDependents, classNames.length);
+        this.dependenciesToAll = dependenciesToAll;
         this.classesToConstants = classesToConstants;
         this.fullRebuildCause = fullRebuildCause;
+        this.classIds = classIds;
+        this.dependentsSets = new DependentsSet[classNames.length];
+    }
+
+    private ClassSetAnalysisData(String[] classNames, int classCount, int[][] privateDependents, int[][] accessibleDependents, Map<Integer, String> dependenciesToAll, Map<String, IntSet> classesToConstants, String fullRebuildCause) {
+        this.classNames = classNames;
+        this.classCount = classCount;
+        this.privateDependents = privateDependents;
+        this.accessibleDependents = accessibleDependents;
+        this.dependenciesToAll = dependenciesToAll;
+        this.classesToConstants = classesToConstants;
+        this.fullRebuildCause = fullRebuildCause;
+        this.dependentsSets = new DependentsSet[classNames.length];
+    }
+
+    private static int idOf(String className, Map<String, Integer> classIds) {
+        Integer id = classIds.get(className);
+        if (id == null) {
+            id = classIds.size();
+            classIds.put(className, id);
+        }
+        return id;
+    }
+
+    private static int[] idsOf(Set<String> classNames, Map<String, Integer> classIds) {
+        if (classNames.isEmpty()) {
+            return NO_DEPENDENTS;
+        }
+        int[] ids = new int[classNames.size()];
+        int i = 0;
+        for (String className : classNames) {
+            ids[i++] = idOf(className, classIds);
+        }
+        return ids;
     }
 
     public DependentsSet getDependents(String className) {
@@ -57,13 +132,53 @@ public DependentsSet getDependents(String className) {
             String packageName = className.equals(PACKAGE_INFO) ? null : StringUtils.removeEnd(className, "." + PACKAGE_INFO);
             return getDependentsOfPackage(packageName);
         }
-        DependentsSet dependentsSet = dependents.get(className);
-        return dependentsSet == null ? DependentsSet.empty() : dependentsSet;
+        Integer id = getClassIds().get(className);
+        return id == null ? DependentsSet.empty() : getDependents(id);
+    }
+
+    private DependentsSet getDependents(int id) {
+        DependentsSet dependentsSet = dependentsSets[id];
+        if (dependentsSet == null) {
+            dependentsSet = createDependents(id);
+            dependentsSets[id] = dependentsSet;
+        }
+        return dependentsSet;
+    }
+
+    private DependentsSet createDependents(int id) {
+        if (dependenciesToAll.containsKey(id)) {
+            return DependentsSet.dependencyToAll(dependenciesToAll.get(id));
+        }
+        if (privateDependents[id] == null) {
+            return DependentsSet.empty();
+        }
+        return DependentsSet.dependentClasses(namesOf(privateDependents[id]), namesOf(accessibleDependents[id]));
+    }
+
+    private Set<String> namesOf(int[] ids) {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builderWithExpectedSize(ids.length);
+        for (int id : ids) {
+            builder.add(classNames[id]);
+        }
+        return builder.build();
+    }
+
+    private Map<String, Integer> getClassIds() {
+        Map<String, Integer> classIds = this.classIds;
+        if (classIds == null) {
+            classIds = Maps.newHashMapWithExpectedSize(classNames.length);
+            for (int i = 0; i < classNames.length; i++) {
+                classIds.put(classNames[i], i);
+            }
+            this.classIds = classIds;
+        }
+        return classIds;
     }
 
     private DependentsSet getDependentsOfPackage(String packageName) {
         Set<String> typesInPackage = Sets.newHashSet();
-        for (String type : classes) {
+        for (int id = 0; id < classCount; id++) {
+            String type = classNames[id];
             int i = type.lastIndexOf(".");
             if (i < 0 && packageName == null || i > 0 && type.substring(0, i).equals(packageName)) {
                 typesInPackage.add(type);
@@ -81,6 +196,8 @@ public IntSet getConstants(String className) {
     }
 
     public static class Serializer extends AbstractSerializer<ClassSetAnalysisData> {
+        private static final byte DEPENDENCY_TO_ALL = 1;
+        private static final byte DEPENDENT_CLASSES = 2;
 
         private final StringInterner interner;
 
@@ -90,115 +207,99 @@ public Serializer(StringInterner interner) {
 
         @Override
         public ClassSetAnalysisData read(Decoder decoder) throws Exception {
-            Map<Integer, String> classNameMap = new HashMap<Integer, String>();
-
-            int count = decoder.readSmallInt();
-            ImmutableSet.Builder<String> classes = ImmutableSet.builder();
-            for (int i = 0; i < count; i++) {
-                classes.add(readClassName(decoder, classNameMap));
+            int classCount = decoder.readSmallInt();
+            String[] classNames = new String[decoder.readSmallInt()];
+            for (int i = 0; i < classNames.length; i++) {
+                classNames[i] = interner.intern(decoder.readString());
             }
 
-            count = decoder.readSmallInt();
-            ImmutableMap.Builder<String, DependentsSet> dependentsBuilder = ImmutableMap.builder();
+            int[][] privateDependents = new int[classNames.length][];
+            int[][] accessibleDependents = new int[classNames.length][];
+            Map<Integer, String> dependenciesToAll = new HashMap<>();
+            int count = decoder.readSmallInt();
             for (int i = 0; i < count; i++) {
-                String className = readClassName(decoder, classNameMap);
-                DependentsSet dependents = readDependentsSet(decoder, classNameMap);
-                dependentsBuilder.put(className, dependents);
+                int id = decoder.readSmallInt();
+                if (decoder.readByte() == DEPENDENCY_TO_ALL) {
+                    dependenciesToAll.put(id, decoder.readNullableString());
+                } else {
+                    privateDependents[id] = readIds(decoder);
+                    accessibleDependents[id] = readIds(decoder);
+                }
             }
 
             count = decoder.readSmallInt();
-            ImmutableMap.Builder<String, IntSet> classesToConstantsBuilder = ImmutableMap.builder();
+            ImmutableMap.Builder<String, IntSet> classesToConstantsBuilder = ImmutableMap.builderWithExpectedSize(count);
             for (int i = 0; i < count; i++) {
-                String className = readClassName(decoder, classNameMap);
+                String className = classNames[decoder.readSmallInt()];
                 IntSet constants = IntSetSerializer.INSTANCE.read(decoder);
                 classesToConstantsBuilder.put(className, constants);
             }
 
             String fullRebuildCause = decoder.readNullableString();
 
-            return new ClassSetAnalysisData(classes.build(), dependentsBuilder.build(), classesToConstantsBuilder.build(), fullRebuildCause);
+            return new ClassSetAnalysisData(classNames, classCount, privateDependents, accessibleDependents, dependenciesToAll, classesToConstantsBuilder.build(), fullRebuildCause);
         }
 
         @Override
         public void write(Encoder encoder, ClassSetAnalysisData value) throws Exception {
-            Map<String, Integer> classNameMap = new HashMap<String, Integer>();
-            encoder.writeSmallInt(value.classes.size());
-            for (String clazz : value.classes) {
-                writeClassName(clazz, classNameMap, encoder);
+            Map<String, Integer> classIds = new HashMap<>(value.getClassIds());
+            List<String> classNames = new ArrayList<>(Arrays.asList(value.classNames));
+            for (String className : value.classesToConstants.keySet()) {
+                if (!classIds.containsKey(className)) {
+                    classIds.put(className, classNames.size());
+                    classNames.add(className);
+                }
             }
 
-            encoder.writeSmallInt(value.dependents.size());
-            for (Map.Entry<String, DependentsSet> entry : value.dependents.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
-                writeDependentSet(entry.getValue(), classNameMap, encoder);
+            encoder.writeSmallInt(value.classCount);
+            encoder.writeSmallInt(classNames.size());
+            for (String className : classNames) {
+                encoder.writeString(className);
+            }
+
+            int count = 0;
+            for (int id = 0; id < value.classNames.length; id++) {
+                if (value.privateDependents[id] != null || value.dependenciesToAll.containsKey(id)) {
+                    count++;
+                }
+            }
+            encoder.writeSmallInt(count);
+            for (int id = 0; id < value.classNames.length; id++) {
+                if (value.dependenciesToAll.containsKey(id)) {
+                    encoder.writeSmallInt(id);
+                    encoder.writeByte(DEPENDENCY_TO_ALL);
+                    encoder.writeNullableString(value.dependenciesToAll.get(id));
+                } else if (value.privateDependents[id] != null) {
+                    encoder.writeSmallInt(id);
+                    encoder.writeByte(DEPENDENT_CLASSES);
+                    writeIds(encoder, value.privateDependents[id]);
+                    writeIds(encoder, value.accessibleDependents[id]);
+                }
             }
 
             encoder.writeSmallInt(value.classesToConstants.size());
             for (Map.Entry<String, IntSet> entry : value.classesToConstants.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
+                encoder.writeSmallInt(classIds.get(entry.getKey()));
                 IntSetSerializer.INSTANCE.write(encoder, entry.getValue());
             }
             encoder.writeNullableString(value.fullRebuildCause);
         }
 
-        private DependentsSet readDependentsSet(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
-            byte b = decoder.readByte();
-            if (b == 1) {
-                return DependentsSet.dependencyToAll(decoder.readNullableString());
-            }
-
-            ImmutableSet.Builder<String> privateBuilder = ImmutableSet.builder();
+        private static int[] readIds(Decoder decoder) throws IOException {
             int count = decoder.readSmallInt();
-            for (int i = 0; i < count; i++) {
-                privateBuilder.add(readClassName(decoder, classNameMap));
+            if (count == 0) {
+                return NO_DEPENDENTS;
             }
-
-            ImmutableSet.Builder<String> accessibleBuilder = ImmutableSet.builder();
-            count = decoder.readSmallInt();
+            int[] ids = new int[count];
             for (int i = 0; i < count; i++) {
-                accessibleBuilder.add(readClassName(decoder, classNameMap));
-            }
-
-            return DependentsSet.dependentClasses(privateBuilder.build(), accessibleBuilder.build());
-        }
-
-        private void writeDependentSet(DependentsSet dependentsSet, Map<String, Integer> classNameMap, Encoder encoder) throws IOException {
-            if (dependentsSet.isDependencyToAll()) {
-                encoder.writeByte((byte) 1);
-                encoder.writeNullableString(dependentsSet.getDescription());
-            } else {
-                encoder.writeByte((byte) 2);
-                encoder.writeSmallInt(dependentsSet.getPrivateDependentClasses().size());
-                for (String className : dependentsSet.getPrivateDependentClasses()) {
-                    writeClassName(className, classNameMap, encoder);
-                }
-                encoder.writeSmallInt(dependentsSet.getAccessibleDependentClasses().size());
-                for (String className : dependentsSet.getAccessibleDependentClasses()) {
-                    writeClassName(className, classNameMap, encoder);
-                }
-            }
-        }
-
-        private String readClassName(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
-            int id = decoder.readSmallInt();
-            if (id == 0) {
-                id = decoder.readSmallInt();
-                String className = interner.intern(decoder.readString());
-                classNameMap.put(id, className);
-                return className;
+                ids[i] = decoder.readSmallInt();
             }
-            return classNameMap.get(id);
+            return ids;
         }
 
-        private void writeClassName(String className, Map<String, Integer> classIdMap, Encoder encoder) throws IOException {
-            Integer id = classIdMap.get(className);
-            if (id == null) {
-                id = classIdMap.size() + 1;
-                classIdMap.put(className, id);
-                encoder.writeSmallInt(0);
-                encoder.writeSmallInt(id);
-                encoder.writeString(className);
-            } else {
+        private static void writeIds(Encoder encoder, int[] ids) throws IOException {
+            encoder.writeSmallInt(ids.length);
+            for (int id : ids) {
                 encoder.writeSmallInt(id);
             }
         }
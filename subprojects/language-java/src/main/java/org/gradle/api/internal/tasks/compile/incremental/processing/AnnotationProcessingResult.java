@@ -37,6 +37,7 @@ public class AnnotationProcessingResult implements Serializable {
     private final Set<GeneratedResource> getGeneratedResourcesDependingOnAllOthers = new HashSet<GeneratedResource>();
     private final List<AnnotationProcessorResult> annotationProcessorResults = new ArrayList<AnnotationProcessorResult>();
     private String fullRebuildCause;
+    private long processorSetupTimeInMillis;
 
     public void addGeneratedType(String name, Set<String> originatingElements) {
         for (String originatingElement : originatingElements) {
@@ -109,4 +110,15 @@ public String getFullRebuildCause() {
     public List<AnnotationProcessorResult> getAnnotationProcessorResults() {
         return annotationProcessorResults;
     }
+
+    /**
+     * The time spent loading and instantiating the annotation processors.
+     */
+    public long getProcessorSetupTimeInMillis() {
+        return processorSetupTimeInMillis;
+    }
+
+    public void setProcessorSetupTimeInMillis(long processorSetupTimeInMillis) {
+        this.processorSetupTimeInMillis = processorSetupTimeInMillis;
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.processing;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.initialization.SessionLifecycleListener;
+import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.hash.HashCode;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the class loaders of annotation processors around between compilations in the same JVM, so that compilations with the same processor path
+ * do not have to load and JIT compile the processors again.
+ *
+ * A class loader is only used by one compilation at a time. Each compilation still creates its own processor instances,
+ * but static state of the processor classes is shared between the compilations which use the same class loader.
+ *
+ * At the end of a session, the idle class loaders which were not used during the session are closed.
+ */
+public class AnnotationProcessorClassLoaderCache implements SessionLifecycleListener {
+    public static final AnnotationProcessorClassLoaderCache INSTANCE = new AnnotationProcessorClassLoaderCache(32);
+
+    private final int maxIdleClassLoaders;
+    private final LinkedList<IdleClassLoader> idleClassLoaders = new LinkedList<>();
+    private final Set<Key> usedInThisSession = new HashSet<>();
+
+    AnnotationProcessorClassLoaderCache(int maxIdleClassLoaders) {
+        this.maxIdleClassLoaders = maxIdleClassLoaders;
+    }
+
+    /**
+     * Returns an idle class loader for the given processor path, or creates a new one.
+     */
+    public URLClassLoader acquire(Key key, Factory<URLClassLoader> factory) {
+        synchronized (idleClassLoaders) {
+            usedInThisSession.add(key);
+            Iterator<IdleClassLoader> iterator = idleClassLoaders.iterator();
+            while (iterator.hasNext()) {
+                IdleClassLoader candidate = iterator.next();
+                if (candidate.key.equals(key)) {
+                    iterator.remove();
+                    return candidate.classLoader;
+                }
+            }
+        }
+        return factory.create();
+    }
+
+    /**
+     * Makes the given class loader available to the next compilation, closing the least recently used class loaders above the limit.
+     */
+    public void release(Key key, URLClassLoader classLoader) {
+        List<URLClassLoader> evicted = new ArrayList<>();
+        synchronized (idleClassLoaders) {
+            idleClassLoaders.addFirst(new IdleClassLoader(key, classLoader));
+            while (idleClassLoaders.size() > maxIdleClassLoaders) {
+                evicted.add(idleClassLoaders.removeLast().classLoader);
+            }
+        }
+        CompositeStoppable.stoppable(evicted).stop();
+    }
+
+    @Override
+    public void afterStart() {
+    }
+
+    @Override
+    public void beforeComplete() {
+        List<URLClassLoader> unused = new ArrayList<>();
+        synchronized (idleClassLoaders) {
+            Iterator<IdleClassLoader> iterator = idleClassLoaders.iterator();
+            while (iterator.hasNext()) {
+                IdleClassLoader candidate = iterator.next();
+                if (!usedInThisSession.contains(candidate.key)) {
+                    iterator.remove();
+                    unused.add(candidate.classLoader);
+                }
+            }
+            usedInThisSession.clear();
+        }
+        CompositeStoppable.stoppable(unused).stop();
+    }
+
+    public static class Key {
+        private final List<File> processorPath;
+        private final List<HashCode> hashes;
+        private final ClassLoader compilerClassLoader;
+
+        private Key(List<File> processorPath, List<HashCode> hashes, ClassLoader compilerClassLoader) {
+            this.processorPath = processorPath;
+            this.hashes = hashes;
+            this.compilerClassLoader = compilerClassLoader;
+        }
+
+        /**
+         * Identifies a processor path by the hashes of the content of its entries, so that a class loader is not reused after an entry changed.
+         *
+         * @return the key, or {@code null} when the hash of an entry is not known.
+         */
+        @Nullable
+        public static Key of(List<File> processorPath, Map<File, HashCode> processorPathHashes, ClassLoader compilerClassLoader) {
+            ImmutableList.Builder<HashCode> hashes = ImmutableList.builderWithExpectedSize(processorPath.size());
+            for (File file : processorPath) {
+                HashCode hash = processorPathHashes.get(file);
+                if (hash == null) {
+                    return null;
+                }
+                hashes.add(hash);
+            }
+            return new Key(ImmutableList.copyOf(processorPath), hashes.build(), compilerClassLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return compilerClassLoader == key.compilerClassLoader
+                && processorPath.equals(key.processorPath)
+                && hashes.equals(key.hashes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashes.hashCode();
+        }
+    }
+
+    private static class IdleClassLoader {
+        private final Key key;
+        private final URLClassLoader classLoader;
+
+        IdleClassLoader(Key key, URLClassLoader classLoader) {
+            this.key = key;
+            this.classLoader = classLoader;
+        }
+    }
+}
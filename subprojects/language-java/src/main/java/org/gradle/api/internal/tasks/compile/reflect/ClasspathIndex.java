@@ -0,0 +1,387 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.reflect;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.hash.HashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lists the class files on the class path of a single compilation.
+ *
+ * The standard file manager opens and indexes every jar on the class path again for each compilation.
+ * This index shares the listings of jars between all compilations in the JVM instead, keyed by the content hash of the jar,
+ * so a jar which changed is listed again.
+ * A jar is only opened when a class is read from it, and is closed together with the index.
+ */
+public class ClasspathIndex implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClasspathIndex.class);
+    private static final String CLASS_EXTENSION = JavaFileObject.Kind.CLASS.extension;
+    private static final Cache<HashCode, ArchiveListing> ARCHIVE_LISTINGS = CacheBuilder.newBuilder()
+        .maximumSize(10000)
+        .softValues()
+        .build();
+
+    private final List<ClasspathEntry> entries;
+    private final Map<File, ZipFile> openArchives = new HashMap<>();
+
+    private ClasspathIndex(List<ClasspathEntry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Creates an index of the given class path, or returns {@code null} when the class path contains an archive which cannot be indexed.
+     * Archives without a known content hash are not indexed. Neither are multi-release jars, since the standard file manager selects their entries by the target release,
+     * nor jars with a {@code Class-Path} manifest attribute, since the standard file manager adds the referenced jars to the class path.
+     */
+    @Nullable
+    public static ClasspathIndex of(List<File> classpath, Map<File, HashCode> archiveHashes) {
+        ImmutableList.Builder<ClasspathEntry> entries = ImmutableList.builderWithExpectedSize(classpath.size());
+        for (File file : classpath) {
+            if (file.isDirectory()) {
+                entries.add(new DirectoryEntry(file));
+            } else if (file.isFile()) {
+                HashCode hash = archiveHashes.get(file);
+                if (hash == null) {
+                    return null;
+                }
+                ArchiveListing listing = listingOf(file, hash);
+                if (listing == null || listing.multiRelease || listing.manifestClassPath) {
+                    return null;
+                }
+                entries.add(new ArchiveEntry(file, listing));
+            }
+        }
+        return new ClasspathIndex(entries.build());
+    }
+
+    @Nullable
+    private static ArchiveListing listingOf(File archive, HashCode hash) {
+        ArchiveListing listing = ARCHIVE_LISTINGS.getIfPresent(hash);
+        if (listing == null) {
+            try {
+                listing = ArchiveListing.read(archive);
+            } catch (IOException e) {
+                LOGGER.debug("Could not index class path archive '{}'.", archive, e);
+                return null;
+            }
+            ARCHIVE_LISTINGS.put(hash, listing);
+        }
+        return listing;
+    }
+
+    /**
+     * Lists the class files of the given package, in class path order.
+     */
+    public List<JavaFileObject> list(String packageName) {
+        String packagePath = packageName.replace('.', '/');
+        List<JavaFileObject> result = new ArrayList<>();
+        for (ClasspathEntry entry : entries) {
+            entry.list(packagePath, this, result);
+        }
+        return result;
+    }
+
+    public boolean isIndexed(JavaFileObject file) {
+        return file instanceof IndexedClassFile && ((IndexedClassFile) file).index == this;
+    }
+
+    public String inferBinaryName(JavaFileObject file) {
+        return ((IndexedClassFile) file).getBinaryName();
+    }
+
+    /**
+     * Checks whether the given file objects denote the same file, where either of them can be a file object created by the standard file manager.
+     */
+    public static boolean isSameFile(FileObject a, FileObject b) {
+        return fileIdentity(a.toUri()).equals(fileIdentity(b.toUri()));
+    }
+
+    /**
+     * Normalizes the URI of a file or jar entry, since the standard file managers of different Java versions create these URIs differently, e.g. {@code file:///} or {@code file:/}.
+     */
+    private static String fileIdentity(URI uri) {
+        if ("jar".equals(uri.getScheme())) {
+            String archiveAndEntry = uri.getRawSchemeSpecificPart();
+            int separator = archiveAndEntry.indexOf("!/");
+            if (separator > 0) {
+                return "jar:" + fileIdentity(URI.create(archiveAndEntry.substring(0, separator))) + archiveAndEntry.substring(separator);
+            }
+        } else if ("file".equals(uri.getScheme())) {
+            try {
+                return new File(uri).toPath().normalize().toString();
+            } catch (IllegalArgumentException e) {
+                // Not a hierarchical file URI, compare as is
+            }
+        }
+        return uri.normalize().toString();
+    }
+
+    private synchronized InputStream openEntry(File archive, String entryName) throws IOException {
+        ZipFile zipFile = openArchives.get(archive);
+        if (zipFile == null) {
+            zipFile = new ZipFile(archive);
+            openArchives.put(archive, zipFile);
+        }
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            throw new FileNotFoundException(String.format("Entry '%s' not found in '%s'.", entryName, archive));
+        }
+        return zipFile.getInputStream(entry);
+    }
+
+    @Override
+    public synchronized void close() {
+        CompositeStoppable.stoppable(openArchives.values()).stop();
+        openArchives.clear();
+    }
+
+    private static String binaryName(String entryName) {
+        return entryName.substring(0, entryName.length() - CLASS_EXTENSION.length()).replace('/', '.');
+    }
+
+    private interface ClasspathEntry {
+        void list(String packagePath, ClasspathIndex index, List<JavaFileObject> result);
+    }
+
+    private static class DirectoryEntry implements ClasspathEntry {
+        private final File directory;
+
+        DirectoryEntry(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public void list(String packagePath, ClasspathIndex index, List<JavaFileObject> result) {
+            File[] files = new File(directory, packagePath).listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(CLASS_EXTENSION) && file.isFile()) {
+                    String entryName = packagePath.isEmpty() ? name : packagePath + "/" + name;
+                    result.add(new DirectoryClassFile(index, file, binaryName(entryName)));
+                }
+            }
+        }
+    }
+
+    private static class ArchiveEntry implements ClasspathEntry {
+        private final File archive;
+        private final ArchiveListing listing;
+
+        ArchiveEntry(File archive, ArchiveListing listing) {
+            this.archive = archive;
+            this.listing = listing;
+        }
+
+        @Override
+        public void list(String packagePath, ClasspathIndex index, List<JavaFileObject> result) {
+            List<String> classFiles = listing.classFilesByPackage.get(packagePath);
+            if (classFiles == null) {
+                return;
+            }
+            for (String name : classFiles) {
+                String entryName = packagePath.isEmpty() ? name : packagePath + "/" + name;
+                result.add(new ArchiveClassFile(index, archive, entryName));
+            }
+        }
+    }
+
+    private static class ArchiveListing {
+        private final ImmutableMap<String, List<String>> classFilesByPackage;
+        private final boolean multiRelease;
+        private final boolean manifestClassPath;
+
+        private ArchiveListing(ImmutableMap<String, List<String>> classFilesByPackage, boolean multiRelease, boolean manifestClassPath) {
+            this.classFilesByPackage = classFilesByPackage;
+            this.multiRelease = multiRelease;
+            this.manifestClassPath = manifestClassPath;
+        }
+
+        static ArchiveListing read(File archive) throws IOException {
+            Map<String, List<String>> classFilesByPackage = new HashMap<>();
+            boolean multiRelease = false;
+            boolean manifestClassPath = false;
+            try (ZipFile zipFile = new ZipFile(archive)) {
+                manifestClassPath = hasManifestClassPath(zipFile);
+                Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+                while (zipEntries.hasMoreElements()) {
+                    ZipEntry zipEntry = zipEntries.nextElement();
+                    String entryName = zipEntry.getName();
+                    if (entryName.startsWith("META-INF/versions/")) {
+                        multiRelease = true;
+                    }
+                    if (zipEntry.isDirectory() || !entryName.endsWith(CLASS_EXTENSION)) {
+                        continue;
+                    }
+                    int separator = entryName.lastIndexOf('/');
+                    String packagePath = separator < 0 ? "" : entryName.substring(0, separator);
+                    classFilesByPackage.computeIfAbsent(packagePath, p -> new ArrayList<>()).add(entryName.substring(separator + 1));
+                }
+            }
+            ImmutableMap.Builder<String, List<String>> builder = ImmutableMap.builderWithExpectedSize(classFilesByPackage.size());
+            classFilesByPackage.forEach((packagePath, classFiles) -> builder.put(packagePath, ImmutableList.copyOf(classFiles)));
+            return new ArchiveListing(builder.build(), multiRelease, manifestClassPath);
+        }
+
+        private static boolean hasManifestClassPath(ZipFile zipFile) throws IOException {
+            ZipEntry manifestEntry = zipFile.getEntry(JarFile.MANIFEST_NAME);
+            if (manifestEntry == null) {
+                return false;
+            }
+            try (InputStream inputStream = zipFile.getInputStream(manifestEntry)) {
+                String classPath = new Manifest(inputStream).getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+                return classPath != null && !classPath.trim().isEmpty();
+            }
+        }
+    }
+
+    private abstract static class IndexedClassFile extends SimpleJavaFileObject {
+        final ClasspathIndex index;
+
+        IndexedClassFile(ClasspathIndex index, URI uri) {
+            super(uri, Kind.CLASS);
+            this.index = index;
+        }
+
+        abstract String getBinaryName();
+
+        @Override
+        public boolean isNameCompatible(String simpleName, Kind kind) {
+            if (kind != Kind.CLASS) {
+                return false;
+            }
+            String binaryName = getBinaryName();
+            return binaryName.equals(simpleName) || binaryName.endsWith("." + simpleName);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IndexedClassFile && toUri().equals(((IndexedClassFile) o).toUri());
+        }
+
+        @Override
+        public int hashCode() {
+            return toUri().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static class DirectoryClassFile extends IndexedClassFile {
+        private final File file;
+        private final String binaryName;
+
+        DirectoryClassFile(ClasspathIndex index, File file, String binaryName) {
+            super(index, file.toURI());
+            this.file = file;
+            this.binaryName = binaryName;
+        }
+
+        @Override
+        String getBinaryName() {
+            return binaryName;
+        }
+
+        @Override
+        public String getName() {
+            return file.getPath();
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return new FileInputStream(file);
+        }
+
+        @Override
+        public long getLastModified() {
+            return file.lastModified();
+        }
+    }
+
+    private static class ArchiveClassFile extends IndexedClassFile {
+        private final File archive;
+        private final String entryName;
+
+        ArchiveClassFile(ClasspathIndex index, File archive, String entryName) {
+            super(index, entryUri(archive, entryName));
+            this.archive = archive;
+            this.entryName = entryName;
+        }
+
+        private static URI entryUri(File archive, String entryName) {
+            try {
+                return new URI("jar", archive.toURI() + "!/" + entryName, null);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        String getBinaryName() {
+            return binaryName(entryName);
+        }
+
+        @Override
+        public String getName() {
+            return archive.getPath() + "(" + entryName + ")";
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return index.openEntry(archive, entryName);
+        }
+
+        @Override
+        public long getLastModified() {
+            return archive.lastModified();
+        }
+    }
+}
@@ -18,6 +18,8 @@
 
 import org.gradle.internal.classpath.ClassPath;
 
+import javax.annotation.Nullable;
+import javax.tools.FileObject;
 import javax.tools.ForwardingJavaFileManager;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
@@ -25,18 +27,23 @@
 import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.net.URLClassLoader;
+import java.util.EnumSet;
 import java.util.Set;
 
 import static org.gradle.api.internal.tasks.compile.filter.AnnotationProcessorFilter.getFilteredClassLoader;
 
 public class GradleStandardJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    private static final Set<JavaFileObject.Kind> CLASS_FILES = EnumSet.of(JavaFileObject.Kind.CLASS);
+
     private final ClassPath annotationProcessorPath;
     private final boolean hasEmptySourcePaths;
+    private final ClasspathIndex classpathIndex;
 
-    private GradleStandardJavaFileManager(StandardJavaFileManager fileManager, ClassPath annotationProcessorPath, boolean hasEmptySourcePaths) {
+    private GradleStandardJavaFileManager(StandardJavaFileManager fileManager, ClassPath annotationProcessorPath, boolean hasEmptySourcePaths, @Nullable ClasspathIndex classpathIndex) {
         super(fileManager);
         this.annotationProcessorPath = annotationProcessorPath;
         this.hasEmptySourcePaths = hasEmptySourcePaths;
+        this.classpathIndex = classpathIndex;
     }
 
     /**
@@ -44,7 +51,14 @@ private GradleStandardJavaFileManager(StandardJavaFileManager fileManager, Class
      * classloaders outside of Gradle's control.
      */
     public static JavaFileManager wrap(StandardJavaFileManager delegate, ClassPath annotationProcessorPath, boolean hasEmptySourcePaths) {
-        return new GradleStandardJavaFileManager(delegate, annotationProcessorPath, hasEmptySourcePaths);
+        return new GradleStandardJavaFileManager(delegate, annotationProcessorPath, hasEmptySourcePaths, null);
+    }
+
+    /**
+     * Like {@link #wrap(StandardJavaFileManager, ClassPath, boolean)}, but lists the class files on the class path from the given index.
+     */
+    public static JavaFileManager wrap(StandardJavaFileManager delegate, ClassPath annotationProcessorPath, boolean hasEmptySourcePaths, @Nullable ClasspathIndex classpathIndex) {
+        return new GradleStandardJavaFileManager(delegate, annotationProcessorPath, hasEmptySourcePaths, classpathIndex);
     }
 
     @Override
@@ -78,9 +92,39 @@ public Iterable<JavaFileObject> list(Location location, String packageName, Set<
                 kinds.remove(JavaFileObject.Kind.SOURCE);
             }
         }
+        if (classpathIndex != null && !recurse && location.equals(StandardLocation.CLASS_PATH) && kinds.equals(CLASS_FILES)) {
+            return classpathIndex.list(packageName);
+        }
         return super.list(location, packageName, kinds, recurse);
     }
 
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+        if (classpathIndex != null && classpathIndex.isIndexed(file)) {
+            return classpathIndex.inferBinaryName(file);
+        }
+        return super.inferBinaryName(location, file);
+    }
+
+    @Override
+    public boolean isSameFile(FileObject a, FileObject b) {
+        if (classpathIndex != null && (a instanceof JavaFileObject && classpathIndex.isIndexed((JavaFileObject) a) || b instanceof JavaFileObject && classpathIndex.isIndexed((JavaFileObject) b))) {
+            return ClasspathIndex.isSameFile(a, b);
+        }
+        return super.isSameFile(a, b);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (classpathIndex != null) {
+                classpathIndex.close();
+            }
+        }
+    }
+
     @Override
     public ClassLoader getClassLoader(Location location) {
         ClassLoader classLoader = super.getClassLoader(location);
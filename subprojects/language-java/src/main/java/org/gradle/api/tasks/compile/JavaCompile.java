@@ -17,6 +17,7 @@
 package org.gradle.api.tasks.compile;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import org.gradle.api.Incubating;
 import org.gradle.api.JavaVersion;
@@ -58,9 +59,12 @@
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.internal.deprecation.DeprecationLogger;
 import org.gradle.internal.file.Deleter;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.jvm.DefaultModularitySpec;
 import org.gradle.internal.jvm.JavaModuleDetector;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.snapshot.CompleteFileSystemLocationSnapshot;
+import org.gradle.internal.vfs.VirtualFileSystem;
 import org.gradle.jvm.internal.toolchain.JavaToolChainInternal;
 import org.gradle.jvm.platform.JavaPlatform;
 import org.gradle.jvm.platform.internal.DefaultJavaPlatform;
@@ -72,7 +76,9 @@
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import static org.gradle.api.internal.tasks.compile.SourceClassesMappingFileAccessor.mergeIncrementalMappingsIntoOldMappings;
@@ -306,10 +312,12 @@ private DefaultJavaCompileSpec createSpec() {
         spec.setTempDir(getTemporaryDir());
         spec.setCompileClasspath(ImmutableList.copyOf(javaModuleDetector.inferClasspath(isModule, getClasspath())));
         spec.setModulePath(ImmutableList.copyOf(javaModuleDetector.inferModulePath(isModule, getClasspath())));
+        spec.setClasspathArchiveHashes(classpathArchiveHashes(spec.getCompileClasspath()));
         if (isModule) {
             compileOptions.setSourcepath(getProjectLayout().files(sourcesRoots));
         }
         spec.setAnnotationProcessorPath(compileOptions.getAnnotationProcessorPath() == null ? ImmutableList.of() : ImmutableList.copyOf(compileOptions.getAnnotationProcessorPath()));
+        spec.setAnnotationProcessorPathHashes(annotationProcessorPathHashes(spec.getAnnotationProcessorPath()));
         spec.setTargetCompatibility(getTargetCompatibility());
         spec.setSourceCompatibility(getSourceCompatibility());
 
@@ -321,6 +329,31 @@ private DefaultJavaCompileSpec createSpec() {
         return spec;
     }
 
+    /**
+     * Looks up the content hashes of the archives on the classpath, which are known to the file system after snapshotting the inputs.
+     */
+    private Map<File, HashCode> classpathArchiveHashes(List<File> classpath) {
+        VirtualFileSystem virtualFileSystem = getServices().get(VirtualFileSystem.class);
+        Map<File, HashCode> hashes = new HashMap<>();
+        for (File file : classpath) {
+            virtualFileSystem.readRegularFileContentHash(file.getAbsolutePath(), hash -> hashes.put(file, hash));
+        }
+        return ImmutableMap.copyOf(hashes);
+    }
+
+    /**
+     * Looks up the hashes of the entries of the annotation processor path, which are known to the file system after snapshotting the inputs.
+     * The hash of a directory covers the content of all files in it.
+     */
+    private Map<File, HashCode> annotationProcessorPathHashes(List<File> annotationProcessorPath) {
+        VirtualFileSystem virtualFileSystem = getServices().get(VirtualFileSystem.class);
+        ImmutableMap.Builder<File, HashCode> hashes = ImmutableMap.builderWithExpectedSize(annotationProcessorPath.size());
+        for (File file : annotationProcessorPath) {
+            hashes.put(file, virtualFileSystem.read(file.getAbsolutePath(), CompleteFileSystemLocationSnapshot::getHash));
+        }
+        return hashes.build();
+    }
+
     /**
      * Returns the module path handling of this compile task.
      *
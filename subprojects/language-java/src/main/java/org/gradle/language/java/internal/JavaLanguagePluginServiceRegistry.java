@@ -22,12 +22,14 @@
 import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.tasks.compile.incremental.IncrementalCompilerFactory;
 import org.gradle.api.internal.tasks.compile.incremental.cache.GeneralCompileCaches;
+import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorClassLoaderCache;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDetector;
 import org.gradle.api.internal.tasks.compile.tooling.JavaCompileTaskSuccessResultPostProcessor;
 import org.gradle.api.logging.configuration.LoggingConfiguration;
 import org.gradle.api.logging.configuration.ShowStacktrace;
 import org.gradle.cache.internal.FileContentCacheFactory;
 import org.gradle.internal.build.event.BuildEventListenerFactory;
+import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.operations.BuildOperationExecutor;
@@ -60,6 +62,10 @@ public void registerProjectServices(ServiceRegistration registration) {
     }
 
     private static class JavaGlobalScopeServices {
+        public void configure(ServiceRegistration registration, ListenerManager listenerManager) {
+            listenerManager.addListener(AnnotationProcessorClassLoaderCache.INSTANCE);
+        }
+
         BuildEventListenerFactory createJavaSubscribableBuildActionRunnerRegistration(final JavaCompileTaskSuccessResultPostProcessor factory) {
             return (clientSubscriptions, consumer) -> clientSubscriptions.isRequested(OperationType.TASK)
                 ? Collections.singletonList(factory)
@@ -25,7 +25,8 @@ import spock.lang.Subject
 class ClasspathSnapshotFactoryTest extends Specification {
 
     def snapshotter = Mock(ClasspathEntrySnapshotter)
-    @Subject factory = new ClasspathSnapshotFactory(snapshotter, new TestBuildOperationExecutor())
+    def buildOperationExecutor = new TestBuildOperationExecutor()
+    @Subject factory = new ClasspathSnapshotFactory(snapshotter, buildOperationExecutor)
 
     def "creates classpath snapshot with correct duplicate classes"() {
         def jar1 = stubArchive("f1"); def jar2 = stubArchive("f2"); def jar3 = stubArchive("f3")
@@ -79,6 +80,24 @@ class ClasspathSnapshotFactoryTest extends Specification {
         0 * snapshotter.createSnapshot(jar2)
     }
 
+    def "reports snapshotting the classpath as a build operation"() {
+        def jar1 = stubArchive("f1"); def jar2 = stubArchive("f2")
+
+        def sn1 = Stub(ClasspathEntrySnapshot) { getClasses() >> ["A", "B"] }
+        def sn2 = Stub(ClasspathEntrySnapshot) { getClasses() >> ["B"] }
+
+        when:
+        factory.createSnapshot([jar1, jar2])
+
+        then:
+        1 * snapshotter.createSnapshot(jar1) >> sn1
+        1 * snapshotter.createSnapshot(jar2) >> sn2
+
+        def result = buildOperationExecutor.log.mostRecentResult(SnapshotClasspathBuildOperationType)
+        result.entryCount == 2
+        result.duplicateClassCount == 1
+    }
+
     private File stubArchive(String name, boolean exists = true) {
         new File(name) {
             boolean exists() { exists }
@@ -46,16 +46,42 @@ class ClassSetAnalysisDataSerializerTest extends Specification {
         ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
 
         then:
-        read.dependents.keySet() == data.dependents.keySet()
+        read.classNames as List == data.classNames as List
+        read.classCount == 4
 
         ["A", "B", "C"].each {
-            assert read.dependents[it].privateDependentClasses == data.dependents[it].privateDependentClasses
-            assert read.dependents[it].accessibleDependentClasses == data.dependents[it].accessibleDependentClasses
-            assert read.dependents[it].dependencyToAll == data.dependents[it].dependencyToAll
+            assert read.getDependents(it).privateDependentClasses == data.getDependents(it).privateDependentClasses
+            assert read.getDependents(it).accessibleDependentClasses == data.getDependents(it).accessibleDependentClasses
+            assert read.getDependents(it).dependencyToAll == data.getDependents(it).dependencyToAll
         }
 
-        read.dependents["D"].dependencyToAll
+        read.getDependents("D").dependencyToAll
         read.classesToConstants == [C: [1,2] as Set, D: [] as Set]
         read.fullRebuildCause == "Because"
     }
+
+    def "serializes dependents by index into the class name table"() {
+        def data = new ClassSetAnalysisData(["A", "B", "C"] as Set,
+            ["A": dependentClasses(["B"] as Set, ["C"] as Set), "Other": dependentClasses([] as Set, ["A", "B"] as Set), "B": dependencyToAll("reason")],
+            [Constants: new IntOpenHashSet([1]) as IntSet],
+            null
+        )
+        def os = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(new OutputStreamBackedEncoder(os), data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
+
+        then:
+        read.classNames as List == ["A", "B", "C", "Other", "Constants"]
+        read.getDependents("A").privateDependentClasses == ["B"] as Set
+        read.getDependents("A").accessibleDependentClasses == ["C"] as Set
+        read.getDependents("Other").accessibleDependentClasses == ["A", "B"] as Set
+        read.getDependents("B").dependencyToAll
+        read.getDependents("B").description == "reason"
+        read.getDependents("C").empty
+        read.getDependents("Unknown").empty
+        read.getConstants("Constants") == [1] as Set
+        read.getDependents("package-info").accessibleDependentClasses == ["A", "B", "C"] as Set
+    }
 }
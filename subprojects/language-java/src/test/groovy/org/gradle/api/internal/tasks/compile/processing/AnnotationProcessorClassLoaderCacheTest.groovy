@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.processing
+
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class AnnotationProcessorClassLoaderCacheTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def cache = new AnnotationProcessorClassLoaderCache(2)
+    def compilerClassLoader = getClass().classLoader
+
+    def "reuses a released class loader for the same processor path"() {
+        def path = [tmpDir.createFile("processor.jar")]
+        def classLoader = newClassLoader()
+
+        when:
+        def first = cache.acquire(key(path), { classLoader })
+
+        then:
+        first == classLoader
+
+        when:
+        def whileInUse = cache.acquire(key(path), { newClassLoader() })
+
+        then:
+        whileInUse != classLoader
+
+        when:
+        cache.release(key(path), first)
+
+        then:
+        cache.acquire(key(path), { throw new AssertionError() }) == classLoader
+    }
+
+    def "does not reuse a class loader after the processor path changed"() {
+        def jar = tmpDir.createFile("processor.jar")
+        def classLoader = newClassLoader()
+        cache.release(key([jar]), classLoader)
+
+        when:
+        def other = newClassLoader()
+
+        then:
+        cache.acquire(key([jar], [(jar): Hashing.hashString("changed")]), { other }) == other
+        cache.acquire(key([tmpDir.file("other.jar")]), { other }) == other
+    }
+
+    def "reuses a class loader for a processor path containing a directory with the same content"() {
+        def path = [tmpDir.createFile("processor.jar"), tmpDir.createDir("processor-classes")]
+        def classLoader = newClassLoader()
+        cache.release(key(path), classLoader)
+
+        expect:
+        cache.acquire(key(path), { throw new AssertionError() }) == classLoader
+    }
+
+    def "closes the least recently released class loaders above the limit"() {
+        def classLoaders = (1..3).collect { newClassLoader() }
+
+        when:
+        classLoaders.eachWithIndex { classLoader, i -> cache.release(key([tmpDir.file("processor${i}.jar")]), classLoader) }
+
+        then:
+        cache.acquire(key([tmpDir.file("processor0.jar")]), { null }) == null
+        cache.acquire(key([tmpDir.file("processor2.jar")]), { null }) == classLoaders[2]
+    }
+
+    def "does not pool class loaders for processor paths with entries of unknown content"() {
+        def jar = tmpDir.createFile("processor.jar")
+        def classes = tmpDir.createDir("processor-classes")
+
+        expect:
+        key([jar, classes], [(jar): Hashing.hashString(jar.name)]) == null
+    }
+
+    def "closes idle class loaders not used during the session when the session completes"() {
+        def usedPath = [tmpDir.createFile("used.jar")]
+        def unusedPath = [tmpDir.createFile("unused.jar")]
+        def used = newClassLoader()
+        def unused = newClassLoader()
+        cache.release(key(usedPath), used)
+        cache.release(key(unusedPath), unused)
+
+        when:
+        cache.acquire(key(usedPath), { throw new AssertionError() })
+        cache.release(key(usedPath), used)
+        cache.beforeComplete()
+
+        then:
+        cache.acquire(key(usedPath), { null }) == used
+        cache.acquire(key(unusedPath), { null }) == null
+    }
+
+    private AnnotationProcessorClassLoaderCache.Key key(List<File> path, Map<File, HashCode> hashes = path.collectEntries { [it, Hashing.hashString(it.name)] }) {
+        AnnotationProcessorClassLoaderCache.Key.of(path, hashes, compilerClassLoader)
+    }
+
+    private static URLClassLoader newClassLoader() {
+        new URLClassLoader(new URL[0], (ClassLoader) null)
+    }
+}
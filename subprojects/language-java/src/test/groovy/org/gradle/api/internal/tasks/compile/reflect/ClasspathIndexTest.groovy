@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.reflect
+
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.JarUtils
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.jar.Attributes
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+
+import static javax.tools.JavaFileObject.Kind.CLASS
+
+class ClasspathIndexTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def "lists the class files of a package in class path order"() {
+        given:
+        def dir = tmpDir.createDir("classes")
+        dir.file("org/a/A.class") << "dir A"
+        dir.file("org/a/notes.txt") << "ignored"
+        def jar = tmpDir.file("lib.jar")
+        jar << JarUtils.jarWithContents("org/a/A.class": "jar A", "org/a/B.class": "jar B", "org/a/b/C.class": "jar C")
+
+        when:
+        def index = ClasspathIndex.of([dir, jar, tmpDir.file("missing.jar")], hashes(jar))
+        def files = index.list("org.a")
+
+        then:
+        files.collect { index.inferBinaryName(it) } == ["org.a.A", "org.a.A", "org.a.B"]
+        files.every { index.isIndexed(it) }
+        files[0].openInputStream().text == "dir A"
+        files[1].openInputStream().text == "jar A"
+        files[1].isNameCompatible("A", CLASS)
+        !files[1].isNameCompatible("B", CLASS)
+        index.list("org.b").empty
+
+        cleanup:
+        index?.close()
+    }
+
+    def "reindexes an archive which changed"() {
+        given:
+        def jar = tmpDir.file("lib.jar")
+        jar << JarUtils.jarWithContents("org/a/A.class": "A")
+        def index = ClasspathIndex.of([jar], hashes(jar))
+
+        expect:
+        index.list("org.a").collect { index.inferBinaryName(it) } == ["org.a.A"]
+
+        when:
+        index.close()
+        jar.delete()
+        jar << JarUtils.jarWithContents("org/a/A.class": "A", "org/a/Other.class": "Other")
+        index = ClasspathIndex.of([jar], hashes(jar))
+
+        then:
+        index.list("org.a").collect { index.inferBinaryName(it) } == ["org.a.A", "org.a.Other"]
+
+        cleanup:
+        index?.close()
+    }
+
+    def "reuses the listing of an archive with the same content at another location"() {
+        given:
+        def jar = tmpDir.file("lib.jar")
+        jar << JarUtils.jarWithContents("org/a/A.class": "A")
+        def copy = tmpDir.file("copy/lib.jar")
+        copy.bytes = jar.bytes
+        ClasspathIndex.of([jar], hashes(jar)).close()
+
+        when:
+        def index = ClasspathIndex.of([copy], hashes(copy))
+        def files = index.list("org.a")
+
+        then:
+        files.collect { index.inferBinaryName(it) } == ["org.a.A"]
+        files[0].name == "${copy.path}(org/a/A.class)"
+        files[0].openInputStream().text == "A"
+
+        cleanup:
+        index?.close()
+    }
+
+    def "does not index archives without a known content hash"() {
+        given:
+        def jar = tmpDir.file("lib.jar")
+        jar << JarUtils.jarWithContents("org/a/A.class": "A")
+
+        expect:
+        ClasspathIndex.of([jar], [:]) == null
+        ClasspathIndex.of([tmpDir.createDir("classes")], [:]) != null
+    }
+
+    def "does not index multi-release or broken archives"() {
+        given:
+        def multiRelease = tmpDir.file("multi-release.jar")
+        multiRelease << JarUtils.jarWithContents("org/a/A.class": "A", "META-INF/versions/11/org/a/A.class": "A")
+        def broken = tmpDir.file("broken.jar")
+        broken << "broken"
+
+        expect:
+        ClasspathIndex.of([multiRelease], hashes(multiRelease)) == null
+        ClasspathIndex.of([broken], hashes(broken)) == null
+    }
+
+    def "does not index archives which add other archives to the class path"() {
+        given:
+        def manifest = new Manifest()
+        manifest.mainAttributes.put(Attributes.Name.MANIFEST_VERSION, "1.0")
+        manifest.mainAttributes.put(Attributes.Name.CLASS_PATH, "lib.jar other.jar")
+        def pathingJar = tmpDir.file("pathing.jar")
+        new JarOutputStream(pathingJar.newOutputStream(), manifest).close()
+        def jarWithoutClassPath = tmpDir.file("lib.jar")
+        jarWithoutClassPath << JarUtils.jarWithContents("org/a/A.class": "A")
+
+        expect:
+        ClasspathIndex.of([pathingJar], hashes(pathingJar)) == null
+        ClasspathIndex.of([jarWithoutClassPath, pathingJar], hashes(jarWithoutClassPath, pathingJar)) == null
+        ClasspathIndex.of([jarWithoutClassPath], hashes(jarWithoutClassPath)) != null
+    }
+
+    private static Map<File, HashCode> hashes(File... archives) {
+        archives.collectEntries { [(it): Hashing.hashBytes(it.bytes)] }
+    }
+}
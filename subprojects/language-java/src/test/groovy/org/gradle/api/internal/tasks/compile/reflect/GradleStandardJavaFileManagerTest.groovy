@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile.reflect
+
+import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.JarUtils
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.tools.JavaFileObject
+import javax.tools.StandardJavaFileManager
+import javax.tools.ToolProvider
+import java.util.jar.Attributes
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+import java.util.zip.ZipEntry
+
+import static javax.tools.JavaFileObject.Kind.CLASS
+import static javax.tools.StandardLocation.CLASS_PATH
+
+class GradleStandardJavaFileManagerTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def compiler = ToolProvider.systemJavaCompiler
+    StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, null)
+
+    def cleanup() {
+        standardFileManager.close()
+    }
+
+    def "compiles against classes only reachable through the Class-Path manifest attribute of a pathing jar"() {
+        given:
+        def libClasses = tmpDir.createDir("lib-classes")
+        def libSource = tmpDir.file("lib-src/org/a/A.java")
+        libSource.text = "package org.a; public class A {}"
+        assert compiler.run(null, null, null, "-d", libClasses.path, libSource.path) == 0
+        def lib = tmpDir.file("libs/lib.jar")
+        writeJar(lib, ["org/a/A.class": libClasses.file("org/a/A.class").bytes])
+        def pathingJar = tmpDir.file("libs/pathing.jar")
+        writeJar(pathingJar, [:], "lib.jar")
+        def source = tmpDir.file("src/org/b/B.java")
+        source.text = "package org.b; public class B { org.a.A a; }"
+        def classes = tmpDir.createDir("classes")
+
+        when:
+        def index = ClasspathIndex.of([pathingJar], hashes(pathingJar))
+
+        then:
+        index == null
+
+        when:
+        def fileManager = GradleStandardJavaFileManager.wrap(standardFileManager, ClassPath.EMPTY, false, index)
+        def options = ["-classpath", pathingJar.path, "-d", classes.path]
+        def success = compiler.getTask(null, fileManager, null, options, null, standardFileManager.getJavaFileObjects(source)).call()
+
+        then:
+        success
+        classes.file("org/b/B.class").file
+    }
+
+    def "identifies indexed class files with the class files of the standard file manager"() {
+        given:
+        def dir = tmpDir.createDir("classes")
+        dir.file("org/a/A.class") << "dir A"
+        def jar = tmpDir.file("lib.jar")
+        jar << JarUtils.jarWithContents("org/a/B.class": "jar B")
+        standardFileManager.setLocation(CLASS_PATH, [dir, jar])
+        def index = ClasspathIndex.of([dir, jar], hashes(jar))
+        def fileManager = GradleStandardJavaFileManager.wrap(standardFileManager, ClassPath.EMPTY, false, index)
+
+        when:
+        def indexed = byBinaryName(fileManager.list(CLASS_PATH, "org.a", EnumSet.of(CLASS), false)) { fileManager.inferBinaryName(CLASS_PATH, it) }
+        def standard = byBinaryName(standardFileManager.list(CLASS_PATH, "org.a", EnumSet.of(CLASS), false)) { standardFileManager.inferBinaryName(CLASS_PATH, it) }
+
+        then:
+        indexed.keySet() == ["org.a.A", "org.a.B"] as Set
+        standard.keySet() == ["org.a.A", "org.a.B"] as Set
+        indexed.values().every { index.isIndexed(it) }
+
+        and:
+        fileManager.isSameFile(indexed["org.a.A"], standard["org.a.A"])
+        fileManager.isSameFile(standard["org.a.B"], indexed["org.a.B"])
+        fileManager.isSameFile(indexed["org.a.B"], indexed["org.a.B"])
+        !fileManager.isSameFile(indexed["org.a.A"], standard["org.a.B"])
+        !fileManager.isSameFile(indexed["org.a.A"], indexed["org.a.B"])
+
+        cleanup:
+        fileManager?.close()
+    }
+
+    private static Map<String, JavaFileObject> byBinaryName(Iterable<JavaFileObject> files, Closure<String> binaryName) {
+        files.collectEntries { [binaryName(it), it] }
+    }
+
+    private static void writeJar(TestFile jar, Map<String, byte[]> entries, String classPath = null) {
+        def manifest = new Manifest()
+        manifest.mainAttributes.put(Attributes.Name.MANIFEST_VERSION, "1.0")
+        if (classPath != null) {
+            manifest.mainAttributes.put(Attributes.Name.CLASS_PATH, classPath)
+        }
+        jar.parentFile.mkdirs()
+        new JarOutputStream(jar.newOutputStream(), manifest).withCloseable { out ->
+            entries.each { name, content ->
+                out.putNextEntry(new ZipEntry(name))
+                out.write(content)
+            }
+        }
+    }
+
+    private static Map<File, HashCode> hashes(File... archives) {
+        archives.collectEntries { [(it): Hashing.hashBytes(it.bytes)] }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.snapshot.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.ValueSnapshotter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshots the same list of compiler arguments for many tasks.
+ *
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ValueSnapshotterBenchmark {
+
+    @Param({"500"})
+    int taskCount;
+
+    @Param({"100"})
+    int argumentCount;
+
+    private ValueSnapshotter snapshotter;
+    private List<String> sharedImmutableArguments;
+    private List<List<String>> mutableArgumentsPerTask;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        snapshotter = new DefaultValueSnapshotter(classLoader -> HashCode.fromInt(classLoader.hashCode()), null);
+        ImmutableList.Builder<String> builder = ImmutableList.builderWithExpectedSize(argumentCount);
+        for (int i = 0; i < argumentCount; i++) {
+            builder.add("-Aprocessor.option" + i + "=value" + i);
+        }
+        sharedImmutableArguments = builder.build();
+        mutableArgumentsPerTask = new ArrayList<>(taskCount);
+        for (int task = 0; task < taskCount; task++) {
+            mutableArgumentsPerTask.add(new ArrayList<>(sharedImmutableArguments));
+        }
+    }
+
+    @Benchmark
+    public void snapshotSharedImmutableList(Blackhole blackhole) {
+        for (int task = 0; task < taskCount; task++) {
+            blackhole.consume(snapshotter.snapshot(sharedImmutableArguments));
+        }
+    }
+
+    @Benchmark
+    public void snapshotMutableListPerTask(Blackhole blackhole) {
+        for (List<String> arguments : mutableArgumentsPerTask) {
+            blackhole.consume(snapshotter.snapshot(arguments));
+        }
+    }
+}
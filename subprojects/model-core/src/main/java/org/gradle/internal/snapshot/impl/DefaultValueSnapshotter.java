@@ -16,8 +16,14 @@
 
 package org.gradle.internal.snapshot.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.gradle.api.attributes.Attribute;
 import org.gradle.internal.hash.ClassLoaderHierarchyHasher;
 import org.gradle.internal.isolation.Isolatable;
@@ -37,12 +43,23 @@
 import java.lang.reflect.Array;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 
 public class DefaultValueSnapshotter implements ValueSnapshotter, IsolatableFactory {
     private final ValueVisitor<ValueSnapshot> valueSnapshotValueVisitor;
     private final ValueVisitor<Isolatable<?>> isolatableValueVisitor;
+    /**
+     * Snapshots of deeply immutable collections, keyed by the identity of the collection.
+     * The same collection instance is often used as an input by many tasks, e.g. shared compiler arguments or manifest attributes.
+     * Immutable collections which contain mutable values map to an empty snapshot, so that they are only inspected once.
+     */
+    private final Cache<Object, Optional<ValueSnapshot>> immutableValueSnapshots = CacheBuilder.newBuilder().weakKeys().build();
+    /**
+     * Shares a single snapshot between structurally equal immutable collections.
+     */
+    private final Interner<ValueSnapshot> immutableValueSnapshotInterner = Interners.newWeakInterner();
 
     public DefaultValueSnapshotter(ClassLoaderHierarchyHasher classLoaderHasher, ManagedFactoryRegistry managedFactoryRegistry) {
         valueSnapshotValueVisitor = new ValueSnapshotVisitor(classLoaderHasher);
@@ -51,14 +68,74 @@ public DefaultValueSnapshotter(ClassLoaderHierarchyHasher classLoaderHasher, Man
 
     @Override
     public ValueSnapshot snapshot(@Nullable Object value) throws ValueSnapshottingException {
+        if (isImmutableCollection(value)) {
+            Optional<ValueSnapshot> cachedSnapshot = immutableValueSnapshots.getIfPresent(value);
+            if (cachedSnapshot == null) {
+                ValueSnapshot snapshot = processValue(value, valueSnapshotValueVisitor);
+                if (isDeeplyImmutable(value)) {
+                    snapshot = immutableValueSnapshotInterner.intern(snapshot);
+                    immutableValueSnapshots.put(value, Optional.of(snapshot));
+                } else {
+                    immutableValueSnapshots.put(value, Optional.empty());
+                }
+                return snapshot;
+            }
+            if (cachedSnapshot.isPresent()) {
+                return cachedSnapshot.get();
+            }
+        }
         return processValue(value, valueSnapshotValueVisitor);
     }
 
     @Override
     public ValueSnapshot snapshot(Object value, ValueSnapshot candidate) throws ValueSnapshottingException {
+        if (isImmutableCollection(value)) {
+            Optional<ValueSnapshot> cachedSnapshot = immutableValueSnapshots.getIfPresent(value);
+            if (cachedSnapshot != null && cachedSnapshot.isPresent()) {
+                ValueSnapshot snapshot = cachedSnapshot.get();
+                return snapshot == candidate || snapshot.equals(candidate) ? candidate : snapshot;
+            }
+        }
         return candidate.snapshot(value, this);
     }
 
+    private static boolean isImmutableCollection(@Nullable Object value) {
+        return value instanceof ImmutableCollection || value instanceof ImmutableMap;
+    }
+
+    /**
+     * Whether the value and everything reachable from it can never change, so that its snapshot can be reused for as long as the value is alive.
+     */
+    private static boolean isDeeplyImmutable(@Nullable Object value) {
+        if (value == null
+            || value instanceof String
+            || value instanceof Boolean
+            || value instanceof Integer
+            || value instanceof Long
+            || value instanceof Short
+            || value instanceof Enum
+            || value.getClass().equals(File.class)) {
+            return true;
+        }
+        if (value instanceof ImmutableCollection) {
+            for (Object element : (ImmutableCollection<?>) value) {
+                if (!isDeeplyImmutable(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof ImmutableMap) {
+            for (Map.Entry<?, ?> entry : ((ImmutableMap<?, ?>) value).entrySet()) {
+                if (!isDeeplyImmutable(entry.getKey()) || !isDeeplyImmutable(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> Isolatable<T> isolate(@Nullable T value) {
@@ -16,6 +16,8 @@
 
 package org.gradle.internal.snapshot.impl
 
+import com.google.common.collect.ImmutableList
+import com.google.common.collect.ImmutableMap
 import org.gradle.api.Named
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.api.internal.model.NamedObjectInstantiator
@@ -301,6 +303,36 @@ class DefaultValueSnapshotterTest extends Specification {
         snapshot2 != snapshot1
     }
 
+    def "reuses snapshot of deeply immutable collection"() {
+        def list = ImmutableList.of("-Xlint", "-parameters")
+        def map = ImmutableMap.of("Implementation-Title", "gradle", "Implementation-Version", "6.6")
+
+        expect:
+        def listSnapshot = snapshotter.snapshot(list)
+        listSnapshot instanceof ListValueSnapshot
+        snapshotter.snapshot(list).is(listSnapshot)
+        snapshotter.snapshot(ImmutableList.of("-Xlint", "-parameters")).is(listSnapshot)
+        snapshotter.snapshot(list, snapshotter.snapshot(["-Xlint", "-parameters"])) == listSnapshot
+
+        def mapSnapshot = snapshotter.snapshot(map)
+        mapSnapshot instanceof MapValueSnapshot
+        snapshotter.snapshot(map).is(mapSnapshot)
+    }
+
+    def "does not reuse snapshot of immutable collection with mutable elements"() {
+        def element = ["123"]
+        def list = ImmutableList.of(element)
+
+        when:
+        def snapshot = snapshotter.snapshot(list)
+        element.add("456")
+
+        then:
+        snapshotter.snapshot(list) != snapshot
+        snapshotter.snapshot(list) == snapshotter.snapshot([["123", "456"]])
+        snapshotter.snapshot(list, snapshot) == snapshotter.snapshot([["123", "456"]])
+    }
+
     def "creates isolated list"() {
         expect:
         def original1 = []
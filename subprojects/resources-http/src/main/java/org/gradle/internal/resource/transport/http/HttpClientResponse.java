@@ -78,6 +78,10 @@ boolean wasSuccessful() {
         return statusCode >= 200 && statusCode < 400;
     }
 
+    boolean wasNotModified() {
+        return getStatusLine().getStatusCode() == 304;
+    }
+
     boolean wasMissing() {
         int statusCode = getStatusLine().getStatusCode();
         return statusCode == 404;
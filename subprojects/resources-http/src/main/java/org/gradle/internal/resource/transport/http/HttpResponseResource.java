@@ -101,6 +101,11 @@ public boolean isLocal() {
         return false;
     }
 
+    @Override
+    public boolean isUnmodified() {
+        return response.wasNotModified();
+    }
+
     @Override
     public InputStream openStream() throws IOException {
         if (wasOpened) {
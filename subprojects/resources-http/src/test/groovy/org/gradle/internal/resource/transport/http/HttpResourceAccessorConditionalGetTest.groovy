@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.http
+
+import org.apache.http.client.utils.DateUtils
+import org.apache.http.ssl.SSLContexts
+import org.gradle.internal.resource.ExternalResource
+import org.gradle.internal.resource.ExternalResourceName
+import org.gradle.internal.resource.metadata.DefaultExternalResourceMetaData
+import org.gradle.internal.resource.metadata.ExternalResourceMetaData
+import org.gradle.internal.resource.transfer.AccessorBackedExternalResource
+import org.gradle.internal.resource.transfer.ExternalResourceLister
+import org.gradle.internal.resource.transfer.ExternalResourceUploader
+import org.gradle.test.fixtures.server.http.HttpServer
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+
+class HttpResourceAccessorConditionalGetTest extends Specification {
+    @Rule HttpServer httpServer = new HttpServer()
+    def accessor = new HttpResourceAccessor(new HttpClientHelper(httpSettings))
+    def lastModified = new Date(1_500_000_000_000)
+
+    def "sends If-None-Match and reports an unmodified resource when the server answers with 304"() {
+        def requestHeaders = [:]
+        httpServer.expect("/thing", ["GET"], notModifiedIf(requestHeaders) { HttpServletRequest request -> request.getHeader("If-None-Match") == '"abc"' })
+        httpServer.start()
+
+        when:
+        def result = resource().withContentIfModified(cachedMetaData('"abc"', null), Mock(ExternalResource.ContentAction))
+
+        then:
+        result.unmodified
+        result.bytesRead == 0
+        requestHeaders["If-None-Match"] == '"abc"'
+        requestHeaders["If-Modified-Since"] == null
+    }
+
+    def "sends If-Modified-Since and reports an unmodified resource when the server answers with 304"() {
+        def requestHeaders = [:]
+        httpServer.expect("/thing", ["GET"], notModifiedIf(requestHeaders) { HttpServletRequest request -> request.getDateHeader("If-Modified-Since") == lastModified.time })
+        httpServer.start()
+
+        when:
+        def result = resource().withContentIfModified(cachedMetaData(null, lastModified), Mock(ExternalResource.ContentAction))
+
+        then:
+        result.unmodified
+        requestHeaders["If-None-Match"] == null
+        requestHeaders["If-Modified-Since"] == DateUtils.formatDate(lastModified)
+    }
+
+    def "reads the content when the server answers a conditional request with the changed resource"() {
+        def requestHeaders = [:]
+        def action = Mock(ExternalResource.ContentAction)
+        httpServer.expect("/thing", ["GET"], notModifiedIf(requestHeaders) { HttpServletRequest request -> request.getHeader("If-None-Match") == '"def"' })
+        httpServer.start()
+
+        when:
+        def result = resource().withContentIfModified(cachedMetaData('"abc"', lastModified), action)
+
+        then:
+        1 * action.execute(_, _) >> { InputStream inputStream, ExternalResourceMetaData metaData ->
+            assert inputStream.text == "content"
+            assert metaData.etag == '"def"'
+            "result"
+        }
+        !result.unmodified
+        result.result == "result"
+        requestHeaders["If-None-Match"] == '"abc"'
+        requestHeaders["If-Modified-Since"] == DateUtils.formatDate(lastModified)
+    }
+
+    private AccessorBackedExternalResource resource() {
+        new AccessorBackedExternalResource(new ExternalResourceName(new URI("${httpServer.uri}/thing")), accessor, Mock(ExternalResourceUploader), Mock(ExternalResourceLister), false)
+    }
+
+    private ExternalResourceMetaData cachedMetaData(String etag, Date lastModified) {
+        new DefaultExternalResourceMetaData(new URI("${httpServer.uri}/thing"), lastModified, 7, null, etag, null)
+    }
+
+    private static HttpServer.Action notModifiedIf(Map<String, String> requestHeaders, Closure<Boolean> unmodified) {
+        new HttpServer.ActionSupport("conditional GET") {
+            void handle(HttpServletRequest request, HttpServletResponse response) {
+                requestHeaders["If-None-Match"] = request.getHeader("If-None-Match")
+                requestHeaders["If-Modified-Since"] = request.getHeader("If-Modified-Since")
+                if (unmodified(request)) {
+                    response.status = 304
+                } else {
+                    response.setHeader("ETag", '"def"')
+                    response.contentLength = 7
+                    response.outputStream << "content".bytes
+                }
+            }
+        }
+    }
+
+    private HttpSettings getHttpSettings() {
+        Stub(HttpSettings) {
+            getProxySettings() >> Mock(HttpProxySettings)
+            getSecureProxySettings() >> Mock(HttpProxySettings)
+            getTimeoutSettings() >> { new JavaSystemPropertiesHttpTimeoutSettings() }
+            getSslContextFactory() >> Mock(SslContextFactory) {
+                createSslContext() >> SSLContexts.createDefault()
+            }
+        }
+    }
+}
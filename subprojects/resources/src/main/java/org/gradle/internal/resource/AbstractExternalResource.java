@@ -16,7 +16,9 @@
 package org.gradle.internal.resource;
 
 import org.gradle.api.Transformer;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.InputStream;
 
@@ -44,6 +46,12 @@ public <T> ExternalResourceReadResult<T> withContent(Transformer<? extends T, ?
         return result;
     }
 
+    @Nullable
+    @Override
+    public <T> ExternalResourceReadResult<T> withContentIfModified(ExternalResourceMetaData cachedMetaData, ContentAction<? extends T> readAction) {
+        return withContentIfPresent(readAction);
+    }
+
     @Override
     public <T> ExternalResourceReadResult<T> withContent(ContentAction<? extends T> readAction) {
         ExternalResourceReadResult<T> result = withContentIfPresent(readAction);
@@ -110,6 +110,17 @@ public interface ExternalResource extends Resource {
     @Nullable
     <T> ExternalResourceReadResult<T> withContentIfPresent(ContentAction<? extends T> readAction) throws ResourceException;
 
+    /**
+     * Executes the given action against the binary contents and meta-data of this resource, unless the resource is known to be
+     * unchanged when compared to the given meta-data of a previously fetched copy. For HTTP this is done using a conditional request.
+     * Transports that do not support conditional requests always execute the action.
+     *
+     * @throws ResourceException on failure to read the content.
+     * @return null if the resource does not exist. When the resource is unchanged, the action is not executed and the result is {@link ExternalResourceReadResult#isUnmodified() unmodified}.
+     */
+    @Nullable
+    <T> ExternalResourceReadResult<T> withContentIfModified(ExternalResourceMetaData cachedMetaData, ContentAction<? extends T> readAction) throws ResourceException;
+
     /**
      * Copies the given content to this resource.
      *
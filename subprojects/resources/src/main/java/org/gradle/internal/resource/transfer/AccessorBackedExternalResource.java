@@ -147,6 +147,33 @@ public <T> ExternalResourceReadResult<T> withContentIfPresent(ContentAction<? ex
         }
     }
 
+    @Nullable
+    @Override
+    public <T> ExternalResourceReadResult<T> withContentIfModified(ExternalResourceMetaData cachedMetaData, ContentAction<? extends T> readAction) throws ResourceException {
+        try {
+            ExternalResourceReadResponse response = accessor.openResourceIfModified(name.getUri(), revalidate, cachedMetaData);
+            if (response == null) {
+                return null;
+            }
+            try {
+                if (response.isUnmodified()) {
+                    return ExternalResourceReadResult.unmodified();
+                }
+                CountingInputStream stream = new CountingInputStream(new BufferedInputStream(response.openStream()));
+                try {
+                    T value = readAction.execute(stream, response.getMetaData());
+                    return ExternalResourceReadResult.of(stream.getCount(), value);
+                } finally {
+                    stream.close();
+                }
+            } finally {
+                response.close();
+            }
+        } catch (IOException e) {
+            throw ResourceExceptions.getFailed(name.getUri(), e);
+        }
+    }
+
     @Override
     public ExternalResourceReadResult<Void> withContent(Action<? super InputStream> readAction) throws ResourceException {
         try {
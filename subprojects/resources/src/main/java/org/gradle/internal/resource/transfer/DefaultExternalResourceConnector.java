@@ -29,6 +29,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultExternalResourceConnector implements ExternalResourceConnector {
     private static final String SYSPROP_KEY = "gradle.externalresources.recordstats";
@@ -56,6 +57,21 @@ public ExternalResourceReadResponse openResource(URI location, boolean revalidat
         return accessor.openResource(location, revalidate);
     }
 
+    @Nullable
+    @Override
+    public ExternalResourceReadResponse openResourceIfModified(URI location, boolean revalidate, ExternalResourceMetaData cachedMetaData) {
+        STATS.resource(location);
+        ExternalResourceReadResponse response = accessor.openResourceIfModified(location, revalidate, cachedMetaData);
+        if (response != null) {
+            if (response.isUnmodified()) {
+                STATS.unmodified(location, cachedMetaData.getContentLength());
+            } else {
+                STATS.modified(location, response.getMetaData().getContentLength());
+            }
+        }
+        return response;
+    }
+
     @Nullable
     @Override
     public ExternalResourceMetaData getMetaData(URI location, boolean revalidate) {
@@ -103,6 +119,16 @@ public ExternalResourceAccessStats create() {
 
         void upload(URI destination);
 
+        /**
+         * A conditional read found the resource unchanged, avoiding the download of the given number of bytes (-1 if unknown).
+         */
+        void unmodified(URI location, long bytesAvoided);
+
+        /**
+         * A conditional read found the resource changed, so that the given number of bytes (-1 if unknown) had to be downloaded again.
+         */
+        void modified(URI location, long bytesDownloaded);
+
         void reset();
     }
 
@@ -126,6 +152,14 @@ public void list(URI parent) {
         public void upload(URI destination) {
         }
 
+        @Override
+        public void unmodified(URI location, long bytesAvoided) {
+        }
+
+        @Override
+        public void modified(URI location, long bytesDownloaded) {
+        }
+
         @Override
         public void reset() {
         }
@@ -141,6 +175,10 @@ private static class CountingStats implements ExternalResourceAccessStats {
         private final AtomicInteger metadataCount = new AtomicInteger();
         private final AtomicInteger listCount = new AtomicInteger();
         private final AtomicInteger uploadCount = new AtomicInteger();
+        private final AtomicInteger unmodifiedCount = new AtomicInteger();
+        private final AtomicInteger modifiedCount = new AtomicInteger();
+        private final AtomicLong unmodifiedBytes = new AtomicLong();
+        private final AtomicLong modifiedBytes = new AtomicLong();
 
         @Override
         public void resource(URI location) {
@@ -162,12 +200,32 @@ public void upload(URI destination) {
             uploadCount.incrementAndGet();
         }
 
+        @Override
+        public void unmodified(URI location, long bytesAvoided) {
+            unmodifiedCount.incrementAndGet();
+            if (bytesAvoided > 0) {
+                unmodifiedBytes.addAndGet(bytesAvoided);
+            }
+        }
+
+        @Override
+        public void modified(URI location, long bytesDownloaded) {
+            modifiedCount.incrementAndGet();
+            if (bytesDownloaded > 0) {
+                modifiedBytes.addAndGet(bytesDownloaded);
+            }
+        }
+
         @Override
         public synchronized void reset() {
             resourceCount.set(0);
             metadataCount.set(0);
             listCount.set(0);
             uploadCount.set(0);
+            unmodifiedCount.set(0);
+            modifiedCount.set(0);
+            unmodifiedBytes.set(0);
+            modifiedBytes.set(0);
         }
 
         @Override
@@ -177,6 +235,8 @@ public String toString() {
             sb.append("   - Metadata fetched  : ").append(metadataCount.get()).append("\n");
             sb.append("   - Lists             : ").append(listCount.get()).append("\n");
             sb.append("   - Uploads           : ").append(uploadCount.get()).append("\n");
+            sb.append("   - Revalidated       : ").append(unmodifiedCount.get()).append(" (").append(unmodifiedBytes.get()).append(" bytes not downloaded)\n");
+            sb.append("   - Re-downloaded     : ").append(modifiedCount.get()).append(" (").append(modifiedBytes.get()).append(" bytes)\n");
             return sb.toString();
         }
     }
@@ -56,4 +56,21 @@ public interface ExternalResourceAccessor {
     @Nullable
     ExternalResourceMetaData getMetaData(URI location, boolean revalidate) throws ResourceException;
 
+    /**
+     * Read the resource at the given location, unless it is unchanged when compared to the given meta-data of a previously fetched copy.
+     *
+     * When the resource is unchanged, the returned response is {@link ExternalResourceReadResponse#isUnmodified() unmodified} and has no content.
+     * Implementations that cannot make conditional requests read the resource unconditionally.
+     *
+     * @param location The address of the resource to obtain
+     * @param revalidate The resource should be revalidated as part of the request
+     * @param cachedMetaData The meta-data of the previously fetched copy of the resource
+     * @return The resource if it exists, otherwise null. Caller is responsible for closing the result.
+     * @throws ResourceException If the resource may exist, but not could be obtained for some reason.
+     */
+    @Nullable
+    default ExternalResourceReadResponse openResourceIfModified(URI location, boolean revalidate, ExternalResourceMetaData cachedMetaData) throws ResourceException {
+        return openResource(location, revalidate);
+    }
+
 }
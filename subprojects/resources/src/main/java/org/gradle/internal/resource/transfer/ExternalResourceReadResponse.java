@@ -29,4 +29,11 @@ public interface ExternalResourceReadResponse extends Closeable {
     InputStream openStream() throws IOException;
 
     ExternalResourceMetaData getMetaData();
+
+    /**
+     * Returns true when this response is the result of a conditional request and the resource is unchanged. Such a response has no content.
+     */
+    default boolean isUnmodified() {
+        return false;
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.fingerprint.overlap.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.fingerprint.impl.AbsolutePathFingerprintingStrategy;
+import org.gradle.internal.fingerprint.impl.DefaultCurrentFileCollectionFingerprint;
+import org.gradle.internal.fingerprint.overlap.OverlappingOutputDetector;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.CompleteFileSystemLocationSnapshot;
+import org.gradle.internal.snapshot.FileSystemSnapshot;
+import org.gradle.internal.snapshot.MerkleDirectorySnapshotBuilder;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Detects overlapping outputs for tasks which all write to the same output root, e.g. {@code build/generated}.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class OverlappingOutputDetectorBenchmark {
+    private static final String OUTPUT_ROOT = "/project/build/generated";
+
+    @Param({"50"})
+    int taskCount;
+
+    @Param({"200"})
+    int filesPerTask;
+
+    // Whether each task declares the shared root as its output directory, or its own subdirectory of it
+    @Param({"true", "false"})
+    boolean sharedOutputDirectory;
+
+    private final OverlappingOutputDetector detector = new DefaultOverlappingOutputDetector();
+    private ImmutableSortedMap<String, FileCollectionFingerprint>[] afterPreviousExecution;
+    private ImmutableSortedMap<String, FileSystemSnapshot>[] beforeExecution;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        afterPreviousExecution = new ImmutableSortedMap[taskCount];
+        beforeExecution = new ImmutableSortedMap[taskCount];
+        CompleteFileSystemLocationSnapshot sharedRoot = snapshotOutputs(OUTPUT_ROOT, 0, taskCount);
+        for (int task = 0; task < taskCount; task++) {
+            CompleteFileSystemLocationSnapshot producedByTask;
+            CompleteFileSystemLocationSnapshot outputBeforeExecution;
+            if (sharedOutputDirectory) {
+                producedByTask = snapshotOutputs(OUTPUT_ROOT, task, task + 1);
+                outputBeforeExecution = sharedRoot;
+            } else {
+                producedByTask = snapshotOutputs(OUTPUT_ROOT + "/task" + task, task, task + 1);
+                outputBeforeExecution = producedByTask;
+            }
+            afterPreviousExecution[task] = ImmutableSortedMap.of("outputDir",
+                DefaultCurrentFileCollectionFingerprint.from(ImmutableList.of(producedByTask), AbsolutePathFingerprintingStrategy.IGNORE_MISSING));
+            beforeExecution[task] = ImmutableSortedMap.of("outputDir", outputBeforeExecution);
+        }
+    }
+
+    private CompleteFileSystemLocationSnapshot snapshotOutputs(String rootPath, int fromTask, int toTask) {
+        MerkleDirectorySnapshotBuilder builder = MerkleDirectorySnapshotBuilder.sortingRequired();
+        builder.preVisitDirectory(rootPath, rootPath.substring(rootPath.lastIndexOf('/') + 1));
+        for (int task = fromTask; task < toTask; task++) {
+            for (int file = 0; file < filesPerTask; file++) {
+                String name = "Task" + task + "Generated" + file + ".java";
+                builder.visitFile(new RegularFileSnapshot(rootPath + "/" + name, name, HashCode.fromInt(task * filesPerTask + file), DefaultFileMetadata.file(0, 0, AccessType.DIRECT)));
+            }
+        }
+        builder.postVisitDirectory(AccessType.DIRECT);
+        return builder.getResult();
+    }
+
+    @Benchmark
+    public void detectOverlaps(Blackhole blackhole) {
+        for (int task = 0; task < taskCount; task++) {
+            blackhole.consume(detector.detect(afterPreviousExecution[task], beforeExecution[task]));
+        }
+    }
+}
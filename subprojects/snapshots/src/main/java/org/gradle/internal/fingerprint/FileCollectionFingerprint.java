@@ -21,6 +21,7 @@
 import com.google.common.collect.ImmutableSortedMap;
 import org.gradle.internal.hash.HashCode;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 
 /**
@@ -38,6 +39,16 @@ public interface FileCollectionFingerprint {
      */
     ImmutableMultimap<String, HashCode> getRootHashes();
 
+    /**
+     * The combined hash of the fingerprints, or {@code null} if it is not known.
+     *
+     * Two fingerprints taken with the same strategy and having the same hash contain the same fingerprints.
+     */
+    @Nullable
+    default HashCode getHash() {
+        return null;
+    }
+
     /**
      * The absolute paths for the roots of this file collection fingerprint.
      */
@@ -31,6 +31,7 @@
 import org.gradle.internal.snapshot.FileSystemSnapshotVisitor;
 
 import java.util.Map;
+import java.util.function.Function;
 
 public class DefaultCurrentFileCollectionFingerprint implements CurrentFileCollectionFingerprint {
 
@@ -42,24 +43,39 @@ public class DefaultCurrentFileCollectionFingerprint implements CurrentFileColle
     private HashCode hash;
 
     public static CurrentFileCollectionFingerprint from(Iterable<? extends FileSystemSnapshot> roots, FingerprintingStrategy strategy) {
+        return from(roots, strategy, rootHashes -> strategy.collectFingerprints(roots));
+    }
+
+    /**
+     * Creates a fingerprint of the given roots, using the file fingerprints returned by {@code fingerprintsForRootHashes} for the hashes of the roots.
+     */
+    public static CurrentFileCollectionFingerprint from(
+        Iterable<? extends FileSystemSnapshot> roots,
+        FingerprintingStrategy strategy,
+        Function<ImmutableMultimap<String, HashCode>, Map<String, FileSystemLocationFingerprint>> fingerprintsForRootHashes
+    ) {
         if (Iterables.isEmpty(roots)) {
             return strategy.getEmptyFingerprint();
         }
-        Map<String, FileSystemLocationFingerprint> fingerprints = strategy.collectFingerprints(roots);
+        ImmutableMultimap<String, HashCode> rootHashes = collectRootHashes(roots);
+        Map<String, FileSystemLocationFingerprint> fingerprints = fingerprintsForRootHashes.apply(rootHashes);
         if (fingerprints.isEmpty()) {
             return strategy.getEmptyFingerprint();
         }
-        return new DefaultCurrentFileCollectionFingerprint(fingerprints, strategy.getHashingStrategy(), strategy.getIdentifier(), roots);
+        return new DefaultCurrentFileCollectionFingerprint(fingerprints, strategy.getHashingStrategy(), strategy.getIdentifier(), roots, rootHashes);
     }
 
-    private DefaultCurrentFileCollectionFingerprint(Map<String, FileSystemLocationFingerprint> fingerprints, FingerprintHashingStrategy hashingStrategy, String identifier, Iterable<? extends FileSystemSnapshot> roots) {
+    private DefaultCurrentFileCollectionFingerprint(Map<String, FileSystemLocationFingerprint> fingerprints, FingerprintHashingStrategy hashingStrategy, String identifier, Iterable<? extends FileSystemSnapshot> roots, ImmutableMultimap<String, HashCode> rootHashes) {
         this.fingerprints = fingerprints;
         this.hashingStrategy = hashingStrategy;
         this.identifier = identifier;
         this.roots = roots;
+        this.rootHashes = rootHashes;
+    }
 
+    private static ImmutableMultimap<String, HashCode> collectRootHashes(Iterable<? extends FileSystemSnapshot> roots) {
         final ImmutableMultimap.Builder<String, HashCode> builder = ImmutableMultimap.builder();
-        accept(new FileSystemSnapshotVisitor() {
+        FileSystemSnapshotVisitor rootHashesVisitor = new FileSystemSnapshotVisitor() {
             @Override
             public boolean preVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
                 builder.put(directorySnapshot.getAbsolutePath(), directorySnapshot.getHash());
@@ -74,8 +90,11 @@ public void visitFile(CompleteFileSystemLocationSnapshot fileSnapshot) {
             @Override
             public void postVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
             }
-        });
-        this.rootHashes = builder.build();
+        };
+        for (FileSystemSnapshot root : roots) {
+            root.accept(rootHashesVisitor);
+        }
+        return builder.build();
     }
 
     @Override
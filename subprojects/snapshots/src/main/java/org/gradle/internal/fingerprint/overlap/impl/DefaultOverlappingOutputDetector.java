@@ -16,6 +16,7 @@
 
 package org.gradle.internal.fingerprint.overlap.impl;
 
+import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSortedMap;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.fingerprint.FileCollectionFingerprint;
@@ -59,8 +60,7 @@ private static FileCollectionFingerprint getFingerprintAfterPreviousExecution(@N
 
     @Nullable
     private static OverlappingOutputs detect(String propertyName, FileCollectionFingerprint previous, FileSystemSnapshot before) {
-        Map<String, FileSystemLocationFingerprint> previousFingerprints = previous.getFingerprints();
-        OverlappingOutputsDetectingVisitor outputsDetectingVisitor = new OverlappingOutputsDetectingVisitor(previousFingerprints);
+        OverlappingOutputsDetectingVisitor outputsDetectingVisitor = new OverlappingOutputsDetectingVisitor(previous);
         before.accept(outputsDetectingVisitor);
         String overlappingPath = outputsDetectingVisitor.getOverlappingPath();
         return overlappingPath == null ? null : new OverlappingOutputs(propertyName, overlappingPath);
@@ -76,17 +76,29 @@ private static boolean createdSincePreviousExecution(@Nullable HashCode previous
         return previousContentHash == null;
     }
 
+    /**
+     * Detects the first file which has been created or changed since the previous execution.
+     *
+     * Roots with the same Merkle hash as after the previous execution are skipped without visiting their contents,
+     * so the previous fingerprints are only looked at for roots which actually changed.
+     */
     private static class OverlappingOutputsDetectingVisitor implements FileSystemSnapshotVisitor {
-        private final Map<String, FileSystemLocationFingerprint> previousFingerprints;
+        private final FileCollectionFingerprint previous;
+        private final ImmutableMultimap<String, HashCode> previousRootHashes;
+        private Map<String, FileSystemLocationFingerprint> previousFingerprints;
         private int treeDepth = 0;
         private String overlappingPath;
 
-        public OverlappingOutputsDetectingVisitor(Map<String, FileSystemLocationFingerprint> previousFingerprints) {
-            this.previousFingerprints = previousFingerprints;
+        public OverlappingOutputsDetectingVisitor(FileCollectionFingerprint previous) {
+            this.previous = previous;
+            this.previousRootHashes = previous.getRootHashes();
         }
 
         @Override
         public boolean preVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
+            if (isRoot() && unchangedSincePreviousExecution(directorySnapshot)) {
+                return false;
+            }
             treeDepth++;
             if (overlappingPath == null) {
                 overlappingPath = detectOverlappingPath(directorySnapshot);
@@ -96,6 +108,9 @@ public boolean preVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
 
         @Override
         public void visitFile(CompleteFileSystemLocationSnapshot fileSnapshot) {
+            if (isRoot() && unchangedSincePreviousExecution(fileSnapshot)) {
+                return;
+            }
             if (overlappingPath == null) {
                 overlappingPath = detectOverlappingPath(fileSnapshot);
             }
@@ -110,7 +125,7 @@ public void postVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
         private String detectOverlappingPath(CompleteFileSystemLocationSnapshot beforeSnapshot) {
             String path = beforeSnapshot.getAbsolutePath();
             HashCode contentHash = beforeSnapshot.getHash();
-            FileSystemLocationFingerprint previousFingerprint = previousFingerprints.get(path);
+            FileSystemLocationFingerprint previousFingerprint = getPreviousFingerprints().get(path);
             HashCode previousContentHash = previousFingerprint == null ? null : previousFingerprint.getNormalizedContentHash();
             // Missing files can be ignored
             if (!isRoot() || beforeSnapshot.getType() != FileType.Missing) {
@@ -124,6 +139,17 @@ private String detectOverlappingPath(CompleteFileSystemLocationSnapshot beforeSn
             return null;
         }
 
+        private boolean unchangedSincePreviousExecution(CompleteFileSystemLocationSnapshot rootSnapshot) {
+            return previousRootHashes.containsEntry(rootSnapshot.getAbsolutePath(), rootSnapshot.getHash());
+        }
+
+        private Map<String, FileSystemLocationFingerprint> getPreviousFingerprints() {
+            if (previousFingerprints == null) {
+                previousFingerprints = previous.getFingerprints();
+            }
+            return previousFingerprints;
+        }
+
         private boolean isRoot() {
             return treeDepth == 0;
         }
@@ -67,9 +67,16 @@ public DirectorySnapshotter(FileHasher hasher, Interner<String> stringInterner,
     }
 
     public CompleteFileSystemLocationSnapshot snapshot(String absolutePath, @Nullable SnapshottingFilter.DirectoryWalkerPredicate predicate, final AtomicBoolean hasBeenFiltered) {
+        return snapshot(absolutePath, predicate, hasBeenFiltered, null);
+    }
+
+    /**
+     * Snapshots the directory, reusing the snapshots of files which did not change since {@code reusableFileSnapshots} were taken.
+     */
+    public CompleteFileSystemLocationSnapshot snapshot(String absolutePath, @Nullable SnapshottingFilter.DirectoryWalkerPredicate predicate, final AtomicBoolean hasBeenFiltered, @Nullable ReusableFileSnapshots reusableFileSnapshots) {
         try {
             Path rootPath = Paths.get(absolutePath);
-            PathVisitor visitor = new PathVisitor(predicate, hasBeenFiltered, hasher, stringInterner, defaultExcludes);
+            PathVisitor visitor = new PathVisitor(predicate, hasBeenFiltered, hasher, stringInterner, defaultExcludes, reusableFileSnapshots);
             Files.walkFileTree(rootPath, DONT_FOLLOW_SYMLINKS, Integer.MAX_VALUE, visitor);
             return visitor.getResult();
         } catch (IOException e) {
@@ -177,6 +184,7 @@ private static class PathVisitor implements java.nio.file.FileVisitor<Path> {
         private final FileHasher hasher;
         private final Interner<String> stringInterner;
         private final DefaultExcludes defaultExcludes;
+        private final ReusableFileSnapshots reusableFileSnapshots;
         private final Deque<SymbolicLinkMapping> symbolicLinkMappings = new ArrayDeque<>();
         private final Deque<String> parentDirectories = new ArrayDeque<>();
 
@@ -185,7 +193,8 @@ public PathVisitor(
             AtomicBoolean hasBeenFiltered,
             FileHasher hasher,
             Interner<String> stringInterner,
-            DefaultExcludes defaultExcludes
+            DefaultExcludes defaultExcludes,
+            @Nullable ReusableFileSnapshots reusableFileSnapshots
         ) {
             this.builder = MerkleDirectorySnapshotBuilder.sortingRequired();
             this.predicate = predicate;
@@ -193,6 +202,7 @@ public PathVisitor(
             this.hasher = hasher;
             this.stringInterner = stringInterner;
             this.defaultExcludes = defaultExcludes;
+            this.reusableFileSnapshots = reusableFileSnapshots;
         }
 
         @Override
@@ -272,7 +282,14 @@ private BasicFileAttributes readAttributesOfSymlinkTarget(Path symlink, BasicFil
         }
 
         private CompleteFileSystemLocationSnapshot snapshotFile(Path absoluteFilePath, String internedName, BasicFileAttributes attrs, AccessType accessType) {
-            String internedAbsoluteFilePath = intern(remapAbsolutePath(absoluteFilePath));
+            String absoluteFilePathString = remapAbsolutePath(absoluteFilePath);
+            if (attrs.isRegularFile() && reusableFileSnapshots != null) {
+                RegularFileSnapshot reusableSnapshot = reusableFileSnapshots.findReusable(absoluteFilePathString, attrs.lastModifiedTime().toMillis(), attrs.size(), accessType);
+                if (reusableSnapshot != null) {
+                    return reusableSnapshot;
+                }
+            }
+            String internedAbsoluteFilePath = intern(absoluteFilePathString);
             if (attrs.isRegularFile()) {
                 try {
                     long lastModified = attrs.lastModifiedTime().toMillis();
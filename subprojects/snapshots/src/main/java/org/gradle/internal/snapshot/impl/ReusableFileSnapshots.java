@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.snapshot.impl;
+
+import org.gradle.internal.file.FileMetadata;
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.snapshot.CompleteDirectorySnapshot;
+import org.gradle.internal.snapshot.CompleteFileSystemLocationSnapshot;
+import org.gradle.internal.snapshot.FileSystemSnapshotVisitor;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The regular file snapshots of a location taken before the location was updated.
+ *
+ * When the location is snapshotted again, the snapshot of a file is reused instead of hashing the file
+ * if the file still has the same length and modification time, and was last modified well before the update started.
+ * The latter makes sure that a modification within the timestamp granularity of the file system is not missed.
+ */
+public class ReusableFileSnapshots {
+    private static final long TIMESTAMP_GRANULARITY_MILLIS = 2000;
+
+    private final CompleteFileSystemLocationSnapshot snapshotBeforeUpdate;
+    private final long updateStartTime;
+    private Map<String, RegularFileSnapshot> regularFiles;
+
+    public ReusableFileSnapshots(CompleteFileSystemLocationSnapshot snapshotBeforeUpdate, long updateStartTime) {
+        this.snapshotBeforeUpdate = snapshotBeforeUpdate;
+        this.updateStartTime = updateStartTime;
+    }
+
+    @Nullable
+    public RegularFileSnapshot findReusable(String absolutePath, long lastModified, long length, AccessType accessType) {
+        if (lastModified > updateStartTime - TIMESTAMP_GRANULARITY_MILLIS) {
+            return null;
+        }
+        RegularFileSnapshot previous = getRegularFiles().get(absolutePath);
+        if (previous == null) {
+            return null;
+        }
+        FileMetadata metadata = previous.getMetadata();
+        if (metadata.getLastModified() != lastModified || metadata.getLength() != length || metadata.getAccessType() != accessType) {
+            return null;
+        }
+        return previous;
+    }
+
+    private Map<String, RegularFileSnapshot> getRegularFiles() {
+        if (regularFiles == null) {
+            Map<String, RegularFileSnapshot> files = new HashMap<>();
+            snapshotBeforeUpdate.accept(new FileSystemSnapshotVisitor() {
+                @Override
+                public boolean preVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
+                    return true;
+                }
+
+                @Override
+                public void visitFile(CompleteFileSystemLocationSnapshot fileSnapshot) {
+                    if (fileSnapshot instanceof RegularFileSnapshot) {
+                        files.put(fileSnapshot.getAbsolutePath(), (RegularFileSnapshot) fileSnapshot);
+                    }
+                }
+
+                @Override
+                public void postVisitDirectory(CompleteDirectorySnapshot directorySnapshot) {
+                }
+            });
+            regularFiles = files;
+        }
+        return regularFiles;
+    }
+}
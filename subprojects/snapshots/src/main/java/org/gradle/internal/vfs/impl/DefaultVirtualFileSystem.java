@@ -16,6 +16,8 @@
 
 package org.gradle.internal.vfs.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Interner;
 import com.google.common.util.concurrent.Striped;
 import org.gradle.internal.file.FileMetadata;
@@ -26,6 +28,7 @@
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.AtomicSnapshotHierarchyReference;
 import org.gradle.internal.snapshot.CaseSensitivity;
+import org.gradle.internal.snapshot.CompleteDirectorySnapshot;
 import org.gradle.internal.snapshot.CompleteFileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemSnapshot;
 import org.gradle.internal.snapshot.MissingFileSnapshot;
@@ -34,6 +37,7 @@
 import org.gradle.internal.snapshot.SnapshottingFilter;
 import org.gradle.internal.snapshot.impl.DirectorySnapshotter;
 import org.gradle.internal.snapshot.impl.FileSystemSnapshotFilter;
+import org.gradle.internal.snapshot.impl.ReusableFileSnapshots;
 
 import java.io.File;
 import java.util.Optional;
@@ -50,6 +54,14 @@ public class DefaultVirtualFileSystem extends AbstractVirtualFileSystem {
     private final DirectorySnapshotter directorySnapshotter;
     private final FileHasher hasher;
     private final StripedProducerGuard<String> producingSnapshots = new StripedProducerGuard<>();
+    /**
+     * Snapshots of directories which have been invalidated by {@link #update(Iterable, Runnable)}, e.g. the outputs of a task before it executes.
+     * They are used to avoid re-hashing the unchanged files when the directories are snapshotted the next time, and are dropped at that point.
+     */
+    private final Cache<String, ReusableFileSnapshots> reusableSnapshotsOfUpdatedDirectories = CacheBuilder.newBuilder()
+        .maximumSize(1000)
+        .softValues()
+        .build();
 
     public DefaultVirtualFileSystem(FileHasher hasher, Interner<String> stringInterner, Stat stat, CaseSensitivity caseSensitivity, SnapshotHierarchy.DiffCapturingUpdateFunctionDecorator updateFunctionDecorator, String... defaultExcludes) {
         this.stat = stat;
@@ -143,7 +155,8 @@ private CompleteFileSystemLocationSnapshot snapshot(String location) {
                 updateRoot((root, changeListener) -> root.store(missingFileSnapshot.getAbsolutePath(), missingFileSnapshot, changeListener));
                 return missingFileSnapshot;
             case Directory:
-                CompleteFileSystemLocationSnapshot directorySnapshot = directorySnapshotter.snapshot(location, null, new AtomicBoolean(false));
+                ReusableFileSnapshots reusableFileSnapshots = reusableSnapshotsOfUpdatedDirectories.asMap().remove(location);
+                CompleteFileSystemLocationSnapshot directorySnapshot = directorySnapshotter.snapshot(location, null, new AtomicBoolean(false), reusableFileSnapshots);
                 updateRoot((root, changeListener) -> root.store(directorySnapshot.getAbsolutePath(), directorySnapshot, changeListener));
                 return directorySnapshot;
             default:
@@ -169,6 +182,17 @@ private CompleteFileSystemLocationSnapshot readLocation(String location) {
 
     @Override
     public void update(Iterable<String> locations, Runnable action) {
+        long updateStartTime = System.currentTimeMillis();
+        SnapshotHierarchy rootBeforeUpdate = root.get();
+        for (String location : locations) {
+            Optional<CompleteFileSystemLocationSnapshot> snapshotBeforeUpdate = rootBeforeUpdate.getSnapshot(location)
+                .filter(CompleteDirectorySnapshot.class::isInstance);
+            if (snapshotBeforeUpdate.isPresent()) {
+                reusableSnapshotsOfUpdatedDirectories.put(location, new ReusableFileSnapshots(snapshotBeforeUpdate.get(), updateStartTime));
+            } else {
+                reusableSnapshotsOfUpdatedDirectories.invalidate(location);
+            }
+        }
         root.update(root -> {
             SnapshotHierarchy result = root;
             for (String location : locations) {
@@ -181,6 +205,7 @@ public void update(Iterable<String> locations, Runnable action) {
 
     @Override
     public void invalidateAll() {
+        reusableSnapshotsOfUpdatedDirectories.invalidateAll();
         updateRoot((root, changeListener) -> {
             // TODO: Close/restart watching here.
             root.visitSnapshotRoots(changeListener::nodeRemoved);
@@ -16,6 +16,7 @@
 
 package org.gradle.internal.fingerprint.overlap.impl
 
+import com.google.common.collect.ImmutableMultimap
 import com.google.common.collect.ImmutableSortedMap
 import org.gradle.internal.file.FileMetadata.AccessType
 import org.gradle.internal.file.impl.DefaultFileMetadata
@@ -56,4 +57,43 @@ class DefaultOverlappingOutputDetectorTest extends Specification {
         overlaps.propertyName == "output"
         overlaps.overlappedFilePath == "/absolute/path"
     }
+
+    def "does not compare contents of output roots which did not change since the previous execution"() {
+        def outputFile = new RegularFileSnapshot("/absolute/path", "path", HashCode.fromInt(1234), DefaultFileMetadata.file(0, 0, AccessType.DIRECT))
+        def afterPreviousExecution = Mock(FileCollectionFingerprint)
+        def outputFilesAfterPreviousExecution = ImmutableSortedMap.<String, FileCollectionFingerprint>of(
+            "output", afterPreviousExecution
+        )
+        def outputFilesBeforeExecution = ImmutableSortedMap.<String, FileSystemSnapshot>of(
+            "output", outputFile
+        )
+
+        when:
+        def overlaps = detector.detect(outputFilesAfterPreviousExecution, outputFilesBeforeExecution)
+
+        then:
+        overlaps == null
+        1 * afterPreviousExecution.rootHashes >> ImmutableMultimap.of("/absolute/path", HashCode.fromInt(1234))
+        0 * afterPreviousExecution.fingerprints
+    }
+
+    def "compares contents of output roots which changed since the previous execution"() {
+        def outputFile = new RegularFileSnapshot("/absolute/path", "path", HashCode.fromInt(1234), DefaultFileMetadata.file(0, 0, AccessType.DIRECT))
+        def afterPreviousExecution = Mock(FileCollectionFingerprint)
+        def outputFilesAfterPreviousExecution = ImmutableSortedMap.<String, FileCollectionFingerprint>of(
+            "output", afterPreviousExecution
+        )
+        def outputFilesBeforeExecution = ImmutableSortedMap.<String, FileSystemSnapshot>of(
+            "output", outputFile
+        )
+
+        when:
+        def overlaps = detector.detect(outputFilesAfterPreviousExecution, outputFilesBeforeExecution)
+
+        then:
+        overlaps.propertyName == "output"
+        overlaps.overlappedFilePath == "/absolute/path"
+        1 * afterPreviousExecution.rootHashes >> ImmutableMultimap.of("/absolute/path", HashCode.fromInt(5678))
+        1 * afterPreviousExecution.fingerprints >> [:]
+    }
 }
@@ -158,6 +158,35 @@ class DirectorySnapshotterTest extends Specification {
         ] as Set
     }
 
+    def "reuses snapshots of files which did not change since the previous snapshot"() {
+        given:
+        def rootDir = tmpDir.createDir("root")
+        def unchangedFile = rootDir.file("unchanged.txt").createFile()
+        def changedFile = rootDir.file("changed.txt").createFile()
+        def recentlyModifiedFile = rootDir.file("recent.txt").createFile()
+        def longAgo = System.currentTimeMillis() - 60_000
+        [unchangedFile, changedFile].each { assert it.setLastModified(longAgo) }
+        def previousSnapshot = directorySnapshotter.snapshot(rootDir.absolutePath, null, new AtomicBoolean(false))
+        def previousChildren = childrenByName(previousSnapshot)
+
+        when:
+        changedFile.text = "changed"
+        assert changedFile.setLastModified(longAgo - 10_000)
+        def snapshot = directorySnapshotter.snapshot(rootDir.absolutePath, null, new AtomicBoolean(false), new ReusableFileSnapshots(previousSnapshot, System.currentTimeMillis()))
+        def children = childrenByName(snapshot)
+
+        then:
+        children["unchanged.txt"].is(previousChildren["unchanged.txt"])
+        !children["changed.txt"].is(previousChildren["changed.txt"])
+        children["changed.txt"].hash != previousChildren["changed.txt"].hash
+        !children["recent.txt"].is(previousChildren["recent.txt"])
+        children["recent.txt"].hash == previousChildren["recent.txt"].hash
+    }
+
+    private static Map<String, CompleteFileSystemLocationSnapshot> childrenByName(CompleteFileSystemLocationSnapshot snapshot) {
+        ((CompleteDirectorySnapshot) snapshot).children.collectEntries { [it.name, it] }
+    }
+
     @Requires(TestPrecondition.SYMLINKS)
     def "broken symlinks are snapshotted as missing"() {
         def rootDir = tmpDir.createDir("root")
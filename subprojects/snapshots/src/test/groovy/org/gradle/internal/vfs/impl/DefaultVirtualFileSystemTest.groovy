@@ -146,6 +146,74 @@ class DefaultVirtualFileSystemTest extends AbstractVirtualFileSystemTest {
         assertIsFileSnapshot(snapshot, someFile)
     }
 
+    def "reuses snapshots of unchanged files when re-reading an updated directory"() {
+        def outputDir = temporaryFolder.createDir("output")
+        def unchangedFile = outputDir.file("unchanged.txt").createFile()
+        def changedFile = outputDir.file("changed.txt").createFile()
+        def longAgo = System.currentTimeMillis() - 60_000
+        [unchangedFile, changedFile].each { assert it.setLastModified(longAgo) }
+
+        when:
+        allowFileSystemAccess(true)
+        def snapshotBeforeUpdate = childrenByName(readFromVfs(outputDir))
+        vfs.update([outputDir.absolutePath]) {
+            changedFile.text = "changed"
+            outputDir.file("added.txt").text = "added"
+        }
+        def snapshotAfterUpdate = childrenByName(readFromVfs(outputDir))
+
+        then:
+        snapshotAfterUpdate["unchanged.txt"].is(snapshotBeforeUpdate["unchanged.txt"])
+        !snapshotAfterUpdate["changed.txt"].is(snapshotBeforeUpdate["changed.txt"])
+        assertIsFileSnapshot(snapshotAfterUpdate["changed.txt"], changedFile)
+        assertIsFileSnapshot(snapshotAfterUpdate["added.txt"], outputDir.file("added.txt"))
+    }
+
+    def "does not hash unchanged files when re-reading an updated directory"() {
+        def outputDir = temporaryFolder.createDir("output")
+        def unchangedFile = outputDir.file("unchanged.txt").createFile()
+        assert unchangedFile.setLastModified(System.currentTimeMillis() - 60_000)
+
+        when:
+        allowFileSystemAccess(true)
+        readFromVfs(outputDir)
+        vfs.update([outputDir.absolutePath]) {}
+        fileHasher.allowHashing(false)
+        def snapshot = readFromVfs(outputDir)
+
+        then:
+        assertIsDirectorySnapshot(snapshot, outputDir)
+        assertIsFileSnapshot(childrenByName(snapshot)["unchanged.txt"], unchangedFile)
+    }
+
+    def "hashes files again after the snapshots of an updated directory have been used or dropped"() {
+        def outputDir = temporaryFolder.createDir("output")
+        def unchangedFile = outputDir.file("unchanged.txt").createFile()
+        assert unchangedFile.setLastModified(System.currentTimeMillis() - 60_000)
+
+        when:
+        allowFileSystemAccess(true)
+        def snapshotBeforeUpdate = childrenByName(readFromVfs(outputDir))
+        vfs.update([outputDir.absolutePath]) {}
+        vfs.invalidateAll()
+        def snapshotAfterInvalidation = childrenByName(readFromVfs(outputDir))
+
+        then:
+        !snapshotAfterInvalidation["unchanged.txt"].is(snapshotBeforeUpdate["unchanged.txt"])
+        assertIsFileSnapshot(snapshotAfterInvalidation["unchanged.txt"], unchangedFile)
+
+        when:
+        vfs.update([outputDir.absolutePath]) {}
+        def snapshotAfterUpdate = childrenByName(readFromVfs(outputDir))
+        vfs.update([outputDir.absolutePath]) {}
+        vfs.update([outputDir.absolutePath]) {}
+        def snapshotAfterRepeatedUpdate = childrenByName(readFromVfs(outputDir))
+
+        then:
+        snapshotAfterUpdate["unchanged.txt"].is(snapshotAfterInvalidation["unchanged.txt"])
+        !snapshotAfterRepeatedUpdate["unchanged.txt"].is(snapshotAfterUpdate["unchanged.txt"])
+    }
+
     def "can invalidate non-existing file in known directory"() {
         def dir = temporaryFolder.createDir("some/dir")
         def existingFileInDir = dir.file("someFile.txt").createFile()
@@ -253,4 +321,8 @@ class DefaultVirtualFileSystemTest extends AbstractVirtualFileSystemTest {
         then: "The filtered tree uses the cached state"
         relativePaths == ["d1", "d1/f1", "f1"] as Set
     }
+
+    private static Map<String, CompleteFileSystemLocationSnapshot> childrenByName(CompleteFileSystemLocationSnapshot snapshot) {
+        ((CompleteDirectorySnapshot) snapshot).children.collectEntries { [it.name, it] }
+    }
 }
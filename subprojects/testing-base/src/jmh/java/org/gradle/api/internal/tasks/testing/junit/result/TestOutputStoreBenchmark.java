@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.junit.result;
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.util.GFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+
+/**
+ * Reads the output of a synthetic test run as the HTML and JUnit XML reports do, one test class or test after the other.
+ * The output of the test classes is interleaved as if they were run by the given number of test workers.
+ * Run with {@code -prof gc} to compare the allocation rate.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class TestOutputStoreBenchmark {
+
+    @Param({"1000"})
+    int classCount;
+
+    @Param({"60"})
+    int testsPerClass;
+
+    @Param({"20"})
+    int linesPerTest;
+
+    @Param({"1", "8"})
+    int workers;
+
+    private File resultsDir;
+    private TestOutputStore store;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        resultsDir = Files.createTempDirectory("test-output-store").toFile();
+        store = new TestOutputStore(resultsDir);
+        TestOutputStore.Writer writer = store.writer();
+        for (long firstClassId = 1; firstClassId <= classCount; firstClassId += workers) {
+            long lastClassId = Math.min(firstClassId + workers - 1, classCount);
+            for (long testId = 1; testId <= testsPerClass; testId++) {
+                for (int line = 0; line < linesPerTest; line++) {
+                    for (long classId = firstClassId; classId <= lastClassId; classId++) {
+                        TestOutputEvent.Destination destination = line % 5 == 0 ? TestOutputEvent.Destination.StdErr : TestOutputEvent.Destination.StdOut;
+                        writer.onOutput(classId, testId, new DefaultTestOutputEvent(destination, "Line " + line + " of test " + testId + " in class " + classId + ": some captured output\n"));
+                    }
+                }
+            }
+        }
+        writer.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GFileUtils.deleteQuietly(resultsDir);
+    }
+
+    @Benchmark
+    public void readAllOutput(Blackhole blackhole) throws IOException {
+        readAll(blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void readAllOutputConcurrently(Blackhole blackhole) throws IOException {
+        readAll(blackhole);
+    }
+
+    @Benchmark
+    public void readOutputOfEachTest(Blackhole blackhole) throws IOException {
+        ConsumingWriter output = new ConsumingWriter(blackhole);
+        TestOutputStore.Reader reader = store.reader();
+        try {
+            for (long classId = 1; classId <= classCount; classId++) {
+                for (long testId = 1; testId <= testsPerClass; testId++) {
+                    reader.writeTestOutput(classId, testId, TestOutputEvent.Destination.StdOut, output);
+                    reader.writeTestOutput(classId, testId, TestOutputEvent.Destination.StdErr, output);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void readAll(Blackhole blackhole) throws IOException {
+        ConsumingWriter output = new ConsumingWriter(blackhole);
+        TestOutputStore.Reader reader = store.reader();
+        try {
+            for (long classId = 1; classId <= classCount; classId++) {
+                reader.writeAllOutput(classId, TestOutputEvent.Destination.StdOut, output);
+                reader.writeAllOutput(classId, TestOutputEvent.Destination.StdErr, output);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static class ConsumingWriter extends Writer {
+        private final Blackhole blackhole;
+
+        ConsumingWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            blackhole.consume(chars);
+            blackhole.consume(length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.DefaultTestMethodDescriptor;
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent;
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.id.CompositeIdGenerator;
+import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.SerializerRegistry;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends the events of a chatty synthetic test suite from a test worker to the build process, either one message per event
+ * or in batches of up to {@link BatchingTestResultProcessor#MAX_EVENTS} events.
+ * Each message is flushed to the connection and read back on its own, as the messaging layer does. See {@link TestEventDispatchBenchmark} for
+ * sending the events through an actual connection.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class TestEventBatchBenchmark {
+
+    @Param({"100"})
+    int testCount;
+
+    @Param({"1", "200"})
+    int linesPerTest;
+
+    private Serializer<Object> serializer;
+    private Serializer<TestEventBatch> batchSerializer;
+    private TestEventBatch events;
+    private List<TestEventBatch> batches;
+    private byte[] singleMessages;
+    private byte[] batchMessages;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        SerializerRegistry registry = TestEventSerializer.create();
+        serializer = registry.build(Object.class);
+        batchSerializer = registry.build(TestEventBatch.class);
+        events = chattySuite(testCount, linesPerTest);
+        batches = new ArrayList<TestEventBatch>();
+        TestEventBatch batch = new TestEventBatch();
+        for (int i = 0; i < events.size(); i++) {
+            if (batch.size() == BatchingTestResultProcessor.MAX_EVENTS) {
+                batches.add(batch);
+                batch = new TestEventBatch();
+            }
+            batch.add(events.getKind(i), events.getFirstArgument(i), events.getSecondArgument(i));
+        }
+        batches.add(batch);
+        singleMessages = writeSingleEvents();
+        batchMessages = writeBatches();
+    }
+
+    /**
+     * Creates the events of a test class whose tests each write the given number of lines to standard output.
+     */
+    static TestEventBatch chattySuite(int testCount, int linesPerTest) {
+        TestEventBatch events = new TestEventBatch();
+        CompositeIdGenerator.CompositeId classId = new CompositeIdGenerator.CompositeId(1L, 1L);
+        for (long test = 1; test <= testCount; test++) {
+            CompositeIdGenerator.CompositeId testId = new CompositeIdGenerator.CompositeId(1L, test + 1);
+            events.add(TestEventBatch.STARTED, new DefaultTestMethodDescriptor(testId, "org.gradle.SomeTest", "test" + test), new TestStartEvent(test, classId));
+            for (int line = 0; line < linesPerTest; line++) {
+                events.add(TestEventBatch.OUTPUT, testId, new DefaultTestOutputEvent(TestOutputEvent.Destination.StdOut, "Line " + line + " of test " + test + ": some captured output\n"));
+            }
+            events.add(TestEventBatch.COMPLETED, testId, new TestCompleteEvent(test + 1));
+        }
+        return events;
+    }
+
+    @Benchmark
+    public byte[] writeSingleEvents() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        for (int i = 0; i < events.size(); i++) {
+            encoder.writeByte(events.getKind(i));
+            serializer.write(encoder, events.getFirstArgument(i));
+            serializer.write(encoder, events.getSecondArgument(i));
+            encoder.flush();
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBatches() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        for (TestEventBatch batch : batches) {
+            batchSerializer.write(encoder, batch);
+            encoder.flush();
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public void readSingleEvents(Blackhole blackhole) throws Exception {
+        KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(singleMessages));
+        for (int i = 0; i < events.size(); i++) {
+            blackhole.consume(decoder.readByte());
+            blackhole.consume(serializer.read(decoder));
+            blackhole.consume(serializer.read(decoder));
+        }
+    }
+
+    @Benchmark
+    public void readBatches(Blackhole blackhole) throws Exception {
+        KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(batchMessages));
+        for (int i = 0; i < batches.size(); i++) {
+            blackhole.consume(batchSerializer.read(decoder));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.id.UUIDGenerator;
+import org.gradle.internal.remote.ConnectionAcceptor;
+import org.gradle.internal.remote.ObjectConnection;
+import org.gradle.internal.remote.internal.hub.MessageHubBackedClient;
+import org.gradle.internal.remote.internal.hub.MessageHubBackedServer;
+import org.gradle.internal.remote.internal.inet.InetAddressFactory;
+import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
+import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Sends the events of a chatty synthetic test suite over a loopback message hub connection, as a test worker does, and waits until the
+ * build process side has dispatched all of them to its result processor. Events are either sent one message per event or through a
+ * {@link BatchingTestResultProcessor}.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class TestEventDispatchBenchmark {
+
+    @Param({"100"})
+    int testCount;
+
+    @Param({"1", "200"})
+    int linesPerTest;
+
+    private final CountingResultProcessor receiver = new CountingResultProcessor();
+    private DefaultExecutorFactory executorFactory;
+    private ConnectionAcceptor acceptor;
+    private ObjectConnection serverConnection;
+    private ObjectConnection clientConnection;
+    private TestEventBatch events;
+    private TestResultProcessor singleEventSender;
+    private BatchingTestResultProcessor batchingSender;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        events = TestEventBatchBenchmark.chattySuite(testCount, linesPerTest);
+        executorFactory = new DefaultExecutorFactory();
+
+        final BlockingQueue<ObjectConnection> accepted = new ArrayBlockingQueue<ObjectConnection>(1);
+        MessageHubBackedServer server = new MessageHubBackedServer(new TcpIncomingConnector(executorFactory, new InetAddressFactory(), new UUIDGenerator()), executorFactory);
+        acceptor = server.accept(new Action<ObjectConnection>() {
+            @Override
+            public void execute(ObjectConnection connection) {
+                // Set up like the build process side of a test worker connection
+                connection.useParameterSerializers(TestEventSerializer.create());
+                connection.addIncoming(TestResultProcessor.class, receiver);
+                connection.addIncoming(RemoteTestEventProcessor.class, new RemoteTestEventProcessor() {
+                    @Override
+                    public void process(TestEventBatch batch) {
+                        batch.dispatchTo(receiver);
+                    }
+                });
+                connection.connect();
+                accepted.add(connection);
+            }
+        });
+
+        MessageHubBackedClient client = new MessageHubBackedClient(new TcpOutgoingConnector(), executorFactory);
+        clientConnection = client.getConnection(acceptor.getAddress());
+        clientConnection.useParameterSerializers(TestEventSerializer.create());
+        singleEventSender = clientConnection.addOutgoing(TestResultProcessor.class);
+        RemoteTestEventProcessor batchTarget = clientConnection.addOutgoing(RemoteTestEventProcessor.class);
+        clientConnection.connect();
+        serverConnection = accepted.take();
+        batchingSender = new BatchingTestResultProcessor(batchTarget, executorFactory.createScheduled("Test event batching", 1), 50);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batchingSender.stop();
+        CompositeStoppable.stoppable(clientConnection, serverConnection, acceptor, executorFactory).stop();
+    }
+
+    @Benchmark
+    public void dispatchSingleEvents() throws InterruptedException {
+        CountDownLatch received = receiver.expect(events.size());
+        events.dispatchTo(singleEventSender);
+        received.await();
+    }
+
+    @Benchmark
+    public void dispatchBatches() throws InterruptedException {
+        CountDownLatch received = receiver.expect(events.size());
+        events.dispatchTo(batchingSender);
+        batchingSender.flush();
+        received.await();
+    }
+
+    private static class CountingResultProcessor implements TestResultProcessor {
+        private volatile CountDownLatch received = new CountDownLatch(0);
+
+        CountDownLatch expect(int count) {
+            received = new CountDownLatch(count);
+            return received;
+        }
+
+        @Override
+        public void started(TestDescriptorInternal test, TestStartEvent event) {
+            received.countDown();
+        }
+
+        @Override
+        public void completed(Object testId, TestCompleteEvent event) {
+            received.countDown();
+        }
+
+        @Override
+        public void output(Object testId, TestOutputEvent event) {
+            received.countDown();
+        }
+
+        @Override
+        public void failure(Object testId, Throwable result) {
+            received.countDown();
+        }
+    }
+}
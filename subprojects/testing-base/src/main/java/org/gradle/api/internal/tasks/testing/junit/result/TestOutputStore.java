@@ -16,9 +16,9 @@
 
 package org.gradle.api.internal.tasks.testing.junit.result;
 
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
-import com.google.common.collect.ImmutableMap;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.tasks.testing.TestOutputEvent;
 import org.gradle.internal.io.RandomAccessFileInputStream;
@@ -27,14 +27,34 @@
 import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Stores the output of tests in a data file, with an index of the regions of the file that contain the output of each test class and test.
+ *
+ * Each region is a run of consecutive messages of the same test class or test to the same destination, so the output of a test class or test
+ * can be read without reading the output of other tests written in between, for example by another test worker.
+ *
+ * The index is read once and shared by all readers of the store. Readers decode messages in chunks straight into the target writer,
+ * so the output of a test never needs to be held in memory as a whole.
+ */
 public class TestOutputStore {
+    private static final int INDEX_VERSION = 2;
+    private static final int MESSAGE_CHUNK_SIZE = 8192;
+    private static final int MAX_REGION_BUFFER_SIZE = 4096;
 
     private final File resultsDir;
     private final Charset messageStorageCharset;
+    private Map<Long, ClassOutputs> loadedIndex;
 
     public TestOutputStore(File resultsDir) {
         this.resultsDir = resultsDir;
@@ -49,30 +69,110 @@ File getIndexFile() {
         return new File(resultsDir, getOutputsFile().getName() + ".idx");
     }
 
-    private static class Region {
-        long start;
-        long stop;
+    /**
+     * The regions of the data file that contain the output of a test class or test to one destination, in the order they were written.
+     */
+    private static class Regions {
+        private static final long[] NO_POSITIONS = new long[0];
+
+        private long[] starts;
+        private long[] stops;
+        private int count;
 
-        private Region() {
-            start = -1;
-            stop = -1;
+        Regions() {
+            starts = NO_POSITIONS;
+            stops = NO_POSITIONS;
         }
 
-        private Region(long start, long stop) {
-            this.start = start;
-            this.stop = stop;
+        private Regions(long[] starts, long[] stops) {
+            this.starts = starts;
+            this.stops = stops;
+            this.count = starts.length;
+        }
+
+        void add(long start, long stop) {
+            if (count > 0 && stops[count - 1] == start) {
+                stops[count - 1] = stop;
+                return;
+            }
+            if (count == starts.length) {
+                int capacity = Math.max(2, count * 2);
+                starts = Arrays.copyOf(starts, capacity);
+                stops = Arrays.copyOf(stops, capacity);
+            }
+            starts[count] = start;
+            stops[count] = stop;
+            count++;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        void write(Output output) {
+            output.writeInt(count, true);
+            long previousStop = 0;
+            for (int i = 0; i < count; i++) {
+                output.writeLong(starts[i] - previousStop, true);
+                output.writeLong(stops[i] - starts[i], true);
+                previousStop = stops[i];
+            }
+        }
+
+        static Regions read(Input input) {
+            int count = input.readInt(true);
+            long[] starts = new long[count];
+            long[] stops = new long[count];
+            long previousStop = 0;
+            for (int i = 0; i < count; i++) {
+                starts[i] = previousStop + input.readLong(true);
+                stops[i] = starts[i] + input.readLong(true);
+                previousStop = stops[i];
+            }
+            return new Regions(starts, stops);
         }
     }
 
-    private static class TestCaseRegion {
-        Region stdOutRegion = new Region();
-        Region stdErrRegion = new Region();
+    private static class Outputs {
+        final Regions stdOut;
+        final Regions stdErr;
+
+        Outputs() {
+            this(new Regions(), new Regions());
+        }
+
+        Outputs(Regions stdOut, Regions stdErr) {
+            this.stdOut = stdOut;
+            this.stdErr = stdErr;
+        }
+
+        Regions get(boolean stdout) {
+            return stdout ? stdOut : stdErr;
+        }
+
+        void write(Output output) {
+            stdOut.write(output);
+            stdErr.write(output);
+        }
+    }
+
+    private static class ClassOutputs extends Outputs {
+        final Map<Long, Outputs> tests;
+
+        ClassOutputs() {
+            this.tests = new LinkedHashMap<Long, Outputs>();
+        }
+
+        ClassOutputs(Regions stdOut, Regions stdErr, Map<Long, Outputs> tests) {
+            super(stdOut, stdErr);
+            this.tests = tests;
+        }
     }
 
     public class Writer implements Closeable {
         private final KryoBackedEncoder output;
 
-        private final Map<Long, Map<Long, TestCaseRegion>> index = new LinkedHashMap<Long, Map<Long, TestCaseRegion>>();
+        private final Map<Long, ClassOutputs> index = new LinkedHashMap<Long, ClassOutputs>();
 
         public Writer() {
             try {
@@ -86,6 +186,7 @@ public Writer() {
         public void close() {
             output.close();
             writeIndex();
+            discardIndex();
         }
 
         public void onOutput(long classId, TestOutputEvent outputEvent) {
@@ -94,7 +195,7 @@ public void onOutput(long classId, TestOutputEvent outputEvent) {
 
         public void onOutput(long classId, long testId, TestOutputEvent outputEvent) {
             boolean stdout = outputEvent.getDestination() == TestOutputEvent.Destination.StdOut;
-            mark(classId, testId, stdout);
+            long start = output.getWritePosition();
 
             output.writeBoolean(stdout);
             output.writeSmallLong(classId);
@@ -108,28 +209,24 @@ public void onOutput(long classId, long testId, TestOutputEvent outputEvent) {
             }
             output.writeSmallInt(bytes.length);
             output.writeBytes(bytes, 0, bytes.length);
-        }
 
-        private void mark(long classId, long testId, boolean isStdout) {
-            if (!index.containsKey(classId)) {
-                index.put(classId, new LinkedHashMap<Long, TestCaseRegion>());
-            }
+            mark(classId, testId, stdout, start, output.getWritePosition());
+        }
 
-            Map<Long, TestCaseRegion> testCaseRegions = index.get(classId);
-            if (!testCaseRegions.containsKey(testId)) {
-                TestCaseRegion region = new TestCaseRegion();
-                testCaseRegions.put(testId, region);
+        private void mark(long classId, long testId, boolean isStdout, long start, long stop) {
+            ClassOutputs classOutputs = index.get(classId);
+            if (classOutputs == null) {
+                classOutputs = new ClassOutputs();
+                index.put(classId, classOutputs);
             }
+            classOutputs.get(isStdout).add(start, stop);
 
-            TestCaseRegion region = testCaseRegions.get(testId);
-
-            Region streamRegion = isStdout ? region.stdOutRegion : region.stdErrRegion;
-
-            long total = output.getWritePosition();
-            if (streamRegion.start < 0) {
-                streamRegion.start = total;
+            Outputs testOutputs = classOutputs.tests.get(testId);
+            if (testOutputs == null) {
+                testOutputs = new Outputs();
+                classOutputs.tests.put(testId, testOutputs);
             }
-            streamRegion.stop = total;
+            testOutputs.get(isStdout).add(start, stop);
         }
 
         private void writeIndex() {
@@ -140,25 +237,19 @@ private void writeIndex() {
                 throw new UncheckedIOException(e);
             }
 
-
             try {
+                indexOutput.writeInt(INDEX_VERSION);
                 indexOutput.writeInt(index.size(), true);
 
-                for (Map.Entry<Long, Map<Long, TestCaseRegion>> classEntry : index.entrySet()) {
-                    Long classId = classEntry.getKey();
-                    Map<Long, TestCaseRegion> regions = classEntry.getValue();
-
-                    indexOutput.writeLong(classId, true);
-                    indexOutput.writeInt(regions.size(), true);
-
-                    for (Map.Entry<Long, TestCaseRegion> testCaseEntry : regions.entrySet()) {
-                        long id = testCaseEntry.getKey();
-                        TestCaseRegion region = testCaseEntry.getValue();
-                        indexOutput.writeLong(id, true);
-                        indexOutput.writeLong(region.stdOutRegion.start);
-                        indexOutput.writeLong(region.stdOutRegion.stop);
-                        indexOutput.writeLong(region.stdErrRegion.start);
-                        indexOutput.writeLong(region.stdErrRegion.stop);
+                for (Map.Entry<Long, ClassOutputs> classEntry : index.entrySet()) {
+                    ClassOutputs classOutputs = classEntry.getValue();
+                    indexOutput.writeLong(classEntry.getKey(), true);
+                    classOutputs.write(indexOutput);
+
+                    indexOutput.writeInt(classOutputs.tests.size(), true);
+                    for (Map.Entry<Long, Outputs> testEntry : classOutputs.tests.entrySet()) {
+                        indexOutput.writeLong(testEntry.getKey(), true);
+                        testEntry.getValue().write(indexOutput);
                     }
                 }
             } finally {
@@ -168,99 +259,86 @@ private void writeIndex() {
     }
 
     public Writer writer() {
+        discardIndex();
         return new Writer();
     }
 
-    private static class Index {
-        final ImmutableMap<Long, Index> children;
-        final Region stdOut;
-        final Region stdErr;
-
-        private Index(Region stdOut, Region stdErr) {
-            this.children = ImmutableMap.of();
-            this.stdOut = stdOut;
-            this.stdErr = stdErr;
-        }
+    private synchronized void discardIndex() {
+        loadedIndex = null;
+    }
 
-        private Index(ImmutableMap<Long, Index> children, Region stdOut, Region stdErr) {
-            this.children = children;
-            this.stdOut = stdOut;
-            this.stdErr = stdErr;
+    private synchronized Map<Long, ClassOutputs> loadIndex() {
+        if (loadedIndex == null) {
+            loadedIndex = readIndex();
         }
+        return loadedIndex;
     }
 
-    private static class IndexBuilder {
-        final Region stdOut = new Region();
-        final Region stdErr = new Region();
+    private Map<Long, ClassOutputs> readIndex() {
+        File indexFile = getIndexFile();
+        if (!indexFile.exists()) {
+            throw new IllegalStateException(String.format("Test outputs data file '%s' exists but the index file '%s' does not", getOutputsFile(), indexFile));
+        }
 
-        private final ImmutableMap.Builder<Long, Index> children = ImmutableMap.builder();
+        Input input;
+        try {
+            input = new Input(new FileInputStream(indexFile));
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
 
-        void add(long key, Index index) {
-            if (stdOut.start < 0) {
-                stdOut.start = index.stdOut.start;
-            }
-            if (stdErr.start < 0) {
-                stdErr.start = index.stdErr.start;
-            }
-            if (index.stdOut.stop > stdOut.stop) {
-                stdOut.stop = index.stdOut.stop;
-            }
-            if (index.stdErr.stop > stdErr.stop) {
-                stdErr.stop = index.stdErr.stop;
+        try {
+            int version = readVersion(input);
+            if (version != INDEX_VERSION) {
+                throw new IllegalStateException(String.format("Unexpected test outputs index file version %d found in %s.", version, indexFile));
             }
 
-            children.put(key, index);
+            int numClasses = input.readInt(true);
+            Map<Long, ClassOutputs> index = new HashMap<Long, ClassOutputs>(numClasses * 2);
+            for (int classCounter = 0; classCounter < numClasses; ++classCounter) {
+                long classId = input.readLong(true);
+                Regions stdOut = Regions.read(input);
+                Regions stdErr = Regions.read(input);
+
+                int numTests = input.readInt(true);
+                Map<Long, Outputs> tests = new HashMap<Long, Outputs>(numTests * 2);
+                for (int testCounter = 0; testCounter < numTests; ++testCounter) {
+                    long testId = input.readLong(true);
+                    tests.put(testId, new Outputs(Regions.read(input), Regions.read(input)));
+                }
+
+                index.put(classId, new ClassOutputs(stdOut, stdErr, tests));
+            }
+            return index;
+        } finally {
+            input.close();
         }
+    }
 
-        Index build() {
-            return new Index(children.build(), stdOut, stdErr);
+    private static int readVersion(Input input) {
+        try {
+            return input.readInt();
+        } catch (KryoException e) {
+            // An index written without a version that is shorter than the version itself
+            return -1;
         }
     }
 
     public class Reader implements Closeable {
-        private final Index index;
+        private final Map<Long, ClassOutputs> index;
         private final RandomAccessFile dataFile;
+        private final byte[] messageBytes = new byte[MESSAGE_CHUNK_SIZE];
+        private final CharBuffer messageChars = CharBuffer.allocate(MESSAGE_CHUNK_SIZE);
+        private final CharsetDecoder messageDecoder = messageStorageCharset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
 
         public Reader() {
             File indexFile = getIndexFile();
             File outputsFile = getOutputsFile();
 
             if (outputsFile.exists()) {
-                if (!indexFile.exists()) {
-                    throw new IllegalStateException(String.format("Test outputs data file '%s' exists but the index file '%s' does not", outputsFile, indexFile));
-                }
-
-                Input input;
-                try {
-                    input = new Input(new FileInputStream(indexFile));
-                } catch (FileNotFoundException e) {
-                    throw new UncheckedIOException(e);
-                }
-
-                IndexBuilder rootBuilder = null;
-                try {
-                    int numClasses = input.readInt(true);
-                    rootBuilder = new IndexBuilder();
-
-                    for (int classCounter = 0; classCounter < numClasses; ++classCounter) {
-                        long classId = input.readLong(true);
-                        IndexBuilder classBuilder = new IndexBuilder();
-
-                        int numEntries = input.readInt(true);
-                        for (int entryCounter = 0; entryCounter < numEntries; ++entryCounter) {
-                            long testId = input.readLong(true);
-                            Region stdOut = new Region(input.readLong(), input.readLong());
-                            Region stdErr = new Region(input.readLong(), input.readLong());
-                            classBuilder.add(testId, new Index(stdOut, stdErr));
-                        }
-
-                        rootBuilder.add(classId, classBuilder.build());
-                    }
-                } finally {
-                    input.close();
-                }
-
-                index = rootBuilder.build();
+                index = loadIndex();
 
                 try {
                     dataFile = new RandomAccessFile(getOutputsFile(), "r");
@@ -289,97 +367,88 @@ public boolean hasOutput(long classId, TestOutputEvent.Destination destination)
                 return false;
             }
 
-            Index classIndex = index.children.get(classId);
-            if (classIndex == null) {
-                return false;
-            } else {
-                Region region = destination == TestOutputEvent.Destination.StdOut ? classIndex.stdOut : classIndex.stdErr;
-                return region.start >= 0;
-            }
+            ClassOutputs classOutputs = index.get(classId);
+            return classOutputs != null && !classOutputs.get(destination == TestOutputEvent.Destination.StdOut).isEmpty();
         }
 
         public void writeAllOutput(long classId, TestOutputEvent.Destination destination, java.io.Writer writer) {
-            doRead(classId, 0, true, destination, writer);
+            if (dataFile == null) {
+                return;
+            }
+
+            ClassOutputs classOutputs = index.get(classId);
+            if (classOutputs != null) {
+                doRead(classOutputs.get(destination == TestOutputEvent.Destination.StdOut), writer);
+            }
         }
 
         public void writeNonTestOutput(long classId, TestOutputEvent.Destination destination, java.io.Writer writer) {
-            doRead(classId, 0, false, destination, writer);
+            writeTestOutput(classId, 0, destination, writer);
         }
 
         public void writeTestOutput(long classId, long testId, TestOutputEvent.Destination destination, java.io.Writer writer) {
-            doRead(classId, testId, false, destination, writer);
-        }
-
-        private void doRead(long classId, long testId, boolean allClassOutput, TestOutputEvent.Destination destination, java.io.Writer writer) {
             if (dataFile == null) {
                 return;
             }
 
-            Index targetIndex = index.children.get(classId);
-            if (targetIndex != null && testId != 0) {
-                targetIndex = targetIndex.children.get(testId);
-            }
-
-            if (targetIndex == null) {
-                return;
-            }
-
-            boolean stdout = destination == TestOutputEvent.Destination.StdOut;
-            Region region = stdout ? targetIndex.stdOut : targetIndex.stdErr;
-
-            if (region.start < 0) {
-                return;
+            ClassOutputs classOutputs = index.get(classId);
+            Outputs testOutputs = classOutputs == null ? null : classOutputs.tests.get(testId);
+            if (testOutputs != null) {
+                doRead(testOutputs.get(destination == TestOutputEvent.Destination.StdOut), writer);
             }
+        }
 
-            boolean ignoreClassLevel = !allClassOutput && testId != 0;
-            boolean ignoreTestLevel = !allClassOutput && testId == 0;
-
+        private void doRead(Regions regions, java.io.Writer writer) {
             try {
-                dataFile.seek(region.start);
-                long maxPos = region.stop - region.start;
-                KryoBackedDecoder decoder = new KryoBackedDecoder(new RandomAccessFileInputStream(dataFile));
-                while (decoder.getReadPosition() <= maxPos) {
-                    boolean readStdout = decoder.readBoolean();
-                    long readClassId = decoder.readSmallLong();
-                    long readTestId = decoder.readSmallLong();
-                    int readLength = decoder.readSmallInt();
-
-                    boolean isClassLevel = readTestId == 0;
-
-                    if (stdout != readStdout || classId != readClassId) {
-                        decoder.skipBytes(readLength);
-                        continue;
-                    }
-
-                    if (ignoreClassLevel && isClassLevel) {
-                        decoder.skipBytes(readLength);
-                        continue;
-                    }
-
-                    if (ignoreTestLevel && !isClassLevel) {
-                        decoder.skipBytes(readLength);
-                        continue;
-                    }
-
-                    if (testId == 0 || testId == readTestId) {
-                        byte[] stringBytes = new byte[readLength];
-                        decoder.readBytes(stringBytes);
-                        String message;
-                        try {
-                            message = new String(stringBytes, messageStorageCharset.name());
-                        } catch (UnsupportedEncodingException e) {
-                            // shouldn't happen
-                            throw UncheckedException.throwAsUncheckedException(e);
-                        }
-
-                        writer.write(message);
-                    } else {
-                        decoder.skipBytes(readLength);
+                for (int i = 0; i < regions.count; i++) {
+                    long start = regions.starts[i];
+                    long length = regions.stops[i] - start;
+                    dataFile.seek(start);
+                    KryoBackedDecoder decoder = new KryoBackedDecoder(new RandomAccessFileInputStream(dataFile), (int) Math.min(length, MAX_REGION_BUFFER_SIZE));
+                    while (decoder.getReadPosition() < length) {
+                        decoder.readBoolean();
+                        decoder.readSmallLong();
+                        decoder.readSmallLong();
+                        int readLength = decoder.readSmallInt();
+                        copyMessage(decoder, readLength, writer);
                     }
                 }
-            } catch (IOException e1) {
-                throw new UncheckedIOException(e1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Decodes a message of the given length in chunks, writing the characters of each chunk to the writer.
+         */
+        private void copyMessage(KryoBackedDecoder decoder, int length, java.io.Writer writer) throws IOException {
+            messageDecoder.reset();
+            int remaining = length;
+            int carried = 0;
+            do {
+                int count = Math.min(remaining, messageBytes.length - carried);
+                decoder.readBytes(messageBytes, carried, count);
+                remaining -= count;
+                ByteBuffer bytes = ByteBuffer.wrap(messageBytes, 0, carried + count);
+                CoderResult result;
+                do {
+                    result = messageDecoder.decode(bytes, messageChars, remaining == 0);
+                    writeChars(writer);
+                } while (result.isOverflow());
+                // Keep the bytes of a character that continues in the next chunk
+                carried = bytes.remaining();
+                System.arraycopy(messageBytes, bytes.position(), messageBytes, 0, carried);
+            } while (remaining > 0);
+            while (messageDecoder.flush(messageChars).isOverflow()) {
+                writeChars(writer);
             }
+            writeChars(writer);
+        }
+
+        private void writeChars(java.io.Writer writer) throws IOException {
+            messageChars.flip();
+            writer.write(messageChars.array(), 0, messageChars.limit());
+            messageChars.clear();
         }
     }
 
@@ -26,17 +26,25 @@
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.dispatch.DispatchException;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages a set of parallel TestClassProcessors. Uses a simple round-robin algorithm to assign test classes to
  * processors.
+ *
+ * When the durations of the test classes in a previous execution are given, each test class is instead assigned as soon as it is received
+ * to the processor with the least estimated work. Test classes without a previous duration are estimated to take the average duration.
  */
 public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     private final int maxProcessors;
     private final Factory<TestClassProcessor> factory;
     private final ActorFactory actorFactory;
+    private final Map<String, Long> previousTestClassDurations;
+    private final long averageDuration;
+    private final List<Long> estimatedWorkPerProcessor = new ArrayList<Long>();
     private TestResultProcessor resultProcessor;
     private int pos;
     private List<TestClassProcessor> processors = new ArrayList<TestClassProcessor>();
@@ -46,9 +54,15 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     private volatile boolean stoppedNow;
 
     public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory) {
+        this(maxProcessors, factory, actorFactory, null);
+    }
+
+    public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory, @Nullable Map<String, Long> previousTestClassDurations) {
         this.maxProcessors = maxProcessors;
         this.factory = factory;
         this.actorFactory = actorFactory;
+        this.previousTestClassDurations = previousTestClassDurations;
+        this.averageDuration = previousTestClassDurations == null ? 0 : averageDuration(previousTestClassDurations);
     }
 
     @Override
@@ -63,16 +77,14 @@ public void processTestClass(TestClassRunInfo testClass) {
         if (stoppedNow) {
             return;
         }
+        if (previousTestClassDurations != null) {
+            processTestClassOnLeastLoadedProcessor(testClass);
+            return;
+        }
 
         TestClassProcessor processor;
         if (processors.size() < maxProcessors) {
-            processor = factory.create();
-            rawProcessors.add(processor);
-            Actor actor = actorFactory.createActor(processor);
-            processor = actor.getProxy(TestClassProcessor.class);
-            actors.add(actor);
-            processors.add(processor);
-            processor.startProcessing(resultProcessor);
+            processor = createProcessor();
         } else {
             processor = processors.get(pos);
             pos = (pos + 1) % processors.size();
@@ -80,6 +92,58 @@ public void processTestClass(TestClassRunInfo testClass) {
         processor.processTestClass(testClass);
     }
 
+    private TestClassProcessor createProcessor() {
+        TestClassProcessor processor = factory.create();
+        rawProcessors.add(processor);
+        Actor actor = actorFactory.createActor(processor);
+        processor = actor.getProxy(TestClassProcessor.class);
+        actors.add(actor);
+        processors.add(processor);
+        estimatedWorkPerProcessor.add(0L);
+        processor.startProcessing(resultProcessor);
+        return processor;
+    }
+
+    private void processTestClassOnLeastLoadedProcessor(TestClassRunInfo testClass) {
+        TestClassProcessor processor;
+        int index;
+        if (processors.size() < maxProcessors) {
+            processor = createProcessor();
+            index = processors.size() - 1;
+        } else {
+            index = leastLoadedProcessor();
+            processor = processors.get(index);
+        }
+        estimatedWorkPerProcessor.set(index, estimatedWorkPerProcessor.get(index) + estimatedDuration(testClass));
+        processor.processTestClass(testClass);
+    }
+
+    private int leastLoadedProcessor() {
+        int leastLoaded = 0;
+        for (int i = 1; i < estimatedWorkPerProcessor.size(); i++) {
+            if (estimatedWorkPerProcessor.get(i) < estimatedWorkPerProcessor.get(leastLoaded)) {
+                leastLoaded = i;
+            }
+        }
+        return leastLoaded;
+    }
+
+    private static long averageDuration(Map<String, Long> durations) {
+        if (durations.isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        for (Long duration : durations.values()) {
+            total += duration;
+        }
+        return total / durations.size();
+    }
+
+    private long estimatedDuration(TestClassRunInfo testClass) {
+        Long duration = previousTestClassDurations.get(testClass.getTestClassName());
+        return duration != null ? duration : averageDuration;
+    }
+
     @Override
     public void stop() {
         try {
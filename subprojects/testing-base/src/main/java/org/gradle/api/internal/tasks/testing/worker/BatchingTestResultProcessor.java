@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.concurrent.ManagedScheduledExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the events of a test worker to the build process in batches, in the order they are received.
+ *
+ * A batch is sent when it holds the maximum number of events or output characters, when the maximum latency has passed since its first
+ * event was received, or when the processor is stopped. Can be used from multiple threads.
+ */
+public class BatchingTestResultProcessor implements TestResultProcessor, Stoppable {
+    static final int MAX_EVENTS = 1000;
+    static final int MAX_OUTPUT_CHARS = 64 * 1024;
+
+    private final RemoteTestEventProcessor target;
+    private final ManagedScheduledExecutor executor;
+    private final long maxLatencyMillis;
+    private final Runnable flush = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+    private TestEventBatch batch = new TestEventBatch();
+    private int outputChars;
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BatchingTestResultProcessor(RemoteTestEventProcessor target, ManagedScheduledExecutor executor, long maxLatencyMillis) {
+        this.target = target;
+        this.executor = executor;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    @Override
+    public synchronized void started(TestDescriptorInternal test, TestStartEvent event) {
+        add(TestEventBatch.STARTED, test, event);
+    }
+
+    @Override
+    public synchronized void completed(Object testId, TestCompleteEvent event) {
+        add(TestEventBatch.COMPLETED, testId, event);
+    }
+
+    @Override
+    public synchronized void output(Object testId, TestOutputEvent event) {
+        outputChars += event.getMessage().length();
+        add(TestEventBatch.OUTPUT, testId, event);
+    }
+
+    @Override
+    public synchronized void failure(Object testId, Throwable result) {
+        add(TestEventBatch.FAILURE, testId, result);
+    }
+
+    private void add(byte kind, Object first, Object second) {
+        batch.add(kind, first, second);
+        if (batch.size() >= MAX_EVENTS || outputChars >= MAX_OUTPUT_CHARS) {
+            flush();
+        } else if (scheduledFlush == null) {
+            scheduledFlush = executor.schedule(flush, maxLatencyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending events, if any.
+     */
+    public synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        TestEventBatch pending = batch;
+        batch = new TestEventBatch();
+        outputChars = 0;
+        target.process(pending);
+    }
+
+    @Override
+    public void stop() {
+        flush();
+        executor.stop();
+    }
+}
@@ -40,6 +40,8 @@
 import java.util.concurrent.locks.ReentrantLock;
 
 public class ForkingTestClassProcessor implements TestClassProcessor {
+    private static final boolean BATCH_EVENTS = !"false".equals(System.getProperty("org.gradle.internal.testing.batch-events"));
+
     private final WorkerLeaseRegistry.WorkerLease currentWorkerLease;
     private final WorkerProcessFactory workerFactory;
     private final WorkerTestClassProcessorFactory processorFactory;
@@ -103,7 +105,7 @@ public void processTestClass(TestClassRunInfo testClass) {
     }
 
     RemoteTestClassProcessor forkProcess() {
-        WorkerProcessBuilder builder = workerFactory.create(new TestWorker(processorFactory));
+        WorkerProcessBuilder builder = workerFactory.create(new TestWorker(processorFactory, BATCH_EVENTS));
         builder.setBaseName("Gradle Test Executor");
         builder.setImplementationClasspath(getTestWorkerImplementationClasspath());
         builder.setImplementationModulePath(getTestWorkerImplementationModulePath());
@@ -120,6 +122,14 @@ RemoteTestClassProcessor forkProcess() {
         ObjectConnection connection = workerProcess.getConnection();
         connection.useParameterSerializers(TestEventSerializer.create());
         connection.addIncoming(TestResultProcessor.class, resultProcessor);
+        if (BATCH_EVENTS) {
+            connection.addIncoming(RemoteTestEventProcessor.class, new RemoteTestEventProcessor() {
+                @Override
+                public void process(TestEventBatch batch) {
+                    batch.dispatchTo(resultProcessor);
+                }
+            });
+        }
         RemoteTestClassProcessor remoteProcessor = connection.addOutgoing(RemoteTestClassProcessor.class);
         connection.connect();
         remoteProcessor.startProcessing();
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+
+import java.util.Arrays;
+
+/**
+ * A sequence of test events, sent from a test worker to the build process as a single message.
+ */
+public class TestEventBatch {
+    static final byte STARTED = 0;
+    static final byte COMPLETED = 1;
+    static final byte OUTPUT = 2;
+    static final byte FAILURE = 3;
+
+    private byte[] kinds = new byte[16];
+    private Object[] arguments = new Object[32];
+    private int size;
+
+    void add(byte kind, Object first, Object second) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            arguments = Arrays.copyOf(arguments, size * 4);
+        }
+        kinds[size] = kind;
+        arguments[2 * size] = first;
+        arguments[2 * size + 1] = second;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    byte getKind(int index) {
+        return kinds[index];
+    }
+
+    Object getFirstArgument(int index) {
+        return arguments[2 * index];
+    }
+
+    Object getSecondArgument(int index) {
+        return arguments[2 * index + 1];
+    }
+
+    /**
+     * Passes the events of this batch to the given processor, in order.
+     */
+    public void dispatchTo(TestResultProcessor processor) {
+        for (int i = 0; i < size; i++) {
+            Object first = getFirstArgument(i);
+            Object second = getSecondArgument(i);
+            switch (kinds[i]) {
+                case STARTED:
+                    processor.started((TestDescriptorInternal) first, (TestStartEvent) second);
+                    break;
+                case COMPLETED:
+                    processor.completed(first, (TestCompleteEvent) second);
+                    break;
+                case OUTPUT:
+                    processor.output(first, (TestOutputEvent) second);
+                    break;
+                case FAILURE:
+                    processor.failure(first, (Throwable) second);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected test event kind " + kinds[i]);
+            }
+        }
+    }
+}
@@ -37,6 +37,7 @@ public static SerializerRegistry create() {
         registry.register(TestCompleteEvent.class, new TestCompleteEventSerializer());
         registry.register(DefaultTestOutputEvent.class, new DefaultTestOutputEventSerializer());
         registry.register(Throwable.class, factory.getSerializerFor(Throwable.class));
+        registry.register(TestEventBatch.class, new TestEventBatchSerializer(registry.build(Object.class)));
         return registry;
     }
 
@@ -64,6 +65,37 @@ public void write(Encoder encoder, T value) throws Exception {
         }
     }
 
+    private static class TestEventBatchSerializer implements Serializer<TestEventBatch> {
+        private final Serializer<Object> argumentSerializer;
+
+        private TestEventBatchSerializer(Serializer<Object> argumentSerializer) {
+            this.argumentSerializer = argumentSerializer;
+        }
+
+        @Override
+        public TestEventBatch read(Decoder decoder) throws Exception {
+            TestEventBatch batch = new TestEventBatch();
+            int size = decoder.readSmallInt();
+            for (int i = 0; i < size; i++) {
+                byte kind = decoder.readByte();
+                Object first = argumentSerializer.read(decoder);
+                Object second = argumentSerializer.read(decoder);
+                batch.add(kind, first, second);
+            }
+            return batch;
+        }
+
+        @Override
+        public void write(Encoder encoder, TestEventBatch value) throws Exception {
+            encoder.writeSmallInt(value.size());
+            for (int i = 0; i < value.size(); i++) {
+                encoder.writeByte(value.getKind(i));
+                argumentSerializer.write(encoder, value.getFirstArgument(i));
+                argumentSerializer.write(encoder, value.getSecondArgument(i));
+            }
+        }
+    }
+
     private static class IdSerializer implements Serializer<CompositeIdGenerator.CompositeId> {
         @Override
         public CompositeIdGenerator.CompositeId read(Decoder decoder) throws Exception {
@@ -27,6 +27,7 @@
 import org.gradle.internal.actor.internal.DefaultActorFactory;
 import org.gradle.internal.concurrent.DefaultExecutorFactory;
 import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedScheduledExecutor;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.dispatch.ContextClassLoaderProxy;
 import org.gradle.internal.id.CompositeIdGenerator;
@@ -36,6 +37,7 @@
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.time.Clock;
+import org.gradle.process.internal.shutdown.ShutdownHooks;
 import org.gradle.process.internal.worker.WorkerProcessContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,13 +49,25 @@
 public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClassProcessor, Serializable, Stoppable {
     private static final Logger LOGGER = LoggerFactory.getLogger(TestWorker.class);
     public static final String WORKER_ID_SYS_PROPERTY = "org.gradle.test.worker";
+    private static final long MAX_EVENT_BATCH_LATENCY_MILLIS = 50;
     private final WorkerTestClassProcessorFactory factory;
+    private final boolean batchEvents;
     private CountDownLatch completed;
     private TestClassProcessor processor;
     private TestResultProcessor resultProcessor;
+    private BatchingTestResultProcessor batchingResultProcessor;
+    private Runnable flushEventsOnShutdown;
 
     public TestWorker(WorkerTestClassProcessorFactory factory) {
+        this(factory, false);
+    }
+
+    /**
+     * @param batchEvents whether to send test events to the build process in batches, see {@link BatchingTestResultProcessor}.
+     */
+    public TestWorker(WorkerTestClassProcessorFactory factory, boolean batchEvents) {
         this.factory = factory;
+        this.batchEvents = batchEvents;
     }
 
     @Override
@@ -101,7 +115,22 @@ private void startReceivingTests(WorkerProcessContext workerProcessContext, Serv
 
         ObjectConnection serverConnection = workerProcessContext.getServerConnection();
         serverConnection.useParameterSerializers(TestEventSerializer.create());
-        this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
+        if (batchEvents) {
+            ManagedScheduledExecutor batchExecutor = testServices.get(ExecutorFactory.class).createScheduled("Test event batching", 1);
+            final BatchingTestResultProcessor batchingProcessor = new BatchingTestResultProcessor(serverConnection.addOutgoing(RemoteTestEventProcessor.class), batchExecutor, MAX_EVENT_BATCH_LATENCY_MILLIS);
+            // A test which exits the JVM does not stop the worker, so send the events which are still pending from a shutdown hook
+            this.flushEventsOnShutdown = new Runnable() {
+                @Override
+                public void run() {
+                    batchingProcessor.flush();
+                }
+            };
+            ShutdownHooks.addShutdownHook(flushEventsOnShutdown);
+            this.batchingResultProcessor = batchingProcessor;
+            this.resultProcessor = batchingProcessor;
+        } else {
+            this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
+        }
         serverConnection.addIncoming(RemoteTestClassProcessor.class, this);
         serverConnection.connect();
     }
@@ -132,6 +161,10 @@ public void stop() {
         try {
             processor.stop();
         } finally {
+            if (batchingResultProcessor != null) {
+                ShutdownHooks.removeShutdownHook(flushEventsOnShutdown);
+                batchingResultProcessor.stop();
+            }
             completed.countDown();
             // Clean the interrupted status
             // because some test class processors do work here, e.g. JUnitPlatform
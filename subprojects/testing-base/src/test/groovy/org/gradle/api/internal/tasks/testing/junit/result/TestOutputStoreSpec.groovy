@@ -169,6 +169,87 @@ class TestOutputStoreSpec extends WorkspaceTest {
         thrown(IllegalStateException)
     }
 
+    def "reads messages larger than a chunk with multi-byte characters across chunk boundaries"() {
+        def message = "a" + ("\u00e9\u20ac\ud83d\ude00" * 10000)
+
+        when:
+        def writer = output.writer()
+        writer.onOutput(1, 1, output(StdOut, message))
+        writer.onOutput(1, 1, output(StdOut, "[out]"))
+        writer.close()
+        def reader = output.reader()
+
+        then:
+        collectOutput(reader, 1, 1, StdOut) == message + "[out]"
+
+        cleanup:
+        reader.close()
+    }
+
+    def "readers share the index until the output is written again"() {
+        when:
+        def writer = output.writer()
+        writer.onOutput(1, 1, output(StdOut, "[out-1]"))
+        writer.close()
+        def reader1 = output.reader()
+        def reader2 = output.reader()
+
+        then:
+        collectOutput(reader1, 1, 1, StdOut) == "[out-1]"
+        collectOutput(reader2, 1, 1, StdOut) == "[out-1]"
+
+        when:
+        reader1.close()
+        reader2.close()
+        writer = output.writer()
+        writer.onOutput(2, 1, output(StdOut, "[out-2]"))
+        writer.close()
+        def reader3 = output.reader()
+
+        then:
+        collectOutput(reader3, 1, 1, StdOut) == ""
+        collectOutput(reader3, 2, 1, StdOut) == "[out-2]"
+
+        cleanup:
+        reader3?.close()
+    }
+
+    def "reads output of tests interleaved with the output of other test classes"() {
+        when:
+        def writer = output.writer()
+        (1..20).each { line ->
+            (1..3).each { classId ->
+                writer.onOutput(classId, line % 2 + 1, output(StdOut, "[$classId-$line]"))
+                if (line % 5 == 0) {
+                    writer.onOutput(classId, output(StdErr, "[$classId-err-$line]"))
+                }
+            }
+        }
+        writer.close()
+        def reader = output.reader()
+
+        then:
+        collectOutput(reader, 2, 1, StdOut) == (2..20).step(2).collect { "[2-$it]" }.join()
+        collectOutput(reader, 2, 2, StdOut) == (1..19).step(2).collect { "[2-$it]" }.join()
+        collectAllOutput(reader, 3, StdOut) == (1..20).collect { "[3-$it]" }.join()
+        collectOutput(reader, 1, StdErr) == "[1-err-5][1-err-10][1-err-15][1-err-20]"
+        collectOutput(reader, 1, StdOut) == ""
+
+        cleanup:
+        reader.close()
+    }
+
+    def "exception if index file was written in another format"() {
+        when:
+        output.outputsFile.createNewFile()
+        output.indexFile.bytes = [1, 5, 0, 0] as byte[]
+        output.reader()
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.startsWith("Unexpected test outputs index file version")
+    }
+
     String collectAllOutput(TestOutputStore.Reader reader, long classId, TestOutputEvent.Destination destination) {
         def writer = new StringWriter()
         reader.writeAllOutput(classId, destination, writer)
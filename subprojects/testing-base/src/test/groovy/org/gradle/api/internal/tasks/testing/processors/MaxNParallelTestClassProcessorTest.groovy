@@ -202,4 +202,91 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * processor1.stopNow()
         1 * processor2.stopNow()
     }
+
+    def "assigns each test class as it is received to the processor with the least estimated work"() {
+        def assigned = []
+        def processor = balancedProcessor(2, [A: 10L, B: 50L, C: 30L, D: 20L, E: 40L], assigned)
+
+        when:
+        ["A", "B"].each { processor.processTestClass(testClass(it)) }
+
+        then:
+        assigned == [["A"], ["B"]]
+
+        when:
+        ["C", "D", "E"].each { processor.processTestClass(testClass(it)) }
+        processor.stop()
+
+        then:
+        assigned == [["A", "C", "D"], ["B", "E"]]
+    }
+
+    def "estimates test classes without previous duration to take the average duration"() {
+        def assigned = []
+        def processor = balancedProcessor(2, [A: 10L, B: 30L, C: 15L], assigned)
+
+        when:
+        ["A", "New", "B", "C"].each { processor.processTestClass(testClass(it)) }
+        processor.stop()
+
+        then:
+        assigned == [["A", "B"], ["New", "C"]]
+    }
+
+    def "balancing by previous duration reduces the longest processor run time"() {
+        expect:
+        makespan(durations, maxProcessors, null) == expectedRoundRobinMakespan
+        makespan(durations, maxProcessors, durations) == expectedBalancedMakespan
+
+        where:
+        durations                                                                                              | maxProcessors | expectedRoundRobinMakespan | expectedBalancedMakespan
+        [A: 100L, B: 1L, C: 100L, D: 1L, E: 100L, F: 1L]                                                       | 2             | 300                        | 201
+        [Slow1: 60L, Fast1: 5L, Fast2: 5L, Slow2: 60L, Fast3: 5L, Fast4: 5L, Slow3: 60L, Fast5: 5L, Fast6: 5L] | 3             | 180                        | 75
+        [Integ1: 40L, Unit1: 10L, Integ2: 40L, Unit2: 10L, Unit3: 10L, Unit4: 10L]                             | 2             | 90                         | 60
+    }
+
+    def "keeps running previously failed test classes first when balancing by previous duration"() {
+        def assigned = []
+        def previousFailed = ["C"] as Set
+        def processor = new RunPreviousFailedFirstTestClassProcessor(previousFailed, balancedProcessor(2, [A: 10L, B: 50L, C: 5L, D: 20L, E: 40L], assigned))
+
+        when:
+        ["A", "B", "C", "D", "E"].each { processor.processTestClass(testClass(it)) }
+        processor.stop()
+
+        then:
+        assigned == [["C", "B"], ["A", "D", "E"]]
+    }
+
+    private long makespan(Map<String, Long> durations, int maxProcessors, Map<String, Long> previousDurations) {
+        def assigned = []
+        def processor = balancedProcessor(maxProcessors, previousDurations, assigned)
+        durations.keySet().each { processor.processTestClass(testClass(it)) }
+        processor.stop()
+        return assigned.collect { classes -> classes.sum { durations[it] } as long }.max()
+    }
+
+    private MaxNParallelTestClassProcessor balancedProcessor(int maxProcessors, Map<String, Long> previousDurations, List<List<String>> assigned) {
+        def processorFactory = Stub(Factory) {
+            create() >> {
+                def testClasses = []
+                assigned << testClasses
+                Stub(TestClassProcessor) {
+                    processTestClass(_) >> { TestClassRunInfo testClass -> testClasses << testClass.testClassName }
+                }
+            }
+        }
+        def processorActorFactory = Stub(ActorFactory) {
+            createActor(_) >> { Object target -> Stub(Actor) { getProxy(_) >> target } }
+        }
+        def processor = new MaxNParallelTestClassProcessor(maxProcessors, processorFactory, processorActorFactory, previousDurations)
+        processor.startProcessing(resultProcessor)
+        return processor
+    }
+
+    private TestClassRunInfo testClass(String name) {
+        Stub(TestClassRunInfo) {
+            getTestClassName() >> name
+        }
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.TestStartEvent
+import org.gradle.internal.concurrent.ManagedScheduledExecutor
+import spock.lang.Specification
+
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+import static org.gradle.api.tasks.testing.TestOutputEvent.Destination.StdOut
+
+class BatchingTestResultProcessorTest extends Specification {
+    def target = Mock(RemoteTestEventProcessor)
+    def executor = Mock(ManagedScheduledExecutor)
+    def resultProcessor = Mock(TestResultProcessor)
+    def processor = new BatchingTestResultProcessor(target, executor, 50)
+
+    def "sends events in order in a single batch once the latency has passed"() {
+        def descriptor = Stub(TestDescriptorInternal)
+        def startEvent = new TestStartEvent(100L)
+        def outputEvent = new DefaultTestOutputEvent(StdOut, "output")
+        def failure = new RuntimeException()
+        def completeEvent = new TestCompleteEvent(200L)
+        Runnable scheduledFlush = null
+
+        when:
+        processor.started(descriptor, startEvent)
+        processor.output("id", outputEvent)
+        processor.failure("id", failure)
+        processor.completed("id", completeEvent)
+
+        then:
+        1 * executor.schedule(_ as Runnable, 50, TimeUnit.MILLISECONDS) >> { Runnable flush, long delay, TimeUnit unit ->
+            scheduledFlush = flush
+            Stub(ScheduledFuture)
+        }
+        0 * target._
+
+        when:
+        scheduledFlush.run()
+
+        then:
+        1 * target.process(_) >> { TestEventBatch batch -> batch.dispatchTo(resultProcessor) }
+
+        then:
+        1 * resultProcessor.started(descriptor, startEvent)
+
+        then:
+        1 * resultProcessor.output("id", outputEvent)
+
+        then:
+        1 * resultProcessor.failure("id", failure)
+
+        then:
+        1 * resultProcessor.completed("id", completeEvent)
+    }
+
+    def "sends a batch as soon as it holds the maximum number of events"() {
+        def scheduledFlush = Mock(ScheduledFuture)
+
+        when:
+        BatchingTestResultProcessor.MAX_EVENTS.times {
+            processor.output("id", new DefaultTestOutputEvent(StdOut, "line $it"))
+        }
+
+        then:
+        1 * executor.schedule(_ as Runnable, 50, TimeUnit.MILLISECONDS) >> scheduledFlush
+        1 * scheduledFlush.cancel(false)
+        1 * target.process({ it.size() == BatchingTestResultProcessor.MAX_EVENTS })
+    }
+
+    def "sends a batch as soon as it holds the maximum number of output characters"() {
+        def output = "x" * (BatchingTestResultProcessor.MAX_OUTPUT_CHARS / 2)
+
+        when:
+        processor.output("id", new DefaultTestOutputEvent(StdOut, output))
+        processor.output("id", new DefaultTestOutputEvent(StdOut, output))
+
+        then:
+        1 * executor.schedule(_ as Runnable, 50, TimeUnit.MILLISECONDS) >> Stub(ScheduledFuture)
+        1 * target.process({ it.size() == 2 })
+    }
+
+    def "sends pending events when stopped"() {
+        when:
+        processor.output("id", new DefaultTestOutputEvent(StdOut, "output"))
+        processor.stop()
+
+        then:
+        1 * executor.schedule(_ as Runnable, 50, TimeUnit.MILLISECONDS) >> Stub(ScheduledFuture)
+        1 * target.process({ it.size() == 1 })
+
+        then:
+        1 * executor.stop()
+    }
+
+    def "sends nothing when there are no pending events"() {
+        when:
+        processor.flush()
+        processor.stop()
+
+        then:
+        0 * target._
+        1 * executor.stop()
+    }
+}
@@ -175,6 +175,32 @@ class TestEventSerializerTest extends SerializerSpec {
         result.cause.message == "cause"
     }
 
+    def "serializes TestEventBatch"() {
+        def id = new CompositeIdGenerator.CompositeId(1L, 2L)
+        def descriptor = new DefaultTestMethodDescriptor(id, "some-class", "some-method")
+        def batch = new TestEventBatch()
+        batch.add(TestEventBatch.STARTED, descriptor, new TestStartEvent(123L))
+        batch.add(TestEventBatch.OUTPUT, id, new DefaultTestOutputEvent(TestOutputEvent.Destination.StdOut, "hi"))
+        batch.add(TestEventBatch.FAILURE, id, new GradleException("broken"))
+        batch.add(TestEventBatch.COMPLETED, id, new TestCompleteEvent(456L, TestResult.ResultType.FAILURE))
+
+        when:
+        def result = serialize(batch)
+
+        then:
+        result instanceof TestEventBatch
+        result.size() == 4
+        (0..3).collect { result.getKind(it) } == [TestEventBatch.STARTED, TestEventBatch.OUTPUT, TestEventBatch.FAILURE, TestEventBatch.COMPLETED]
+        result.getFirstArgument(0) instanceof DefaultTestMethodDescriptor
+        result.getFirstArgument(0).id == id
+        result.getSecondArgument(0).startTime == 123L
+        result.getFirstArgument(1) == id
+        result.getSecondArgument(1).message == "hi"
+        result.getSecondArgument(2).message == "broken"
+        result.getSecondArgument(3).endTime == 456L
+        result.getSecondArgument(3).resultType == TestResult.ResultType.FAILURE
+    }
+
     def Object serialize(Object source, Class type = source.getClass()) {
         return super.serialize(source, serializer.build(type))
     }
@@ -17,6 +17,7 @@
 
 package org.gradle.api.internal.tasks.testing.worker
 
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
 import org.gradle.api.internal.tasks.testing.TestClassProcessor
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo
 import org.gradle.api.internal.tasks.testing.TestResultProcessor
@@ -30,6 +31,8 @@ import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import org.gradle.util.SetSystemProperties
 import org.junit.Rule
 
+import static org.gradle.api.tasks.testing.TestOutputEvent.Destination.StdOut
+
 public class TestWorkerTest extends ConcurrentSpec {
     @Rule SetSystemProperties properties = new SetSystemProperties()
     def workerContext = Mock(WorkerProcessContext)
@@ -76,4 +79,41 @@ public class TestWorkerTest extends ConcurrentSpec {
         1 * processor.processTestClass(test)
         1 * processor.stop()
     }
+
+    def sendsPendingBatchedEventsWhenStopped() {
+        def batchingWorker = new TestWorker(factory, true)
+        def remoteEventProcessor = Mock(RemoteTestEventProcessor)
+        def outputEvent = new DefaultTestOutputEvent(StdOut, "output")
+        TestResultProcessor workerResultProcessor = null
+        def sent = []
+
+        when:
+        async {
+            batchingWorker.execute(workerContext)
+        }
+
+        then:
+        1 * factory.create(_) >> processor
+        1 * connection.addOutgoing(RemoteTestEventProcessor) >> remoteEventProcessor
+        0 * connection.addOutgoing(TestResultProcessor)
+        1 * connection.addIncoming(RemoteTestClassProcessor, batchingWorker)
+        1 * connection.useParameterSerializers(_)
+        1 * connection.connect() >> {
+            start {
+                batchingWorker.startProcessing()
+                batchingWorker.processTestClass(test)
+                batchingWorker.stop()
+            }
+        }
+        1 * processor.startProcessing(_) >> { TestResultProcessor resultProcessor -> workerResultProcessor = resultProcessor }
+        1 * processor.processTestClass(test) >> { workerResultProcessor.output("<test-id>", outputEvent) }
+        1 * processor.stop()
+        (1.._) * remoteEventProcessor.process(_) >> { TestEventBatch batch ->
+            batch.size().times { sent << [batch.getKind(it), batch.getSecondArgument(it)] }
+        }
+
+        and:
+        sent*.get(0) == [TestEventBatch.STARTED, TestEventBatch.OUTPUT, TestEventBatch.COMPLETED]
+        sent[1][1].message == "output"
+    }
 }
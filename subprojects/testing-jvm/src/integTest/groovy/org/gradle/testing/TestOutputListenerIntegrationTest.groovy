@@ -175,6 +175,38 @@ test.testLogging {
         outputContains('message from foo')
     }
 
+    @Test
+    def "shows standard streams written before a test exits the JVM"() {
+        given:
+        def test = file("src/test/java/SomeTest.java")
+        test << """
+import org.junit.*;
+
+public class SomeTest {
+    @Test public void foo() {
+        System.out.println("output before exit");
+        System.exit(1);
+    }
+}
+"""
+        def buildFile = file('build.gradle')
+        buildFile << """
+apply plugin: 'java'
+${mavenCentralRepository()}
+dependencies { testImplementation "junit:junit:4.13" }
+
+test.testLogging {
+    showStandardStreams = true
+}
+"""
+
+        when:
+        fails('test')
+
+        then:
+        outputContains('output before exit')
+    }
+
     @Test
     @ToBeFixedForInstantExecution(because = "test-ng")
     def "shows standard stream also for testNG"() {
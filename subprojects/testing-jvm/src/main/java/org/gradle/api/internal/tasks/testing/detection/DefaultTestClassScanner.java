@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.tasks.testing.detection;
 
+import org.gradle.api.Action;
 import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.file.FileVisitDetails;
@@ -23,32 +24,57 @@
 import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
  * The default test class scanner. Depending on the availability of a test framework detector,
  * a detection or filename scan is performed to find test classes.
+ *
+ * When a build operation executor is given, batches of class files are passed to the detector concurrently, in build operations
+ * which run on the workers of the build. The test classes detected in a batch are passed to the test class processor as soon as
+ * all earlier batches are done, so they are passed in the same order as by a sequential scan.
  */
 public class DefaultTestClassScanner implements Runnable {
     private static final Pattern ANONYMOUS_CLASS_NAME = Pattern.compile(".*\\$\\d+");
+    private static final int DETECTION_BATCH_SIZE = 100;
     private final FileTree candidateClassFiles;
     private final TestFrameworkDetector testFrameworkDetector;
     private final TestClassProcessor testClassProcessor;
+    private final BuildOperationExecutor buildOperationExecutor;
 
     public DefaultTestClassScanner(FileTree candidateClassFiles, TestFrameworkDetector testFrameworkDetector,
                                    TestClassProcessor testClassProcessor) {
+        this(candidateClassFiles, testFrameworkDetector, testClassProcessor, null);
+    }
+
+    public DefaultTestClassScanner(FileTree candidateClassFiles, TestFrameworkDetector testFrameworkDetector,
+                                   TestClassProcessor testClassProcessor, @Nullable BuildOperationExecutor buildOperationExecutor) {
         this.candidateClassFiles = candidateClassFiles;
         this.testFrameworkDetector = testFrameworkDetector;
         this.testClassProcessor = testClassProcessor;
+        this.buildOperationExecutor = buildOperationExecutor;
     }
 
     @Override
     public void run() {
         if (testFrameworkDetector == null) {
             filenameScan();
-        } else {
+        } else if (buildOperationExecutor == null) {
             detectionScan();
+        } else {
+            parallelDetectionScan();
         }
     }
 
@@ -62,6 +88,19 @@ public void visitClassFile(FileVisitDetails fileDetails) {
         });
     }
 
+    private void parallelDetectionScan() {
+        final OrderedTestClassProcessor orderedTestClassProcessor = new OrderedTestClassProcessor(testClassProcessor);
+        testFrameworkDetector.startDetection(orderedTestClassProcessor);
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<DetectTestClasses>>() {
+            @Override
+            public void execute(BuildOperationQueue<DetectTestClasses> queue) {
+                BatchingClassFileVisitor visitor = new BatchingClassFileVisitor(queue, orderedTestClassProcessor);
+                candidateClassFiles.visit(visitor);
+                visitor.addBatch();
+            }
+        });
+    }
+
     private void filenameScan() {
         candidateClassFiles.visit(new ClassFileVisitor() {
             @Override
@@ -95,4 +134,111 @@ private boolean isClass(FileVisitDetails fileVisitDetails) {
     private String getClassName(FileVisitDetails fileDetails) {
         return fileDetails.getRelativePath().getPathString().replaceAll("\\.class", "").replace('/', '.');
     }
+
+    private class BatchingClassFileVisitor extends ClassFileVisitor {
+        private final BuildOperationQueue<DetectTestClasses> queue;
+        private final OrderedTestClassProcessor orderedTestClassProcessor;
+        private final List<RelativeFile> batch = new ArrayList<RelativeFile>(DETECTION_BATCH_SIZE);
+        private int batchCount;
+
+        BatchingClassFileVisitor(BuildOperationQueue<DetectTestClasses> queue, OrderedTestClassProcessor orderedTestClassProcessor) {
+            this.queue = queue;
+            this.orderedTestClassProcessor = orderedTestClassProcessor;
+        }
+
+        @Override
+        void visitClassFile(FileVisitDetails fileDetails) {
+            batch.add(new RelativeFile(fileDetails.getFile(), fileDetails.getRelativePath()));
+            if (batch.size() == DETECTION_BATCH_SIZE) {
+                addBatch();
+            }
+        }
+
+        void addBatch() {
+            if (!batch.isEmpty()) {
+                queue.add(new DetectTestClasses(batchCount++, batch, orderedTestClassProcessor));
+                batch.clear();
+            }
+        }
+    }
+
+    private class DetectTestClasses implements RunnableBuildOperation {
+        private final int batchIndex;
+        private final List<RelativeFile> classFiles;
+        private final OrderedTestClassProcessor orderedTestClassProcessor;
+
+        DetectTestClasses(int batchIndex, List<RelativeFile> classFiles, OrderedTestClassProcessor orderedTestClassProcessor) {
+            this.batchIndex = batchIndex;
+            this.classFiles = new ArrayList<RelativeFile>(classFiles);
+            this.orderedTestClassProcessor = orderedTestClassProcessor;
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Detect test classes");
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            orderedTestClassProcessor.startBatch();
+            try {
+                for (RelativeFile classFile : classFiles) {
+                    testFrameworkDetector.processTestClass(classFile);
+                }
+            } finally {
+                orderedTestClassProcessor.completeBatch(batchIndex);
+            }
+        }
+    }
+
+    /**
+     * Collects the test classes detected in each batch on the thread detecting the batch, and passes them to the test class processor
+     * in the order of the batches, one at a time.
+     */
+    private static class OrderedTestClassProcessor implements TestClassProcessor {
+        private final TestClassProcessor delegate;
+        private final ThreadLocal<List<TestClassRunInfo>> currentBatch = new ThreadLocal<List<TestClassRunInfo>>();
+        private final Map<Integer, List<TestClassRunInfo>> completedBatches = new HashMap<Integer, List<TestClassRunInfo>>();
+        private int nextBatch;
+
+        OrderedTestClassProcessor(TestClassProcessor delegate) {
+            this.delegate = delegate;
+        }
+
+        void startBatch() {
+            currentBatch.set(new ArrayList<TestClassRunInfo>());
+        }
+
+        synchronized void completeBatch(int batchIndex) {
+            completedBatches.put(batchIndex, currentBatch.get());
+            currentBatch.remove();
+            List<TestClassRunInfo> testClasses;
+            while ((testClasses = completedBatches.remove(nextBatch)) != null) {
+                for (TestClassRunInfo testClass : testClasses) {
+                    delegate.processTestClass(testClass);
+                }
+                nextBatch++;
+            }
+        }
+
+        @Override
+        public synchronized void startProcessing(TestResultProcessor resultProcessor) {
+            delegate.startProcessing(resultProcessor);
+        }
+
+        @Override
+        public void processTestClass(TestClassRunInfo testClass) {
+            currentBatch.get().add(testClass);
+        }
+
+        @Override
+        public synchronized void stop() {
+            delegate.stop();
+        }
+
+        @Override
+        public void stopNow() {
+            delegate.stopNow();
+        }
+    }
 }
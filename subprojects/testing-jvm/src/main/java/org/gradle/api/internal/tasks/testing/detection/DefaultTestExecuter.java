@@ -42,8 +42,10 @@
 import org.gradle.internal.work.WorkerLeaseRegistry;
 import org.gradle.process.internal.worker.WorkerProcessFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -52,6 +54,8 @@
 public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
 
     private static final Logger LOGGER = Logging.getLogger(DefaultTestExecuter.class);
+    private static final boolean BALANCE_BY_DURATION = Boolean.getBoolean("org.gradle.internal.testing.balance-by-duration");
+    private static final boolean PARALLEL_DETECTION = Boolean.getBoolean("org.gradle.internal.testing.parallel-detection");
 
     private final WorkerProcessFactory workerFactory;
     private final ActorFactory actorFactory;
@@ -102,7 +106,8 @@ public TestClassProcessor create() {
         processor =
             new PatternMatchTestClassProcessor(testFilter,
                 new RunPreviousFailedFirstTestClassProcessor(testExecutionSpec.getPreviousFailedTestClasses(),
-                    new MaxNParallelTestClassProcessor(getMaxParallelForks(testExecutionSpec), reforkingProcessorFactory, actorFactory)));
+                    new MaxNParallelTestClassProcessor(getMaxParallelForks(testExecutionSpec), reforkingProcessorFactory, actorFactory,
+                        getPreviousTestClassDurations(testExecutionSpec))));
 
         final FileTree testClassFiles = testExecutionSpec.getCandidateClassFiles();
 
@@ -111,7 +116,7 @@ public TestClassProcessor create() {
             TestFrameworkDetector testFrameworkDetector = testFramework.getDetector();
             testFrameworkDetector.setTestClasses(testExecutionSpec.getTestClassesDirs().getFiles());
             testFrameworkDetector.setTestClasspath(classpath);
-            detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor);
+            detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor, PARALLEL_DETECTION ? buildOperationExecutor : null);
         } else {
             detector = new DefaultTestClassScanner(testClassFiles, null, processor);
         }
@@ -128,6 +133,14 @@ public void stopNow() {
         }
     }
 
+    @Nullable
+    private static Map<String, Long> getPreviousTestClassDurations(JvmTestExecutionSpec testExecutionSpec) {
+        if (!BALANCE_BY_DURATION || testExecutionSpec.getPreviousTestClassDurations().isEmpty()) {
+            return null;
+        }
+        return testExecutionSpec.getPreviousTestClassDurations();
+    }
+
     private int getMaxParallelForks(JvmTestExecutionSpec testExecutionSpec) {
         int maxParallelForks = testExecutionSpec.getMaxParallelForks();
         if (maxParallelForks > maxWorkerCount) {
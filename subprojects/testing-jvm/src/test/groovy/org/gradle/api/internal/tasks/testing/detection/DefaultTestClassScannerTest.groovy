@@ -21,11 +21,25 @@ import org.gradle.api.file.FileVisitDetails
 import org.gradle.api.file.FileVisitor
 import org.gradle.api.file.RelativePath
 import org.gradle.api.internal.file.DefaultFileVisitDetails
+import org.gradle.api.internal.file.RelativeFile
+import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo
 import org.gradle.api.internal.tasks.testing.TestClassProcessor
+import org.gradle.api.internal.tasks.testing.TestClassRunInfo
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.DefaultParallelismConfiguration
+import org.gradle.internal.operations.BuildOperationListener
+import org.gradle.internal.operations.DefaultBuildOperationExecutor
+import org.gradle.internal.operations.DefaultBuildOperationIdFactory
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory
+import org.gradle.internal.progress.NoOpProgressLoggerFactory
+import org.gradle.internal.time.Clock
+import org.gradle.test.fixtures.work.TestWorkerLeaseService
 import org.junit.Test
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.util.concurrent.atomic.AtomicInteger
+
 class DefaultTestClassScannerTest extends Specification {
     def files = Mock(FileTree)
     def detector = Mock(TestFrameworkDetector)
@@ -78,6 +92,62 @@ class DefaultTestClassScannerTest extends Specification {
         0 * _._
     }
 
+    def "detects test classes concurrently and passes them to the processor one at a time in scan order"() {
+        def classes = (1..1000).collect { stubFileVisitDetails("class$it") }
+        def detected = []
+        def concurrentCalls = new AtomicInteger()
+        def overlappingCalls = new AtomicInteger()
+        def collectingProcessor = Stub(TestClassProcessor) {
+            processTestClass(_) >> { TestClassRunInfo testClass ->
+                if (concurrentCalls.incrementAndGet() > 1) {
+                    overlappingCalls.incrementAndGet()
+                }
+                detected << testClass.testClassName
+                concurrentCalls.decrementAndGet()
+            }
+        }
+        def concurrentDetector = new TestFrameworkDetector() {
+            TestClassProcessor testClassProcessor
+
+            @Override
+            void startDetection(TestClassProcessor testClassProcessor) {
+                this.testClassProcessor = testClassProcessor
+            }
+
+            @Override
+            boolean processTestClass(RelativeFile testClassFile) {
+                testClassProcessor.processTestClass(new DefaultTestClassRunInfo(testClassFile.file.name - ".class"))
+                return true
+            }
+
+            @Override
+            void setTestClasses(Set<File> testClasses) {
+            }
+
+            @Override
+            void setTestClasspath(Set<File> testClasspath) {
+            }
+        }
+        def executorFactory = new DefaultExecutorFactory()
+        def buildOperationExecutor = new DefaultBuildOperationExecutor(
+            Stub(BuildOperationListener), Stub(Clock), new NoOpProgressLoggerFactory(),
+            new DefaultBuildOperationQueueFactory(new TestWorkerLeaseService()), executorFactory, new DefaultParallelismConfiguration(false, 4), new DefaultBuildOperationIdFactory())
+        def parallelScanner = new DefaultTestClassScanner(files, concurrentDetector, collectingProcessor, buildOperationExecutor)
+
+        when:
+        parallelScanner.run()
+
+        then:
+        1 * files.visit(_) >> { FileVisitor visitor ->
+            classes.each { visitor.visitFile(it) }
+        }
+        detected == classes.collect { it.file.name - ".class" }
+        overlappingCalls.get() == 0
+
+        cleanup:
+        executorFactory.stop()
+    }
+
     FileVisitDetails stubFileVisitDetails(String className) {
         return new DefaultFileVisitDetails(new File("${className}.class"), new RelativePath(false, "${className}.class"), null, null, null)
     }
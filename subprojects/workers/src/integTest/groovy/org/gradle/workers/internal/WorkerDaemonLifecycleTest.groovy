@@ -199,7 +199,7 @@ class WorkerDaemonLifecycleTest extends AbstractDaemonWorkerExecutorIntegrationS
         succeeds "runInWorker1"
     }
 
-    def "only compiler daemons are stopped with the build session"() {
+    def "compiler daemons are kept alive across builds like other worker daemons"() {
         fixture.withWorkActionClassInBuildScript()
         file('src/main/java').createDir()
         file('src/main/java/Test.java') << "public class Test {}"
@@ -221,7 +221,7 @@ class WorkerDaemonLifecycleTest extends AbstractDaemonWorkerExecutorIntegrationS
 
         then:
         sinceSnapshot().count("Started Gradle worker daemon") == 2
-        sinceSnapshot().contains("Stopped 1 worker daemon(s).")
+        !sinceSnapshot().contains("Stopped 1 worker daemon(s).")
         newSnapshot()
 
         when:
@@ -229,7 +229,7 @@ class WorkerDaemonLifecycleTest extends AbstractDaemonWorkerExecutorIntegrationS
 
         then:
         daemons.daemon.stops()
-        sinceSnapshot().contains("Stopped 1 worker daemon(s).")
+        sinceSnapshot().contains("Stopped 2 worker daemon(s).")
     }
 
     @Requires(TestPrecondition.UNIX)
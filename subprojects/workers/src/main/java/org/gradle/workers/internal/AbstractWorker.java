@@ -16,6 +16,8 @@
 
 package org.gradle.workers.internal;
 
+import org.gradle.internal.Factories;
+import org.gradle.internal.Factory;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
@@ -38,11 +40,15 @@ public DefaultWorkResult execute(IsolatedParametersActionExecutionSpec<?> spec)
     }
 
     DefaultWorkResult executeWrappedInBuildOperation(final IsolatedParametersActionExecutionSpec<?> spec, final BuildOperationRef parentBuildOperation, final Work work) {
+        return executeWrappedInBuildOperation(spec, parentBuildOperation, work, Factories.constant(RESULT));
+    }
+
+    DefaultWorkResult executeWrappedInBuildOperation(final IsolatedParametersActionExecutionSpec<?> spec, final BuildOperationRef parentBuildOperation, final Work work, final Factory<? extends ExecuteWorkItemBuildOperationType.Result> operationResult) {
         return buildOperationExecutor.call(new CallableBuildOperation<DefaultWorkResult>() {
             @Override
             public DefaultWorkResult call(BuildOperationContext context) {
                 DefaultWorkResult result = work.execute(spec);
-                context.setResult(RESULT);
+                context.setResult(operationResult.create());
                 context.failed(result.getException());
                 return result;
             }
@@ -85,4 +91,26 @@ public String getDisplayName() {
     static class Result implements ExecuteWorkItemBuildOperationType.Result {
     }
 
+    static class DaemonResult implements ExecuteWorkItemBuildOperationType.DaemonResult {
+
+        private final int daemonUses;
+        private final long daemonAverageExecutionTime;
+
+        public DaemonResult(int daemonUses, long daemonAverageExecutionTime) {
+            this.daemonUses = daemonUses;
+            this.daemonAverageExecutionTime = daemonAverageExecutionTime;
+        }
+
+        @Override
+        public int getDaemonUses() {
+            return daemonUses;
+        }
+
+        @Override
+        public long getDaemonAverageExecutionTime() {
+            return daemonAverageExecutionTime;
+        }
+
+    }
+
 }
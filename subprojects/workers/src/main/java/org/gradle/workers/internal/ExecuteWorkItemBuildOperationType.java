@@ -38,4 +38,19 @@ interface Details {
     interface Result {
     }
 
+    /**
+     * The result of a work item executed in a worker daemon, with the statistics of the daemon after executing it.
+     */
+    interface DaemonResult extends Result {
+        /**
+         * Returns the number of work items the worker daemon has executed, including this one.
+         */
+        int getDaemonUses();
+
+        /**
+         * Returns the average time in milliseconds the worker daemon took to execute a work item, including this one.
+         */
+        long getDaemonAverageExecutionTime();
+    }
+
 }
@@ -18,6 +18,8 @@
 
 import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
 import org.gradle.process.internal.health.memory.JvmMemoryStatus;
 import org.gradle.process.internal.worker.MultiRequestClient;
 import org.gradle.process.internal.worker.WorkerProcess;
@@ -30,6 +32,7 @@ class WorkerDaemonClient implements Stoppable {
     private final LogLevel logLevel;
     private final ActionExecutionSpecFactory actionExecutionSpecFactory;
     private int uses;
+    private long totalExecutionTime;
     private boolean failed;
     private boolean cannotBeExpired = Boolean.getBoolean(DISABLE_EXPIRATION_PROPERTY_KEY);
 
@@ -43,7 +46,12 @@ public WorkerDaemonClient(DaemonForkOptions forkOptions, MultiRequestClient<Tran
 
     public DefaultWorkResult execute(IsolatedParametersActionExecutionSpec<?> spec) {
         uses++;
-        return workerClient.run(actionExecutionSpecFactory.newTransportableSpec(spec));
+        Timer timer = Time.startTimer();
+        try {
+            return workerClient.run(actionExecutionSpecFactory.newTransportableSpec(spec));
+        } finally {
+            totalExecutionTime += timer.getElapsedMillis();
+        }
     }
 
     public boolean isCompatibleWith(DaemonForkOptions required) {
@@ -67,6 +75,13 @@ public int getUses() {
         return uses;
     }
 
+    /**
+     * Returns the average time in milliseconds this daemon took to execute a work item, which drops as the JIT compiler of the daemon warms up.
+     */
+    public long getAverageExecutionTime() {
+        return uses == 0 ? 0 : totalExecutionTime / uses;
+    }
+
     public KeepAliveMode getKeepAliveMode() {
         return forkOptions.getKeepAliveMode();
     }
@@ -96,6 +111,7 @@ public String toString() {
         return "WorkerDaemonClient{" +
             " log level=" + logLevel +
             ", use count=" + uses +
+            ", average execution time=" + getAverageExecutionTime() + "ms" +
             ", has failed=" + failed +
             ", can be expired=" + !cannotBeExpired +
             ", workerProcess=" + workerProcess +
@@ -16,6 +16,7 @@
 
 package org.gradle.workers.internal;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import org.gradle.api.Action;
 import org.gradle.api.Transformer;
@@ -45,6 +46,16 @@
 public class WorkerDaemonClientsManager implements Stoppable {
 
     private static final Logger LOGGER = Logging.getLogger(WorkerDaemonClientsManager.class);
+    /**
+     * Compiler daemons are kept alive across builds, and the number of idle daemons kept alive between builds is limited to
+     * {@link #MAX_IDLE_DAEMONS_PROPERTY_KEY}, unless this property is set to {@code false}.
+     */
+    public static final String KEEP_COMPILER_DAEMONS_ALIVE_PROPERTY_KEY = "org.gradle.internal.java.compile.daemon.keep-alive";
+    public static final String MAX_IDLE_DAEMONS_PROPERTY_KEY = "org.gradle.workers.internal.max-idle-daemons";
+    public static final boolean KEEP_COMPILER_DAEMONS_ALIVE = !"false".equals(System.getProperty(KEEP_COMPILER_DAEMONS_ALIVE_PROPERTY_KEY));
+    private static final int MAX_IDLE_DAEMONS = KEEP_COMPILER_DAEMONS_ALIVE
+        ? Integer.getInteger(MAX_IDLE_DAEMONS_PROPERTY_KEY, Runtime.getRuntime().availableProcessors())
+        : Integer.MAX_VALUE;
 
     private final Object lock = new Object();
     private final List<WorkerDaemonClient> allClients = new ArrayList<WorkerDaemonClient>();
@@ -59,10 +70,17 @@ public class WorkerDaemonClientsManager implements Stoppable {
     private final OutputEventListener logLevelChangeEventListener;
     private final WorkerDaemonExpiration workerDaemonExpiration;
     private final MemoryManager memoryManager;
+    private final int maxIdleDaemons;
     private volatile LogLevel currentLogLevel;
 
     public WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo) {
+        this(workerDaemonStarter, listenerManager, loggingManager, memoryManager, memoryInfo, MAX_IDLE_DAEMONS);
+    }
+
+    @VisibleForTesting
+    WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo, int maxIdleDaemons) {
         this.workerDaemonStarter = workerDaemonStarter;
+        this.maxIdleDaemons = maxIdleDaemons;
         this.listenerManager = listenerManager;
         this.loggingManager = loggingManager;
         this.memoryInfo = memoryInfo;
@@ -81,23 +99,30 @@ public WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions) {
         return reserveIdleClient(forkOptions, idleClients);
     }
 
+    /**
+     * Reserves the compatible idle client which has been used the most, since its JIT compiler is the most warmed up.
+     */
     WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerDaemonClient> clients) {
         synchronized (lock) {
+            WorkerDaemonClient mostUsed = null;
             Iterator<WorkerDaemonClient> it = clients.iterator();
             while (it.hasNext()) {
                 WorkerDaemonClient candidate = it.next();
                 if (candidate.isCompatibleWith(forkOptions)) {
-                    it.remove();
                     if (candidate.getLogLevel() != currentLogLevel) {
+                        it.remove();
                         // TODO: Send a message to workers to change their log level rather than stopping
                         LOGGER.info("Log level has changed, stopping idle worker daemon with out-of-date log level.");
                         candidate.stop();
-                    } else {
-                        return candidate;
+                    } else if (mostUsed == null || candidate.getUses() > mostUsed.getUses()) {
+                        mostUsed = candidate;
                     }
                 }
             }
-            return null;
+            if (mostUsed != null) {
+                clients.remove(mostUsed);
+            }
+            return mostUsed;
         }
     }
 
@@ -160,6 +185,7 @@ private void stopWorkers(List<WorkerDaemonClient> clientsToStop) {
             LOGGER.debug("Stopping {} worker daemon(s).", clientCount);
             List<Exception> failures = Lists.newArrayList();
             for (WorkerDaemonClient client : clientsToStop) {
+                LOGGER.info("Stopping worker daemon which executed {} work item(s) in {}ms on average.", client.getUses(), client.getAverageExecutionTime());
                 try {
                     client.stop();
                 } catch (Exception e) {
@@ -189,6 +215,18 @@ public void beforeComplete() {
             synchronized (lock) {
                 List<WorkerDaemonClient> sessionScopedClients = CollectionUtils.filter(allClients, client -> client.getKeepAliveMode() == KeepAliveMode.SESSION);
                 stopWorkers(sessionScopedClients);
+                stopLeastUsedIdleClients();
+            }
+        }
+
+        /**
+         * Limits the number of idle daemons kept alive for the next build, keeping those which have been used the most.
+         */
+        private void stopLeastUsedIdleClients() {
+            int excess = idleClients.size() - maxIdleDaemons;
+            if (excess > 0) {
+                List<WorkerDaemonClient> sortedClients = CollectionUtils.sort(idleClients, comparingInt(WorkerDaemonClient::getUses));
+                stopWorkers(new ArrayList<>(sortedClients.subList(0, excess)));
             }
         }
     }
@@ -42,7 +42,7 @@ public BuildOperationAwareWorker getWorker(WorkerRequirement workerRequirement)
             public DefaultWorkResult execute(IsolatedParametersActionExecutionSpec<?> spec, BuildOperationRef parentBuildOperation) {
                 final WorkerDaemonClient client = reserveClient();
                 try {
-                    return executeWrappedInBuildOperation(spec, parentBuildOperation, client::execute);
+                    return executeWrappedInBuildOperation(spec, parentBuildOperation, client::execute, () -> new DaemonResult(client.getUses(), client.getAverageExecutionTime()));
                 } finally {
                     clientsManager.release(client);
                 }
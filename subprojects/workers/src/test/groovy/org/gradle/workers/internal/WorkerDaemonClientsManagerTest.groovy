@@ -66,6 +66,17 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         input == [noMatch] //match removed from input
     }
 
+    def "reserves the most used idle client when several match"() {
+        def lessUsed = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> true; getUses() >> 2 }
+        def mostUsed = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> true; getUses() >> 10 }
+        def noMatch = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> false; getUses() >> 20 }
+        def input = [lessUsed, mostUsed, noMatch]
+
+        expect:
+        manager.reserveIdleClient(options, input) == mostUsed
+        input == [lessUsed, noMatch]
+    }
+
     def "reserves new client"() {
         def newClient = Stub(WorkerDaemonClient)
         starter.startDaemon(options, _) >> newClient
@@ -185,6 +196,52 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         0 * client2.stop()
     }
 
+    def "stops the least used idle clients beyond the limit at the end of the session"() {
+        listenerManager = new DefaultListenerManager(Scopes.BuildSession)
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo(), 2)
+        def clients = (0..2).collect { uses ->
+            Mock(WorkerDaemonClient) {
+                _ * getUses() >> uses + 1
+                _ * getKeepAliveMode() >> KeepAliveMode.DAEMON
+            }
+        }
+        starter.startDaemon(options, _) >>> clients
+
+        when:
+        clients.size().times { manager.reserveNewClient(options) }
+        clients.each { manager.release(it) }
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+
+        then:
+        1 * clients[0].stop()
+        interaction {
+            clients.drop(1).each { 0 * it.stop() }
+        }
+    }
+
+    def "limits idle clients to the number of processors at the end of the session by default"() {
+        listenerManager = new DefaultListenerManager(Scopes.BuildSession)
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        def clients = (0..Runtime.runtime.availableProcessors()).collect { uses ->
+            Mock(WorkerDaemonClient) {
+                _ * getUses() >> uses + 1
+                _ * getKeepAliveMode() >> KeepAliveMode.DAEMON
+            }
+        }
+        starter.startDaemon(options, _) >>> clients
+
+        when:
+        clients.size().times { manager.reserveNewClient(options) }
+        clients.each { manager.release(it) }
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+
+        then:
+        1 * clients[0].stop()
+        interaction {
+            clients.drop(1).each { 0 * it.stop() }
+        }
+    }
+
     def "clients can be released for further use"() {
         def client = Mock(WorkerDaemonClient) {
             isCompatibleWith(_) >> true
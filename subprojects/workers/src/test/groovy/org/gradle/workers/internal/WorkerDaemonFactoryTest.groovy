@@ -81,6 +81,23 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * clientsManager.release(client)
     }
 
+    def "build operation result reports the uses and average execution time of the daemon"() {
+        def context = Mock(BuildOperationContext)
+
+        when:
+        factory.getWorker(requirement).execute(spec)
+
+        then:
+        1 * clientsManager.reserveIdleClient(options) >> client
+        1 * buildOperationExecutor.call(_) >> { args -> args[0].call(context) }
+        1 * client.execute(spec) >> new DefaultWorkResult(true, null)
+        _ * client.getUses() >> 12
+        _ * client.getAverageExecutionTime() >> 340L
+        1 * context.setResult({ ExecuteWorkItemBuildOperationType.DaemonResult result ->
+            result.daemonUses == 12 && result.daemonAverageExecutionTime == 340L
+        })
+    }
+
     def "client is released even if execution fails"() {
         when:
         factory.getWorker(requirement).execute(spec)